@@ -0,0 +1,52 @@
+package org.reactome.server.graph.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.reactome.server.graph.service.AdvancedDatabaseObjectService;
+import org.reactome.server.graph.service.DatabaseObjectService;
+import org.reactome.server.graph.service.DetailsService;
+import org.reactome.server.graph.service.HierarchyService;
+import org.reactome.server.graph.utils.ReactomeGraphCore;
+
+/**
+ * Starts the fixture and initialises graph-core against it once per trial (fork)
+ */
+@State(Scope.Benchmark)
+public class GraphCoreState {
+
+    // Identifiers defined in fixture.cypher
+    public static final String TOP_LEVEL_PATHWAY = "R-HSA-3000001";
+    public static final String PATHWAY = "R-HSA-3100011";
+    public static final String REACTION = "R-HSA-4000000";
+    public static final String EWAS = "R-HSA-2000001";
+
+    /**
+     * Runs the benchmarks without the release scoped cache by default, use -p caching=true,false to compare both
+     */
+    @Param({"false"})
+    public boolean caching;
+
+    Neo4jFixture fixture;
+
+    DatabaseObjectService databaseObjectService;
+    AdvancedDatabaseObjectService advancedDatabaseObjectService;
+    HierarchyService hierarchyService;
+    DetailsService detailsService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixture = new Neo4jFixture();
+        ReactomeGraphCore.initialise(fixture.getBoltUri(), "neo4j", "neo4j", fixture.getDatabaseName());
+        ReactomeGraphCore.setLazyLoading(false);
+        ReactomeGraphCore.setCaching(caching);
+
+        databaseObjectService = ReactomeGraphCore.getService(DatabaseObjectService.class);
+        advancedDatabaseObjectService = ReactomeGraphCore.getService(AdvancedDatabaseObjectService.class);
+        hierarchyService = ReactomeGraphCore.getService(HierarchyService.class);
+        detailsService = ReactomeGraphCore.getService(DetailsService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixture.close();
+    }
+}
@@ -0,0 +1,53 @@
+package org.reactome.server.graph.benchmark;
+
+import org.neo4j.harness.Neo4j;
+import org.neo4j.harness.Neo4jBuilder;
+import org.neo4j.harness.Neo4jBuilders;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Starts an in-process Neo4j loaded with the Reactome-shaped fixture in fixture.cypher
+ */
+public class Neo4jFixture implements AutoCloseable {
+
+    private static final String FIXTURE = "/fixture.cypher";
+
+    private final Neo4j neo4j;
+
+    public Neo4jFixture() {
+        Neo4jBuilder builder = Neo4jBuilders.newInProcessBuilder().withDisabledServer();
+        for (String statement : getStatements()) {
+            builder = builder.withFixture(statement);
+        }
+        this.neo4j = builder.build();
+    }
+
+    public String getBoltUri() {
+        return neo4j.boltURI().toString();
+    }
+
+    public String getDatabaseName() {
+        return neo4j.defaultDatabaseService().databaseName();
+    }
+
+    @Override
+    public void close() {
+        neo4j.close();
+    }
+
+    private static String[] getStatements() {
+        try (InputStream is = Neo4jFixture.class.getResourceAsStream(FIXTURE)) {
+            if (is == null) throw new IllegalStateException(FIXTURE + " cannot be found");
+            StringBuilder sb = new StringBuilder();
+            for (String line : new String(is.readAllBytes(), StandardCharsets.UTF_8).split("\n")) {
+                if (!line.trim().startsWith("//")) sb.append(line).append("\n");
+            }
+            return sb.toString().trim().split(";\\s*\n");
+        } catch (IOException e) {
+            throw new IllegalStateException("Error reading " + FIXTURE, e);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package org.reactome.server.graph.benchmark;
+
+import java.util.List;
+
+/**
+ * Custom query result used to benchmark the mapping of custom query results
+ */
+@SuppressWarnings("unused")
+public class ReactionSummary {
+
+    private Long dbId;
+    private String stId;
+    private String displayName;
+    private Boolean isInferred;
+    private List<String> inputs;
+    private List<Long> outputs;
+
+    public Long getDbId() {
+        return dbId;
+    }
+
+    public String getStId() {
+        return stId;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public Boolean getInferred() {
+        return isInferred;
+    }
+
+    public List<String> getInputs() {
+        return inputs;
+    }
+
+    public List<Long> getOutputs() {
+        return outputs;
+    }
+}
@@ -0,0 +1,69 @@
+package org.reactome.server.graph.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.reactome.server.graph.domain.model.*;
+import org.reactome.server.graph.exception.CustomQueryException;
+import org.reactome.server.graph.utils.ReactomeGraphCore;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hot service calls of graph-core. Every benchmark is measured as throughput and as sampled time (which
+ * reports the latency percentiles). The allocation rate is reported by the gc profiler (see BenchmarkRunner).
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ServiceBenchmark {
+
+    //language=Cypher
+    private static final String CUSTOM_QUERY = "" +
+            "MATCH (r:Reaction)-[:input]->(i:PhysicalEntity) " +
+            "WITH r, collect(i.displayName) AS inputs " +
+            "MATCH (r)-[:output]->(o:PhysicalEntity) " +
+            "RETURN r.dbId AS dbId, r.stId AS stId, r.displayName AS displayName, r.isInferred AS isInferred, inputs, collect(o.dbId) AS outputs " +
+            "ORDER BY dbId LIMIT 200";
+
+    @Benchmark
+    public Object findById(GraphCoreState state) {
+        return state.databaseObjectService.findById(GraphCoreState.REACTION);
+    }
+
+    @Benchmark
+    public Object getLocationsInPathwayBrowser(GraphCoreState state) {
+        return state.hierarchyService.getLocationsInPathwayBrowser(GraphCoreState.EWAS, false, true);
+    }
+
+    @Benchmark
+    public Object getContentDetails(GraphCoreState state) {
+        return state.detailsService.getContentDetails(GraphCoreState.PATHWAY, false);
+    }
+
+    @Benchmark
+    public Object customQueryMapping(GraphCoreState state) throws CustomQueryException {
+        return state.advancedDatabaseObjectService.getCustomQueryResults(ReactionSummary.class, CUSTOM_QUERY);
+    }
+
+    /**
+     * Walks TopLevelPathway -> Pathway -> Reaction -> input -> ReferenceEntity loading every step lazily
+     */
+    @Benchmark
+    public void lazyLoadingTraversal(GraphCoreState state, Blackhole bh) {
+        ReactomeGraphCore.setLazyLoading(true);
+        try {
+            Pathway tlp = state.databaseObjectService.findById(GraphCoreState.TOP_LEVEL_PATHWAY);
+            for (Event event : tlp.getHasEvent()) {
+                for (Event reaction : ((Pathway) event).getHasEvent()) {
+                    for (PhysicalEntity input : ((ReactionLikeEvent) reaction).getInput()) {
+                        bh.consume(((EntityWithAccessionedSequence) input).getReferenceEntity());
+                    }
+                }
+            }
+        } finally {
+            ReactomeGraphCore.setLazyLoading(false);
+        }
+    }
+}
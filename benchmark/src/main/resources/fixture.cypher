@@ -0,0 +1,67 @@
+// Reactome-shaped fixture used by the benchmarks. It is deterministic, so results are comparable between runs.
+//  - 1 species and 1 compartment
+//  - 2000 ReferenceGeneProducts, each one referred by an EntityWithAccessionedSequence
+//  - 500 Complexes of 4 EWAS each
+//  - 20 TopLevelPathways, each with 5 sub-pathways of 10 Reactions (1000 Reactions)
+//  - every Reaction has 2 EWAS as input, 1 Complex as output and a summation
+// Statements are separated by a semicolon at the end of a line
+
+CREATE (:DBInfo {name: 'reactome', version: 1, checksum: 0});
+
+CREATE (:DatabaseObject:Taxon:Species {dbId: 48887, displayName: 'Homo sapiens', name: ['Homo sapiens'], taxId: '9606', abbreviation: 'HSA', schemaClass: 'Species'});
+
+CREATE (:DatabaseObject:GO_Term:GO_CellularComponent:Compartment {dbId: 70101, displayName: 'cytosol', name: ['cytosol'], accession: '0005829', databaseName: 'GO', url: 'https://www.ebi.ac.uk/QuickGO/term/GO:0005829', schemaClass: 'Compartment'});
+
+CREATE INDEX dbId_index IF NOT EXISTS FOR (n:DatabaseObject) ON (n.dbId);
+
+CREATE INDEX stId_index IF NOT EXISTS FOR (n:DatabaseObject) ON (n.stId);
+
+UNWIND range(1, 2000) AS i
+CREATE (:DatabaseObject:ReferenceEntity:ReferenceSequence:ReferenceGeneProduct {dbId: 1000000 + i, displayName: 'UniProt:P' + i + ' GENE' + i, identifier: 'P' + i, databaseName: 'UniProt', name: ['GENE' + i], geneName: ['GENE' + i], url: 'http://purl.uniprot.org/uniprot/P' + i, schemaClass: 'ReferenceGeneProduct'});
+
+MATCH (s:Species{taxId: '9606'}), (c:Compartment{dbId: 70101})
+UNWIND range(1, 2000) AS i
+MATCH (r:ReferenceGeneProduct{dbId: 1000000 + i})
+CREATE (e:DatabaseObject:PhysicalEntity:GenomeEncodedEntity:EntityWithAccessionedSequence {dbId: 2000000 + i, stId: 'R-HSA-' + (2000000 + i), stIdVersion: 'R-HSA-' + (2000000 + i) + '.1', displayName: 'GENE' + i + ' [cytosol]', name: ['GENE' + i], speciesName: 'Homo sapiens', isInDisease: false, startCoordinate: 1, endCoordinate: -1, schemaClass: 'EntityWithAccessionedSequence'})
+CREATE (e)-[:referenceEntity {stoichiometry: 1, order: 0}]->(r)
+CREATE (e)-[:species {stoichiometry: 1, order: 0}]->(s)
+CREATE (e)-[:compartment {stoichiometry: 1, order: 0}]->(c);
+
+MATCH (s:Species{taxId: '9606'}), (c:Compartment{dbId: 70101})
+UNWIND range(1, 500) AS i
+CREATE (x:DatabaseObject:PhysicalEntity:Complex {dbId: 2500000 + i, stId: 'R-HSA-' + (2500000 + i), stIdVersion: 'R-HSA-' + (2500000 + i) + '.1', displayName: 'COMPLEX' + i + ' [cytosol]', name: ['COMPLEX' + i], speciesName: 'Homo sapiens', isInDisease: false, isChimeric: false, schemaClass: 'Complex'})
+CREATE (x)-[:species {stoichiometry: 1, order: 0}]->(s)
+CREATE (x)-[:compartment {stoichiometry: 1, order: 0}]->(c)
+WITH x, i
+UNWIND range(0, 3) AS j
+MATCH (e:EntityWithAccessionedSequence{dbId: 2000000 + (i - 1) * 4 + j + 1})
+CREATE (x)-[:hasComponent {stoichiometry: 1, order: j}]->(e);
+
+MATCH (s:Species{taxId: '9606'})
+UNWIND range(1, 20) AS t
+CREATE (p:DatabaseObject:Event:Pathway:TopLevelPathway {dbId: 3000000 + t, stId: 'R-HSA-' + (3000000 + t), stIdVersion: 'R-HSA-' + (3000000 + t) + '.1', displayName: 'Top level pathway ' + t, name: ['Top level pathway ' + t], speciesName: 'Homo sapiens', hasDiagram: true, hasEHLD: false, diagramWidth: 1000, diagramHeight: 800, isInferred: false, isInDisease: false, releaseDate: '2022-01-01', releaseStatus: 'UPDATED', schemaClass: 'TopLevelPathway'})
+CREATE (p)-[:species {stoichiometry: 1, order: 0}]->(s);
+
+MATCH (s:Species{taxId: '9606'})
+UNWIND range(1, 20) AS t
+UNWIND range(1, 5) AS j
+MATCH (tlp:TopLevelPathway{dbId: 3000000 + t})
+CREATE (p:DatabaseObject:Event:Pathway {dbId: 3100000 + t * 10 + j, stId: 'R-HSA-' + (3100000 + t * 10 + j), stIdVersion: 'R-HSA-' + (3100000 + t * 10 + j) + '.1', displayName: 'Pathway ' + t + '.' + j, name: ['Pathway ' + t + '.' + j], speciesName: 'Homo sapiens', hasDiagram: false, hasEHLD: false, isInferred: false, isInDisease: false, releaseDate: '2022-01-01', releaseStatus: 'UPDATED', schemaClass: 'Pathway'})
+CREATE (p)-[:species {stoichiometry: 1, order: 0}]->(s)
+CREATE (tlp)-[:hasEvent {stoichiometry: 1, order: j - 1}]->(p);
+
+MATCH (s:Species{taxId: '9606'}), (c:Compartment{dbId: 70101})
+UNWIND range(0, 999) AS k
+MATCH (p:Pathway{dbId: 3100000 + (k / 50 + 1) * 10 + (k % 50) / 10 + 1})
+MATCH (i1:EntityWithAccessionedSequence{dbId: 2000000 + (k * 2) % 2000 + 1})
+MATCH (i2:EntityWithAccessionedSequence{dbId: 2000000 + (k * 2 + 1) % 2000 + 1})
+MATCH (o:Complex{dbId: 2500000 + k % 500 + 1})
+CREATE (r:DatabaseObject:Event:ReactionLikeEvent:Reaction {dbId: 4000000 + k, stId: 'R-HSA-' + (4000000 + k), stIdVersion: 'R-HSA-' + (4000000 + k) + '.1', displayName: 'Reaction ' + k, name: ['Reaction ' + k], speciesName: 'Homo sapiens', category: 'binding', isChimeric: false, isInferred: false, isInDisease: false, releaseDate: '2022-01-01', releaseStatus: 'UPDATED', schemaClass: 'Reaction'})
+CREATE (sm:DatabaseObject:Summation {dbId: 5000000 + k, displayName: 'Summation of reaction ' + k, text: 'Reaction ' + k + ' binds its inputs into a complex', schemaClass: 'Summation'})
+CREATE (r)-[:species {stoichiometry: 1, order: 0}]->(s)
+CREATE (r)-[:compartment {stoichiometry: 1, order: 0}]->(c)
+CREATE (r)-[:summation {stoichiometry: 1, order: 0}]->(sm)
+CREATE (r)-[:input {stoichiometry: 1, order: 0}]->(i1)
+CREATE (r)-[:input {stoichiometry: 1, order: 1}]->(i2)
+CREATE (r)-[:output {stoichiometry: 1, order: 0}]->(o)
+CREATE (p)-[:hasEvent {stoichiometry: 1, order: k % 10}]->(r);
@@ -2,6 +2,8 @@ package org.reactome.server.graph;
 
 import org.aspectj.lang.Aspects;
 import org.reactome.server.graph.aop.LazyFetchAspect;
+import org.reactome.server.graph.aop.MetricsAspect;
+import org.reactome.server.graph.aop.ReleaseCacheAspect;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
@@ -26,4 +28,12 @@ public class Main {
     @Bean LazyFetchAspect lazyFetchAspect() {
         return Aspects.aspectOf(LazyFetchAspect.class);
     }
+
+    @Bean ReleaseCacheAspect releaseCacheAspect() {
+        return Aspects.aspectOf(ReleaseCacheAspect.class);
+    }
+
+    @Bean MetricsAspect metricsAspect() {
+        return Aspects.aspectOf(MetricsAspect.class);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,126 @@
+package org.reactome.server.graph.aop;
+
+import org.reactome.server.graph.domain.model.DatabaseObject;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Batch lazy loading state kept by the {@link LazyFetchAspect} for the objects it has seen: the group of siblings
+ * each object belongs to and the relationships already batch loaded for it.
+ *
+ * Objects are compared by identity (two instances of the same dbId are loaded independently) and referenced weakly,
+ * so the registry does not keep them reachable. The groups only reference their members weakly as well, so holding
+ * one object does not keep the rest of the result set it was loaded with.
+ */
+class BatchLoadingRegistry {
+
+    private final Map<Key, State> states = new ConcurrentHashMap<>();
+    private final ReferenceQueue<DatabaseObject> queue = new ReferenceQueue<>();
+
+    /**
+     * @return the members of the group of the given object that are still reachable, or null when it has no group
+     */
+    List<DatabaseObject> getSiblings(DatabaseObject object) {
+        State state = get(object);
+        List<WeakReference<DatabaseObject>> group = state != null ? state.group : null;
+        if (group == null) return null;
+        List<DatabaseObject> rtn = new ArrayList<>(group.size());
+        for (WeakReference<DatabaseObject> member : group) {
+            DatabaseObject sibling = member.get();
+            if (sibling != null) rtn.add(sibling);
+        }
+        return rtn;
+    }
+
+    boolean hasSiblings(DatabaseObject object) {
+        State state = get(object);
+        return state != null && state.group != null;
+    }
+
+    /**
+     * Sets the given objects as the group of siblings of each other
+     *
+     * @param overwrite when false, objects that already belong to a group are kept in that group
+     */
+    void setSiblings(Collection<DatabaseObject> siblings, boolean overwrite) {
+        List<WeakReference<DatabaseObject>> group = new ArrayList<>(siblings.size());
+        for (DatabaseObject sibling : siblings) group.add(new WeakReference<>(sibling));
+        group = Collections.unmodifiableList(group);
+        for (DatabaseObject sibling : siblings) {
+            State state = getOrCreate(sibling);
+            if (overwrite || state.group == null) state.group = group;
+        }
+    }
+
+    /**
+     * Removes the given object from its group of siblings, once the group has been used for a batch
+     */
+    void dropSiblings(DatabaseObject object) {
+        State state = get(object);
+        if (state != null) state.group = null;
+    }
+
+    boolean isLoaded(DatabaseObject object, String relationship) {
+        State state = get(object);
+        return state != null && state.loaded.contains(relationship);
+    }
+
+    void setLoaded(DatabaseObject object, String relationship) {
+        getOrCreate(object).loaded.add(relationship);
+    }
+
+    void clear() {
+        states.clear();
+    }
+
+    private State get(DatabaseObject object) {
+        expunge();
+        return states.get(new Key(object, null));
+    }
+
+    private State getOrCreate(DatabaseObject object) {
+        expunge();
+        return states.computeIfAbsent(new Key(object, queue), k -> new State());
+    }
+
+    private void expunge() {
+        for (Reference<? extends DatabaseObject> ref; (ref = queue.poll()) != null; ) {
+            states.remove(ref);
+        }
+    }
+
+    private static class State {
+        private volatile List<WeakReference<DatabaseObject>> group;
+        private final Set<String> loaded = ConcurrentHashMap.newKeySet();
+    }
+
+    /**
+     * Weak reference to an object compared by identity. A key whose object has been collected is only equal to itself
+     */
+    private static class Key extends WeakReference<DatabaseObject> {
+
+        private final int hash;
+
+        Key(DatabaseObject object, ReferenceQueue<DatabaseObject> queue) {
+            super(object, queue);
+            this.hash = System.identityHashCode(object);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Object object = get();
+            return object != null && object == ((Key) o).get();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
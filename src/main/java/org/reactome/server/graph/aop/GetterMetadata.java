@@ -0,0 +1,112 @@
+package org.reactome.server.graph.aop;
+
+import org.reactome.server.graph.service.helper.RelationshipDirection;
+import org.springframework.data.neo4j.core.schema.Relationship;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Field;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Precomputed information of a model getter intercepted by the aspects. It is created once per (class, getter)
+ * by the {@link GetterMetadataRegistry} so no reflection is needed when the getter is invoked.
+ */
+@SuppressWarnings("unused")
+public final class GetterMetadata {
+
+    public enum CollectionKind {
+        LIST, SET, NONE
+    }
+
+    private final String getterName;
+    private final Class<?> returnType;
+    private final Class<?> elementClass;
+    private final CollectionKind collectionKind;
+    private final Field field;
+    private final Relationship relationship;
+    private final MethodHandle fieldGetter;
+    private final MethodHandle setter;
+
+    GetterMetadata(String getterName, Class<?> returnType, Class<?> elementClass, Field field, MethodHandle fieldGetter, MethodHandle setter) {
+        this.getterName = getterName;
+        this.returnType = returnType;
+        this.elementClass = elementClass;
+        this.field = field;
+        this.relationship = field != null ? field.getAnnotation(Relationship.class) : null;
+        this.fieldGetter = fieldGetter;
+        this.setter = setter;
+        if (List.class.isAssignableFrom(returnType)) {
+            this.collectionKind = CollectionKind.LIST;
+        } else if (Set.class.isAssignableFrom(returnType)) {
+            this.collectionKind = CollectionKind.SET;
+        } else {
+            this.collectionKind = CollectionKind.NONE;
+        }
+    }
+
+    public String getGetterName() {
+        return getterName;
+    }
+
+    public Class<?> getReturnType() {
+        return returnType;
+    }
+
+    /**
+     * @return the class of the elements for collections, otherwise the returned class
+     */
+    public Class<?> getElementClass() {
+        return elementClass;
+    }
+
+    public boolean isCollection() {
+        return Collection.class.isAssignableFrom(returnType);
+    }
+
+    public CollectionKind getCollectionKind() {
+        return collectionKind;
+    }
+
+    /**
+     * @return the attribute annotated with Relationship (null if the getter is not backed by a relationship)
+     */
+    public Field getField() {
+        return field;
+    }
+
+    public Relationship getRelationship() {
+        return relationship;
+    }
+
+    public boolean hasRelationship() {
+        return relationship != null;
+    }
+
+    public String getRelationshipType() {
+        return relationship != null ? relationship.type() : null;
+    }
+
+    public RelationshipDirection getDirection() {
+        return relationship != null ? RelationshipDirection.valueOf(relationship.direction().name()) : null;
+    }
+
+    public boolean hasSetter() {
+        return setter != null;
+    }
+
+    /**
+     * Reads the value of the attribute straight from the field, so the aspects are not triggered again
+     */
+    public Object getValue(Object target) throws Throwable {
+        return fieldGetter.invokeExact(target);
+    }
+
+    /**
+     * Invokes the setter of the attribute. The handle has been adapted to (Object, Object)void to be invoked exactly.
+     */
+    public void setValue(Object target, Object value) throws Throwable {
+        setter.invokeExact(target, value);
+    }
+}
@@ -0,0 +1,119 @@
+package org.reactome.server.graph.aop;
+
+import org.reactome.server.graph.domain.model.DatabaseObject;
+import org.reflections.Reflections;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.neo4j.core.schema.Relationship;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of the {@link GetterMetadata} for every getter in the domain model returning a DatabaseObject or a
+ * Collection of them. The model classes are scanned once when the registry is first used, replacing the field look
+ * up, setter name building and reflective invocation previously done by the aspects every time a getter was called.
+ */
+public final class GetterMetadataRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(GetterMetadataRegistry.class);
+
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static final Map<Class<?>, Map<String, GetterMetadata>> registry = new ConcurrentHashMap<>();
+
+    static {
+        Reflections reflections = new Reflections(DatabaseObject.class.getPackage().getName());
+        for (Class<? extends DatabaseObject> clazz : reflections.getSubTypesOf(DatabaseObject.class)) {
+            registry.put(clazz, scan(clazz));
+        }
+        registry.put(DatabaseObject.class, scan(DatabaseObject.class));
+    }
+
+    private GetterMetadataRegistry() {
+    }
+
+    /**
+     * @return the metadata of the given getter or null if it does not return a DatabaseObject or a Collection
+     */
+    public static GetterMetadata get(Class<?> clazz, String getterName) {
+        Map<String, GetterMetadata> getters = registry.get(clazz);
+        // Classes outside the model package (e.g. subclasses defined by users of the library) are scanned on demand
+        if (getters == null) getters = registry.computeIfAbsent(clazz, GetterMetadataRegistry::scan);
+        return getters.get(getterName);
+    }
+
+    private static Map<String, GetterMetadata> scan(Class<?> clazz) {
+        Map<String, GetterMetadata> getters = new HashMap<>();
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        for (Method method : clazz.getMethods()) {
+            String name = method.getName();
+            if (!name.startsWith("get") || name.length() < 4 || method.getParameterCount() > 0) continue;
+            if (Modifier.isStatic(method.getModifiers())) continue;
+
+            Class<?> returnType = method.getReturnType();
+            Class<?> elementClass;
+            if (Collection.class.isAssignableFrom(returnType)) {
+                Type genericType = method.getGenericReturnType();
+                if (!(genericType instanceof ParameterizedType)) continue;
+                Type argument = ((ParameterizedType) genericType).getActualTypeArguments()[0];
+                if (!(argument instanceof Class) || !DatabaseObject.class.isAssignableFrom((Class<?>) argument)) continue;
+                elementClass = (Class<?>) argument;
+            } else if (DatabaseObject.class.isAssignableFrom(returnType)) {
+                elementClass = returnType;
+            } else {
+                continue;
+            }
+
+            try {
+                Field field = getRelationshipField(name, clazz);
+                MethodHandle fieldGetter = null;
+                if (field != null) {
+                    field.setAccessible(true);
+                    fieldGetter = lookup.unreflectGetter(field).asType(GETTER_TYPE);
+                }
+
+                // e.g getRegulation, which wraps Positive and Negative Regulation, does not have a setter
+                MethodHandle setter = null;
+                try {
+                    Method setterMethod = clazz.getMethod("set" + name.substring(3), returnType);
+                    setter = lookup.unreflect(setterMethod).asType(SETTER_TYPE);
+                } catch (NoSuchMethodException e) {
+                    // nothing here
+                }
+                getters.put(name, new GetterMetadata(name, returnType, elementClass, field, fieldGetter, setter));
+            } catch (IllegalAccessException e) {
+                logger.error("Could not create the metadata for " + clazz.getSimpleName() + "." + name, e);
+            }
+        }
+        return Collections.unmodifiableMap(getters);
+    }
+
+    /**
+     * Looks for the attribute annotated with Relationship for the given getter in the class and its superclasses.
+     */
+    private static Field getRelationshipField(String methodName, Class<?> clazz) {
+        String attribute = Character.toLowerCase(methodName.charAt(3)) + methodName.substring(4);
+        while (clazz != null && !clazz.equals(Object.class)) {
+            for (Field field : clazz.getDeclaredFields()) {
+                if (field.getAnnotation(Relationship.class) != null && field.getName().equals(attribute)) {
+                    return field;
+                }
+            }
+            clazz = clazz.getSuperclass();
+        }
+        return null;
+    }
+}
@@ -7,14 +7,10 @@ import org.aspectj.lang.annotation.Pointcut;
 import org.aspectj.lang.reflect.MethodSignature;
 import org.reactome.server.graph.domain.model.DatabaseObject;
 import org.reactome.server.graph.service.AdvancedDatabaseObjectService;
-import org.reactome.server.graph.service.helper.RelationshipDirection;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.neo4j.core.schema.Relationship;
 import org.springframework.stereotype.Component;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.Method;
-import java.lang.reflect.ParameterizedType;
 import java.util.*;
 
 /**
@@ -23,7 +19,16 @@ import java.util.*;
 @Aspect
 @Component
 public class LazyFetchAspect  {
+
+    /**
+     * Maximum number of dbIds sent in the same batch lazy loading query
+     */
+    private static final int BATCH_SIZE = 1000;
+
     private Boolean enableAOP = true;
+    private Boolean enableBatchLoading = false;
+
+    private final BatchLoadingRegistry batchLoadingRegistry = new BatchLoadingRegistry();
 
     @SuppressWarnings("SpringJavaAutowiredFieldsWarningInspection")
     @Autowired
@@ -40,10 +45,10 @@ public class LazyFetchAspect  {
 
         // Gathering information of the method we are invoking and it's being intercepted by AOP
         MethodSignature signature = (MethodSignature) pjp.getSignature();
-        Method method = signature.getMethod();
+        GetterMetadata getter = GetterMetadataRegistry.get(databaseObject.getClass(), signature.getName());
 
         // Get the relationship that is annotated in the attribute
-        Relationship relationship = getRelationship(method.getName(), databaseObject.getClass());
+        Relationship relationship = getter != null ? getter.getRelationship() : null;
         boolean preventLazyLoading = databaseObject.preventLazyLoading != null && databaseObject.preventLazyLoading;
         if (relationship != null && !preventLazyLoading) { // && !databaseObject.isLoaded) {
             // pjp.proceed() has the result of the invoked method.
@@ -51,44 +56,49 @@ public class LazyFetchAspect  {
             // SDN6 now make sure all the list are EMPTY. Checking for null results as before won't be possible
             boolean proceed = result == null;
             if (!proceed) {
-                if (Collection.class.isAssignableFrom(result.getClass())) {
+                if (result instanceof Collection) {
                     // can't proceed and have to check if result is a list and list is empty.
                     proceed = ((Collection) result).isEmpty();
+                    // objects already loaded in the collection are siblings for the following lazy loading calls
+                    if (!proceed && enableBatchLoading) registerSiblings((Collection<?>) result, false);
                 }
             }
             if (proceed) {
+                // already batch loaded, so null or empty is the actual value of the relationship
+                if (enableBatchLoading && isBatchLoaded(databaseObject, getter)) return result;
                 Long dbId = databaseObject.getDbId();
-                String setterMethod = method.getName().replaceFirst("get", "set");
-                Class<?> methodReturnClazz = method.getReturnType();
-                if (Collection.class.isAssignableFrom(methodReturnClazz)) {
-                    ParameterizedType stringListType = (ParameterizedType)  method.getGenericReturnType();
-                    Class<?> type = (Class<?>) stringListType.getActualTypeArguments()[0];
-                    String clazz = type.getSimpleName();
-
+                String clazz = getter.getElementClass().getSimpleName();
+                if (getter.isCollection()) {
                     // DatabaseObject.isLoaded only works for OUTGOING relationships
                     //noinspection EqualsBetweenInconvertibleTypes
                     boolean isLoaded = (databaseObject.isLoaded != null && databaseObject.isLoaded) && relationship.equals(Relationship.Direction.OUTGOING);
+                    if (!isLoaded && enableBatchLoading) {
+                        Map<DatabaseObject, Object> batch = batchFetch(databaseObject, getter, clazz);
+                        if (batch != null) return batch.get(databaseObject);
+                    }
                     // querying the graph and fill the collection if it hasn't been fully loaded before
-                    Collection<DatabaseObject> lazyLoadedObjectAsCollection = isLoaded ? null : advancedDatabaseObjectService.findCollectionByRelationship(dbId, clazz, methodReturnClazz, RelationshipDirection.valueOf(relationship.direction().name()), relationship.type());
+                    Collection<DatabaseObject> lazyLoadedObjectAsCollection = isLoaded ? null : advancedDatabaseObjectService.findCollectionByRelationship(dbId, clazz, getter.getReturnType(), getter.getDirection(), getter.getRelationshipType());
                     if (lazyLoadedObjectAsCollection == null) {
                         //If a set or list has been requested and is null, then we set empty collection to avoid requesting again
-                        if (List.class.isAssignableFrom(methodReturnClazz)) lazyLoadedObjectAsCollection = new ArrayList<>();
-                        if (Set.class.isAssignableFrom(methodReturnClazz)) lazyLoadedObjectAsCollection = new HashSet<>();
+                        lazyLoadedObjectAsCollection = emptyCollection(getter);
+                    } else if (enableBatchLoading) {
+                        registerSiblings(lazyLoadedObjectAsCollection, true);
                     }
                     if (lazyLoadedObjectAsCollection != null) {
                         // invoke the setter in order to set the object in the target
-                        databaseObject.getClass().getMethod(setterMethod, methodReturnClazz).invoke(databaseObject, lazyLoadedObjectAsCollection);
+                        if (getter.hasSetter()) getter.setValue(databaseObject, lazyLoadedObjectAsCollection);
                         return lazyLoadedObjectAsCollection;
                     }
-                }
-
-                if (DatabaseObject.class.isAssignableFrom(methodReturnClazz)) {
-                    String clazz = methodReturnClazz.getSimpleName();
+                } else {
+                    if (enableBatchLoading) {
+                        Map<DatabaseObject, Object> batch = batchFetch(databaseObject, getter, clazz);
+                        if (batch != null) return batch.get(databaseObject);
+                    }
                     // querying the graph and fill the single object
-                    DatabaseObject lazyLoadedObject = advancedDatabaseObjectService.findByRelationship(dbId, clazz, RelationshipDirection.valueOf(relationship.direction().name()), relationship.type());
+                    DatabaseObject lazyLoadedObject = advancedDatabaseObjectService.findByRelationship(dbId, clazz, getter.getDirection(), getter.getRelationshipType());
                     if (lazyLoadedObject != null) {
                         // invoke the setter in order to set the object in the target
-                        databaseObject.getClass().getMethod(setterMethod, methodReturnClazz).invoke(databaseObject, lazyLoadedObject);
+                        if (getter.hasSetter()) getter.setValue(databaseObject, lazyLoadedObject);
                         return lazyLoadedObject;
                     }
                 }
@@ -99,44 +109,131 @@ public class LazyFetchAspect  {
     }
 
     /**
-     * AspectJ pointcut for all the getters that return a Collection of DatabaseObject
-     * or instance of DatabaseObject.
+     * DataLoader-like strategy to avoid the N+1 queries problem: when the target has been lazy loaded as part of a
+     * collection, the relationship requested for the target is loaded for all its siblings that have not loaded it
+     * yet in a single query. The result is set in each of them and the objects retrieved become the siblings group
+     * for the next level of lazy loading. Every object of the batch is marked as loaded for the relationship, so
+     * the ones without it (null or empty) are not included in the following batches, and leaves its siblings group.
+     *
+     * @return map of every updated object and its new value, or null when the target has no siblings to batch with
      */
-    @SuppressWarnings("SingleElementAnnotation")
-    @Pointcut("execution(public java.util.Collection<org.reactome.server.graph.domain.model.DatabaseObject+>+ org.reactome.server.graph.domain.model.*.get*(..))" +
-            "|| execution(public org.reactome.server.graph.domain.model.DatabaseObject+ org.reactome.server.graph.domain.model.*.get*(..))")
-    public void modelGetter() {
+    @SuppressWarnings("unchecked")
+    private Map<DatabaseObject, Object> batchFetch(DatabaseObject target, GetterMetadata getter, String clazz) throws Throwable {
+        List<DatabaseObject> siblings = batchLoadingRegistry.getSiblings(target);
+        if (siblings == null || siblings.size() < 2) return null;
+
+        List<DatabaseObject> pending = new ArrayList<>();
+        pending.add(target);
+        for (DatabaseObject sibling : siblings) {
+            if (sibling == null || sibling == target) continue;
+            if (sibling.preventLazyLoading != null && sibling.preventLazyLoading) continue;
+            // Only siblings sharing the same relationship attribute (siblings could be instances of different classes)
+            GetterMetadata siblingGetter = GetterMetadataRegistry.get(sibling.getClass(), getter.getGetterName());
+            if (siblingGetter == null || !getter.getField().equals(siblingGetter.getField())) continue;
+            if (isBatchLoaded(sibling, getter)) continue;
+            Object value = getter.getValue(sibling);
+            if (value == null || (value instanceof Collection && ((Collection<?>) value).isEmpty())) {
+                pending.add(sibling);
+            }
+        }
+        if (pending.size() < 2) return null;
+
+        Set<Long> dbIds = new LinkedHashSet<>();
+        for (DatabaseObject object : pending) {
+            dbIds.add(object.getDbId());
+        }
+
+        Map<Long, Object> loaded = new HashMap<>();
+        List<Long> ids = new ArrayList<>(dbIds);
+        for (int i = 0; i < ids.size(); i += BATCH_SIZE) {
+            List<Long> chunk = ids.subList(i, Math.min(ids.size(), i + BATCH_SIZE));
+            if (getter.isCollection()) {
+                loaded.putAll(advancedDatabaseObjectService.findCollectionsByRelationship(chunk, clazz, getter.getReturnType(), getter.getDirection(), getter.getRelationshipType()));
+            } else {
+                loaded.putAll(advancedDatabaseObjectService.findByRelationship(chunk, clazz, getter.getDirection(), getter.getRelationshipType()));
+            }
+        }
+
+        Map<DatabaseObject, Object> rtn = new IdentityHashMap<>();
+        List<DatabaseObject> nextSiblings = new ArrayList<>();
+        for (DatabaseObject object : pending) {
+            Object value = loaded.get(object.getDbId());
+            if (getter.isCollection()) {
+                if (value == null) {
+                    //Setting an empty collection to avoid requesting again
+                    value = emptyCollection(getter);
+                } else {
+                    nextSiblings.addAll((Collection<DatabaseObject>) value);
+                }
+            } else if (value != null) {
+                nextSiblings.add((DatabaseObject) value);
+            }
+            if (getter.hasSetter()) {
+                if (value != null) getter.setValue(object, value);
+                // the value is kept in the object, so it does not have to be batch loaded again
+                setBatchLoaded(object, getter);
+            }
+            batchLoadingRegistry.dropSiblings(object);
+            rtn.put(object, value);
+        }
+        registerSiblings(nextSiblings, true);
+        return rtn;
     }
 
     /**
-     * Method used to get the Relationship annotation on top of the
-     * given attribute. This method looks for the annotation in the current class
-     * and keep looking in the superclass.
+     * Sets the given objects as siblings of each other, so that the next lazy loaded relationship on any of them
+     * can be loaded for all of them at once.
      *
-     * @return the Relationship annotation
+     * @param overwrite when false, objects that already belong to a group of siblings are kept in that group
      */
-    private Relationship getRelationship(String methodName, Class<?> _clazz) {
-        methodName = methodName.substring(3); // crop, remove 'get'
-        char[] charArray = methodName.toCharArray();
-        charArray[0] = Character.toLowerCase(charArray[0]); // lower the first char
-        String attribute = new String(charArray);
-
-         // Look up for the given attribute in the class and after superclasses.
-        //noinspection ClassGetClass
-        while (_clazz != null && !_clazz.getClass().equals(Object.class)) {
-            for (Field field : _clazz.getDeclaredFields()) {
-                if (field.getAnnotation(Relationship.class) != null) {
-                    if (field.getName().equals(attribute)) {
-                        return field.getAnnotation(Relationship.class);
-                    }
-                }
-            }
+    private void registerSiblings(Collection<?> objects, boolean overwrite) {
+        if (objects.size() < 2) return;
+        Object first = objects.iterator().next();
+        if (!overwrite && first instanceof DatabaseObject && batchLoadingRegistry.hasSiblings((DatabaseObject) first)) return;
 
-            // Didn't find the field in the given class. Check the Superclass.
-            _clazz = _clazz.getSuperclass();
+        List<DatabaseObject> siblings = new ArrayList<>(objects.size());
+        for (Object object : objects) {
+            if (object instanceof DatabaseObject) siblings.add((DatabaseObject) object);
         }
+        batchLoadingRegistry.setSiblings(siblings, overwrite);
+    }
+
+    /**
+     * @param object       the object to check
+     * @param relationship the name of the relationship attribute
+     * @return true when the relationship has been batch loaded for the given object (even when it has no value)
+     */
+    public boolean isBatchLoaded(DatabaseObject object, String relationship) {
+        return batchLoadingRegistry.isLoaded(object, relationship);
+    }
+
+    private boolean isBatchLoaded(DatabaseObject object, GetterMetadata getter) {
+        return isBatchLoaded(object, getter.getField().getName());
+    }
+
+    private void setBatchLoaded(DatabaseObject object, GetterMetadata getter) {
+        batchLoadingRegistry.setLoaded(object, getter.getField().getName());
+    }
+
+    private Collection<DatabaseObject> emptyCollection(GetterMetadata getter) {
+        switch (getter.getCollectionKind()) {
+            case LIST:
+                return new ArrayList<>();
+            case SET:
+                return new HashSet<>();
+            default:
+                return null;
+        }
+    }
 
-        return null;
+    /**
+     * AspectJ pointcut for all the getters that return a Collection of DatabaseObject
+     * or instance of DatabaseObject.
+     */
+    @SuppressWarnings("SingleElementAnnotation")
+    @Pointcut("execution(public java.util.Collection<org.reactome.server.graph.domain.model.DatabaseObject+>+ org.reactome.server.graph.domain.model.*.get*(..))" +
+            "|| execution(public org.reactome.server.graph.domain.model.DatabaseObject+ org.reactome.server.graph.domain.model.*.get*(..))")
+    public void modelGetter() {
     }
 
     @SuppressWarnings("unused")
@@ -148,4 +245,18 @@ public class LazyFetchAspect  {
         this.enableAOP = enableAOP;
     }
 
+    @SuppressWarnings("unused")
+    public Boolean getEnableBatchLoading() {
+        return enableBatchLoading;
+    }
+
+    /**
+     * When enabled, a relationship lazy loaded for an object that belongs to a collection is also loaded for
+     * the rest of the elements of that collection in the same query.
+     */
+    public void setEnableBatchLoading(boolean enableBatchLoading) {
+        if (!enableBatchLoading) batchLoadingRegistry.clear();
+        this.enableBatchLoading = enableBatchLoading;
+    }
+
 }
\ No newline at end of file
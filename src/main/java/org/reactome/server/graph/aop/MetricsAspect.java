@@ -0,0 +1,50 @@
+package org.reactome.server.graph.aop;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.reactome.server.graph.metrics.ServiceMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Metrics aspect, used for timing all methods in the service level. Execution times, errors and result sizes
+ * are published through {@link ServiceMetrics}. When metrics are disabled the call proceeds straight away.
+ *
+ * Methods returning a reactive Publisher (Mono/Flux) are not measured: they return before the query is run.
+ */
+@Aspect
+@Component
+public class MetricsAspect {
+
+    @SuppressWarnings("SpringJavaAutowiredFieldsWarningInspection")
+    @Autowired(required = false)
+    private ServiceMetrics serviceMetrics;
+
+    /**
+     * Measures all Service Methods
+     * @param joinPoint metricsPointcut
+     * @return Object returned by the method currently measured
+     * @throws Throwable exception when executing service methods
+     */
+    @Around("execution(public !org.reactivestreams.Publisher+ org.reactome.server.graph.service.*.*(..))")
+    public Object monitorExecutionTimes(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (serviceMetrics == null || !serviceMetrics.isEnabled()) return joinPoint.proceed();
+
+        ServiceMetrics.MethodMeters meters = serviceMetrics.getMeters(
+                joinPoint.getStaticPart(),
+                joinPoint.getSignature().getDeclaringType().getSimpleName(),
+                joinPoint.getSignature().getName()
+        );
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable t) {
+            meters.error(System.nanoTime() - start, t);
+            throw t;
+        }
+        meters.success(System.nanoTime() - start, result);
+        return result;
+    }
+}
@@ -0,0 +1,42 @@
+package org.reactome.server.graph.aop;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.reactome.server.graph.cache.ReleaseCacheCopier;
+import org.reactome.server.graph.cache.ReleaseCacheManager;
+import org.reactome.server.graph.cache.ReleaseCached;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.stereotype.Component;
+
+/**
+ * Serves the service methods annotated with {@link ReleaseCached} from the cache of the current release.
+ * The call proceeds normally when caching is disabled or the aspect has not been wired by Spring.
+ *
+ * Cached results are shared by the callers unless the cache is set to copy them (see
+ * {@link ReleaseCached#copy()}), in which case the cache keeps its own copy of each result and every hit
+ * returns a new copy of it.
+ */
+@Aspect
+@Component
+public class ReleaseCacheAspect {
+
+    @SuppressWarnings("SpringJavaAutowiredFieldsWarningInspection")
+    @Autowired(required = false)
+    private ReleaseCacheManager releaseCacheManager;
+
+    @Around("execution(public * org.reactome.server.graph.service..*.*(..)) && @annotation(releaseCached)")
+    public Object cache(ProceedingJoinPoint pjp, ReleaseCached releaseCached) throws Throwable {
+        if (releaseCacheManager == null || !releaseCacheManager.isEnabled()) return pjp.proceed();
+
+        Cache cache = releaseCacheManager.getCache(releaseCached.value());
+        Object key = releaseCacheManager.createKey(pjp.getSignature().toLongString(), pjp.getArgs());
+        boolean copy = releaseCacheManager.isCopied(releaseCached.value(), releaseCached.copy());
+        Cache.ValueWrapper cached = cache.get(key);
+        if (cached != null) return copy ? ReleaseCacheCopier.copy(cached.get()) : cached.get();
+        Object result = pjp.proceed();
+        cache.put(key, copy ? ReleaseCacheCopier.copy(result) : result);
+        return result;
+    }
+}
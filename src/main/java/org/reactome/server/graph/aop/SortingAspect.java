@@ -10,7 +10,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
-import java.lang.reflect.Method;
 import java.util.*;
 
 /**
@@ -33,7 +32,6 @@ public class SortingAspect {
         }
 
         MethodSignature signature = (MethodSignature) pjp.getSignature();
-        Method method = signature.getMethod();
 
         // This is the value that is returned by the intercepted getter
         Object returnedValue = pjp.proceed();
@@ -56,17 +54,8 @@ public class SortingAspect {
                 }
             });
 
-            String setterMethod = method.getName().replaceFirst("get", "set");
-            try {
-                // Check if the setter exists. e.g getRegulation, which wraps Positive and Negative Regulation,
-                // does not have a setter, in this case we are going to return the list but won't set the target object.
-                Method setter = target.getClass().getMethod(setterMethod, method.getReturnType());
-
-                // Set collection in object, then we do not sort every execution.
-                setter.invoke(target, returnedValueAsList);
-            } catch (NoSuchMethodException e) {
-                logger.warn("Could not find method " + setterMethod + " in the class " + target.getClass().getName());
-            }
+            // Set collection in object, then we do not sort every execution.
+            setValue(target, signature.getName(), returnedValueAsList);
 
             // return the sorted list
             return returnedValueAsList;
@@ -86,17 +75,8 @@ public class SortingAspect {
             });
 
             Set<? extends DatabaseObject> returnedValueAsSet = new LinkedHashSet<>(returnedValueAsList);
-            String setterMethod = method.getName().replaceFirst("get", "set");
-            try {
-                // Check if the setter exists. e.g getRegulation, which wraps Positive and Negative Regulation,
-                // does not have a setter, in this case we are going to return the list but won't set the target object.
-                Method setter = target.getClass().getMethod(setterMethod, method.getReturnType());
-
-                // Set collection in object, then we do not sort every execution.
-                setter.invoke(target, returnedValueAsSet);
-            } catch (NoSuchMethodException e) {
-                logger.warn("Could not find method " + setterMethod + " in the class " + target.getClass().getName());
-            }
+            // Set collection in object, then we do not sort every execution.
+            setValue(target, signature.getName(), returnedValueAsSet);
 
             // return the sorted list
             return returnedValueAsSet;
@@ -104,6 +84,17 @@ public class SortingAspect {
         return returnedValue;
     }
 
+    private void setValue(DatabaseObject target, String getterName, Object value) throws Throwable {
+        GetterMetadata getter = GetterMetadataRegistry.get(target.getClass(), getterName);
+        if (getter != null && getter.hasSetter()) {
+            getter.setValue(target, value);
+        } else {
+            // e.g getRegulation, which wraps Positive and Negative Regulation, does not have a setter, in this case
+            // we are going to return the list but won't set the target object.
+            logger.warn("Could not find the setter for " + getterName + " in the class " + target.getClass().getName());
+        }
+    }
+
     /**
      * AspectJ pointcut for all the getters, excluding getters in the DatabaseObject,
      * so then we can freely invoke getDbId, getStId and so on without being cut.
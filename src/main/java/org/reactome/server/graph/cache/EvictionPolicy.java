@@ -0,0 +1,15 @@
+package org.reactome.server.graph.cache;
+
+/**
+ * Strategy used by a {@link ReleaseCache} to pick the entry to drop once it is full.
+ */
+public enum EvictionPolicy {
+    /**
+     * Least recently used entry is evicted first
+     */
+    LRU,
+    /**
+     * Oldest inserted entry is evicted first, regardless of how often it is read
+     */
+    FIFO
+}
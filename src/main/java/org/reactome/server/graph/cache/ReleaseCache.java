@@ -0,0 +1,158 @@
+package org.reactome.server.graph.cache;
+
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded in-memory cache holding the results of one group of service methods for the current release.
+ * Null results are cached as well, so repeated look-ups of unknown identifiers do not reach the database.
+ *
+ * It is the default implementation of Spring's {@link org.springframework.cache.Cache} used by the
+ * {@link ReleaseCacheManager}. Entries are spread over several independently locked segments, so concurrent reads
+ * of different keys do not wait for each other. The eviction policy is applied per segment, which makes it an
+ * approximation of the global LRU or FIFO order.
+ */
+@SuppressWarnings("unused")
+public class ReleaseCache extends AbstractValueAdaptingCache {
+
+    private static final int SEGMENTS = 16;
+
+    private final String name;
+    private final int maxSize;
+    private final EvictionPolicy policy;
+    private final Segment[] segments;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public ReleaseCache(String name, int maxSize, EvictionPolicy policy) {
+        super(true);
+        this.name = name;
+        this.maxSize = maxSize;
+        this.policy = policy;
+        int n = Math.max(1, Math.min(SEGMENTS, maxSize));
+        int segmentSize = maxSize <= 0 ? 0 : (maxSize + n - 1) / n;
+        this.segments = new Segment[n];
+        for (int i = 0; i < n; i++) {
+            segments[i] = new Segment(segmentSize, policy);
+        }
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        Segment segment = segmentFor(key);
+        Object value;
+        synchronized (segment) {
+            value = segment.get(key);
+        }
+        if (value == null) {
+            misses.incrementAndGet();
+        } else {
+            hits.incrementAndGet();
+        }
+        return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper cached = get(key);
+        if (cached != null) return (T) cached.get();
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        put(key, value);
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (maxSize <= 0) return;
+        Segment segment = segmentFor(key);
+        synchronized (segment) {
+            segment.put(key, toStoreValue(value));
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        Segment segment = segmentFor(key);
+        synchronized (segment) {
+            segment.remove(key);
+        }
+    }
+
+    @Override
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return this;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public EvictionPolicy getPolicy() {
+        return policy;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    private Segment segmentFor(Object key) {
+        int hash = key.hashCode();
+        hash ^= (hash >>> 16);
+        return segments[(hash & 0x7fffffff) % segments.length];
+    }
+
+    private static class Segment extends LinkedHashMap<Object, Object> {
+
+        private final int maxSize;
+
+        Segment(int maxSize, EvictionPolicy policy) {
+            // accessOrder=true turns the LinkedHashMap into an LRU, false keeps insertion order (FIFO)
+            super(16, 0.75f, policy == EvictionPolicy.LRU);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Object, Object> eldest) {
+            return size() > maxSize;
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package org.reactome.server.graph.cache;
+
+import org.springframework.objenesis.Objenesis;
+import org.springframework.objenesis.ObjenesisStd;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Deep copies the values kept in the release caches, so every caller gets its own object graph and the cached one
+ * cannot be changed by the lazy loading setters or by the code decorating the returned trees.
+ *
+ * Instances of the org.reactome.server.graph classes are copied field by field (without calling their
+ * constructors), collections, maps and arrays are copied with their content and any other value (String, numbers,
+ * enums...) is shared since it is immutable. Sets and maps are filled once every object of the graph has been
+ * copied, so cycles (e.g. the parents of a PathwayBrowserNode) do not break their hash codes or ordering.
+ */
+public final class ReleaseCacheCopier {
+
+    private static final String PACKAGE = "org.reactome.server.graph.";
+
+    private static final Objenesis objenesis = new ObjenesisStd(true);
+    private static final Map<Class<?>, Field[]> fields = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, Optional<Constructor<?>>> constructors = new ConcurrentHashMap<>();
+
+    private ReleaseCacheCopier() {
+    }
+
+    /**
+     * @param object the value to be copied
+     * @return a deep copy of object, or object itself when it is immutable
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T copy(T object) {
+        if (object == null || isShared(object.getClass())) return object;
+        return (T) new Copy().run(object);
+    }
+
+    private static boolean isShared(Class<?> clazz) {
+        if (clazz.isArray() || Collection.class.isAssignableFrom(clazz) || Map.class.isAssignableFrom(clazz)) return false;
+        if (Date.class.isAssignableFrom(clazz)) return false;
+        return Enum.class.isAssignableFrom(clazz) || !clazz.getName().startsWith(PACKAGE);
+    }
+
+    private static Field[] getFields(Class<?> clazz) {
+        return fields.computeIfAbsent(clazz, c -> {
+            List<Field> rtn = new ArrayList<>();
+            for (Class<?> current = c; current != null && current != Object.class; current = current.getSuperclass()) {
+                for (Field field : current.getDeclaredFields()) {
+                    if (Modifier.isStatic(field.getModifiers())) continue;
+                    field.setAccessible(true);
+                    rtn.add(field);
+                }
+            }
+            return rtn.toArray(new Field[0]);
+        });
+    }
+
+    /**
+     * @return a new empty instance of the given java.util class, or null when it has no public default constructor
+     */
+    private static Object newInstance(Class<?> clazz) {
+        Constructor<?> constructor = constructors.computeIfAbsent(clazz, c -> {
+            if (!c.getName().startsWith("java.util.") || !Modifier.isPublic(c.getModifiers())) return Optional.empty();
+            try {
+                return Optional.of(c.getConstructor());
+            } catch (NoSuchMethodException e) {
+                return Optional.empty();
+            }
+        }).orElse(null);
+        if (constructor == null) return null;
+        try {
+            return constructor.newInstance();
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Collection<Object> newCollection(Collection<?> source) {
+        if (source instanceof SortedSet) return new TreeSet<>(((SortedSet) source).comparator());
+        if (source instanceof EnumSet) {
+            EnumSet set = ((EnumSet) source).clone();
+            set.clear();
+            return set;
+        }
+        Object instance = newInstance(source.getClass());
+        if (instance != null) return (Collection<Object>) instance;
+        if (source instanceof Set) return new LinkedHashSet<>();
+        if (source instanceof Queue) return new LinkedList<>();
+        return new ArrayList<>();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Map<Object, Object> newMap(Map<?, ?> source) {
+        if (source instanceof SortedMap) return new TreeMap<>(((SortedMap) source).comparator());
+        if (source instanceof EnumMap) {
+            EnumMap map = new EnumMap((EnumMap) source);
+            map.clear();
+            return map;
+        }
+        Object instance = newInstance(source.getClass());
+        if (instance != null) return (Map<Object, Object>) instance;
+        return new LinkedHashMap<>();
+    }
+
+    /**
+     * Copy of one object graph. Objects are created as soon as they are reached (so cycles resolve to the same copy),
+     * their fields are set afterwards and the sets and maps are filled last, innermost first.
+     */
+    private static class Copy {
+
+        private final Map<Object, Object> copies = new IdentityHashMap<>();
+        private final Deque<Runnable> pending = new ArrayDeque<>();
+        private final List<Runnable> fills = new ArrayList<>();
+
+        Object run(Object object) {
+            Object rtn = copy(object);
+            while (!pending.isEmpty()) {
+                pending.poll().run();
+            }
+            for (int i = fills.size() - 1; i >= 0; i--) {
+                fills.get(i).run();
+            }
+            return rtn;
+        }
+
+        private Object copy(Object object) {
+            if (object == null) return null;
+            Class<?> clazz = object.getClass();
+            if (isShared(clazz)) return object;
+            Object rtn = copies.get(object);
+            if (rtn != null) return rtn;
+            if (clazz.isArray()) return copyArray(object, clazz);
+            if (object instanceof Collection) return copyCollection((Collection<?>) object);
+            if (object instanceof Map) return copyMap((Map<?, ?>) object);
+            if (object instanceof Date) return register(object, ((Date) object).clone());
+            return copyObject(object, clazz);
+        }
+
+        private Object copyArray(Object source, Class<?> clazz) {
+            int length = Array.getLength(source);
+            Object target = register(source, Array.newInstance(clazz.getComponentType(), length));
+            if (clazz.getComponentType().isPrimitive()) {
+                //noinspection SuspiciousSystemArraycopy
+                System.arraycopy(source, 0, target, 0, length);
+            } else {
+                Object[] from = (Object[]) source;
+                Object[] to = (Object[]) target;
+                pending.add(() -> {
+                    for (int i = 0; i < length; i++) to[i] = copy(from[i]);
+                });
+            }
+            return target;
+        }
+
+        private Object copyCollection(Collection<?> source) {
+            Collection<Object> target = newCollection(source);
+            register(source, target);
+            pending.add(() -> {
+                List<Object> elements = new ArrayList<>(source.size());
+                for (Object element : source) elements.add(copy(element));
+                fills.add(() -> target.addAll(elements));
+            });
+            return target;
+        }
+
+        private Object copyMap(Map<?, ?> source) {
+            Map<Object, Object> target = newMap(source);
+            register(source, target);
+            pending.add(() -> {
+                List<Object[]> entries = new ArrayList<>(source.size());
+                for (Map.Entry<?, ?> entry : source.entrySet()) {
+                    entries.add(new Object[]{copy(entry.getKey()), copy(entry.getValue())});
+                }
+                fills.add(() -> {
+                    for (Object[] entry : entries) target.put(entry[0], entry[1]);
+                });
+            });
+            return target;
+        }
+
+        private Object copyObject(Object source, Class<?> clazz) {
+            Object target = register(source, objenesis.newInstance(clazz));
+            pending.add(() -> {
+                for (Field field : getFields(clazz)) {
+                    try {
+                        field.set(target, copy(field.get(source)));
+                    } catch (IllegalAccessException e) {
+                        throw new IllegalStateException("Cannot copy " + clazz.getName() + "." + field.getName(), e);
+                    }
+                }
+            });
+            return target;
+        }
+
+        private Object register(Object source, Object target) {
+            copies.put(source, target);
+            return target;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package org.reactome.server.graph.cache;
+
+import java.lang.reflect.Array;
+import java.util.*;
+
+/**
+ * Key of a cached service call. It includes the release version so entries from a previous release can never
+ * be served, even if they were not evicted yet. The arguments are kept as immutable copies, so a caller changing
+ * the collection or array it passed does not change the key of the cached entry.
+ */
+class ReleaseCacheKey {
+
+    private final Integer release;
+    private final String method;
+    private final Object[] args;
+    private final int hash;
+
+    ReleaseCacheKey(Integer release, String method, Object[] args) {
+        this.release = release;
+        this.method = method;
+        this.args = args == null ? new Object[0] : (Object[]) immutable(args);
+        this.hash = Objects.hash(release, method, Arrays.deepHashCode(this.args));
+    }
+
+    private static Object immutable(Object arg) {
+        if (arg == null) return null;
+        if (arg instanceof Object[]) {
+            Object[] array = ((Object[]) arg).clone();
+            for (int i = 0; i < array.length; i++) {
+                array[i] = immutable(array[i]);
+            }
+            return array;
+        }
+        if (arg.getClass().isArray()) {
+            int length = Array.getLength(arg);
+            Object array = Array.newInstance(arg.getClass().getComponentType(), length);
+            //noinspection SuspiciousSystemArraycopy
+            System.arraycopy(arg, 0, array, 0, length);
+            return array;
+        }
+        if (arg instanceof Set) {
+            Set<Object> set = new LinkedHashSet<>();
+            for (Object element : (Set<?>) arg) set.add(immutable(element));
+            return Collections.unmodifiableSet(set);
+        }
+        if (arg instanceof Collection) {
+            List<Object> list = new ArrayList<>();
+            for (Object element : (Collection<?>) arg) list.add(immutable(element));
+            return Collections.unmodifiableList(list);
+        }
+        if (arg instanceof Map) {
+            Map<Object, Object> map = new LinkedHashMap<>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) arg).entrySet()) {
+                map.put(immutable(entry.getKey()), immutable(entry.getValue()));
+            }
+            return Collections.unmodifiableMap(map);
+        }
+        return arg;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ReleaseCacheKey that = (ReleaseCacheKey) o;
+        return hash == that.hash &&
+                Objects.equals(release, that.release) &&
+                method.equals(that.method) &&
+                Arrays.deepEquals(args, that.args);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return method + Arrays.deepToString(args) + "@" + release;
+    }
+}
@@ -0,0 +1,164 @@
+package org.reactome.server.graph.cache;
+
+import org.reactome.server.graph.domain.model.DBInfo;
+import org.reactome.server.graph.repository.DBInfoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the {@link ReleaseCache} instances used by the read services and scopes them to the release version
+ * stored in the DBInfo node. The graph is read-only between releases, so a cached entry stays valid until
+ * the version changes; as soon as a different version is detected every cache is cleared.
+ *
+ * The caches are Spring {@link Cache} instances: {@link ReleaseCache} by default or, when a {@link CacheManager}
+ * bean is named, the caches it provides (e.g. Caffeine). That CacheManager has to keep the values in the same JVM.
+ *
+ * Cached results are shared by every caller, so they have to be treated as read only. The caches whose callers
+ * modify the results (e.g. decorating the returned trees) copy them with {@link ReleaseCacheCopier} on the way in
+ * and out instead (see {@link ReleaseCached#copy()}), which costs about as much as mapping the result again.
+ *
+ * Caching is disabled by default. It is configured with the following properties:
+ *
+ * reactome.graph.cache.enabled=true
+ * reactome.graph.cache.release-check-interval=60      (seconds between DBInfo version checks)
+ * reactome.graph.cache.manager=caffeineCacheManager   (optional, name of the CacheManager bean to store the values)
+ * reactome.graph.cache.default.max-size=1000
+ * reactome.graph.cache.default.policy=LRU             (LRU or FIFO)
+ * reactome.graph.cache.[cacheName].max-size=5000      (overrides the default for a given cache)
+ * reactome.graph.cache.[cacheName].policy=FIFO
+ * reactome.graph.cache.[cacheName].copy=true          (overrides ReleaseCached.copy for a given cache)
+ */
+@Component
+@SuppressWarnings("unused")
+public class ReleaseCacheManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReleaseCacheManager.class);
+
+    private static final String PREFIX = "reactome.graph.cache.";
+
+    private final DBInfoRepository dbInfoRepository;
+    private final Environment environment;
+    private final BeanFactory beanFactory;
+    private final Map<String, Cache> caches = new ConcurrentHashMap<>();
+    private final Map<String, Boolean> copies = new ConcurrentHashMap<>();
+
+    @Value("${reactome.graph.cache.enabled:false}")
+    private boolean enabled;
+
+    @Value("${reactome.graph.cache.release-check-interval:60}")
+    private long releaseCheckInterval;
+
+    @Value("${reactome.graph.cache.manager:}")
+    private String cacheManager;
+
+    @Value("${reactome.graph.cache.default.max-size:1000}")
+    private int defaultMaxSize;
+
+    @Value("${reactome.graph.cache.default.policy:LRU}")
+    private EvictionPolicy defaultPolicy;
+
+    private volatile Integer release = null;
+    private volatile long lastReleaseCheck = 0;
+
+    public ReleaseCacheManager(DBInfoRepository dbInfoRepository, Environment environment, BeanFactory beanFactory) {
+        this.dbInfoRepository = dbInfoRepository;
+        this.environment = environment;
+        this.beanFactory = beanFactory;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        if (!enabled) clear();
+        this.enabled = enabled;
+    }
+
+    /**
+     * Returns the current release version. The DBInfo node is only queried once every releaseCheckInterval
+     * seconds and, when the version has changed since the last check, all the caches are cleared.
+     *
+     * @return the release version currently served by the database (null when it cannot be determined)
+     */
+    public Integer getRelease() {
+        long now = System.currentTimeMillis();
+        if (release == null || now - lastReleaseCheck > releaseCheckInterval * 1000) {
+            synchronized (this) {
+                if (release == null || now - lastReleaseCheck > releaseCheckInterval * 1000) {
+                    DBInfo dbInfo = dbInfoRepository.getDBInfo();
+                    Integer current = dbInfo != null ? dbInfo.getVersion() : null;
+                    if (release != null && !release.equals(current)) {
+                        logger.info("Release changed from " + release + " to " + current + ". Clearing all caches");
+                        clear();
+                    }
+                    release = current;
+                    lastReleaseCheck = now;
+                }
+            }
+        }
+        return release;
+    }
+
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, this::createCache);
+    }
+
+    /**
+     * @param name the name of the cache
+     * @param copy the value of {@link ReleaseCached#copy()}, used when the cache has no copy property
+     * @return true when the results kept in the given cache are copied for every caller, false when they are shared
+     */
+    public boolean isCopied(String name, boolean copy) {
+        return copies.computeIfAbsent(name, n -> environment.getProperty(PREFIX + n + ".copy", Boolean.class, copy));
+    }
+
+    public void setCopied(String name, boolean copied) {
+        copies.put(name, copied);
+    }
+
+    public Collection<Cache> getCaches() {
+        return Collections.unmodifiableCollection(caches.values());
+    }
+
+    /**
+     * Removes every entry of every cache and forces the release version to be checked on the next call
+     */
+    public void clear() {
+        for (Cache cache : caches.values()) {
+            cache.clear();
+        }
+        lastReleaseCheck = 0;
+    }
+
+    /**
+     * @param method signature of the cached method
+     * @param args   arguments of the call
+     * @return a key for the given call that is only valid for the current release
+     */
+    public Object createKey(String method, Object[] args) {
+        return new ReleaseCacheKey(getRelease(), method, args);
+    }
+
+    private Cache createCache(String name) {
+        if (cacheManager != null && !cacheManager.isEmpty()) {
+            Cache cache = beanFactory.getBean(cacheManager, CacheManager.class).getCache(name);
+            if (cache != null) return cache;
+            logger.warn("CacheManager '" + cacheManager + "' does not provide the cache '" + name + "'. Using a ReleaseCache instead");
+        }
+        int maxSize = environment.getProperty(PREFIX + name + ".max-size", Integer.class, defaultMaxSize);
+        EvictionPolicy policy = environment.getProperty(PREFIX + name + ".policy", EvictionPolicy.class, defaultPolicy);
+        return new ReleaseCache(name, maxSize, policy);
+    }
+}
@@ -0,0 +1,24 @@
+package org.reactome.server.graph.cache;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a read-only service method whose result can be kept until the next Reactome release.
+ * The value is the name of the cache the results are stored in, so size and eviction policy
+ * can be configured per cache (see {@link ReleaseCacheManager}).
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ReleaseCached {
+    String value();
+
+    /**
+     * Whether every caller gets its own copy of the result, for the methods whose results are modified by their
+     * callers. Otherwise the cached result is shared and has to be treated as read only. The methods sharing a
+     * cache are expected to have the same value.
+     */
+    boolean copy() default false;
+}
@@ -2,6 +2,8 @@ package org.reactome.server.graph.config;
 
 import org.aspectj.lang.Aspects;
 import org.reactome.server.graph.aop.LazyFetchAspect;
+import org.reactome.server.graph.aop.MetricsAspect;
+import org.reactome.server.graph.aop.ReleaseCacheAspect;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
@@ -24,4 +26,20 @@ public class GraphCoreNeo4jConfig {
     public LazyFetchAspect lazyFetchAspect() {
         return Aspects.aspectOf(LazyFetchAspect.class);
     }
-}
\ No newline at end of file
+
+    /**
+     * Same as above, the cache manager has to be injected in the instance created by AspectJ.
+     */
+    @Bean
+    public ReleaseCacheAspect releaseCacheAspect() {
+        return Aspects.aspectOf(ReleaseCacheAspect.class);
+    }
+
+    /**
+     * Same as above, the service metrics have to be injected in the instance created by AspectJ.
+     */
+    @Bean
+    public MetricsAspect metricsAspect() {
+        return Aspects.aspectOf(MetricsAspect.class);
+    }
+}
@@ -0,0 +1,357 @@
+package org.reactome.server.graph.domain;
+
+import org.neo4j.driver.Value;
+import org.neo4j.driver.types.MapAccessor;
+import org.reactome.server.graph.domain.model.DatabaseObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.beans.ConstructorProperties;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Maps the result of a query (a Record or a map-like Value) to an instance of a given class.
+ *
+ * The mapper of a class is created once and cached: the attributes are scanned a single time and each one is
+ * turned into a MethodHandle setter plus a converter chosen from its type, so mapping a row does not require
+ * any further reflection. Classes are populated in one of the following ways:
+ *
+ *  - Field injection: the class has a no-args constructor and every (non static) attribute of a supported type is
+ *    set from the column with its name (to null or empty when there is none), final ones included. The attributes
+ *    selected are the ones ReflectionUtils.build has always set: String, Long, Integer, Double, Boolean (or a super
+ *    type of them), Lists, Sets and SortedSets of those, plus nested custom objects (or Lists and Sets of them).
+ *    Primitive attributes and the domain model objects (DatabaseObject, left to the lazy loading) are not set.
+ *  - Constructor injection: Java records (canonical constructor) or classes without a no-args constructor whose
+ *    constructor parameter names are available, either with {@link ConstructorProperties} or because the class
+ *    was compiled with -parameters. Primitive parameters are supported.
+ *
+ * A value that cannot be converted leaves its attribute unset; the error is logged once per class and attribute.
+ */
+@SuppressWarnings({"unchecked", "unused"})
+public final class RecordMapper<T> {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecordMapper.class);
+
+    private static final Map<Class<?>, RecordMapper<?>> mappers = new ConcurrentHashMap<>();
+
+    private static final MethodHandles.Lookup lookup = MethodHandles.lookup();
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final MethodHandle FIELD_SET;
+    // Returned by a converter when the attribute has to be left untouched
+    private static final Object SKIP = new Object();
+
+    static {
+        try {
+            FIELD_SET = lookup.findVirtual(Field.class, "set", SETTER_TYPE);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final Class<T> clazz;
+    // Field injection
+    private final MethodHandle noArgsConstructor;
+    private final List<Property> properties;
+    // Constructor injection
+    private final MethodHandle constructor;
+    private final String[] parameterNames;
+    private final Function<Value, Object>[] parameterConverters;
+
+    public static <T> RecordMapper<T> forClass(Class<T> clazz) {
+        RecordMapper<T> mapper = (RecordMapper<T>) mappers.get(clazz);
+        if (mapper == null) {
+            // Not using computeIfAbsent, nested objects may request their own mappers while this one is created
+            mapper = new RecordMapper<>(clazz);
+            RecordMapper<T> previous = (RecordMapper<T>) mappers.putIfAbsent(clazz, mapper);
+            if (previous != null) mapper = previous;
+        }
+        return mapper;
+    }
+
+    private RecordMapper(Class<T> clazz) {
+        this.clazz = clazz;
+        try {
+            this.properties = getProperties(clazz);
+            Constructor<?> canonical = getInjectionConstructor(clazz);
+            if (canonical == null) {
+                this.noArgsConstructor = getNoArgsConstructor(clazz);
+                this.constructor = null;
+                this.parameterNames = null;
+                this.parameterConverters = null;
+            } else {
+                canonical.setAccessible(true);
+                Parameter[] parameters = canonical.getParameters();
+                this.parameterNames = getParameterNames(clazz, canonical);
+                this.parameterConverters = new Function[parameters.length];
+                for (int i = 0; i < parameters.length; i++) {
+                    Function<Value, Object> converter = getConverter(parameters[i].getType(), parameters[i].getParameterizedType());
+                    this.parameterConverters[i] = converter != null ? converter : v -> null;
+                }
+                this.constructor = lookup.unreflectConstructor(canonical)
+                        .asSpreader(Object[].class, parameters.length)
+                        .asType(MethodType.methodType(Object.class, Object[].class));
+                this.noArgsConstructor = null;
+            }
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException(clazz.getName() + " cannot be mapped", e);
+        }
+    }
+
+    /**
+     * @return true if new instances can be created by {@link #map(MapAccessor)}. Otherwise, only existing
+     * instances can be populated
+     */
+    public boolean isInstantiable() {
+        return constructor != null || noArgsConstructor != null;
+    }
+
+    /**
+     * Creates a new instance of the mapped class from the given record or map-like value
+     */
+    public T map(MapAccessor accessor) {
+        try {
+            if (constructor != null) {
+                Object[] args = new Object[parameterNames.length];
+                for (int i = 0; i < args.length; i++) {
+                    Object arg = parameterConverters[i].apply(accessor.get(parameterNames[i]));
+                    args[i] = arg != SKIP ? arg : null;
+                }
+                return (T) constructor.invokeExact(args);
+            }
+            if (noArgsConstructor == null) {
+                throw new IllegalArgumentException(clazz.getName() + " cannot be instantiated: it needs a no-args constructor, to be a record or a constructor compiled with parameter names");
+            }
+            T instance = (T) noArgsConstructor.invokeExact();
+            return populate(instance, accessor);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException("Could not create an instance of " + clazz.getName(), t);
+        }
+    }
+
+    /**
+     * Sets the attributes of an existing instance (field injection) from the given record or map-like value
+     */
+    public T populate(T instance, MapAccessor accessor) {
+        for (Property property : properties) {
+            property.set(instance, accessor.get(property.name));
+        }
+        return instance;
+    }
+
+    private static Constructor<?> getInjectionConstructor(Class<?> clazz) {
+        Constructor<?> canonical = getRecordConstructor(clazz);
+        if (canonical != null) return canonical;
+        for (Constructor<?> constructor : clazz.getDeclaredConstructors()) {
+            if (constructor.getParameterCount() == 0) return null;
+        }
+        // No no-args constructor: the one with most parameters whose names are known
+        Constructor<?> rtn = null;
+        for (Constructor<?> constructor : clazz.getDeclaredConstructors()) {
+            if (constructor.getParameterCount() > 0 && hasParameterNames(constructor)) {
+                if (rtn == null || constructor.getParameterCount() > rtn.getParameterCount()) rtn = constructor;
+            }
+        }
+        return rtn;
+    }
+
+    private static boolean hasParameterNames(Constructor<?> constructor) {
+        ConstructorProperties properties = constructor.getAnnotation(ConstructorProperties.class);
+        if (properties != null) return properties.value().length == constructor.getParameterCount();
+        return constructor.getParameters()[0].isNamePresent();
+    }
+
+    private static MethodHandle getNoArgsConstructor(Class<?> clazz) throws IllegalAccessException {
+        if (clazz.isInterface() || Modifier.isAbstract(clazz.getModifiers())) return null;
+        try {
+            Constructor<?> noArgs = clazz.getDeclaredConstructor();
+            noArgs.setAccessible(true);
+            return lookup.unreflectConstructor(noArgs).asType(MethodType.methodType(Object.class));
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    /**
+     * The library targets Java 11, so records are detected reflectively when running on a JVM that supports them
+     */
+    private static Constructor<?> getRecordConstructor(Class<?> clazz) {
+        try {
+            if (!(Boolean) Class.class.getMethod("isRecord").invoke(clazz)) return null;
+            Object[] components = (Object[]) Class.class.getMethod("getRecordComponents").invoke(clazz);
+            Class<?>[] types = new Class<?>[components.length];
+            for (int i = 0; i < components.length; i++) {
+                types[i] = (Class<?>) components[i].getClass().getMethod("getType").invoke(components[i]);
+            }
+            return clazz.getDeclaredConstructor(types);
+        } catch (NoSuchMethodException e) {
+            return null; // Java < 16
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            logger.error("Could not get the record components of " + clazz.getName(), e);
+            return null;
+        }
+    }
+
+    private static String[] getParameterNames(Class<?> clazz, Constructor<?> constructor) {
+        String[] names = new String[constructor.getParameterCount()];
+        Parameter[] parameters = constructor.getParameters();
+        try {
+            if ((Boolean) Class.class.getMethod("isRecord").invoke(clazz)) {
+                Object[] components = (Object[]) Class.class.getMethod("getRecordComponents").invoke(clazz);
+                for (int i = 0; i < components.length; i++) {
+                    names[i] = (String) components[i].getClass().getMethod("getName").invoke(components[i]);
+                }
+                return names;
+            }
+        } catch (ReflectiveOperationException e) {
+            // Java < 16, the parameter names are used
+        }
+        ConstructorProperties properties = constructor.getAnnotation(ConstructorProperties.class);
+        if (properties != null) return properties.value().clone();
+        for (int i = 0; i < parameters.length; i++) {
+            names[i] = parameters[i].getName();
+        }
+        return names;
+    }
+
+    private static List<Property> getProperties(Class<?> clazz) throws IllegalAccessException {
+        List<Property> properties = new ArrayList<>();
+        // the final attributes of a record can only be set through its canonical constructor
+        boolean record = getRecordConstructor(clazz) != null;
+        for (Class<?> type = clazz; type != null; type = type.getSuperclass()) {
+            for (Field field : type.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if (Modifier.isStatic(modifiers) || (record && Modifier.isFinal(modifiers))) continue;
+                if (field.getType().isPrimitive()) continue;
+                Function<Value, Object> converter = getConverter(field.getType(), field.getGenericType());
+                if (converter == null) continue;
+                field.setAccessible(true);
+                properties.add(new Property(clazz, field.getName(), getSetter(field), converter));
+            }
+        }
+        return properties;
+    }
+
+    /**
+     * Final attributes are not always writable through a MethodHandle setter, in that case Field.set is used
+     */
+    private static MethodHandle getSetter(Field field) {
+        try {
+            return lookup.unreflectSetter(field).asType(SETTER_TYPE);
+        } catch (IllegalAccessException e) {
+            return FIELD_SET.bindTo(field);
+        }
+    }
+
+    /**
+     * @return the function converting a driver Value to the given type or null if the type is not supported
+     */
+    private static Function<Value, Object> getConverter(Class<?> type, Type genericType) {
+        if (type.isAssignableFrom(String.class)) {
+            return v -> v.asString(null);
+        } else if (type.isAssignableFrom(Long.class) || type == long.class) {
+            return v -> v.asLong(0);
+        } else if (type.isAssignableFrom(Integer.class) || type == int.class) {
+            return v -> v.asInt(0);
+        } else if (type.isAssignableFrom(Double.class) || type == double.class) {
+            return v -> v.asDouble(0);
+        } else if (type.isAssignableFrom(Boolean.class) || type == boolean.class) {
+            return v -> v.asBoolean(Boolean.FALSE);
+        } else if (Collection.class.isAssignableFrom(type)) {
+            return getCollectionConverter(type, genericType);
+        } else if (isMappable(type)) {
+            return v -> v.isNull() ? null : forClass(type).map(v);
+        }
+        return null;
+    }
+
+    private static Function<Value, Object> getCollectionConverter(Class<?> type, Type genericType) {
+        Function<Value, ?> element = null;
+        if (genericType instanceof ParameterizedType) {
+            Type argument = ((ParameterizedType) genericType).getActualTypeArguments()[0];
+            if (argument instanceof Class) element = getElementConverter((Class<?>) argument);
+        }
+        // Collections of non supported elements (e.g. domain model objects) are only set when there is no value
+        final Function<Value, ?> elementConverter = element;
+        if (List.class.isAssignableFrom(type)) {
+            return v -> {
+                if (v.isNull() || v.isEmpty()) return new ArrayList<>();
+                return elementConverter == null ? SKIP : v.asList(elementConverter);
+            };
+        } else if (SortedSet.class.isAssignableFrom(type)) {
+            return v -> {
+                if (v.isNull() || v.isEmpty()) return new TreeSet<>();
+                return elementConverter == null ? SKIP : new TreeSet<>(v.asList(elementConverter));
+            };
+        } else if (Set.class.isAssignableFrom(type)) {
+            return v -> {
+                if (v.isNull() || v.isEmpty()) return new HashSet<>();
+                return elementConverter == null ? SKIP : new HashSet<>(v.asList(elementConverter));
+            };
+        }
+        return null;
+    }
+
+    private static Function<Value, ?> getElementConverter(Class<?> eType) {
+        if (String.class.isAssignableFrom(eType)) {
+            return v -> v.asString(null);
+        } else if (Long.class.isAssignableFrom(eType)) {
+            return Value::asLong;
+        } else if (Integer.class.isAssignableFrom(eType)) {
+            return Value::asInt;
+        } else if (Double.class.isAssignableFrom(eType)) {
+            return Value::asDouble;
+        } else if (Boolean.class.isAssignableFrom(eType)) {
+            return Value::asBoolean;
+        } else if (isMappable(eType)) {
+            return v -> v.isNull() ? null : forClass(eType).map(v);
+        }
+        return null;
+    }
+
+    /**
+     * Custom objects can be nested as long as they can be instantiated. Domain model objects are left untouched,
+     * as ReflectionUtils.build has always done, since they are retrieved with their own queries or lazy loaded
+     */
+    private static boolean isMappable(Class<?> type) {
+        return !type.isPrimitive() && !type.isArray() && !type.isInterface() && !type.isEnum()
+                && !Modifier.isAbstract(type.getModifiers())
+                && !type.getName().startsWith("java.")
+                && !DatabaseObject.class.isAssignableFrom(type);
+    }
+
+    private static class Property {
+        private final Class<?> clazz;
+        private final String name;
+        private final MethodHandle setter;
+        private final Function<Value, Object> converter;
+        // The same failure would be repeated for every row, so it is only reported the first time
+        private volatile boolean failed = false;
+
+        Property(Class<?> clazz, String name, MethodHandle setter, Function<Value, Object> converter) {
+            this.clazz = clazz;
+            this.name = name;
+            this.setter = setter;
+            this.converter = converter;
+        }
+
+        void set(Object instance, Value value) {
+            try {
+                Object converted = converter.apply(value);
+                if (converted != SKIP) setter.invokeExact(instance, converted);
+            } catch (Throwable t) {
+                if (!failed) {
+                    failed = true;
+                    logger.error("Could not set the attribute " + name + " of " + clazz.getName() + " (further errors for this attribute are not logged): " + t.getMessage(), t);
+                }
+            }
+        }
+    }
+}
@@ -2,120 +2,25 @@ package org.reactome.server.graph.domain;
 
 import org.neo4j.driver.Record;
 import org.neo4j.driver.Value;
-import org.springframework.lang.NonNull;
-
-import java.lang.reflect.Field;
-import java.lang.reflect.ParameterizedType;
-import java.util.*;
-import java.util.function.Function;
 
 public class ReflectionUtils {
 
-    public static <T> T build(T t, Record record) {
-        List<Field> fields = ReflectionUtils.getAllFields(t.getClass());
-        ReflectionUtils.build(record, fields, t);
-        return t;
-    }
-
-    public static <T> T build(T t, Value value) {
-        List<Field> fields = ReflectionUtils.getAllFields(t.getClass());
-        ReflectionUtils.build(value, fields, t);
-        return t;
-    }
-
     /**
-     * Depending on how you write the query and your return statement.
-     * You might have a Record or @see build(Value value)
+     * Sets the attributes of the given instance from the record. The per class mapping is created once and
+     * cached in {@link RecordMapper}
      */
-    private static <T> void build(Value v, List<Field> fields, T _instance) {
-        for (Field field : fields) {
-            Value value = v.get(field.getName());
-            setFields(value, field, _instance);
-        }
+    @SuppressWarnings("unchecked")
+    public static <T> T build(T t, Record record) {
+        return RecordMapper.forClass((Class<T>) t.getClass()).populate(t, record);
     }
 
     /**
      * Depending on how you write the query and your return statement.
-     * You might have a Record or @see build(Value value)
+     * You might have a Record or a Value (e.g. a map or a node within a list)
      */
-    private static <T> void build(Record record, List<Field> fields, T _instance) {
-        for (Field field : fields) {
-            Value value = record.get(field.getName());
-            setFields(value, field, _instance);
-        }
-    }
-
-    private static List<Field> getAllFields(Class<?> type) {
-        List<Field> allFields = new ArrayList<>();
-        for (Field field : type.getDeclaredFields()) {
-            field.setAccessible(true);
-            allFields.add(field);
-        }
-        if (type.getSuperclass() != null) {
-            allFields.addAll(getAllFields(type.getSuperclass()));
-        }
-        return allFields;
-    }
-
-    private static void setFields(Value value, Field field, Object _instance) {
-        try {
-            field.setAccessible(true);
-            if (field.getType().isAssignableFrom(String.class)) {
-                field.set(_instance, value.asString(null));
-            } else if (field.getType().isAssignableFrom(Long.class)) {
-                field.set(_instance, value.asLong(0));
-            } else if (field.getType().isAssignableFrom(Integer.class)) {
-                field.set(_instance, value.asInt(0));
-            } else if (field.getType().isAssignableFrom(Double.class)) {
-                field.set(_instance, value.asDouble(0));
-            } else if (field.getType().isAssignableFrom(Boolean.class)) {
-                field.set(_instance, value.asBoolean(Boolean.FALSE));
-            } else if (Collection.class.isAssignableFrom(field.getType())) {
-                if (!value.isNull() && !value.isEmpty()) {
-                    List<?> list = value.asList(getCollectionValueType(field));
-                    if (List.class.isAssignableFrom(field.getType())) {
-                        field.set(_instance, list);
-                    } else if (Set.class.isAssignableFrom(field.getType())) {
-                        if (SortedSet.class.isAssignableFrom(field.getType())) {
-                            field.set(_instance, new TreeSet<>(list));
-                        } else {
-                            field.set(_instance, new HashSet<>(list));
-                        }
-                    }
-                } else {
-                    if (List.class.isAssignableFrom(field.getType())) {
-                        field.set(_instance, new ArrayList<>());
-                    } else if (Set.class.isAssignableFrom(field.getType())) {
-                        if (SortedSet.class.isAssignableFrom(field.getType())) {
-                            field.set(_instance, new TreeSet<>());
-                        } else {
-                            field.set(_instance, new HashSet<>());
-                        }
-                    }
-                }
-            } else if (field.getType().isPrimitive()) {
-                throw new IllegalAccessException("[" + field.getType() + "] primitive type is not support. Use the wrapper class.");
-            }
-        } catch (IllegalAccessException e) {
-            System.err.println(field.getName());
-        }
-    }
-
-    private static Function<Value, ?> getCollectionValueType(@NonNull Field field) throws IllegalAccessException {
-        Class<?> eType = (Class<?>) ((ParameterizedType) field.getGenericType()).getActualTypeArguments()[0];
-
-        if (String.class.isAssignableFrom(eType)) {
-            return v -> v.asString(null);
-        } else if (Long.class.isAssignableFrom(eType)) {
-            return Value::asLong;
-        } else if (Integer.class.isAssignableFrom(eType)) {
-            return Value::asInt;
-        } else if (Double.class.isAssignableFrom(eType)) {
-            return Value::asDouble;
-        } else if (Boolean.class.isAssignableFrom(eType)) {
-            return Value::asBoolean;
-        }
-        throw new IllegalAccessException(field.getName() + " is a collection of non supported elements: " + eType.toGenericString() + ". Use the wrapper class");
+    @SuppressWarnings("unchecked")
+    public static <T> T build(T t, Value value) {
+        return RecordMapper.forClass((Class<T>) t.getClass()).populate(t, value);
     }
 
 //    /**
@@ -0,0 +1,27 @@
+package org.reactome.server.graph.domain.result;
+
+import java.util.Map;
+
+/**
+ * The dbId of an object and the physical entities interacting with it (dbId to stId), used to compute the
+ * diagram occurrences of the object from the DiagramOccurrenceIndex
+ */
+@SuppressWarnings("unused")
+public class DiagramInteractors {
+
+    private final Long dbId;
+    private final Map<Long, String> interactors;
+
+    public DiagramInteractors(Long dbId, Map<Long, String> interactors) {
+        this.dbId = dbId;
+        this.interactors = interactors;
+    }
+
+    public Long getDbId() {
+        return dbId;
+    }
+
+    public Map<Long, String> getInteractors() {
+        return interactors;
+    }
+}
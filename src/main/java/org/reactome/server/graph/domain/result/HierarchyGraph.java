@@ -0,0 +1,55 @@
+package org.reactome.server.graph.domain.result;
+
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Value;
+
+import java.util.*;
+
+/**
+ * HierarchyGraph is the edge list alternative to HierarchyWrapper: instead of every path from the root, it holds
+ * each node reached from the root once (by dbId) and the distinct (parent, child, order) relationships between
+ * them, in the direction of the Pathway Browser tree.
+ */
+public class HierarchyGraph {
+
+    private final Long rootId;
+    private final Map<Long, HierarchyTreeItem> nodes;
+    private final List<long[]> edges;
+
+    public HierarchyGraph(Long rootId, Map<Long, HierarchyTreeItem> nodes, List<long[]> edges) {
+        this.rootId = rootId;
+        this.nodes = nodes;
+        this.edges = edges;
+    }
+
+    /**
+     * @param record with root (dbId), nodes ([dbId, item]) and edges ([parent dbId, child dbId, order])
+     */
+    public static HierarchyGraph build(Record record) {
+        Map<Long, HierarchyTreeItem> nodes = new LinkedHashMap<>();
+        for (Value node : record.get("nodes").values()) {
+            nodes.putIfAbsent(node.get(0).asLong(), HierarchyTreeItem.build(node.get(1)));
+        }
+        List<long[]> edges = new ArrayList<>();
+        for (Value edge : record.get("edges").values()) {
+            edges.add(new long[]{edge.get(0).asLong(), edge.get(1).asLong(), edge.get(2).asLong(0)});
+        }
+        return new HierarchyGraph(record.get("root").asLong(), nodes, edges);
+    }
+
+    public Long getRootId() {
+        return rootId;
+    }
+
+    public HierarchyTreeItem getRoot() {
+        return nodes.get(rootId);
+    }
+
+    public Map<Long, HierarchyTreeItem> getNodes() {
+        return nodes;
+    }
+
+    public List<long[]> getEdges() {
+        return edges;
+    }
+}
@@ -3,6 +3,7 @@ package org.reactome.server.graph.domain.result;
 import org.neo4j.driver.Record;
 import org.neo4j.driver.Value;
 
+import java.util.ArrayList;
 import java.util.Collection;
 
 /**
@@ -28,6 +29,26 @@ public class Participant {
         return participant;
     }
 
+    public static Participant build(Long peDbId, String displayName, String schemaClass) {
+        Participant participant = new Participant();
+        participant.setPeDbId(peDbId);
+        participant.setDisplayName(displayName);
+        participant.setSchemaClass(schemaClass);
+        participant.setRefEntities(new ArrayList<>());
+        return participant;
+    }
+
+    public void addRefEntity(Long dbId, String identifier, String schemaClass, String displayName, String icon, String url) {
+        ParticipantRefEntities participantRefEntities = new ParticipantRefEntities();
+        participantRefEntities.setDbId(dbId);
+        participantRefEntities.setIdentifier(identifier);
+        participantRefEntities.setSchemaClass(schemaClass);
+        participantRefEntities.setDisplayName(displayName);
+        participantRefEntities.setIcon(icon);
+        participantRefEntities.setUrl(url);
+        refEntities.add(participantRefEntities);
+    }
+
     public Long getPeDbId() {
         return peDbId;
     }
@@ -5,6 +5,8 @@ import org.reactome.server.graph.domain.model.DatabaseObject;
 public class QueryResultWrapper {
     private DatabaseObject databaseObject;
     private int stoichiometry;
+    // dbId of the object the relationship starts from when several of them are queried at once
+    private Long origin;
 
     public QueryResultWrapper(DatabaseObject databaseObject) {
         this(databaseObject, 1);
@@ -15,6 +17,11 @@ public class QueryResultWrapper {
         this.stoichiometry = stoichiometry;
     }
 
+    public QueryResultWrapper(Long origin, DatabaseObject databaseObject, int stoichiometry) {
+        this(databaseObject, stoichiometry);
+        this.origin = origin;
+    }
+
     public DatabaseObject getDatabaseObject() {
         return databaseObject;
     }
@@ -31,6 +38,14 @@ public class QueryResultWrapper {
         this.stoichiometry = stoichiometry;
     }
 
+    public Long getOrigin() {
+        return origin;
+    }
+
+    public void setOrigin(Long origin) {
+        this.origin = origin;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
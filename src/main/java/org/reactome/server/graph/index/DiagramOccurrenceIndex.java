@@ -0,0 +1,513 @@
+package org.reactome.server.graph.index;
+
+import org.reactome.server.graph.cache.ReleaseCacheManager;
+import org.reactome.server.graph.domain.result.DiagramOccurrences;
+import org.reactome.server.graph.index.PrimitiveLists.IntList;
+import org.reactome.server.graph.index.PrimitiveLists.LongList;
+import org.reactome.server.graph.repository.util.KeysetPageIterator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.neo4j.core.Neo4jClient;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * In-memory index of the diagram occurrences used to answer DiagramRepository.getDiagramOccurrences and
+ * getDiagramOccurrencesWithInteractions without the variable length traversals.
+ *
+ * The events, physical entities and the objects in between (CatalystActivity, Regulation, EntityFunctionalStatus)
+ * are kept in primitive arrays sorted by dbId together with their outgoing relationships (compressed sparse rows).
+ * For every object, the diagrammed pathways it is directly drawn in (the nearest diagrammed pathways above it,
+ * i.e. with no other diagram in between) are precomputed twice: following the participant relationships plus the
+ * complex and set composition ones (as for the object itself) and following the participant relationships only
+ * (as for its interactors). The rest of the query (parent diagrams, encapsulating pathways and the subpathways
+ * between them) only involves a handful of pathways and is computed per request.
+ *
+ * The index is built on first use and rebuilt when {@link ReleaseCacheManager} detects a new release. When
+ * reactome.graph.index.snapshot.dir is set, the index (including the nearest diagrams) is stored there and loaded
+ * from the snapshot by the instances serving the same release.
+ * It is disabled by default and enabled with reactome.graph.index.diagram.enabled=true
+ */
+@Component
+@SuppressWarnings("unused")
+public class DiagramOccurrenceIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(DiagramOccurrenceIndex.class);
+
+    private static final int PAGE_SIZE = 50_000;
+    private static final int MAGIC = 0x5247444F; // RGDO
+    private static final String SNAPSHOT = "diagram-occurrences.idx";
+
+    // Kinds of relationship (as bit masks so a traversal can follow several of them)
+    private static final int HAS_EVENT = 1;
+    private static final int PARTICIPANT = 2;
+    private static final int COMPOSITION = 4;
+    private static final int ENCAPSULATED = 8;
+
+    private static final Map<String, Integer> KINDS = Map.ofEntries(
+            Map.entry("hasEvent", HAS_EVENT),
+            Map.entry("input", PARTICIPANT),
+            Map.entry("output", PARTICIPANT),
+            Map.entry("catalystActivity", PARTICIPANT),
+            Map.entry("physicalEntity", PARTICIPANT),
+            Map.entry("entityFunctionalStatus", PARTICIPANT),
+            Map.entry("diseaseEntity", PARTICIPANT),
+            Map.entry("regulatedBy", PARTICIPANT),
+            Map.entry("regulator", PARTICIPANT),
+            Map.entry("hasComponent", COMPOSITION),
+            Map.entry("hasMember", COMPOSITION),
+            Map.entry("hasCandidate", COMPOSITION),
+            Map.entry("repeatedUnit", COMPOSITION),
+            Map.entry("hasEncapsulatedEvent", ENCAPSULATED)
+    );
+
+    private final Neo4jClient neo4jClient;
+    private final ReleaseCacheManager releaseCacheManager;
+
+    @Value("${spring.data.neo4j.database:graph.db}")
+    private String databaseName;
+
+    @Value("${reactome.graph.index.diagram.enabled:false}")
+    private boolean enabled;
+
+    @Value("${reactome.graph.index.snapshot.dir:}")
+    private String snapshotDir;
+
+    private volatile Occurrences occurrences = null;
+
+    public DiagramOccurrenceIndex(Neo4jClient neo4jClient, ReleaseCacheManager releaseCacheManager) {
+        this.neo4jClient = neo4jClient;
+        this.releaseCacheManager = releaseCacheManager;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        if (!enabled) occurrences = null;
+        this.enabled = enabled;
+    }
+
+    public String getSnapshotDir() {
+        return snapshotDir;
+    }
+
+    public void setSnapshotDir(String snapshotDir) {
+        this.snapshotDir = snapshotDir;
+        occurrences = null;
+    }
+
+    /**
+     * Same result as DiagramRepository.getDiagramOccurrences
+     *
+     * @param dbId        the object
+     * @param interactors physical entities interacting with the object (dbId to stId)
+     */
+    public Collection<DiagramOccurrences> getDiagramOccurrences(Long dbId, Map<Long, String> interactors) {
+        Occurrences occurrences = getOccurrences();
+        int root = occurrences.indexOf(dbId);
+
+        Set<Integer> inDiagram = new LinkedHashSet<>();
+        if (root >= 0) {
+            if (occurrences.diagrams.get(root)) inDiagram.add(root);
+            for (int d : occurrences.nearest(root, true)) inDiagram.add(d);
+        }
+        Map<Integer, String> pes = occurrences.indexOf(interactors);
+        for (int pe : pes.keySet()) {
+            for (int d : occurrences.nearest(pe, false)) inDiagram.add(d);
+        }
+
+        Map<Integer, Set<Integer>> interactorDiagrams = new HashMap<>();
+        for (int pe : pes.keySet()) interactorDiagrams.put(pe, occurrences.diagramAncestors(pe));
+
+        Collection<DiagramOccurrences> rtn = new ArrayList<>();
+        List<Integer> all = occurrences.getAll(inDiagram);
+        for (int p : all) {
+            boolean isInDiagram = inDiagram.contains(p);
+            List<String> pathwayOccurrences = occurrences.getPathwayOccurrences(p, all);
+            if (!isInDiagram && pathwayOccurrences.isEmpty()) continue;
+            List<String> interactsWith = new ArrayList<>();
+            if (isInDiagram) {
+                pes.forEach((pe, stId) -> {
+                    if (interactorDiagrams.get(pe).contains(p)) interactsWith.add(stId);
+                });
+            }
+            rtn.add(new DiagramOccurrences(occurrences.stIds[p], isInDiagram, pathwayOccurrences, interactsWith));
+        }
+        return rtn;
+    }
+
+    /**
+     * Same result as DiagramRepository.getDiagramOccurrencesWithInteractions
+     *
+     * @param interactors physical entities interacting with the identifier (dbId to stId)
+     */
+    public Collection<DiagramOccurrences> getDiagramOccurrencesWithInteractions(Map<Long, String> interactors) {
+        Occurrences occurrences = getOccurrences();
+        Map<Integer, String> pes = occurrences.indexOf(interactors);
+        Set<Integer> interactorInDiagram = new LinkedHashSet<>();
+        for (int pe : pes.keySet()) {
+            for (int d : occurrences.nearest(pe, false)) interactorInDiagram.add(d);
+        }
+
+        Collection<DiagramOccurrences> rtn = new ArrayList<>();
+        List<Integer> all = occurrences.getAll(interactorInDiagram);
+        for (int p : all) {
+            List<String> interactsWith = new ArrayList<>();
+            if (interactorInDiagram.contains(p)) {
+                pes.forEach((pe, stId) -> {
+                    for (int d : occurrences.nearest(pe, false)) {
+                        if (d == p) {
+                            interactsWith.add(stId);
+                            break;
+                        }
+                    }
+                });
+            }
+            List<String> pathwayOccurrences = occurrences.getPathwayOccurrences(p, all);
+            if (interactsWith.isEmpty() && pathwayOccurrences.isEmpty()) continue;
+            rtn.add(new DiagramOccurrences(occurrences.stIds[p], false, pathwayOccurrences, interactsWith));
+        }
+        return rtn;
+    }
+
+    /**
+     * Forces the index to be rebuilt on the next call
+     */
+    public void clear() {
+        occurrences = null;
+    }
+
+    private Occurrences getOccurrences() {
+        Integer release = releaseCacheManager.getRelease();
+        Occurrences occurrences = this.occurrences;
+        if (occurrences == null || !Objects.equals(occurrences.release, release)) {
+            synchronized (this) {
+                occurrences = this.occurrences;
+                if (occurrences == null || !Objects.equals(occurrences.release, release)) {
+                    long start = System.currentTimeMillis();
+                    Path path = IndexSnapshot.path(snapshotDir, SNAPSHOT);
+                    ByteBuffer buffer = IndexSnapshot.load(path, MAGIC, release);
+                    occurrences = IndexSnapshot.read(path, buffer, b -> Occurrences.read(release, b));
+                    if (occurrences != null) {
+                        logger.info("Diagram occurrence index for release " + release + " loaded from " + path + " in " + (System.currentTimeMillis() - start) + "ms (" + occurrences.dbIds.length + " objects, " + occurrences.diagrams.cardinality() + " diagrams)");
+                    } else {
+                        occurrences = build(release);
+                        IndexSnapshot.store(path, MAGIC, release, occurrences::write);
+                        logger.info("Diagram occurrence index for release " + release + " built in " + (System.currentTimeMillis() - start) + "ms (" + occurrences.dbIds.length + " objects, " + occurrences.diagrams.cardinality() + " diagrams)");
+                    }
+                    this.occurrences = occurrences;
+                }
+            }
+        }
+        return occurrences;
+    }
+
+    private Occurrences build(Integer release) {
+        //language=Cypher
+        String query = "" +
+                "MATCH (a:DatabaseObject) " +
+                "WHERE a.dbId > $lastKey AND (a:Event OR a:PhysicalEntity OR a:CatalystActivity OR a:Regulation OR a:EntityFunctionalStatus) " +
+                "WITH a ORDER BY a.dbId LIMIT $limit " +
+                "OPTIONAL MATCH (a)-[r:hasEvent|input|output|catalystActivity|physicalEntity|entityFunctionalStatus|diseaseEntity|regulatedBy|regulator|hasComponent|hasMember|hasCandidate|repeatedUnit|hasEncapsulatedEvent]->(b) " +
+                "RETURN a.dbId AS dbId, CASE WHEN a:Pathway THEN a.stId END AS stId, coalesce(a:Pathway AND a.hasDiagram, false) AS hasDiagram, " +
+                "       collect(type(r)) AS types, collect(b.dbId) AS targets " +
+                "ORDER BY dbId";
+        Iterator<Row> rows = new KeysetPageIterator<>((lastKey, limit) -> neo4jClient.query(query).in(databaseName)
+                .bindAll(Map.of("lastKey", lastKey, "limit", limit))
+                .fetchAs(Row.class)
+                .mappedBy((t, r) -> new Row(
+                        r.get("dbId").asLong(),
+                        r.get("stId").asString(null),
+                        r.get("hasDiagram").asBoolean(false),
+                        r.get("types").asList(org.neo4j.driver.Value::asString),
+                        r.get("targets").asList(org.neo4j.driver.Value::asLong)))
+                .all(), row -> row.dbId, PAGE_SIZE);
+
+        IntList start = new IntList();
+        LongList targets = new LongList();
+        IntList kinds = new IntList();
+        LongList dbIds = new LongList();
+        List<String> stIds = new ArrayList<>();
+        BitSet diagrams = new BitSet();
+        while (rows.hasNext()) {
+            Row row = rows.next();
+            if (row.hasDiagram) diagrams.set(dbIds.size());
+            dbIds.add(row.dbId);
+            stIds.add(row.stId);
+            start.add(targets.size());
+            for (int i = 0; i < row.types.size(); i++) {
+                targets.add(row.targets.get(i));
+                kinds.add(KINDS.get(row.types.get(i)));
+            }
+        }
+        start.add(targets.size());
+        return new Occurrences(release, dbIds.toArray(), stIds.toArray(new String[0]), diagrams, start.toArray(), targets.toArray(), kinds.toArray());
+    }
+
+    private static class Row {
+        private final long dbId;
+        private final String stId;
+        private final boolean hasDiagram;
+        private final List<String> types;
+        private final List<Long> targets;
+
+        Row(long dbId, String stId, boolean hasDiagram, List<String> types, List<Long> targets) {
+            this.dbId = dbId;
+            this.stId = stId;
+            this.hasDiagram = hasDiagram;
+            this.types = types;
+            this.targets = targets;
+        }
+    }
+
+    private static class Occurrences {
+
+        private final Integer release;
+
+        private final long[] dbIds;
+        private final String[] stIds;      // only for pathways
+        private final BitSet diagrams;     // pathways with diagram
+
+        // Outgoing relationships of the object in position i: targets[start[i]..start[i+1]] (kinds in the same position)
+        private final int[] start;
+        private final int[] targets;
+        private final byte[] kinds;
+
+        // hasEvent and hasEncapsulatedEvent incoming relationships
+        private final int[] parentStart;
+        private final int[] parents;
+        private final int[] encapsulatedByStart;
+        private final int[] encapsulatedBy;
+
+        // Nearest diagrams following participant and composition relationships (full) or participant only
+        private final int[] fullStart;
+        private final int[] full;
+        private final int[] participantStart;
+        private final int[] participant;
+
+        Occurrences(Integer release, long[] dbIds, String[] stIds, BitSet diagrams, int[] start, long[] targetDbIds, int[] kinds) {
+            this.release = release;
+            this.dbIds = dbIds;
+            this.stIds = stIds;
+            this.diagrams = diagrams;
+            this.start = start;
+            int m = targetDbIds.length;
+            this.targets = new int[m];
+            this.kinds = new byte[m];
+            for (int e = 0; e < m; e++) {
+                targets[e] = indexOf(targetDbIds[e]);
+                this.kinds[e] = (byte) kinds[e];
+            }
+
+            int[][] reverse = reverse(HAS_EVENT);
+            parentStart = reverse[0];
+            parents = reverse[1];
+            reverse = reverse(ENCAPSULATED);
+            encapsulatedByStart = reverse[0];
+            encapsulatedBy = reverse[1];
+
+            int[][] nearest = nearestDiagrams(HAS_EVENT | PARTICIPANT | COMPOSITION);
+            fullStart = nearest[0];
+            full = nearest[1];
+            nearest = nearestDiagrams(HAS_EVENT | PARTICIPANT);
+            participantStart = nearest[0];
+            participant = nearest[1];
+        }
+
+        private Occurrences(Integer release, IndexSnapshot.Reader reader) {
+            this.release = release;
+            dbIds = reader.getLongs();
+            stIds = reader.getStrings();
+            diagrams = reader.getBitSet();
+            start = reader.getInts();
+            targets = reader.getInts();
+            kinds = reader.getBytes();
+            parentStart = reader.getInts();
+            parents = reader.getInts();
+            encapsulatedByStart = reader.getInts();
+            encapsulatedBy = reader.getInts();
+            fullStart = reader.getInts();
+            full = reader.getInts();
+            participantStart = reader.getInts();
+            participant = reader.getInts();
+        }
+
+        static Occurrences read(Integer release, ByteBuffer buffer) {
+            return new Occurrences(release, new IndexSnapshot.Reader(buffer));
+        }
+
+        ByteBuffer write() {
+            return new IndexSnapshot.Writer()
+                    .putLongs(dbIds).putStrings(stIds).putBitSet(diagrams)
+                    .putInts(start).putInts(targets).putBytes(kinds)
+                    .putInts(parentStart).putInts(parents).putInts(encapsulatedByStart).putInts(encapsulatedBy)
+                    .putInts(fullStart).putInts(full).putInts(participantStart).putInts(participant)
+                    .toBuffer();
+        }
+
+        int indexOf(long dbId) {
+            int i = Arrays.binarySearch(dbIds, dbId);
+            return i < 0 ? -1 : i;
+        }
+
+        Map<Integer, String> indexOf(Map<Long, String> dbIds) {
+            Map<Integer, String> rtn = new LinkedHashMap<>();
+            dbIds.forEach((dbId, stId) -> {
+                int i = indexOf(dbId);
+                if (i >= 0) rtn.put(i, stId);
+            });
+            return rtn;
+        }
+
+        int[] nearest(int i, boolean composition) {
+            return composition
+                    ? Arrays.copyOfRange(full, fullStart[i], fullStart[i + 1])
+                    : Arrays.copyOfRange(participant, participantStart[i], participantStart[i + 1]);
+        }
+
+        /**
+         * @return the given diagrams followed by the diagrammed pathways containing them and the pathways
+         * encapsulating any of those
+         */
+        List<Integer> getAll(Set<Integer> inDiagram) {
+            Set<Integer> hlds = new LinkedHashSet<>(inDiagram);
+            for (int d : inDiagram) hlds.addAll(diagramAncestorsOf(d));
+            Set<Integer> all = new LinkedHashSet<>(hlds);
+            for (int d : hlds) {
+                for (int i = encapsulatedByStart[d]; i < encapsulatedByStart[d + 1]; i++) all.add(encapsulatedBy[i]);
+            }
+            return new ArrayList<>(all);
+        }
+
+        /**
+         * @return the stIds of the pathways in all encapsulated by p, followed by the ones in all below p with
+         * exactly one diagram (including themselves) in between
+         */
+        List<String> getPathwayOccurrences(int p, List<Integer> all) {
+            Set<Integer> candidates = new HashSet<>(all);
+            Set<String> encapsulated = new LinkedHashSet<>();
+            for (int e = start[p]; e < start[p + 1]; e++) {
+                if (kinds[e] == ENCAPSULATED && targets[e] >= 0 && candidates.contains(targets[e])) encapsulated.add(stIds[targets[e]]);
+            }
+            // Traversal of hasEvent with the number of diagrams found (0 or 1) as part of the state
+            Set<String> subpathways = new LinkedHashSet<>();
+            Set<Long> visited = new HashSet<>();
+            Deque<long[]> queue = new ArrayDeque<>();
+            queue.add(new long[]{p, 0});
+            while (!queue.isEmpty()) {
+                long[] state = queue.poll();
+                int x = (int) state[0];
+                for (int e = start[x]; e < start[x + 1]; e++) {
+                    int c = targets[e];
+                    if (kinds[e] != HAS_EVENT || c < 0 || stIds[c] == null) continue; // only pathways have stIds
+                    long count = state[1] + (diagrams.get(c) ? 1 : 0);
+                    if (count > 1 || !visited.add(c * 2L + count)) continue;
+                    if (count == 1 && candidates.contains(c)) subpathways.add(stIds[c]);
+                    queue.add(new long[]{c, count});
+                }
+            }
+            List<String> rtn = new ArrayList<>(encapsulated);
+            rtn.addAll(subpathways);
+            return rtn;
+        }
+
+        /**
+         * @return the diagrams the physical entity is drawn in (following the participant relationships only) and
+         * the diagrammed pathways containing them
+         */
+        Set<Integer> diagramAncestors(int pe) {
+            Set<Integer> rtn = new HashSet<>();
+            for (int d : nearest(pe, false)) {
+                rtn.add(d);
+                rtn.addAll(diagramAncestorsOf(d));
+            }
+            return rtn;
+        }
+
+        private Set<Integer> diagramAncestorsOf(int event) {
+            Set<Integer> rtn = new LinkedHashSet<>();
+            BitSet visited = new BitSet(dbIds.length);
+            Deque<Integer> queue = new ArrayDeque<>();
+            queue.add(event);
+            visited.set(event);
+            while (!queue.isEmpty()) {
+                int x = queue.poll();
+                for (int i = parentStart[x]; i < parentStart[x + 1]; i++) {
+                    int parent = parents[i];
+                    if (visited.get(parent)) continue;
+                    visited.set(parent);
+                    if (diagrams.get(parent)) rtn.add(parent);
+                    queue.add(parent);
+                }
+            }
+            return rtn;
+        }
+
+        /**
+         * Breadth first traversal from every diagram following the given kinds of relationship without going
+         * through other diagrams: every object reached gets the diagram as one of its nearest diagrams
+         */
+        private int[][] nearestDiagrams(int kindMask) {
+            int n = dbIds.length;
+            IntList objects = new IntList();
+            IntList diagramsOf = new IntList();
+            int[] stamp = new int[n];
+            int current = 0;
+            int[] queue = new int[n];
+            for (int d = diagrams.nextSetBit(0); d >= 0; d = diagrams.nextSetBit(d + 1)) {
+                current++;
+                int head = 0, tail = 0;
+                queue[tail++] = d;
+                stamp[d] = current;
+                while (head < tail) {
+                    int x = queue[head++];
+                    for (int e = start[x]; e < start[x + 1]; e++) {
+                        int c = targets[e];
+                        if ((kinds[e] & kindMask) == 0 || c < 0 || stamp[c] == current) continue;
+                        stamp[c] = current;
+                        if (diagrams.get(c)) continue;
+                        objects.add(c);
+                        diagramsOf.add(d);
+                        queue[tail++] = c;
+                    }
+                }
+            }
+            return group(n, objects, diagramsOf);
+        }
+
+        private int[][] reverse(int kind) {
+            IntList from = new IntList();
+            IntList to = new IntList();
+            for (int x = 0; x < dbIds.length; x++) {
+                for (int e = start[x]; e < start[x + 1]; e++) {
+                    if (kinds[e] == kind && targets[e] >= 0) {
+                        from.add(targets[e]);
+                        to.add(x);
+                    }
+                }
+            }
+            return group(dbIds.length, from, to);
+        }
+
+        /**
+         * Counting sort of the pairs (key, value) by key
+         *
+         * @return the start of the values of every key (n + 1 positions) and the values
+         */
+        private static int[][] group(int n, IntList keys, IntList values) {
+            int[] s = new int[n + 1];
+            for (int i = 0; i < keys.size(); i++) s[keys.get(i) + 1]++;
+            for (int i = 0; i < n; i++) s[i + 1] += s[i];
+            int[] pos = Arrays.copyOf(s, n);
+            int[] grouped = new int[values.size()];
+            for (int i = 0; i < keys.size(); i++) grouped[pos[keys.get(i)]++] = values.get(i);
+            return new int[][]{s, grouped};
+        }
+    }
+}
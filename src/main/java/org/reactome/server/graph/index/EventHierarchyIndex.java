@@ -0,0 +1,670 @@
+package org.reactome.server.graph.index;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.reactome.server.graph.cache.ReleaseCacheManager;
+import org.reactome.server.graph.domain.result.EventProjection;
+import org.reactome.server.graph.domain.result.EventProjectionWrapper;
+import org.reactome.server.graph.domain.result.HierarchyTreeItem;
+import org.reactome.server.graph.repository.HierarchyRepository;
+import org.reactome.server.graph.service.helper.PathwayBrowserNode;
+import org.reactome.server.graph.service.helper.PathwayBrowserNodeWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.neo4j.core.Neo4jClient;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * In-memory index of the event hierarchy (the hasEvent relationships between events) used to answer the
+ * ancestors of an event and the species event hierarchy without traversing [:hasEvent*] in the database.
+ *
+ * The hierarchy is kept in primitive arrays (compressed sparse rows): the events are sorted by dbId and
+ * the children (with the relationship order) and the parents of the event in position i are stored in
+ * children[childStart[i]..childStart[i+1]] and parents[parentStart[i]..parentStart[i+1]] respectively.
+ * The attributes of the Pathway Browser nodes and of {@link EventProjection} are kept for each event in columns
+ * (values shared by many events are pooled), so both the ancestors and the hierarchies are answered from memory
+ * without querying the database once the index is built.
+ *
+ * The index is built on first use and rebuilt when {@link ReleaseCacheManager} detects a new release. When
+ * reactome.graph.index.snapshot.dir is set, the events and relationships retrieved are stored there and the
+ * instances serving the same release build the index from the snapshot instead of querying the database.
+ * It is disabled by default and enabled with reactome.graph.index.hierarchy.enabled=true
+ */
+@Component
+@SuppressWarnings("unused")
+public class EventHierarchyIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventHierarchyIndex.class);
+
+    private static final int MAGIC = 0x52474849; // RGHI
+    private static final String SNAPSHOT = "hierarchy.idx";
+
+    private final Neo4jClient neo4jClient;
+    private final ReleaseCacheManager releaseCacheManager;
+
+    @Value("${spring.data.neo4j.database:graph.db}")
+    private String databaseName;
+
+    @Value("${reactome.graph.index.hierarchy.enabled:false}")
+    private boolean enabled;
+
+    @Value("${reactome.graph.index.snapshot.dir:}")
+    private String snapshotDir;
+
+    private volatile Hierarchy hierarchy = null;
+
+    public EventHierarchyIndex(Neo4jClient neo4jClient, ReleaseCacheManager releaseCacheManager) {
+        this.neo4jClient = neo4jClient;
+        this.releaseCacheManager = releaseCacheManager;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        if (!enabled) hierarchy = null;
+        this.enabled = enabled;
+    }
+
+    public String getSnapshotDir() {
+        return snapshotDir;
+    }
+
+    public void setSnapshotDir(String snapshotDir) {
+        this.snapshotDir = snapshotDir;
+        hierarchy = null;
+    }
+
+    /**
+     * Same result as EventAncestorsRepository: one wrapper per path from the event up to a TopLevelPathway
+     * (plus one containing only the event when it is a TopLevelPathway itself). The projections are created from
+     * the index for every call, so the caller can modify them.
+     */
+    public Collection<EventProjectionWrapper> getEventAncestors(String stId) {
+        Hierarchy hierarchy = getHierarchy();
+        return getEventAncestors(hierarchy, hierarchy.indexOf(stId));
+    }
+
+    public Collection<EventProjectionWrapper> getEventAncestors(Long dbId) {
+        Hierarchy hierarchy = getHierarchy();
+        return getEventAncestors(hierarchy, hierarchy.indexOf(dbId));
+    }
+
+    /**
+     * Same result as HierarchyRepository.getEventHierarchyByTaxId
+     */
+    public Collection<PathwayBrowserNode> getEventHierarchyByTaxId(String taxId) {
+        Hierarchy hierarchy = getHierarchy();
+        return hierarchy.getEventHierarchy(hierarchy.tlpsByTaxId.get(taxId));
+    }
+
+    /**
+     * Same result as HierarchyRepository.getEventHierarchyBySpeciesName
+     */
+    public Collection<PathwayBrowserNode> getEventHierarchyBySpeciesName(String speciesName) {
+        Hierarchy hierarchy = getHierarchy();
+        return hierarchy.getEventHierarchy(hierarchy.tlpsBySpeciesName.get(speciesName));
+    }
+
+    /**
+     * Writes the JSON serialisation of getEventHierarchyByTaxId depth-first to the generator without creating
+     * the PathwayBrowserNode tree
+     */
+    public void writeEventHierarchyByTaxId(String taxId, JsonGenerator generator) throws IOException {
+        Hierarchy hierarchy = getHierarchy();
+        hierarchy.writeEventHierarchy(hierarchy.tlpsByTaxId.get(taxId), generator);
+    }
+
+    /**
+     * Writes the JSON serialisation of getEventHierarchyBySpeciesName depth-first to the generator without
+     * creating the PathwayBrowserNode tree
+     */
+    public void writeEventHierarchyBySpeciesName(String speciesName, JsonGenerator generator) throws IOException {
+        Hierarchy hierarchy = getHierarchy();
+        hierarchy.writeEventHierarchy(hierarchy.tlpsBySpeciesName.get(speciesName), generator);
+    }
+
+    private Collection<EventProjectionWrapper> getEventAncestors(Hierarchy hierarchy, int index) {
+        Collection<EventProjectionWrapper> rtn = new ArrayList<>();
+        for (int[] path : hierarchy.getAncestorPaths(index)) {
+            List<EventProjection> projections = new ArrayList<>(path.length);
+            for (int e : path) projections.add(hierarchy.getProjection(e));
+            rtn.add(new EventProjectionWrapper(projections));
+        }
+        return rtn;
+    }
+
+    /**
+     * Forces the index to be rebuilt on the next call
+     */
+    public void clear() {
+        hierarchy = null;
+    }
+
+    private Hierarchy getHierarchy() {
+        Integer release = releaseCacheManager.getRelease();
+        Hierarchy hierarchy = this.hierarchy;
+        if (hierarchy == null || !Objects.equals(hierarchy.release, release)) {
+            synchronized (this) {
+                hierarchy = this.hierarchy;
+                if (hierarchy == null || !Objects.equals(hierarchy.release, release)) {
+                    long start = System.currentTimeMillis();
+                    Path path = IndexSnapshot.path(snapshotDir, SNAPSHOT);
+                    ByteBuffer buffer = IndexSnapshot.load(path, MAGIC, release);
+                    hierarchy = IndexSnapshot.read(path, buffer, b -> read(release, b));
+                    if (hierarchy != null) {
+                        logger.info("Event hierarchy index for release " + release + " loaded from " + path + " in " + (System.currentTimeMillis() - start) + "ms (" + hierarchy.dbIds.length + " events)");
+                    } else {
+                        hierarchy = build(release, path);
+                        logger.info("Event hierarchy index for release " + release + " built in " + (System.currentTimeMillis() - start) + "ms (" + hierarchy.dbIds.length + " events)");
+                    }
+                    this.hierarchy = hierarchy;
+                }
+            }
+        }
+        return hierarchy;
+    }
+
+    private Hierarchy build(Integer release, Path snapshot) {
+        //language=Cypher
+        String eventsQuery = "" +
+                "MATCH (e:Event) " +
+                "OPTIONAL MATCH (e:TopLevelPathway)-[:species]->(s:Species) " +
+                "RETURN e.dbId AS dbId, e.stId AS stId, e.displayName AS displayName, e.speciesName AS speciesName, " +
+                "       e.schemaClass AS schemaClass, e.hasDiagram AS hasDiagram, labels(e) AS labels, " +
+                "       e:TopLevelPathway AS tlp, collect(s.taxId) AS taxIds, " +
+                "       e.name AS name, e.stIdVersion AS stIdVersion, e.oldStId AS oldStId, e.doi AS doi, " +
+                "       e.releaseDate AS releaseDate, e.releaseStatus AS releaseStatus, e.hasEHLD AS hasEHLD, " +
+                "       e.diagramHeight AS diagramHeight, e.diagramWidth AS diagramWidth, e.isInferred AS isInferred, " +
+                "       e.category AS category, e.isInDisease AS isInDisease, e.definition AS definition, " +
+                "       e.isCanonical AS isCanonical " +
+                "ORDER BY dbId";
+        List<org.neo4j.driver.Record> records = new ArrayList<>(neo4jClient.query(eventsQuery).in(databaseName)
+                .fetchAs(org.neo4j.driver.Record.class)
+                .mappedBy((t, r) -> r)
+                .all());
+        Events events = new Events(records.size());
+        for (int i = 0; i < records.size(); i++) {
+            org.neo4j.driver.Record r = records.get(i);
+            events.dbIds[i] = r.get("dbId").asLong();
+            events.stIds[i] = r.get("stId").asString(null);
+            events.displayNames[i] = r.get("displayName").asString(null);
+            events.speciesNames[i] = r.get("speciesName").asString(null);
+            events.schemaClasses[i] = r.get("schemaClass").asString(null);
+            if (r.get("hasDiagram").asBoolean(false)) events.hasDiagram.set(i);
+            events.labels[i] = r.get("labels").asList(org.neo4j.driver.Value::asString).toArray(new String[0]);
+            if (r.get("tlp").asBoolean(false)) events.topLevelPathways.set(i);
+            events.taxIds[i] = r.get("taxIds").asList(org.neo4j.driver.Value::asString).toArray(new String[0]);
+            // Same conversions as EventProjection(Value)
+            events.names[i] = r.get("name").asList(org.neo4j.driver.Value::asString, List.of()).toArray(new String[0]);
+            events.stIdVersions[i] = r.get("stIdVersion").asString(null);
+            events.oldStIds[i] = r.get("oldStId").asString(null);
+            events.dois[i] = r.get("doi").asString(null);
+            events.releaseDates[i] = r.get("releaseDate").asString(null);
+            events.releaseStatuses[i] = r.get("releaseStatus").asString(null);
+            if (r.get("hasEHLD").asBoolean(false)) events.hasEHLD.set(i);
+            events.diagramHeights[i] = r.get("diagramHeight").asInt(0);
+            events.diagramWidths[i] = r.get("diagramWidth").asInt(0);
+            if (r.get("isInferred").asBoolean(false)) events.isInferred.set(i);
+            events.categories[i] = r.get("category").asString(null);
+            if (r.get("isInDisease").asBoolean(false)) events.isInDisease.set(i);
+            events.definitions[i] = r.get("definition").asString(null);
+            events.isCanonicals[i] = r.get("isCanonical").asString(null);
+        }
+
+        //language=Cypher
+        String edgesQuery = "" +
+                "MATCH (p:Event)-[r:hasEvent]->(c:Event) " +
+                "RETURN p.dbId AS p, c.dbId AS c, r.order AS o";
+        Collection<long[]> aux = neo4jClient.query(edgesQuery).in(databaseName)
+                .fetchAs(long[].class)
+                .mappedBy((t, r) -> new long[]{r.get("p").asLong(), r.get("c").asLong(), r.get("o").asLong(0)})
+                .all();
+        long[] edges = new long[3 * aux.size()];
+        int e = 0;
+        for (long[] edge : aux) {
+            System.arraycopy(edge, 0, edges, e, 3);
+            e += 3;
+        }
+
+        IndexSnapshot.store(snapshot, MAGIC, release, () -> write(events, edges));
+        return new Hierarchy(release, events, edges);
+    }
+
+    private static ByteBuffer write(Events events, long[] edges) {
+        IndexSnapshot.Writer writer = new IndexSnapshot.Writer()
+                .putLongs(events.dbIds)
+                .putStrings(events.stIds)
+                .putStrings(events.displayNames)
+                .putStrings(events.speciesNames)
+                .putStrings(events.schemaClasses)
+                .putBitSet(events.hasDiagram)
+                .putBitSet(events.topLevelPathways)
+                .putStrings(events.stIdVersions)
+                .putStrings(events.oldStIds)
+                .putStrings(events.dois)
+                .putStrings(events.releaseDates)
+                .putStrings(events.releaseStatuses)
+                .putBitSet(events.hasEHLD)
+                .putInts(events.diagramHeights)
+                .putInts(events.diagramWidths)
+                .putBitSet(events.isInferred)
+                .putStrings(events.categories)
+                .putBitSet(events.isInDisease)
+                .putStrings(events.definitions)
+                .putStrings(events.isCanonicals);
+        for (int i = 0; i < events.dbIds.length; i++) {
+            writer.putStrings(events.labels[i]).putStrings(events.taxIds[i]).putStrings(events.names[i]);
+        }
+        return writer.putLongs(edges).toBuffer();
+    }
+
+    private static Hierarchy read(Integer release, ByteBuffer buffer) {
+        IndexSnapshot.Reader reader = new IndexSnapshot.Reader(buffer);
+        long[] dbIds = reader.getLongs();
+        Events events = new Events(dbIds.length);
+        System.arraycopy(dbIds, 0, events.dbIds, 0, dbIds.length);
+        System.arraycopy(reader.getStrings(), 0, events.stIds, 0, dbIds.length);
+        System.arraycopy(reader.getStrings(), 0, events.displayNames, 0, dbIds.length);
+        System.arraycopy(reader.getStrings(), 0, events.speciesNames, 0, dbIds.length);
+        System.arraycopy(reader.getStrings(), 0, events.schemaClasses, 0, dbIds.length);
+        events.hasDiagram.or(reader.getBitSet());
+        events.topLevelPathways.or(reader.getBitSet());
+        System.arraycopy(reader.getStrings(), 0, events.stIdVersions, 0, dbIds.length);
+        System.arraycopy(reader.getStrings(), 0, events.oldStIds, 0, dbIds.length);
+        System.arraycopy(reader.getStrings(), 0, events.dois, 0, dbIds.length);
+        System.arraycopy(reader.getStrings(), 0, events.releaseDates, 0, dbIds.length);
+        System.arraycopy(reader.getStrings(), 0, events.releaseStatuses, 0, dbIds.length);
+        events.hasEHLD.or(reader.getBitSet());
+        System.arraycopy(reader.getInts(), 0, events.diagramHeights, 0, dbIds.length);
+        System.arraycopy(reader.getInts(), 0, events.diagramWidths, 0, dbIds.length);
+        events.isInferred.or(reader.getBitSet());
+        System.arraycopy(reader.getStrings(), 0, events.categories, 0, dbIds.length);
+        events.isInDisease.or(reader.getBitSet());
+        System.arraycopy(reader.getStrings(), 0, events.definitions, 0, dbIds.length);
+        System.arraycopy(reader.getStrings(), 0, events.isCanonicals, 0, dbIds.length);
+        for (int i = 0; i < dbIds.length; i++) {
+            events.labels[i] = reader.getStrings();
+            events.taxIds[i] = reader.getStrings();
+            events.names[i] = reader.getStrings();
+        }
+        return new Hierarchy(release, events, reader.getLongs());
+    }
+
+    /**
+     * Attributes of the events as retrieved from the database (or the snapshot), sorted by dbId
+     */
+    private static class Events {
+        final long[] dbIds;
+        final String[] stIds;
+        final String[] displayNames;
+        final String[] speciesNames;
+        final String[] schemaClasses;
+        final BitSet hasDiagram;
+        final String[][] labels;
+        final BitSet topLevelPathways;
+        final String[][] taxIds;
+        final String[][] names;
+        final String[] stIdVersions;
+        final String[] oldStIds;
+        final String[] dois;
+        final String[] releaseDates;
+        final String[] releaseStatuses;
+        final BitSet hasEHLD;
+        final int[] diagramHeights;
+        final int[] diagramWidths;
+        final BitSet isInferred;
+        final String[] categories;
+        final BitSet isInDisease;
+        final String[] definitions;
+        final String[] isCanonicals;
+
+        Events(int n) {
+            dbIds = new long[n];
+            stIds = new String[n];
+            displayNames = new String[n];
+            speciesNames = new String[n];
+            schemaClasses = new String[n];
+            hasDiagram = new BitSet(n);
+            labels = new String[n][];
+            topLevelPathways = new BitSet(n);
+            taxIds = new String[n][];
+            names = new String[n][];
+            stIdVersions = new String[n];
+            oldStIds = new String[n];
+            dois = new String[n];
+            releaseDates = new String[n];
+            releaseStatuses = new String[n];
+            hasEHLD = new BitSet(n);
+            diagramHeights = new int[n];
+            diagramWidths = new int[n];
+            isInferred = new BitSet(n);
+            categories = new String[n];
+            isInDisease = new BitSet(n);
+            definitions = new String[n];
+            isCanonicals = new String[n];
+        }
+    }
+
+    /**
+     * Only the attributes needed to build the Pathway Browser nodes and the event projections are kept. Species
+     * names, schema classes, labels, release dates and statuses, categories and isCanonical are shared by many
+     * events, so they are stored once and referenced by their position in a pool.
+     */
+    private static class Hierarchy {
+
+        private final Integer release;
+
+        private final long[] dbIds;
+        private final Map<String, Integer> stIdIndex;
+        private final String[] stIds;
+        private final String[] displayNames;
+        private final int[] speciesNames;
+        private final int[] schemaClasses;
+        private final int[] labels;
+        private final BitSet hasDiagram;
+        private final BitSet topLevelPathways;
+        private final String[] speciesNamePool;
+        private final String[] schemaClassPool;
+        private final List<String>[] labelsPool;
+        private final String[][] names;
+        private final String[] stIdVersions;
+        private final String[] oldStIds;
+        private final String[] dois;
+        private final int[] releaseDates;
+        private final int[] releaseStatuses;
+        private final BitSet hasEHLD;
+        private final int[] diagramHeights;
+        private final int[] diagramWidths;
+        private final BitSet isInferred;
+        private final int[] categories;
+        private final BitSet isInDisease;
+        private final String[] definitions;
+        private final int[] isCanonicals;
+        private final String[] releaseDatePool;
+        private final String[] releaseStatusPool;
+        private final String[] categoryPool;
+        private final String[] isCanonicalPool;
+        private final Map<String, int[]> tlpsByTaxId = new HashMap<>();
+        private final Map<String, int[]> tlpsBySpeciesName = new HashMap<>();
+
+        private final int[] childStart;
+        private final int[] children;
+        private final int[] childOrder;
+        private final int[] parentStart;
+        private final int[] parents;
+
+        @SuppressWarnings("unchecked")
+        Hierarchy(Integer release, Events events, long[] edges) {
+            this.release = release;
+            int n = events.dbIds.length;
+            dbIds = events.dbIds;
+            stIds = events.stIds;
+            displayNames = events.displayNames;
+            hasDiagram = events.hasDiagram;
+            topLevelPathways = events.topLevelPathways;
+            stIdIndex = new HashMap<>(n * 2);
+            speciesNames = new int[n];
+            schemaClasses = new int[n];
+            labels = new int[n];
+            names = events.names;
+            stIdVersions = events.stIdVersions;
+            oldStIds = events.oldStIds;
+            dois = events.dois;
+            hasEHLD = events.hasEHLD;
+            diagramHeights = events.diagramHeights;
+            diagramWidths = events.diagramWidths;
+            isInferred = events.isInferred;
+            isInDisease = events.isInDisease;
+            definitions = events.definitions;
+            releaseDates = new int[n];
+            releaseStatuses = new int[n];
+            categories = new int[n];
+            isCanonicals = new int[n];
+            releaseDatePool = pool(events.releaseDates, releaseDates);
+            releaseStatusPool = pool(events.releaseStatuses, releaseStatuses);
+            categoryPool = pool(events.categories, categories);
+            isCanonicalPool = pool(events.isCanonicals, isCanonicals);
+
+            Map<String, Integer> speciesNameIds = new LinkedHashMap<>();
+            Map<String, Integer> schemaClassIds = new LinkedHashMap<>();
+            Map<List<String>, Integer> labelsIds = new LinkedHashMap<>();
+            Map<String, List<Integer>> byTaxId = new HashMap<>();
+            Map<String, List<Integer>> bySpeciesName = new HashMap<>();
+            for (int i = 0; i < n; i++) {
+                stIdIndex.put(stIds[i], i);
+                speciesNames[i] = speciesNameIds.computeIfAbsent(events.speciesNames[i], k -> speciesNameIds.size());
+                schemaClasses[i] = schemaClassIds.computeIfAbsent(events.schemaClasses[i], k -> schemaClassIds.size());
+                labels[i] = labelsIds.computeIfAbsent(List.of(events.labels[i]), k -> labelsIds.size());
+                if (topLevelPathways.get(i)) {
+                    for (String taxId : events.taxIds[i]) {
+                        byTaxId.computeIfAbsent(taxId, k -> new ArrayList<>()).add(i);
+                    }
+                    bySpeciesName.computeIfAbsent(events.speciesNames[i], k -> new ArrayList<>()).add(i);
+                }
+            }
+            speciesNamePool = speciesNameIds.keySet().toArray(new String[0]);
+            schemaClassPool = schemaClassIds.keySet().toArray(new String[0]);
+            labelsPool = labelsIds.keySet().toArray(new List[0]);
+            byTaxId.forEach((k, v) -> tlpsByTaxId.put(k, v.stream().mapToInt(Integer::intValue).toArray()));
+            bySpeciesName.forEach((k, v) -> tlpsBySpeciesName.put(k, v.stream().mapToInt(Integer::intValue).toArray()));
+
+            // Counting sort of the edges by parent (children) and by child (parents)
+            int m = edges.length / 3;
+            int[] from = new int[m], to = new int[m], order = new int[m];
+            for (int e = 0; e < m; e++) {
+                from[e] = indexOf(edges[3 * e]);
+                to[e] = indexOf(edges[3 * e + 1]);
+                order[e] = (int) edges[3 * e + 2];
+            }
+            childStart = new int[n + 1];
+            parentStart = new int[n + 1];
+            for (int i = 0; i < m; i++) {
+                childStart[from[i] + 1]++;
+                parentStart[to[i] + 1]++;
+            }
+            for (int i = 0; i < n; i++) {
+                childStart[i + 1] += childStart[i];
+                parentStart[i + 1] += parentStart[i];
+            }
+            children = new int[m];
+            childOrder = new int[m];
+            parents = new int[m];
+            int[] childPos = Arrays.copyOf(childStart, n);
+            int[] parentPos = Arrays.copyOf(parentStart, n);
+            for (int i = 0; i < m; i++) {
+                int c = childPos[from[i]]++;
+                children[c] = to[i];
+                childOrder[c] = order[i];
+                parents[parentPos[to[i]]++] = from[i];
+            }
+        }
+
+        /**
+         * Stores in ids the position of each value in the returned pool of distinct values
+         */
+        private static String[] pool(String[] values, int[] ids) {
+            Map<String, Integer> pool = new LinkedHashMap<>();
+            for (int i = 0; i < values.length; i++) {
+                ids[i] = pool.computeIfAbsent(values[i], k -> pool.size());
+            }
+            return pool.keySet().toArray(new String[0]);
+        }
+
+        int indexOf(long dbId) {
+            int i = Arrays.binarySearch(dbIds, dbId);
+            return i < 0 ? -1 : i;
+        }
+
+        int indexOf(String stId) {
+            return stIdIndex.getOrDefault(stId, -1);
+        }
+
+        /**
+         * @return the paths (as positions of the events, starting from the given one) up to a TopLevelPathway
+         */
+        List<int[]> getAncestorPaths(int event) {
+            List<int[]> rtn = new ArrayList<>();
+            if (event < 0) return rtn;
+            if (topLevelPathways.get(event)) rtn.add(new int[]{event});
+            Deque<Integer> path = new ArrayDeque<>();
+            path.addLast(event);
+            addAncestorPaths(event, path, new BitSet(dbIds.length), rtn);
+            return rtn;
+        }
+
+        private void addAncestorPaths(int event, Deque<Integer> path, BitSet onPath, List<int[]> rtn) {
+            onPath.set(event);
+            for (int i = parentStart[event]; i < parentStart[event + 1]; i++) {
+                int parent = parents[i];
+                if (onPath.get(parent)) continue;
+                path.addLast(parent);
+                if (topLevelPathways.get(parent)) rtn.add(path.stream().mapToInt(Integer::intValue).toArray());
+                addAncestorPaths(parent, path, onPath, rtn);
+                path.removeLast();
+            }
+            onPath.clear(event);
+        }
+
+        Collection<PathwayBrowserNode> getEventHierarchy(int[] tlps) {
+            if (tlps == null) return null;
+            Collection<PathwayBrowserNode> eventHierarchy = new TreeSet<>();
+            for (int tlp : tlps) {
+                // Same as the query, TopLevelPathways without events are not part of the hierarchy
+                if (childStart[tlp] == childStart[tlp + 1]) continue;
+                PathwayBrowserNode root = HierarchyRepository.createRootNode(getTreeItem(tlp, 0));
+                Map<Integer, PathwayBrowserNode> nodes = new HashMap<>();
+                nodes.put(tlp, root);
+                addChildren(tlp, root, nodes, new BitSet(dbIds.length));
+                eventHierarchy.add(root);
+            }
+            return eventHierarchy.isEmpty() ? null : eventHierarchy;
+        }
+
+        private void addChildren(int event, PathwayBrowserNode node, Map<Integer, PathwayBrowserNode> nodes, BitSet expanded) {
+            expanded.set(event);
+            for (int i = childStart[event]; i < childStart[event + 1]; i++) {
+                int child = children[i];
+                PathwayBrowserNode childNode = nodes.get(child);
+                if (childNode == null) {
+                    childNode = HierarchyRepository.createNode(getTreeItem(child, childOrder[i]));
+                    nodes.put(child, childNode);
+                }
+                node.addChild(childNode);
+                childNode.addParent(node);
+                // The sub-tree of an event is the same regardless of the path followed to reach it
+                if (!expanded.get(child)) addChildren(child, childNode, nodes, expanded);
+            }
+        }
+
+        /**
+         * Writes the nodes in the same order as getEventHierarchy: the children are sorted like the TreeSet of
+         * PathwayBrowserNode (species, order and name, dropping the ones comparing equal) and the order of an event
+         * is the one of the relationship it is reached through first when the tree is built
+         */
+        void writeEventHierarchy(int[] tlps, JsonGenerator generator) throws IOException {
+            int[] roots = tlps == null ? new int[0] : Arrays.stream(tlps).filter(tlp -> childStart[tlp] != childStart[tlp + 1]).toArray();
+            if (roots.length == 0) {
+                generator.writeNull();
+                return;
+            }
+            int[] order = new int[dbIds.length];
+            BitSet visited = new BitSet(dbIds.length);
+            generator.writeStartArray();
+            for (int root : sort(roots, null)) {
+                visited.clear();
+                setOrder(root, order, visited);
+                writeNode(root, true, order, generator);
+            }
+            generator.writeEndArray();
+        }
+
+        private void setOrder(int event, int[] order, BitSet visited) {
+            visited.set(event);
+            for (int i = childStart[event]; i < childStart[event + 1]; i++) {
+                int child = children[i];
+                if (!visited.get(child)) {
+                    order[child] = childOrder[i];
+                    setOrder(child, order, visited);
+                }
+            }
+        }
+
+        private void writeNode(int event, boolean root, int[] order, JsonGenerator generator) throws IOException {
+            // Same fields as HierarchyRepository.createRootNode and createNode
+            Boolean diagram = !root || labelsPool[labels[event]].contains("Pathway") ? hasDiagram.get(event) : null;
+            PathwayBrowserNodeWriter.writeStartNode(generator, stIds[event], displayNames[event], speciesNamePool[speciesNames[event]], null, schemaClassPool[schemaClasses[event]], diagram);
+            generator.writeFieldName(PathwayBrowserNodeWriter.CHILDREN);
+            if (childStart[event] == childStart[event + 1]) {
+                generator.writeNull();
+            } else {
+                generator.writeStartArray();
+                for (int child : sort(Arrays.copyOfRange(children, childStart[event], childStart[event + 1]), order)) {
+                    writeNode(child, false, order, generator);
+                }
+                generator.writeEndArray();
+            }
+            generator.writeEndObject();
+        }
+
+        private int[] sort(int[] events, int[] order) {
+            Comparator<Integer> comparator = Comparator.<Integer, String>comparing(e -> Objects.toString(speciesNamePool[speciesNames[e]], ""))
+                    .thenComparingInt(e -> order == null ? 0 : order[e])
+                    .thenComparing(e -> displayNames[e]);
+            Integer[] aux = Arrays.stream(events).boxed().toArray(Integer[]::new);
+            Arrays.sort(aux, comparator); // Stable, so the first one added is kept when several compare equal
+            int[] rtn = new int[aux.length];
+            int n = 0;
+            for (Integer event : aux) {
+                if (n == 0 || comparator.compare(rtn[n - 1], event) != 0) rtn[n++] = event;
+            }
+            return Arrays.copyOf(rtn, n);
+        }
+
+        /**
+         * Same attributes as EventProjection(Value) created from the ancestors query
+         */
+        EventProjection getProjection(int event) {
+            EventProjection projection = new EventProjection();
+            projection.setDbId(dbIds[event]);
+            projection.setDisplayName(displayNames[event]);
+            projection.setName(new ArrayList<>(Arrays.asList(names[event])));
+            projection.setStId(stIds[event]);
+            projection.setStIdVersion(stIdVersions[event]);
+            projection.setOldStId(oldStIds[event]);
+            projection.setSchemaClass(schemaClassPool[schemaClasses[event]]);
+            projection.setDoi(dois[event]);
+            projection.setSpeciesName(speciesNamePool[speciesNames[event]]);
+            projection.setReleaseDate(releaseDatePool[releaseDates[event]]);
+            projection.setReleaseStatus(releaseStatusPool[releaseStatuses[event]]);
+            projection.setHasDiagram(hasDiagram.get(event));
+            projection.setHasEHLD(hasEHLD.get(event));
+            projection.setDiagramHeight(diagramHeights[event]);
+            projection.setDiagramWidth(diagramWidths[event]);
+            projection.setInferred(isInferred.get(event));
+            projection.setCategory(categoryPool[categories[event]]);
+            projection.setInDisease(isInDisease.get(event));
+            projection.setDefinition(definitions[event]);
+            projection.setIsCanonical(isCanonicalPool[isCanonicals[event]]);
+            return projection;
+        }
+
+        private HierarchyTreeItem getTreeItem(int event, int order) {
+            HierarchyTreeItem item = new HierarchyTreeItem();
+            item.setStId(stIds[event]);
+            item.setDisplayName(displayNames[event]);
+            item.setHasDiagram(hasDiagram.get(event));
+            item.setSpeciesName(speciesNamePool[speciesNames[event]]);
+            item.setSchemaClass(schemaClassPool[schemaClasses[event]]);
+            item.setLabels(labelsPool[labels[event]]);
+            item.setOrder(order);
+            return item;
+        }
+    }
+}
@@ -0,0 +1,380 @@
+package org.reactome.server.graph.index;
+
+import org.reactome.server.graph.cache.ReleaseCacheManager;
+import org.reactome.server.graph.domain.model.DatabaseObject;
+import org.reactome.server.graph.repository.util.KeysetPageIterator;
+import org.reactome.server.graph.service.util.DatabaseObjectUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.neo4j.core.Neo4jClient;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * In-memory index of the identifiers of every DatabaseObject used to resolve (and validate) the identifiers
+ * received by the services without querying the database, so unknown identifiers do not cost a round-trip.
+ *
+ * The dbIds are kept sorted in a primitive array and the stIds in a sorted array, each one pointing to the
+ * position of the other (stIdOf and dbIdOf), so both directions are answered by binary search. The OLD style
+ * identifiers (REACT_) are kept in a map to their current stId. A Bloom filter with all the identifiers
+ * discards most of the identifiers that do not exist before searching them.
+ *
+ * The index is built on first use and rebuilt when {@link ReleaseCacheManager} detects a new release, so
+ * it assumes the content of the database only changes with the release. When reactome.graph.index.snapshot.dir
+ * is set, the index is stored there and loaded from the snapshot by the instances serving the same release.
+ * It is disabled by default and enabled with reactome.graph.index.identifiers.enabled=true
+ */
+@Component
+@SuppressWarnings("unused")
+public class IdentifierIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdentifierIndex.class);
+
+    private static final int PAGE_SIZE = 100_000;
+    private static final int MAGIC = 0x52474949; // RGII
+    private static final String SNAPSHOT = "identifiers.idx";
+
+    private final Neo4jClient neo4jClient;
+    private final ReleaseCacheManager releaseCacheManager;
+
+    @Value("${spring.data.neo4j.database:graph.db}")
+    private String databaseName;
+
+    @Value("${reactome.graph.index.identifiers.enabled:false}")
+    private boolean enabled;
+
+    @Value("${reactome.graph.index.snapshot.dir:}")
+    private String snapshotDir;
+
+    private volatile Identifiers identifiers = null;
+
+    public IdentifierIndex(Neo4jClient neo4jClient, ReleaseCacheManager releaseCacheManager) {
+        this.neo4jClient = neo4jClient;
+        this.releaseCacheManager = releaseCacheManager;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        if (!enabled) identifiers = null;
+        this.enabled = enabled;
+    }
+
+    public String getSnapshotDir() {
+        return snapshotDir;
+    }
+
+    public void setSnapshotDir(String snapshotDir) {
+        this.snapshotDir = snapshotDir;
+        identifiers = null;
+    }
+
+    /**
+     * Same contract as {@link DatabaseObjectUtils#getIdentifier(Object)} but the identifiers that do not exist
+     * in the database resolve to null
+     */
+    public String resolve(Object id) {
+        return getIdentifiers().resolve(id);
+    }
+
+    /**
+     * Bulk version of resolve
+     *
+     * @return the identifier for each of the given ids (the ones that do not exist are not included)
+     */
+    public Map<Object, String> resolve(Collection<?> ids) {
+        Identifiers identifiers = getIdentifiers();
+        Map<Object, String> rtn = new LinkedHashMap<>();
+        for (Object id : ids) {
+            String aux = identifiers.resolve(id);
+            if (aux != null) rtn.put(id, aux);
+        }
+        return rtn;
+    }
+
+    /**
+     * @return the dbId of the given stId or null when it does not exist
+     */
+    public Long getDbId(String stId) {
+        Identifiers identifiers = getIdentifiers();
+        int i = identifiers.indexOf(stId);
+        return i < 0 ? null : identifiers.dbIds[identifiers.dbIdOf[i]];
+    }
+
+    /**
+     * @return the stId of the given dbId or null when it does not exist or the object does not have stId
+     */
+    public String getStId(Long dbId) {
+        Identifiers identifiers = getIdentifiers();
+        int i = identifiers.indexOf(dbId);
+        if (i < 0 || identifiers.stIdOf[i] < 0) return null;
+        return identifiers.stIds[identifiers.stIdOf[i]];
+    }
+
+    /**
+     * @return the current stId of the given OLD style identifier (REACT_) or null when it does not exist
+     */
+    public String getNewStId(String oldStId) {
+        return getIdentifiers().oldStIds.get(oldStId);
+    }
+
+    /**
+     * Forces the index to be rebuilt on the next call
+     */
+    public void clear() {
+        identifiers = null;
+    }
+
+    private Identifiers getIdentifiers() {
+        Integer release = releaseCacheManager.getRelease();
+        Identifiers identifiers = this.identifiers;
+        if (identifiers == null || !Objects.equals(identifiers.release, release)) {
+            synchronized (this) {
+                identifiers = this.identifiers;
+                if (identifiers == null || !Objects.equals(identifiers.release, release)) {
+                    long start = System.currentTimeMillis();
+                    Path path = IndexSnapshot.path(snapshotDir, SNAPSHOT);
+                    ByteBuffer buffer = IndexSnapshot.load(path, MAGIC, release);
+                    identifiers = IndexSnapshot.read(path, buffer, b -> Identifiers.read(release, b));
+                    if (identifiers != null) {
+                        logger.info("Identifier index for release " + release + " loaded from " + path + " in " + (System.currentTimeMillis() - start) + "ms (" + identifiers.dbIds.length + " objects, " + identifiers.stIds.length + " stIds)");
+                    } else {
+                        identifiers = build(release);
+                        IndexSnapshot.store(path, MAGIC, release, identifiers::write);
+                        logger.info("Identifier index for release " + release + " built in " + (System.currentTimeMillis() - start) + "ms (" + identifiers.dbIds.length + " objects, " + identifiers.stIds.length + " stIds)");
+                    }
+                    this.identifiers = identifiers;
+                }
+            }
+        }
+        return identifiers;
+    }
+
+    private Identifiers build(Integer release) {
+        //language=Cypher
+        String query = "" +
+                "MATCH (n:DatabaseObject) " +
+                "WHERE n.dbId > $lastKey " +
+                "RETURN n.dbId AS dbId, n.stId AS stId, n.oldStId AS oldStId " +
+                "ORDER BY dbId " +
+                "LIMIT $limit";
+        long[] dbIds = new long[PAGE_SIZE];
+        String[] stIds = new String[PAGE_SIZE];
+        Map<String, String> oldStIds = new HashMap<>();
+        int n = 0;
+        Iterator<Row> rows = new KeysetPageIterator<>((lastKey, limit) -> neo4jClient.query(query).in(databaseName)
+                .bindAll(Map.of("lastKey", lastKey, "limit", limit))
+                .fetchAs(Row.class)
+                .mappedBy((t, r) -> new Row(r.get("dbId").asLong(), r.get("stId").asString(null), r.get("oldStId").asString(null)))
+                .all(), row -> row.dbId, PAGE_SIZE);
+        while (rows.hasNext()) {
+            Row row = rows.next();
+            if (n == dbIds.length) {
+                dbIds = Arrays.copyOf(dbIds, n * 2);
+                stIds = Arrays.copyOf(stIds, n * 2);
+            }
+            dbIds[n] = row.dbId;
+            stIds[n] = row.stId;
+            if (row.oldStId != null && row.stId != null) oldStIds.put(row.oldStId, row.stId);
+            n++;
+        }
+        return new Identifiers(release, Arrays.copyOf(dbIds, n), Arrays.copyOf(stIds, n), oldStIds);
+    }
+
+    private static class Row {
+        private final long dbId;
+        private final String stId;
+        private final String oldStId;
+
+        Row(long dbId, String stId, String oldStId) {
+            this.dbId = dbId;
+            this.stId = stId;
+            this.oldStId = oldStId;
+        }
+    }
+
+    private static class Identifiers {
+
+        private final Integer release;
+
+        private final long[] dbIds;
+        private final int[] stIdOf;
+        private final String[] stIds;
+        private final int[] dbIdOf;
+        private final Map<String, String> oldStIds;
+        private final BloomFilter filter;
+
+        /**
+         * @param dbIds     sorted dbIds
+         * @param rowStIds  stId (or null) of the object in the same position of dbIds
+         * @param oldStIds  current stId of the OLD style identifiers
+         */
+        Identifiers(Integer release, long[] dbIds, String[] rowStIds, Map<String, String> oldStIds) {
+            this.release = release;
+            this.dbIds = dbIds;
+            this.oldStIds = oldStIds;
+
+            List<Integer> order = new ArrayList<>();
+            for (int i = 0; i < rowStIds.length; i++) {
+                if (rowStIds[i] != null) order.add(i);
+            }
+            order.sort(Comparator.comparing(i -> rowStIds[i]));
+            stIds = new String[order.size()];
+            dbIdOf = new int[order.size()];
+            stIdOf = new int[dbIds.length];
+            Arrays.fill(stIdOf, -1);
+            for (int j = 0; j < order.size(); j++) {
+                int i = order.get(j);
+                stIds[j] = rowStIds[i];
+                dbIdOf[j] = i;
+                stIdOf[i] = j;
+            }
+
+            filter = new BloomFilter(dbIds.length + stIds.length);
+            for (long dbId : dbIds) filter.add(dbId);
+            for (String stId : stIds) filter.add(stId);
+        }
+
+        private Identifiers(Integer release, long[] dbIds, int[] stIdOf, String[] stIds, int[] dbIdOf, Map<String, String> oldStIds, BloomFilter filter) {
+            this.release = release;
+            this.dbIds = dbIds;
+            this.stIdOf = stIdOf;
+            this.stIds = stIds;
+            this.dbIdOf = dbIdOf;
+            this.oldStIds = oldStIds;
+            this.filter = filter;
+        }
+
+        static Identifiers read(Integer release, ByteBuffer buffer) {
+            IndexSnapshot.Reader reader = new IndexSnapshot.Reader(buffer);
+            long[] dbIds = reader.getLongs();
+            int[] stIdOf = reader.getInts();
+            String[] stIds = reader.getStrings();
+            int[] dbIdOf = reader.getInts();
+            String[] old = reader.getStrings();
+            Map<String, String> oldStIds = new HashMap<>(old.length);
+            for (int i = 0; i < old.length; i += 2) oldStIds.put(old[i], old[i + 1]);
+            BloomFilter filter = new BloomFilter(reader.getLongs());
+            return new Identifiers(release, dbIds, stIdOf, stIds, dbIdOf, oldStIds, filter);
+        }
+
+        ByteBuffer write() {
+            String[] old = new String[oldStIds.size() * 2];
+            int i = 0;
+            for (Map.Entry<String, String> entry : oldStIds.entrySet()) {
+                old[i++] = entry.getKey();
+                old[i++] = entry.getValue();
+            }
+            return new IndexSnapshot.Writer()
+                    .putLongs(dbIds).putInts(stIdOf).putStrings(stIds).putInts(dbIdOf).putStrings(old)
+                    .putLongs(filter.bits)
+                    .toBuffer();
+        }
+
+        String resolve(Object id) {
+            if (id instanceof DatabaseObject) {
+                return "" + ((DatabaseObject) id).getDbId();
+            } else if (id instanceof String) {
+                String aux = DatabaseObjectUtils.trimId((String) id);
+                if (aux.startsWith("REACT_")) return oldStIds.get(aux);
+                if (DatabaseObjectUtils.isStId(aux)) return indexOf(aux) < 0 ? null : aux;
+                if (DatabaseObjectUtils.isDbId(aux) && aux.length() < 19) return indexOf(Long.parseLong(aux)) < 0 ? null : aux;
+            } else if (id instanceof Number && !(id instanceof Double)) {
+                return indexOf(((Number) id).longValue()) < 0 ? null : id.toString();
+            }
+            return null;
+        }
+
+        int indexOf(long dbId) {
+            if (!filter.mightContain(dbId)) return -1;
+            int i = Arrays.binarySearch(dbIds, dbId);
+            return i < 0 ? -1 : i;
+        }
+
+        int indexOf(String stId) {
+            if (stId == null || !filter.mightContain(stId)) return -1;
+            int i = Arrays.binarySearch(stIds, stId);
+            return i < 0 ? -1 : i;
+        }
+    }
+
+    /**
+     * Bloom filter (about 1% false positives) using double hashing over a 64-bit hash of the element
+     */
+    private static class BloomFilter {
+
+        private static final int BITS_PER_ELEMENT = 10;
+        private static final int HASHES = 7;
+
+        private final long[] bits;
+        private final long size;
+
+        BloomFilter(int elements) {
+            long size = Math.max(64L, (long) elements * BITS_PER_ELEMENT);
+            this.bits = new long[(int) ((size + 63) >>> 6)];
+            this.size = bits.length * 64L;
+        }
+
+        BloomFilter(long[] bits) {
+            this.bits = bits;
+            this.size = bits.length * 64L;
+        }
+
+        void add(long value) {
+            set(mix(value));
+        }
+
+        void add(String value) {
+            set(hash(value));
+        }
+
+        boolean mightContain(long value) {
+            return get(mix(value));
+        }
+
+        boolean mightContain(String value) {
+            return get(hash(value));
+        }
+
+        private void set(long hash) {
+            int h1 = (int) hash, h2 = (int) (hash >>> 32);
+            for (int i = 0; i < HASHES; i++) {
+                long bit = ((h1 + i * h2) & Integer.MAX_VALUE) % size;
+                bits[(int) (bit >>> 6)] |= 1L << bit;
+            }
+        }
+
+        private boolean get(long hash) {
+            int h1 = (int) hash, h2 = (int) (hash >>> 32);
+            for (int i = 0; i < HASHES; i++) {
+                long bit = ((h1 + i * h2) & Integer.MAX_VALUE) % size;
+                if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) return false;
+            }
+            return true;
+        }
+
+        private static long hash(String value) {
+            long h = 0xcbf29ce484222325L; // FNV-1a
+            for (int i = 0; i < value.length(); i++) {
+                h ^= value.charAt(i);
+                h *= 0x100000001b3L;
+            }
+            return mix(h);
+        }
+
+        private static long mix(long h) { // MurmurHash3 finalizer
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb9fe1a85ec53L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
@@ -0,0 +1,319 @@
+package org.reactome.server.graph.index;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Binary snapshot of an index for a given release, stored in a file that is memory mapped when loaded, so a
+ * restarted instance (or several instances sharing the file) do not need to build the index again.
+ *
+ * The file starts with a header (magic number of the index, format version, release and length of the content)
+ * that is checked when it is loaded: a snapshot of another index, format or release is ignored. The file is
+ * written to a temporary file of its own first (deleted when the write fails) and then moved, so a snapshot
+ * being written is never loaded.
+ *
+ * The content is written with {@link Writer} and read back with {@link Reader} (arrays are length prefixed and
+ * bulk copied from the mapped file), so the identifier, diagram occurrence, participant and event hierarchy indexes
+ * copy it into the heap and only save the Cypher queries. The mapping index is the only one using its own layout in place, so
+ * it is the only one keeping its content off heap. A snapshot that cannot be read or written is logged and the
+ * index is built (and kept) in heap instead.
+ */
+public final class IndexSnapshot {
+
+    private static final Logger logger = LoggerFactory.getLogger(IndexSnapshot.class);
+
+    public static final int FORMAT = 3;
+    private static final int HEADER = 4 + 4 + 4 + 8;
+
+    private IndexSnapshot() {
+    }
+
+    /**
+     * @return the (read only) content of the snapshot or null when the file does not exist or it does not
+     * match the given magic number, the current format or the release
+     */
+    public static ByteBuffer load(Path file, int magic, Integer release) {
+        if (file == null || release == null || !Files.isReadable(file)) return null;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER) return null;
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER);
+            if (header.getInt() != magic || header.getInt() != FORMAT || header.getInt() != release) return null;
+            long length = header.getLong();
+            if (channel.size() != HEADER + length) return null;
+            return channel.map(FileChannel.MapMode.READ_ONLY, HEADER, length);
+        } catch (IOException e) {
+            logger.warn("Snapshot " + file + " cannot be read: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Writes the content (from 0 to its limit) as the snapshot of the given release
+     *
+     * @return the content mapped from the file, or the given content when it cannot be written
+     */
+    public static ByteBuffer store(Path file, int magic, Integer release, ByteBuffer content) {
+        if (file == null || release == null) return content;
+        Path dir = file.toAbsolutePath().getParent();
+        Path tmp = null;
+        try {
+            Files.createDirectories(dir);
+            // Every writer gets its own temporary file, so instances sharing the directory cannot mix their content
+            tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER);
+                header.putInt(magic).putInt(FORMAT).putInt(release).putLong(content.limit()).flip();
+                while (header.hasRemaining()) channel.write(header);
+                ByteBuffer aux = content.duplicate();
+                aux.position(0);
+                while (aux.hasRemaining()) channel.write(aux);
+                channel.force(false);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            tmp = null;
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Snapshot " + file + " cannot be written: " + e.getMessage());
+            return content;
+        } finally {
+            deleteQuietly(tmp);
+        }
+        ByteBuffer rtn = load(file, magic, release);
+        return rtn != null ? rtn : content;
+    }
+
+    /**
+     * Writes the content created by the writer as the snapshot of the given release. Failures creating the content
+     * are logged as well, since the index is already built in heap and does not need the snapshot
+     */
+    public static void store(Path file, int magic, Integer release, Supplier<ByteBuffer> writer) {
+        if (file == null || release == null) return;
+        try {
+            store(file, magic, release, writer.get());
+        } catch (RuntimeException e) {
+            logger.warn("Snapshot " + file + " cannot be written: " + e.getMessage());
+        }
+    }
+
+    /**
+     * @return the index read from the content of the snapshot or null when there is no content or it cannot be
+     * read (e.g. a truncated or corrupted file), so the caller builds the index instead
+     */
+    public static <T> T read(Path file, ByteBuffer content, Function<ByteBuffer, T> reader) {
+        if (content == null) return null;
+        try {
+            return reader.apply(content);
+        } catch (RuntimeException e) {
+            logger.warn("Snapshot " + file + " cannot be read, the index is built again: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static void deleteQuietly(Path tmp) {
+        if (tmp == null) return;
+        try {
+            Files.deleteIfExists(tmp);
+        } catch (IOException e) {
+            logger.warn("Temporary snapshot " + tmp + " cannot be deleted: " + e.getMessage());
+        }
+    }
+
+    /**
+     * @return the file configured for a snapshot or null when the property is empty
+     */
+    public static Path path(String file) {
+        return file == null || file.trim().isEmpty() ? null : Path.of(file.trim());
+    }
+
+    /**
+     * @return the snapshot file of an index in the configured directory or null when the property is empty
+     */
+    public static Path path(String directory, String name) {
+        Path dir = path(directory);
+        return dir == null ? null : dir.resolve(name);
+    }
+
+    public static class Writer {
+
+        private ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+
+        public Writer putInt(int value) {
+            ensure(4).putInt(value);
+            return this;
+        }
+
+        public Writer putLong(long value) {
+            ensure(8).putLong(value);
+            return this;
+        }
+
+        public Writer putInts(int[] values) {
+            putInt(values.length);
+            ensure(4L * values.length).asIntBuffer().put(values);
+            buffer.position(buffer.position() + 4 * values.length);
+            return this;
+        }
+
+        public Writer putLongs(long[] values) {
+            putInt(values.length);
+            ensure(8L * values.length).asLongBuffer().put(values);
+            buffer.position(buffer.position() + 8 * values.length);
+            return this;
+        }
+
+        public Writer putBytes(byte[] values) {
+            putInt(values.length);
+            ensure(values.length).put(values);
+            return this;
+        }
+
+        public Writer putString(String value) {
+            if (value == null) return putInt(-1);
+            return putBytes(value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        public Writer putStrings(String[] values) {
+            putInt(values.length);
+            for (String value : values) putString(value);
+            return this;
+        }
+
+        public Writer putBitSet(BitSet value) {
+            return putLongs(value.toLongArray());
+        }
+
+        /**
+         * Writes null, a Boolean, a Long (or Integer), a Double, a String or a List of them
+         */
+        public Writer putObject(Object value) {
+            if (value == null) {
+                ensure(1).put((byte) 0);
+            } else if (value instanceof Boolean) {
+                ensure(2).put((byte) 1).put((byte) ((Boolean) value ? 1 : 0));
+            } else if (value instanceof Long || value instanceof Integer) {
+                ensure(1).put((byte) 2);
+                putLong(((Number) value).longValue());
+            } else if (value instanceof Double) {
+                ensure(1).put((byte) 3);
+                putLong(Double.doubleToLongBits((Double) value));
+            } else if (value instanceof String) {
+                ensure(1).put((byte) 4);
+                putString((String) value);
+            } else if (value instanceof List) {
+                ensure(1).put((byte) 5);
+                putInt(((List<?>) value).size());
+                for (Object item : (List<?>) value) putObject(item);
+            } else {
+                throw new IllegalArgumentException("Type not supported in snapshots: " + value.getClass());
+            }
+            return this;
+        }
+
+        /**
+         * @return the content written so far (from 0 to its limit)
+         */
+        public ByteBuffer toBuffer() {
+            ByteBuffer rtn = buffer.duplicate();
+            rtn.flip();
+            return rtn;
+        }
+
+        private ByteBuffer ensure(long bytes) {
+            if (buffer.remaining() < bytes) {
+                long size = Math.max((long) buffer.capacity() * 2, buffer.position() + bytes);
+                if (size > Integer.MAX_VALUE) throw new IllegalStateException("Snapshot too big: " + size + " bytes");
+                ByteBuffer aux = ByteBuffer.allocate((int) size);
+                buffer.flip();
+                aux.put(buffer);
+                buffer = aux;
+            }
+            return buffer;
+        }
+    }
+
+    public static class Reader {
+
+        private final ByteBuffer buffer;
+
+        public Reader(ByteBuffer buffer) {
+            this.buffer = buffer.duplicate();
+            this.buffer.position(0);
+        }
+
+        public int getInt() {
+            return buffer.getInt();
+        }
+
+        public long getLong() {
+            return buffer.getLong();
+        }
+
+        public int[] getInts() {
+            int[] rtn = new int[buffer.getInt()];
+            buffer.asIntBuffer().get(rtn);
+            buffer.position(buffer.position() + 4 * rtn.length);
+            return rtn;
+        }
+
+        public long[] getLongs() {
+            long[] rtn = new long[buffer.getInt()];
+            buffer.asLongBuffer().get(rtn);
+            buffer.position(buffer.position() + 8 * rtn.length);
+            return rtn;
+        }
+
+        public byte[] getBytes() {
+            byte[] rtn = new byte[buffer.getInt()];
+            buffer.get(rtn);
+            return rtn;
+        }
+
+        public String getString() {
+            int length = buffer.getInt();
+            if (length < 0) return null;
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        public String[] getStrings() {
+            String[] rtn = new String[buffer.getInt()];
+            for (int i = 0; i < rtn.length; i++) rtn[i] = getString();
+            return rtn;
+        }
+
+        public BitSet getBitSet() {
+            return BitSet.valueOf(getLongs());
+        }
+
+        public Object getObject() {
+            byte type = buffer.get();
+            switch (type) {
+                case 0: return null;
+                case 1: return buffer.get() == 1;
+                case 2: return buffer.getLong();
+                case 3: return Double.longBitsToDouble(buffer.getLong());
+                case 4: return getString();
+                case 5:
+                    int size = buffer.getInt();
+                    List<Object> rtn = new ArrayList<>(size);
+                    for (int i = 0; i < size; i++) rtn.add(getObject());
+                    return rtn;
+                default: throw new IllegalStateException("Corrupted snapshot: unknown type " + type);
+            }
+        }
+    }
+}
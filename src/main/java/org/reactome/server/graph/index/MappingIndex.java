@@ -0,0 +1,578 @@
+package org.reactome.server.graph.index;
+
+import org.reactome.server.graph.cache.ReleaseCacheManager;
+import org.reactome.server.graph.index.PrimitiveLists.ByteList;
+import org.reactome.server.graph.index.PrimitiveLists.IntArray;
+import org.reactome.server.graph.index.PrimitiveLists.IntList;
+import org.reactome.server.graph.index.PrimitiveLists.LongList;
+import org.reactome.server.graph.repository.util.KeysetPageIterator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.neo4j.core.Neo4jClient;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Index of the reactions and pathways every external identifier maps to, used to answer MappingService
+ * without traversing the graph from the identifier to its physical entities and from these to their reactions.
+ *
+ * Reactions and pathways are numbered (ordinals by dbId) and every (resource, identifier) is mapped to the sorted
+ * ordinals of the reactions it participates in and the sorted ordinals of the pathways containing them (a sparse
+ * bit set). Equal sets are stored once. The ordinals of the reactions and pathways of every species are kept the
+ * same way, so filtering by species is the intersection of two sorted arrays.
+ *
+ * The index is stored in a single buffer that is used in place, so it can be written to a snapshot file and
+ * memory mapped (see {@link IndexSnapshot}) by the following instances serving the same release.
+ *
+ * The index is built on first use and rebuilt when {@link ReleaseCacheManager} detects a new release.
+ * It is disabled by default and configured with the following properties:
+ *
+ * reactome.graph.index.mapping.enabled=true
+ * reactome.graph.index.mapping.file=/path/to/mapping.idx      (optional, mapping.idx in reactome.graph.index.snapshot.dir
+ *                                                             when that one is set, the index is kept in the heap otherwise)
+ */
+@Component
+@SuppressWarnings("unused")
+public class MappingIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(MappingIndex.class);
+
+    private static final int MAGIC = 0x52474D49; // RGMI
+    private static final int PAGE_SIZE = 50_000;
+    private static final String SNAPSHOT = "mapping.idx";
+
+    private static final byte PARTICIPANT = 1;
+    private static final byte REFERENCE = 2;
+    private static final byte HAS_EVENT = 3;
+
+    private static final Map<String, Byte> KINDS = Map.ofEntries(
+            Map.entry("input", PARTICIPANT),
+            Map.entry("output", PARTICIPANT),
+            Map.entry("catalystActivity", PARTICIPANT),
+            Map.entry("physicalEntity", PARTICIPANT),
+            Map.entry("entityFunctionalStatus", PARTICIPANT),
+            Map.entry("diseaseEntity", PARTICIPANT),
+            Map.entry("regulatedBy", PARTICIPANT),
+            Map.entry("regulator", PARTICIPANT),
+            Map.entry("hasComponent", PARTICIPANT),
+            Map.entry("hasMember", PARTICIPANT),
+            Map.entry("hasCandidate", PARTICIPANT),
+            Map.entry("repeatedUnit", PARTICIPANT),
+            Map.entry("referenceEntity", REFERENCE),
+            Map.entry("referenceSequence", REFERENCE),
+            Map.entry("crossReference", REFERENCE),
+            Map.entry("referenceGene", REFERENCE),
+            Map.entry("hasEvent", HAS_EVENT)
+    );
+
+    private static final long[] NONE = new long[0];
+
+    private final Neo4jClient neo4jClient;
+    private final ReleaseCacheManager releaseCacheManager;
+
+    @Value("${spring.data.neo4j.database:graph.db}")
+    private String databaseName;
+
+    @Value("${reactome.graph.index.mapping.enabled:false}")
+    private boolean enabled;
+
+    @Value("${reactome.graph.index.mapping.file:}")
+    private String file;
+
+    @Value("${reactome.graph.index.snapshot.dir:}")
+    private String snapshotDir;
+
+    private volatile Mapping mapping = null;
+
+    public MappingIndex(Neo4jClient neo4jClient, ReleaseCacheManager releaseCacheManager) {
+        this.neo4jClient = neo4jClient;
+        this.releaseCacheManager = releaseCacheManager;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        if (!enabled) mapping = null;
+        this.enabled = enabled;
+    }
+
+    public String getFile() {
+        return file;
+    }
+
+    public void setFile(String file) {
+        this.file = file;
+        mapping = null;
+    }
+
+    public String getSnapshotDir() {
+        return snapshotDir;
+    }
+
+    public void setSnapshotDir(String snapshotDir) {
+        this.snapshotDir = snapshotDir;
+        mapping = null;
+    }
+
+    /**
+     * Same result as MappingRepository.getReactionsLikeEvent (dbIds only, not sorted)
+     *
+     * @param taxId of the species of the reactions or null for all of them
+     */
+    public long[] getReactionsLikeEvent(String resource, String identifier, String taxId) {
+        Mapping mapping = getMapping();
+        return mapping.lookup(resource, identifier, taxId, true);
+    }
+
+    /**
+     * Same result as MappingRepository.getPathways (dbIds only, not sorted)
+     *
+     * @param taxId of the species of the pathways or null for all of them
+     */
+    public long[] getPathways(String resource, String identifier, String taxId) {
+        Mapping mapping = getMapping();
+        return mapping.lookup(resource, identifier, taxId, false);
+    }
+
+    /**
+     * Forces the index to be rebuilt (or loaded from the snapshot) on the next call
+     */
+    public void clear() {
+        mapping = null;
+    }
+
+    private Mapping getMapping() {
+        Integer release = releaseCacheManager.getRelease();
+        Mapping mapping = this.mapping;
+        if (mapping == null || !Objects.equals(mapping.release, release)) {
+            synchronized (this) {
+                mapping = this.mapping;
+                if (mapping == null || !Objects.equals(mapping.release, release)) {
+                    long start = System.currentTimeMillis();
+                    Path path = IndexSnapshot.path(file);
+                    if (path == null) path = IndexSnapshot.path(snapshotDir, SNAPSHOT);
+                    ByteBuffer buffer = IndexSnapshot.load(path, MAGIC, release);
+                    mapping = IndexSnapshot.read(path, buffer, b -> new Mapping(release, b));
+                    if (mapping != null) {
+                        logger.info("Mapping index for release " + release + " loaded from " + path + " in " + (System.currentTimeMillis() - start) + "ms (" + mapping.keys + " identifiers)");
+                    } else {
+                        mapping = new Mapping(release, IndexSnapshot.store(path, MAGIC, release, build()));
+                        logger.info("Mapping index for release " + release + " built in " + (System.currentTimeMillis() - start) + "ms (" + mapping.keys + " identifiers)");
+                    }
+                    this.mapping = mapping;
+                }
+            }
+        }
+        return mapping;
+    }
+
+    private ByteBuffer build() {
+        //language=Cypher
+        String query = "" +
+                "MATCH (a:DatabaseObject) " +
+                "WHERE a.dbId > $lastKey AND (a:Event OR a:PhysicalEntity OR a:CatalystActivity OR a:Regulation OR a:EntityFunctionalStatus OR " +
+                "                             a:ReferenceEntity OR a:DatabaseIdentifier OR a:ExternalOntology OR a:GO_Term OR a:Taxon) " +
+                "WITH a ORDER BY a.dbId LIMIT $limit " +
+                "OPTIONAL MATCH (a)-[r:input|output|catalystActivity|physicalEntity|entityFunctionalStatus|diseaseEntity|regulatedBy|regulator|hasComponent|hasMember|hasCandidate|repeatedUnit|referenceEntity|referenceSequence|crossReference|referenceGene|hasEvent]->(b) " +
+                "WITH a, collect(type(r)) AS types, collect(b.dbId) AS targets " +
+                "WITH a, types, targets, [(a)-[:referenceDatabase]->(rd:ReferenceDatabase) | rd.displayName] AS resources " +
+                "RETURN a.dbId AS dbId, a:ReactionLikeEvent AS rle, a:Pathway AS pathway, a:PhysicalEntity AS pe, " +
+                "       CASE WHEN a:ReactionLikeEvent OR a:Pathway THEN [(a)-[:species]->(s:Species) | s.taxId] ELSE [] END AS taxIds, " +
+                "       resources, " +
+                "       CASE WHEN size(resources) > 0 THEN [a.identifier, a.variantIdentifier, a.geneName, a.name] ELSE [] END AS names, " +
+                "       types, targets " +
+                "ORDER BY dbId";
+        Iterator<Row> rows = new KeysetPageIterator<>((lastKey, limit) -> neo4jClient.query(query).in(databaseName)
+                .bindAll(Map.of("lastKey", lastKey, "limit", limit))
+                .fetchAs(Row.class)
+                .mappedBy((t, r) -> new Row(
+                        r.get("dbId").asLong(),
+                        r.get("rle").asBoolean(false),
+                        r.get("pathway").asBoolean(false),
+                        r.get("pe").asBoolean(false),
+                        r.get("taxIds").asList(org.neo4j.driver.Value::asString),
+                        r.get("resources").asList(org.neo4j.driver.Value::asString),
+                        names(r.get("names")),
+                        r.get("types").asList(org.neo4j.driver.Value::asString),
+                        r.get("targets").asList(org.neo4j.driver.Value::asLong)))
+                .all(), row -> row.dbId, PAGE_SIZE);
+        return new Builder(rows).build();
+    }
+
+    /**
+     * @return identifier, variantIdentifier and the elements of geneName and name (the properties matched as a
+     * list in MappingRepository)
+     */
+    private static List<String> names(org.neo4j.driver.Value value) {
+        List<String> rtn = new ArrayList<>();
+        for (Object o : value.asList()) {
+            if (o instanceof String) {
+                rtn.add((String) o);
+            } else if (o instanceof List) {
+                for (Object name : (List<?>) o) if (name instanceof String) rtn.add((String) name);
+            }
+        }
+        return rtn;
+    }
+
+    private static byte[] key(String resource, String identifier) {
+        return (resource.toLowerCase(Locale.ROOT) + '\u0000' + identifier).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int compare(byte[] a, byte[] b) {
+        return Arrays.compareUnsigned(a, b);
+    }
+
+    private static class Row {
+        private final long dbId;
+        private final boolean rle;
+        private final boolean pathway;
+        private final boolean pe;
+        private final List<String> taxIds;
+        private final List<String> resources;
+        private final List<String> names;
+        private final List<String> types;
+        private final List<Long> targets;
+
+        Row(long dbId, boolean rle, boolean pathway, boolean pe, List<String> taxIds, List<String> resources, List<String> names, List<String> types, List<Long> targets) {
+            this.dbId = dbId;
+            this.rle = rle;
+            this.pathway = pathway;
+            this.pe = pe;
+            this.taxIds = taxIds;
+            this.resources = resources;
+            this.names = names;
+            this.types = types;
+            this.targets = targets;
+        }
+    }
+
+    /**
+     * Builds the content of the index from the rows of the query:
+     *
+     *  int  nReactions, nPathways, nSets, nOrdinals, nKeys, nKeyBytes, nSpecies, nSpeciesBytes
+     *  long reactions[nReactions]             dbId of every reaction ordinal
+     *  long pathways[nPathways]               dbId of every pathway ordinal
+     *  int  setStart[nSets + 1]               ordinals of the set i: ordinals[setStart[i]..setStart[i+1]]
+     *  int  ordinals[nOrdinals]
+     *  int  keyStart[nKeys + 1]               UTF-8 of the key i (lower case resource, 0, identifier): keyBytes[keyStart[i]..keyStart[i+1]]
+     *  byte keyBytes[nKeyBytes]               keys sorted (unsigned bytes)
+     *  int  keyReactions[nKeys]               set of reactions of every key
+     *  int  keyPathways[nKeys]                set of pathways of every key
+     *  int  speciesStart[nSpecies + 1]
+     *  byte speciesBytes[nSpeciesBytes]       taxIds
+     *  int  speciesReactions[nSpecies]        set of reactions of every species
+     *  int  speciesPathways[nSpecies]         set of pathways of every species
+     */
+    private static class Builder {
+
+        private final LongList dbIds = new LongList();
+        private final BitSet rles = new BitSet();
+        private final BitSet pathways = new BitSet();
+        private final BitSet physicalEntities = new BitSet();
+        private final Map<String, IntList> reactionsBySpecies = new TreeMap<>();
+        private final Map<String, IntList> pathwaysBySpecies = new TreeMap<>();
+        private final Map<String, IntList> nodesByKey = new HashMap<>();
+        private final IntList start = new IntList();
+        private final LongList targetDbIds = new LongList();
+        private final ByteList kinds = new ByteList();
+
+        private final Map<IntArray, Integer> sets = new LinkedHashMap<>();
+
+        Builder(Iterator<Row> rows) {
+            while (rows.hasNext()) {
+                Row row = rows.next();
+                int i = dbIds.add(row.dbId);
+                if (row.rle) {
+                    rles.set(i);
+                    for (String taxId : row.taxIds) reactionsBySpecies.computeIfAbsent(taxId, k -> new IntList()).add(i);
+                }
+                if (row.pe) physicalEntities.set(i);
+                if (row.pathway) {
+                    pathways.set(i);
+                    for (String taxId : row.taxIds) pathwaysBySpecies.computeIfAbsent(taxId, k -> new IntList()).add(i);
+                }
+                for (String resource : row.resources) {
+                    for (String name : row.names) {
+                        nodesByKey.computeIfAbsent(resource.toLowerCase(Locale.ROOT) + '\u0000' + name, k -> new IntList()).add(i);
+                    }
+                }
+                start.add(targetDbIds.size());
+                for (int e = 0; e < row.types.size(); e++) {
+                    targetDbIds.add(row.targets.get(e));
+                    kinds.add(KINDS.get(row.types.get(e)));
+                }
+            }
+            start.add(targetDbIds.size());
+        }
+
+        ByteBuffer build() {
+            long[] ids = dbIds.toArray();
+            int n = ids.length;
+            int[] targets = new int[targetDbIds.size()];
+            for (int e = 0; e < targets.length; e++) {
+                int t = Arrays.binarySearch(ids, targetDbIds.get(e));
+                targets[e] = t < 0 ? -1 : t;
+            }
+            int[] s = start.toArray();
+
+            // Ordinals of reactions and pathways (by dbId, as the rows are sorted by dbId)
+            int[] ordinal = new int[n];
+            LongList reactionDbIds = new LongList();
+            LongList pathwayDbIds = new LongList();
+            for (int i = 0; i < n; i++) {
+                if (rles.get(i)) ordinal[i] = reactionDbIds.add(ids[i]);
+                else if (pathways.get(i)) ordinal[i] = pathwayDbIds.add(ids[i]);
+            }
+
+            // Pathways directly containing every reaction (by ordinal)
+            Map<Integer, IntList> parents = new HashMap<>();
+            for (int p = pathways.nextSetBit(0); p >= 0; p = pathways.nextSetBit(p + 1)) {
+                for (int e = s[p]; e < s[p + 1]; e++) {
+                    if (kinds.get(e) == HAS_EVENT && targets[e] >= 0 && rles.get(targets[e])) {
+                        parents.computeIfAbsent(ordinal[targets[e]], k -> new IntList()).add(ordinal[p]);
+                    }
+                }
+            }
+
+            // Reactions reaching every reference node: the participant relationships are followed from the reaction
+            // to the physical entities and the reference ones from these to the reference nodes (phase 0 and 1)
+            Map<Integer, IntList> reactionsOf = new HashMap<>();
+            int[][] stamp = new int[2][n];
+            int[] queue = new int[2 * n];
+            int current = 0;
+            for (int r = rles.nextSetBit(0); r >= 0; r = rles.nextSetBit(r + 1)) {
+                current++;
+                int head = 0, tail = 0;
+                queue[tail++] = 2 * r;
+                while (head < tail) {
+                    int x = queue[head] >>> 1, phase = queue[head++] & 1;
+                    for (int e = s[x]; e < s[x + 1]; e++) {
+                        int c = targets[e];
+                        if (c < 0) continue;
+                        byte kind = kinds.get(e);
+                        int next;
+                        if (kind == PARTICIPANT && phase == 0) next = 0;
+                        else if (kind == REFERENCE && (phase == 1 || physicalEntities.get(x))) next = 1;
+                        else continue;
+                        if (stamp[next][c] == current) continue;
+                        stamp[next][c] = current;
+                        if (next == 1) reactionsOf.computeIfAbsent(c, k -> new IntList()).add(ordinal[r]);
+                        queue[tail++] = 2 * c + next;
+                    }
+                }
+            }
+
+            // Sets of every key
+            List<Map.Entry<byte[], IntList>> entries = new ArrayList<>();
+            nodesByKey.forEach((key, nodes) -> entries.add(Map.entry(key.getBytes(StandardCharsets.UTF_8), nodes)));
+            entries.sort((a, b) -> compare(a.getKey(), b.getKey()));
+            List<byte[]> keys = new ArrayList<>();
+            IntList keyReactions = new IntList();
+            IntList keyPathways = new IntList();
+            for (Map.Entry<byte[], IntList> entry : entries) {
+                Set<Integer> reactions = new TreeSet<>();
+                for (int node : entry.getValue().toArray()) {
+                    IntList aux = reactionsOf.get(node);
+                    if (aux != null) for (int r : aux.toArray()) reactions.add(r);
+                }
+                if (reactions.isEmpty()) continue;
+                Set<Integer> containers = new TreeSet<>();
+                for (int r : reactions) {
+                    IntList aux = parents.get(r);
+                    if (aux != null) for (int p : aux.toArray()) containers.add(p);
+                }
+                keys.add(entry.getKey());
+                keyReactions.add(set(reactions));
+                keyPathways.add(set(containers));
+            }
+
+            // Sets of every species
+            Set<String> taxIds = new TreeSet<>(reactionsBySpecies.keySet());
+            taxIds.addAll(pathwaysBySpecies.keySet());
+            List<byte[]> species = new ArrayList<>();
+            IntList speciesReactions = new IntList();
+            IntList speciesPathways = new IntList();
+            for (String taxId : taxIds) {
+                species.add(taxId.getBytes(StandardCharsets.UTF_8));
+                speciesReactions.add(set(ordinals(reactionsBySpecies.get(taxId), ordinal)));
+                speciesPathways.add(set(ordinals(pathwaysBySpecies.get(taxId), ordinal)));
+            }
+
+            return write(reactionDbIds.toArray(), pathwayDbIds.toArray(), keys, keyReactions.toArray(), keyPathways.toArray(), species, speciesReactions.toArray(), speciesPathways.toArray());
+        }
+
+        private static Set<Integer> ordinals(IntList nodes, int[] ordinal) {
+            Set<Integer> rtn = new TreeSet<>();
+            if (nodes != null) for (int i : nodes.toArray()) rtn.add(ordinal[i]);
+            return rtn;
+        }
+
+        private int set(Set<Integer> ordinals) {
+            int[] aux = new int[ordinals.size()];
+            int i = 0;
+            for (int o : ordinals) aux[i++] = o;
+            return sets.computeIfAbsent(new IntArray(aux), k -> sets.size());
+        }
+
+        private ByteBuffer write(long[] reactions, long[] pathways, List<byte[]> keys, int[] keyReactions, int[] keyPathways,
+                                 List<byte[]> species, int[] speciesReactions, int[] speciesPathways) {
+            int nOrdinals = 0;
+            for (IntArray set : sets.keySet()) nOrdinals += set.items.length;
+            int nKeyBytes = 0;
+            for (byte[] key : keys) nKeyBytes += key.length;
+            int nSpeciesBytes = 0;
+            for (byte[] taxId : species) nSpeciesBytes += taxId.length;
+
+            long size = 8L * 4
+                    + 8L * (reactions.length + pathways.length)
+                    + 4L * (sets.size() + 1) + 4L * nOrdinals
+                    + 4L * (keys.size() + 1) + nKeyBytes + 8L * keys.size()
+                    + 4L * (species.size() + 1) + nSpeciesBytes + 8L * species.size();
+            if (size > Integer.MAX_VALUE) throw new IllegalStateException("Mapping index too big: " + size + " bytes");
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            buffer.putInt(reactions.length).putInt(pathways.length).putInt(sets.size()).putInt(nOrdinals)
+                    .putInt(keys.size()).putInt(nKeyBytes).putInt(species.size()).putInt(nSpeciesBytes);
+            for (long dbId : reactions) buffer.putLong(dbId);
+            for (long dbId : pathways) buffer.putLong(dbId);
+            int offset = 0;
+            for (IntArray set : sets.keySet()) {
+                buffer.putInt(offset);
+                offset += set.items.length;
+            }
+            buffer.putInt(offset);
+            for (IntArray set : sets.keySet()) for (int o : set.items) buffer.putInt(o);
+            putStrings(buffer, keys);
+            for (int set : keyReactions) buffer.putInt(set);
+            for (int set : keyPathways) buffer.putInt(set);
+            putStrings(buffer, species);
+            for (int set : speciesReactions) buffer.putInt(set);
+            for (int set : speciesPathways) buffer.putInt(set);
+            buffer.flip();
+            return buffer;
+        }
+
+        private static void putStrings(ByteBuffer buffer, List<byte[]> strings) {
+            int offset = 0;
+            for (byte[] s : strings) {
+                buffer.putInt(offset);
+                offset += s.length;
+            }
+            buffer.putInt(offset);
+            for (byte[] s : strings) buffer.put(s);
+        }
+    }
+
+    /**
+     * Read access to the content written by {@link Builder} (used in place, it is not copied)
+     */
+    private static class Mapping {
+
+        private final Integer release;
+        private final ByteBuffer buffer;
+
+        private final int keys;
+        private final int reactions, pathways, setStart, ordinals, keyStart, keyBytes, keyReactions, keyPathways;
+        private final Map<String, Integer> species = new HashMap<>();
+        private final int speciesReactions, speciesPathways;
+
+        Mapping(Integer release, ByteBuffer buffer) {
+            this.release = release;
+            this.buffer = buffer;
+            int nReactions = buffer.getInt(0), nPathways = buffer.getInt(4), nSets = buffer.getInt(8), nOrdinals = buffer.getInt(12);
+            int nKeys = buffer.getInt(16), nKeyBytes = buffer.getInt(20), nSpecies = buffer.getInt(24), nSpeciesBytes = buffer.getInt(28);
+            if ((nReactions | nPathways | nSets | nOrdinals | nKeys | nKeyBytes | nSpecies | nSpeciesBytes) < 0) {
+                throw new IllegalArgumentException("Negative section size in the mapping index");
+            }
+            // The sections have to fill the buffer exactly (computed as long, so huge counts cannot overflow)
+            long end = 32L + 8L * (nReactions + nPathways) + 4L * (nSets + 1) + 4L * nOrdinals
+                    + 4L * (nKeys + 1) + nKeyBytes + 8L * nKeys + 4L * (nSpecies + 1) + nSpeciesBytes + 8L * nSpecies;
+            if (end != buffer.limit()) {
+                throw new IllegalArgumentException("The mapping index sections end at " + end + " but the content has " + buffer.limit() + " bytes");
+            }
+            this.keys = nKeys;
+            reactions = 32;
+            pathways = reactions + 8 * nReactions;
+            setStart = pathways + 8 * nPathways;
+            ordinals = setStart + 4 * (nSets + 1);
+            keyStart = ordinals + 4 * nOrdinals;
+            keyBytes = keyStart + 4 * (nKeys + 1);
+            keyReactions = keyBytes + nKeyBytes;
+            keyPathways = keyReactions + 4 * nKeys;
+            int speciesStart = keyPathways + 4 * nKeys;
+            int speciesBytes = speciesStart + 4 * (nSpecies + 1);
+            speciesReactions = speciesBytes + nSpeciesBytes;
+            speciesPathways = speciesReactions + 4 * nSpecies;
+            if (buffer.getInt(setStart + 4 * nSets) != nOrdinals || buffer.getInt(keyStart + 4 * nKeys) != nKeyBytes
+                    || buffer.getInt(speciesStart + 4 * nSpecies) != nSpeciesBytes) {
+                throw new IllegalArgumentException("Inconsistent offsets in the mapping index");
+            }
+            for (int i = 0; i < nSpecies; i++) {
+                species.put(new String(bytes(speciesBytes, speciesStart, i), StandardCharsets.UTF_8), i);
+            }
+        }
+
+        long[] lookup(String resource, String identifier, String taxId, boolean reactions) {
+            int key = indexOf(key(resource, identifier));
+            if (key < 0) return NONE;
+            int[] rtn = set(buffer.getInt((reactions ? keyReactions : keyPathways) + 4 * key));
+            if (taxId != null) {
+                Integer s = species.get(taxId);
+                if (s == null) return NONE;
+                rtn = intersection(rtn, set(buffer.getInt((reactions ? speciesReactions : speciesPathways) + 4 * s)));
+            }
+            int base = reactions ? this.reactions : this.pathways;
+            long[] dbIds = new long[rtn.length];
+            for (int i = 0; i < rtn.length; i++) dbIds[i] = buffer.getLong(base + 8 * rtn[i]);
+            return dbIds;
+        }
+
+        private int indexOf(byte[] key) {
+            int lo = 0, hi = keys - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                int c = compare(bytes(keyBytes, keyStart, mid), key);
+                if (c < 0) lo = mid + 1;
+                else if (c > 0) hi = mid - 1;
+                else return mid;
+            }
+            return -1;
+        }
+
+        private byte[] bytes(int base, int start, int i) {
+            int from = buffer.getInt(start + 4 * i), to = buffer.getInt(start + 4 * (i + 1));
+            byte[] rtn = new byte[to - from];
+            for (int j = 0; j < rtn.length; j++) rtn[j] = buffer.get(base + from + j);
+            return rtn;
+        }
+
+        private int[] set(int i) {
+            int from = buffer.getInt(setStart + 4 * i), to = buffer.getInt(setStart + 4 * (i + 1));
+            int[] rtn = new int[to - from];
+            for (int j = 0; j < rtn.length; j++) rtn[j] = buffer.getInt(ordinals + 4 * (from + j));
+            return rtn;
+        }
+
+        private static int[] intersection(int[] a, int[] b) {
+            int[] rtn = new int[Math.min(a.length, b.length)];
+            int i = 0, j = 0, k = 0;
+            while (i < a.length && j < b.length) {
+                if (a[i] < b[j]) i++;
+                else if (a[i] > b[j]) j++;
+                else {
+                    rtn[k++] = a[i];
+                    i++;
+                    j++;
+                }
+            }
+            return Arrays.copyOf(rtn, k);
+        }
+    }
+}
@@ -0,0 +1,491 @@
+package org.reactome.server.graph.index;
+
+import org.reactome.server.graph.cache.ReleaseCacheManager;
+import org.reactome.server.graph.domain.result.Participant;
+import org.reactome.server.graph.index.PrimitiveLists.ByteList;
+import org.reactome.server.graph.index.PrimitiveLists.IntArray;
+import org.reactome.server.graph.index.PrimitiveLists.IntList;
+import org.reactome.server.graph.index.PrimitiveLists.LongList;
+import org.reactome.server.graph.repository.util.KeysetPageIterator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.neo4j.core.Neo4jClient;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * In-memory index of the participants of the events used to answer ParticipantService without the variable
+ * length traversals of ParticipantRepository, ReferenceEntityRepository and PhysicalEntityRepository.
+ *
+ * The events, physical entities, reference entities and the objects in between (CatalystActivity, Regulation,
+ * EntityFunctionalStatus) are kept in primitive arrays sorted by dbId together with their outgoing participant
+ * relationships (compressed sparse rows). For every physical entity, the physical entities with reference entity
+ * it is made of (following hasComponent, hasMember, hasCandidate and repeatedUnit) are flattened once per release
+ * into a sorted array. Equal arrays are shared, so complexes and sets reused across the events (and the entities
+ * containing a single one of them) do not take extra memory. A request only walks the participant relationships
+ * from the event to its physical entities and concatenates their flattened arrays.
+ *
+ * The index is built on first use and rebuilt when {@link ReleaseCacheManager} detects a new release. When
+ * reactome.graph.index.snapshot.dir is set, the index (including the flattened entities) is stored there and loaded
+ * from the snapshot by the instances serving the same release.
+ * It is disabled by default and enabled with reactome.graph.index.participants.enabled=true
+ */
+@Component
+@SuppressWarnings("unused")
+public class ParticipantIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParticipantIndex.class);
+
+    private static final int MAGIC = 0x52475041; // RGPA
+    private static final String SNAPSHOT = "participants.idx";
+
+    private static final int PAGE_SIZE = 50_000;
+
+    private static final byte PARTICIPANT = 1;
+    private static final byte COMPOSITION = 2;
+
+    private static final Map<String, Byte> KINDS = Map.ofEntries(
+            Map.entry("hasEvent", PARTICIPANT),
+            Map.entry("input", PARTICIPANT),
+            Map.entry("output", PARTICIPANT),
+            Map.entry("catalystActivity", PARTICIPANT),
+            Map.entry("physicalEntity", PARTICIPANT),
+            Map.entry("entityFunctionalStatus", PARTICIPANT),
+            Map.entry("diseaseEntity", PARTICIPANT),
+            Map.entry("regulatedBy", PARTICIPANT),
+            Map.entry("regulator", PARTICIPANT),
+            Map.entry("hasComponent", COMPOSITION),
+            Map.entry("hasMember", COMPOSITION),
+            Map.entry("hasCandidate", COMPOSITION),
+            Map.entry("repeatedUnit", COMPOSITION)
+    );
+
+    private static final int[] NONE = new int[0];
+
+    private final Neo4jClient neo4jClient;
+    private final ReleaseCacheManager releaseCacheManager;
+
+    @Value("${spring.data.neo4j.database:graph.db}")
+    private String databaseName;
+
+    @Value("${reactome.graph.index.participants.enabled:false}")
+    private boolean enabled;
+
+    @Value("${reactome.graph.index.snapshot.dir:}")
+    private String snapshotDir;
+
+    private volatile Participants participants = null;
+
+    public ParticipantIndex(Neo4jClient neo4jClient, ReleaseCacheManager releaseCacheManager) {
+        this.neo4jClient = neo4jClient;
+        this.releaseCacheManager = releaseCacheManager;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        if (!enabled) participants = null;
+        this.enabled = enabled;
+    }
+
+    public String getSnapshotDir() {
+        return snapshotDir;
+    }
+
+    public void setSnapshotDir(String snapshotDir) {
+        this.snapshotDir = snapshotDir;
+        participants = null;
+    }
+
+    /**
+     * Same result as ParticipantRepository.getParticipants
+     *
+     * @param id stId or dbId of the object
+     */
+    public Collection<Participant> getParticipants(Object id) {
+        Participants participants = getParticipants();
+        Collection<Participant> rtn = new ArrayList<>();
+        for (int m : participants.physicalEntities(participants.indexOf(id))) {
+            Map<Integer, Set<String>> icons = new LinkedHashMap<>();
+            int re = participants.referenceEntity[m];
+            int[] leaves = participants.leaves[m];
+            if (re >= 0) {
+                Set<String> aux = icons.computeIfAbsent(re, k -> new LinkedHashSet<>());
+                if (leaves.length == 0) aux.add(participants.schemaClasses[m]);
+                for (int l : leaves) aux.add(participants.schemaClasses[l]);
+            } else {
+                for (int l : leaves) {
+                    icons.computeIfAbsent(participants.referenceEntity[l], k -> new LinkedHashSet<>()).add(participants.schemaClasses[l]);
+                }
+            }
+            if (icons.isEmpty()) continue;
+            Participant participant = Participant.build(participants.dbIds[m], participants.displayNames[m], participants.schemaClasses[m]);
+            icons.forEach((r, set) -> {
+                for (String icon : set) {
+                    participant.addRefEntity(participants.dbIds[r], participants.identifiers[r], participants.schemaClasses[r], participants.displayNames[r], icon, participants.urls[r]);
+                }
+            });
+            rtn.add(participant);
+        }
+        return rtn;
+    }
+
+    /**
+     * Same result as PhysicalEntityRepository.getParticipatingPhysicalEntities (dbIds only)
+     *
+     * @param id stId or dbId of the object
+     */
+    public List<Long> getParticipatingPhysicalEntities(Object id) {
+        Participants participants = getParticipants();
+        List<Long> rtn = new ArrayList<>();
+        for (int m : participants.physicalEntities(participants.indexOf(id))) rtn.add(participants.dbIds[m]);
+        return rtn;
+    }
+
+    /**
+     * Same result as ReferenceEntityRepository.getParticipatingReferenceEntities (dbIds only)
+     *
+     * @param id stId or dbId of the object
+     */
+    public List<Long> getParticipatingReferenceEntities(Object id) {
+        Participants participants = getParticipants();
+        Set<Integer> res = new LinkedHashSet<>();
+        for (int m : participants.physicalEntities(participants.indexOf(id))) {
+            if (participants.referenceEntity[m] >= 0) res.add(participants.referenceEntity[m]);
+            for (int l : participants.leaves[m]) res.add(participants.referenceEntity[l]);
+        }
+        List<Long> rtn = new ArrayList<>();
+        for (int re : res) rtn.add(participants.dbIds[re]);
+        return rtn;
+    }
+
+    /**
+     * Forces the index to be rebuilt on the next call
+     */
+    public void clear() {
+        participants = null;
+    }
+
+    private Participants getParticipants() {
+        Integer release = releaseCacheManager.getRelease();
+        Participants participants = this.participants;
+        if (participants == null || !Objects.equals(participants.release, release)) {
+            synchronized (this) {
+                participants = this.participants;
+                if (participants == null || !Objects.equals(participants.release, release)) {
+                    long start = System.currentTimeMillis();
+                    Path path = IndexSnapshot.path(snapshotDir, SNAPSHOT);
+                    ByteBuffer buffer = IndexSnapshot.load(path, MAGIC, release);
+                    participants = IndexSnapshot.read(path, buffer, b -> Participants.read(release, b));
+                    if (participants != null) {
+                        logger.info("Participant index for release " + release + " loaded from " + path + " in " + (System.currentTimeMillis() - start) + "ms (" + participants.dbIds.length + " objects, " + participants.shared + " distinct flattened entities)");
+                    } else {
+                        participants = build(release);
+                        IndexSnapshot.store(path, MAGIC, release, participants::write);
+                        logger.info("Participant index for release " + release + " built in " + (System.currentTimeMillis() - start) + "ms (" + participants.dbIds.length + " objects, " + participants.shared + " distinct flattened entities)");
+                    }
+                    this.participants = participants;
+                }
+            }
+        }
+        return participants;
+    }
+
+    private Participants build(Integer release) {
+        //language=Cypher
+        String query = "" +
+                "MATCH (a:DatabaseObject) " +
+                "WHERE a.dbId > $lastKey AND (a:Event OR a:PhysicalEntity OR a:ReferenceEntity OR a:CatalystActivity OR a:Regulation OR a:EntityFunctionalStatus) " +
+                "WITH a ORDER BY a.dbId LIMIT $limit " +
+                "OPTIONAL MATCH (a)-[r:hasEvent|input|output|catalystActivity|physicalEntity|entityFunctionalStatus|diseaseEntity|regulatedBy|regulator|hasComponent|hasMember|hasCandidate|repeatedUnit|referenceEntity]->(b) " +
+                "WITH a, collect(type(r)) AS types, collect(b.dbId) AS targets " +
+                "RETURN a.dbId AS dbId, a.stId AS stId, a.schemaClass AS schemaClass, a:PhysicalEntity AS pe, " +
+                "       CASE WHEN a:PhysicalEntity OR a:ReferenceEntity THEN a.displayName END AS displayName, " +
+                "       CASE WHEN a.variantIdentifier IS NOT NULL THEN a.variantIdentifier ELSE a.identifier END AS identifier, " +
+                "       a.url AS url, types, targets " +
+                "ORDER BY dbId";
+        Iterator<Row> rows = new KeysetPageIterator<>((lastKey, limit) -> neo4jClient.query(query).in(databaseName)
+                .bindAll(Map.of("lastKey", lastKey, "limit", limit))
+                .fetchAs(Row.class)
+                .mappedBy((t, r) -> new Row(
+                        r.get("dbId").asLong(),
+                        r.get("stId").asString(null),
+                        r.get("schemaClass").asString(null),
+                        r.get("pe").asBoolean(false),
+                        r.get("displayName").asString(null),
+                        r.get("identifier").asString(null),
+                        r.get("url").asString(null),
+                        r.get("types").asList(org.neo4j.driver.Value::asString),
+                        r.get("targets").asList(org.neo4j.driver.Value::asLong)))
+                .all(), row -> row.dbId, PAGE_SIZE);
+
+        Map<String, String> strings = new HashMap<>(); // schema classes and urls are repeated a lot
+        IntList start = new IntList();
+        LongList targets = new LongList();
+        ByteList kinds = new ByteList();
+        LongList references = new LongList();
+        LongList dbIds = new LongList();
+        List<String> stIds = new ArrayList<>();
+        List<String> schemaClasses = new ArrayList<>();
+        List<String> displayNames = new ArrayList<>();
+        List<String> identifiers = new ArrayList<>();
+        List<String> urls = new ArrayList<>();
+        BitSet physicalEntities = new BitSet();
+        while (rows.hasNext()) {
+            Row row = rows.next();
+            if (row.pe) physicalEntities.set(dbIds.size());
+            dbIds.add(row.dbId);
+            stIds.add(row.stId);
+            schemaClasses.add(row.schemaClass == null ? null : strings.computeIfAbsent(row.schemaClass, s -> s));
+            displayNames.add(row.displayName);
+            identifiers.add(row.identifier);
+            urls.add(row.url == null ? null : strings.computeIfAbsent(row.url, s -> s));
+            start.add(targets.size());
+            long reference = -1;
+            for (int i = 0; i < row.types.size(); i++) {
+                Byte kind = KINDS.get(row.types.get(i));
+                if (kind == null) {
+                    reference = row.targets.get(i); // referenceEntity
+                } else {
+                    targets.add(row.targets.get(i));
+                    kinds.add(kind);
+                }
+            }
+            references.add(reference);
+        }
+        start.add(targets.size());
+        return new Participants(release, dbIds.toArray(), stIds.toArray(new String[0]), physicalEntities,
+                schemaClasses.toArray(new String[0]), displayNames.toArray(new String[0]), identifiers.toArray(new String[0]), urls.toArray(new String[0]),
+                start.toArray(), targets.toArray(), kinds.toArray(), references.toArray());
+    }
+
+    private static class Row {
+        private final long dbId;
+        private final String stId;
+        private final String schemaClass;
+        private final boolean pe;
+        private final String displayName;
+        private final String identifier;
+        private final String url;
+        private final List<String> types;
+        private final List<Long> targets;
+
+        Row(long dbId, String stId, String schemaClass, boolean pe, String displayName, String identifier, String url, List<String> types, List<Long> targets) {
+            this.dbId = dbId;
+            this.stId = stId;
+            this.schemaClass = schemaClass;
+            this.pe = pe;
+            this.displayName = displayName;
+            this.identifier = identifier;
+            this.url = url;
+            this.types = types;
+            this.targets = targets;
+        }
+    }
+
+    private static class Participants {
+
+        private final Integer release;
+
+        private final long[] dbIds;
+        private final BitSet physicalEntities;
+        private final String[] schemaClasses;
+        private final String[] displayNames;  // only for physical and reference entities
+        private final String[] identifiers;   // only for reference entities
+        private final String[] urls;          // only for reference entities
+
+        // Sorted stIds and the position of their object
+        private final String[] stIds;
+        private final int[] stIdPosition;
+
+        // Outgoing relationships of the object in position i: targets[start[i]..start[i+1]] (kinds in the same position)
+        private final int[] start;
+        private final int[] targets;
+        private final byte[] kinds;
+
+        // Reference entity of every physical entity (or -1)
+        private final int[] referenceEntity;
+
+        // Physical entities with reference entity every physical entity is made of (equal arrays are shared)
+        private final int[][] leaves;
+        private final int shared;
+
+        Participants(Integer release, long[] dbIds, String[] rowStIds, BitSet physicalEntities,
+                     String[] schemaClasses, String[] displayNames, String[] identifiers, String[] urls,
+                     int[] start, long[] targetDbIds, byte[] kinds, long[] references) {
+            this.release = release;
+            this.dbIds = dbIds;
+            this.physicalEntities = physicalEntities;
+            this.schemaClasses = schemaClasses;
+            this.displayNames = displayNames;
+            this.identifiers = identifiers;
+            this.urls = urls;
+            this.start = start;
+            this.kinds = kinds;
+            this.targets = new int[targetDbIds.length];
+            for (int e = 0; e < targetDbIds.length; e++) targets[e] = indexOf(targetDbIds[e]);
+            this.referenceEntity = new int[dbIds.length];
+            for (int i = 0; i < dbIds.length; i++) referenceEntity[i] = references[i] < 0 ? -1 : indexOf(references[i]);
+
+            List<Integer> order = new ArrayList<>();
+            for (int i = 0; i < rowStIds.length; i++) {
+                if (rowStIds[i] != null) order.add(i);
+            }
+            order.sort(Comparator.comparing(i -> rowStIds[i]));
+            this.stIds = new String[order.size()];
+            this.stIdPosition = new int[order.size()];
+            for (int j = 0; j < order.size(); j++) {
+                stIds[j] = rowStIds[order.get(j)];
+                stIdPosition[j] = order.get(j);
+            }
+
+            this.leaves = new int[dbIds.length][];
+            this.shared = flatten();
+        }
+
+        private Participants(Integer release, IndexSnapshot.Reader reader) {
+            this.release = release;
+            dbIds = reader.getLongs();
+            physicalEntities = reader.getBitSet();
+            Map<String, String> strings = new HashMap<>(); // shared again, as when the index is built
+            schemaClasses = intern(reader.getStrings(), strings);
+            displayNames = reader.getStrings();
+            identifiers = reader.getStrings();
+            urls = intern(reader.getStrings(), strings);
+            stIds = reader.getStrings();
+            stIdPosition = reader.getInts();
+            start = reader.getInts();
+            targets = reader.getInts();
+            kinds = reader.getBytes();
+            referenceEntity = reader.getInts();
+
+            // The distinct flattened arrays and the one of every object (-1 for none)
+            int[] leafStart = reader.getInts();
+            int[] leafItems = reader.getInts();
+            int[] leafOf = reader.getInts();
+            int[][] distinct = new int[leafStart.length - 1][];
+            for (int j = 0; j < distinct.length; j++) distinct[j] = Arrays.copyOfRange(leafItems, leafStart[j], leafStart[j + 1]);
+            leaves = new int[dbIds.length][];
+            for (int i = 0; i < dbIds.length; i++) leaves[i] = leafOf[i] < 0 ? NONE : distinct[leafOf[i]];
+            shared = distinct.length;
+        }
+
+        static Participants read(Integer release, ByteBuffer buffer) {
+            return new Participants(release, new IndexSnapshot.Reader(buffer));
+        }
+
+        ByteBuffer write() {
+            Map<int[], Integer> distinct = new IdentityHashMap<>();
+            IntList leafStart = new IntList();
+            IntList leafItems = new IntList();
+            int[] leafOf = new int[dbIds.length];
+            leafStart.add(0);
+            for (int i = 0; i < dbIds.length; i++) {
+                if (leaves[i].length == 0) {
+                    leafOf[i] = -1;
+                    continue;
+                }
+                Integer j = distinct.get(leaves[i]);
+                if (j == null) {
+                    j = distinct.size();
+                    distinct.put(leaves[i], j);
+                    for (int l : leaves[i]) leafItems.add(l);
+                    leafStart.add(leafItems.size());
+                }
+                leafOf[i] = j;
+            }
+            return new IndexSnapshot.Writer()
+                    .putLongs(dbIds).putBitSet(physicalEntities)
+                    .putStrings(schemaClasses).putStrings(displayNames).putStrings(identifiers).putStrings(urls)
+                    .putStrings(stIds).putInts(stIdPosition)
+                    .putInts(start).putInts(targets).putBytes(kinds).putInts(referenceEntity)
+                    .putInts(leafStart.toArray()).putInts(leafItems.toArray()).putInts(leafOf)
+                    .toBuffer();
+        }
+
+        private static String[] intern(String[] values, Map<String, String> strings) {
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] != null) values[i] = strings.computeIfAbsent(values[i], s -> s);
+            }
+            return values;
+        }
+
+        int indexOf(long dbId) {
+            int i = Arrays.binarySearch(dbIds, dbId);
+            return i < 0 ? -1 : i;
+        }
+
+        int indexOf(Object id) {
+            if (id instanceof Number) return indexOf(((Number) id).longValue());
+            if (id instanceof String) {
+                int j = Arrays.binarySearch(stIds, id);
+                return j < 0 ? -1 : stIdPosition[j];
+            }
+            return -1;
+        }
+
+        /**
+         * @return the physical entities reached from the given object following the participant relationships
+         */
+        int[] physicalEntities(int root) {
+            if (root < 0) return NONE;
+            IntList rtn = new IntList();
+            BitSet visited = new BitSet(dbIds.length);
+            Deque<Integer> queue = new ArrayDeque<>();
+            queue.add(root);
+            while (!queue.isEmpty()) {
+                int x = queue.poll();
+                for (int e = start[x]; e < start[x + 1]; e++) {
+                    int c = targets[e];
+                    if (kinds[e] != PARTICIPANT || c < 0 || visited.get(c)) continue;
+                    visited.set(c);
+                    if (physicalEntities.get(c)) rtn.add(c);
+                    queue.add(c);
+                }
+            }
+            return rtn.toArray();
+        }
+
+        /**
+         * Breadth first traversal of the composition relationships from every physical entity keeping the
+         * entities with reference entity. The resulting arrays are sorted and interned.
+         *
+         * @return the number of distinct arrays
+         */
+        private int flatten() {
+            int n = dbIds.length;
+            Map<IntArray, int[]> interned = new HashMap<>();
+            int[] stamp = new int[n];
+            int[] queue = new int[n];
+            IntList found = new IntList();
+            for (int i = 0; i < n; i++) {
+                leaves[i] = NONE;
+                if (!physicalEntities.get(i)) continue;
+                int current = i + 1, head = 0, tail = 0;
+                found.clear();
+                queue[tail++] = i;
+                while (head < tail) {
+                    int x = queue[head++];
+                    for (int e = start[x]; e < start[x + 1]; e++) {
+                        int c = targets[e];
+                        if (kinds[e] != COMPOSITION || c < 0 || stamp[c] == current) continue;
+                        stamp[c] = current;
+                        if (referenceEntity[c] >= 0) found.add(c);
+                        queue[tail++] = c;
+                    }
+                }
+                if (found.size() == 0) continue;
+                int[] aux = found.toArray();
+                Arrays.sort(aux);
+                leaves[i] = interned.computeIfAbsent(new IntArray(aux), a -> a.items);
+            }
+            return interned.size();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package org.reactome.server.graph.index;
+
+import java.util.Arrays;
+
+/**
+ * Growable lists of primitives used while the indexes are built, so millions of relationships are collected
+ * without boxing every item
+ */
+final class PrimitiveLists {
+
+    private PrimitiveLists() {
+    }
+
+    static final class IntList {
+        private int[] items;
+        private int size = 0;
+
+        IntList() {
+            this(4);
+        }
+
+        IntList(int capacity) {
+            items = new int[Math.max(capacity, 1)];
+        }
+
+        /**
+         * @return the position of the item
+         */
+        int add(int item) {
+            if (size == items.length) items = Arrays.copyOf(items, size * 2);
+            items[size] = item;
+            return size++;
+        }
+
+        int get(int i) {
+            return items[i];
+        }
+
+        int size() {
+            return size;
+        }
+
+        void clear() {
+            size = 0;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(items, size);
+        }
+    }
+
+    static final class LongList {
+        private long[] items = new long[16];
+        private int size = 0;
+
+        /**
+         * @return the position of the item
+         */
+        int add(long item) {
+            if (size == items.length) items = Arrays.copyOf(items, size * 2);
+            items[size] = item;
+            return size++;
+        }
+
+        long get(int i) {
+            return items[i];
+        }
+
+        int size() {
+            return size;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(items, size);
+        }
+    }
+
+    static final class ByteList {
+        private byte[] items = new byte[16];
+        private int size = 0;
+
+        /**
+         * @return the position of the item
+         */
+        int add(byte item) {
+            if (size == items.length) items = Arrays.copyOf(items, size * 2);
+            items[size] = item;
+            return size++;
+        }
+
+        byte get(int i) {
+            return items[i];
+        }
+
+        int size() {
+            return size;
+        }
+
+        byte[] toArray() {
+            return Arrays.copyOf(items, size);
+        }
+    }
+
+    /**
+     * Array of ints compared by content, so it can be used as the key of a map
+     */
+    static final class IntArray {
+        final int[] items;
+        private final int hash;
+
+        IntArray(int[] items) {
+            this.items = items;
+            this.hash = Arrays.hashCode(items);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof IntArray && Arrays.equals(items, ((IntArray) o).items);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package org.reactome.server.graph.index;
+
+import org.apache.commons.lang3.StringUtils;
+import org.reactome.server.graph.cache.ReleaseCacheManager;
+import org.reactome.server.graph.domain.model.Species;
+import org.reactome.server.graph.repository.SpeciesRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * In-memory registry of the species (there are only a few dozens) used to resolve the species parameter of the
+ * services by taxId, dbId or any of its names without querying the database.
+ *
+ * The registry is immutable: it is built on first use and replaced when {@link ReleaseCacheManager} detects a new
+ * release. The registered Species are shared by all the callers and MUST NOT be modified (lazy loading their
+ * relationships is fine, it sets the same values for everyone). Only the lists returned are new for every call.
+ * It is disabled by default and enabled with reactome.graph.index.species.enabled=true
+ */
+@Component
+@SuppressWarnings("unused")
+public class SpeciesRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(SpeciesRegistry.class);
+
+    private static final String HUMAN_TAX_ID = "9606";
+
+    private final SpeciesRepository speciesRepository;
+    private final ReleaseCacheManager releaseCacheManager;
+
+    @Value("${reactome.graph.index.species.enabled:false}")
+    private boolean enabled;
+
+    private volatile Registry registry = null;
+
+    public SpeciesRegistry(SpeciesRepository speciesRepository, ReleaseCacheManager releaseCacheManager) {
+        this.speciesRepository = speciesRepository;
+        this.releaseCacheManager = releaseCacheManager;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        if (!enabled) registry = null;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Same result as SpeciesService.getSpecies(): the species with top level pathways, human first
+     */
+    public List<Species> getSpecies() {
+        return new ArrayList<>(getRegistry().species);
+    }
+
+    /**
+     * Same result as SpeciesService.getAllSpecies(): all the species sorted by display name
+     */
+    public List<Species> getAllSpecies() {
+        return new ArrayList<>(getRegistry().allSpecies);
+    }
+
+    public Species getSpeciesByTaxId(String taxId) {
+        return getRegistry().byTaxId.get(taxId);
+    }
+
+    public Species getSpeciesByDbId(Long dbId) {
+        return getRegistry().byDbId.get(dbId);
+    }
+
+    /**
+     * Same result as SpeciesService.getSpeciesByName(String): the name has to be one of the names of the species
+     */
+    public Species getSpeciesByName(String name) {
+        return getRegistry().byName.get(name);
+    }
+
+    /**
+     * Same contract as SpeciesService.getSpecies(Object): numbers are looked up as taxId and then as dbId and
+     * the rest as (normalised) names
+     */
+    public Species getSpecies(Object obj) {
+        Registry registry = getRegistry();
+        String num = null;
+        if (obj instanceof String) {
+            String aux = (String) obj;
+            if (aux.isEmpty()) return null;
+            if (!StringUtils.isNumeric(aux)) {
+                return registry.byName.get(StringUtils.capitalize(aux.toLowerCase().replaceAll("[_ ]+", " ")));
+            }
+            num = aux;
+        } else if (obj instanceof Number && !(obj instanceof Double)) {
+            num = "" + obj;
+        }
+        if (num == null) return null;
+        Species rtn = registry.byTaxId.get(num);
+        if (rtn == null && num.length() < 19) rtn = registry.byDbId.get(Long.valueOf(num));
+        return rtn;
+    }
+
+    /**
+     * Forces the registry to be reloaded on the next call
+     */
+    public void clear() {
+        registry = null;
+    }
+
+    private Registry getRegistry() {
+        Integer release = releaseCacheManager.getRelease();
+        Registry registry = this.registry;
+        if (registry == null || !Objects.equals(registry.release, release)) {
+            synchronized (this) {
+                registry = this.registry;
+                if (registry == null || !Objects.equals(registry.release, release)) {
+                    registry = new Registry(release, speciesRepository.getSpecies(), speciesRepository.getAllSpecies());
+                    this.registry = registry;
+                    logger.info("Species registry for release " + release + " loaded (" + registry.allSpecies.size() + " species)");
+                }
+            }
+        }
+        return registry;
+    }
+
+    private static class Registry {
+
+        private final Integer release;
+
+        private final List<Species> species;
+        private final List<Species> allSpecies;
+        private final Map<String, Species> byTaxId = new HashMap<>();
+        private final Map<Long, Species> byDbId = new HashMap<>();
+        private final Map<String, Species> byName = new HashMap<>();
+
+        Registry(Integer release, List<Species> species, List<Species> allSpecies) {
+            this.release = release;
+            List<Species> aux = new ArrayList<>(species);
+            for (int i = 0; i < aux.size(); i++) {
+                if (HUMAN_TAX_ID.equals(aux.get(i).getTaxId())) {
+                    aux.add(0, aux.remove(i));
+                    break;
+                }
+            }
+            this.species = Collections.unmodifiableList(aux);
+            this.allSpecies = Collections.unmodifiableList(new ArrayList<>(allSpecies));
+
+            // Species with pathways take precedence, so they are indexed first
+            List<Species> all = new ArrayList<>(this.species);
+            all.addAll(this.allSpecies);
+            for (Species s : all) {
+                if (s.getTaxId() != null) byTaxId.putIfAbsent(s.getTaxId(), s);
+                byDbId.putIfAbsent(s.getDbId(), s);
+                if (s.getName() != null) s.getName().forEach(name -> byName.putIfAbsent(name, s));
+            }
+        }
+    }
+}
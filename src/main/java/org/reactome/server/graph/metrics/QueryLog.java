@@ -0,0 +1,375 @@
+package org.reactome.server.graph.metrics;
+
+import org.neo4j.driver.summary.ProfiledPlan;
+import org.neo4j.driver.summary.ResultSummary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.neo4j.core.Neo4jClient;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Slow query log of the Cypher queries run through the Neo4jClient (the repositories, the indexes and the
+ * Neo4jTemplate used by the SDN repositories). For every query it records the query, the shape of its
+ * parameters (names, types and sizes, never the values), the wall time and the number of rows returned, and
+ * keeps the slowest ones in a bounded structure available with {@link #getSlowestQueries()}.
+ *
+ * The queries slower than the threshold are logged and, for a sample of them, the query is run again with
+ * PROFILE in a background thread to add the database hits and the execution plan to the record (and the log).
+ * Queries writing to the database are never profiled.
+ *
+ * The Neo4jClient bean is wrapped when the context starts; while the log is disabled the calls go straight to
+ * the client. The reactive client is not instrumented. It is disabled by default and configured with:
+ *
+ * reactome.graph.querylog.enabled=true
+ * reactome.graph.querylog.threshold=1000         (milliseconds, slower queries are logged)
+ * reactome.graph.querylog.size=50                (number of slowest queries kept)
+ * reactome.graph.querylog.profile.sample=0.0     (fraction of the slow queries run again with PROFILE)
+ */
+@Component
+@SuppressWarnings("unused")
+public class QueryLog implements BeanPostProcessor, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryLog.class);
+
+    private static final Pattern WHITESPACES = Pattern.compile("\\s+");
+    private static final Pattern WRITE = Pattern.compile("\\b(CREATE|MERGE|SET|DELETE|REMOVE|DROP|LOAD\\s+CSV)\\b", Pattern.CASE_INSENSITIVE);
+    private static final Pattern EXPLAIN_OR_PROFILE = Pattern.compile("^\\s*(EXPLAIN|PROFILE)\\b", Pattern.CASE_INSENSITIVE);
+
+    @Value("${reactome.graph.querylog.enabled:false}")
+    private volatile boolean enabled;
+
+    @Value("${reactome.graph.querylog.threshold:1000}")
+    private volatile long threshold;
+
+    @Value("${reactome.graph.querylog.size:50}")
+    private volatile int size;
+
+    @Value("${reactome.graph.querylog.profile.sample:0.0}")
+    private volatile double sample;
+
+    // Min-heap by time, so the fastest of the slowest queries is the one replaced
+    private final PriorityQueue<QueryRecord> slowest = new PriorityQueue<>(Comparator.comparingLong(QueryRecord::getNanos));
+    private volatile long minNanos = 0;
+
+    private final ThreadPoolExecutor profiler = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(100), r -> {
+        Thread thread = new Thread(r, "graph-core-query-profiler");
+        thread.setDaemon(true);
+        return thread;
+    }, new ThreadPoolExecutor.DiscardPolicy());
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getThreshold() {
+        return threshold;
+    }
+
+    public void setThreshold(long threshold) {
+        this.threshold = threshold;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+        clear();
+    }
+
+    public double getSample() {
+        return sample;
+    }
+
+    public void setSample(double sample) {
+        this.sample = sample;
+    }
+
+    /**
+     * @return the slowest queries recorded, the slowest first
+     */
+    public List<QueryRecord> getSlowestQueries() {
+        List<QueryRecord> rtn;
+        synchronized (slowest) {
+            rtn = new ArrayList<>(slowest);
+        }
+        rtn.sort(Comparator.comparingLong(QueryRecord::getNanos).reversed());
+        return rtn;
+    }
+
+    /**
+     * Writes the slowest queries recorded to the log
+     */
+    public void logSlowestQueries() {
+        List<QueryRecord> records = getSlowestQueries();
+        StringBuilder sb = new StringBuilder("Slowest ").append(records.size()).append(" queries:");
+        for (QueryRecord record : records) sb.append(System.lineSeparator()).append("  ").append(record);
+        logger.info(sb.toString());
+    }
+
+    public void clear() {
+        synchronized (slowest) {
+            slowest.clear();
+            minNanos = 0;
+        }
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof Neo4jClient && !Proxy.isProxyClass(bean.getClass())) return wrap((Neo4jClient) bean);
+        return bean;
+    }
+
+    @Override
+    public void destroy() {
+        profiler.shutdownNow();
+    }
+
+    /**
+     * @return a Neo4jClient recording the queries run through the given one while the log is enabled
+     */
+    public Neo4jClient wrap(Neo4jClient client) {
+        return (Neo4jClient) Proxy.newProxyInstance(Neo4jClient.class.getClassLoader(), new Class[]{Neo4jClient.class}, (proxy, method, args) -> {
+            Object result = invoke(client, method, args);
+            if (!enabled || !method.getName().equals("query") || args == null || args.length != 1) return result;
+            QueryContext context = new QueryContext(client, args[0]);
+            return wrapSpec(result, context);
+        });
+    }
+
+    /**
+     * Wraps the specs returned along the fluent API of the client (bind, in, fetchAs, mappedBy...) to collect the
+     * parameters and the database, and records the query when the terminal method (all, one, first, run) is called
+     */
+    private Object wrapSpec(Object spec, QueryContext context) {
+        Class<?>[] interfaces = getSpecInterfaces(spec);
+        if (interfaces.length == 0) return spec;
+        return Proxy.newProxyInstance(Neo4jClient.class.getClassLoader(), interfaces, (proxy, method, args) -> {
+            String name = method.getName();
+            if (args != null && args.length == 1) {
+                if (name.equals("bindAll") && args[0] instanceof Map) {
+                    //noinspection unchecked
+                    context.parameters.putAll((Map<String, Object>) args[0]);
+                } else if (name.equals("bind")) {
+                    context.pending = args[0];
+                } else if (name.equals("to") && args[0] instanceof String) {
+                    context.parameters.put((String) args[0], context.pending);
+                } else if (name.equals("in") && args[0] instanceof String) {
+                    context.database = (String) args[0];
+                }
+            }
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = invoke(spec, method, args);
+            } catch (Throwable t) {
+                if (isTerminal(method)) record(context, System.nanoTime() - start, -1);
+                throw t;
+            }
+            if (result == spec) return proxy;
+            if (getSpecInterfaces(result).length > 0) return wrapSpec(result, context);
+            if (isTerminal(method)) record(context, System.nanoTime() - start, rowsOf(result));
+            return result;
+        });
+    }
+
+    private void record(QueryContext context, long nanos, int rows) {
+        if (!enabled) return;
+        QueryRecord record = new QueryRecord(context.getQuery(), shapeOf(context.parameters), nanos, rows);
+        int size = this.size;
+        if (size > 0 && nanos > minNanos) {
+            synchronized (slowest) {
+                if (slowest.size() < size) {
+                    slowest.add(record);
+                } else if (nanos > slowest.peek().getNanos()) {
+                    slowest.poll();
+                    slowest.add(record);
+                }
+                minNanos = slowest.size() < size ? 0 : slowest.peek().getNanos();
+            }
+        }
+        if (nanos >= TimeUnit.MILLISECONDS.toNanos(threshold)) {
+            logger.warn("Slow query " + record);
+            if (sample > 0 && ThreadLocalRandom.current().nextDouble() < sample && isProfilable(record.getQuery())) {
+                Map<String, Object> parameters = new HashMap<>(context.parameters);
+                profiler.execute(() -> profile(context.client, context.database, record, parameters));
+            }
+        }
+    }
+
+    private void profile(Neo4jClient client, String database, QueryRecord record, Map<String, Object> parameters) {
+        try {
+            Neo4jClient.RunnableSpec spec = client.query("PROFILE " + record.getQuery()).bindAll(parameters);
+            ResultSummary summary = database == null ? spec.run() : spec.in(database).run();
+            if (summary == null || !summary.hasProfile()) return;
+            ProfiledPlan plan = summary.profile();
+            StringBuilder sb = new StringBuilder();
+            record.dbHits = appendPlan(plan, 0, sb);
+            record.plan = sb.toString();
+            logger.info("Profile of slow query " + record + System.lineSeparator() + record.plan);
+        } catch (RuntimeException e) {
+            logger.warn("Slow query cannot be profiled: " + e.getMessage());
+        }
+    }
+
+    /**
+     * @return the database hits of the plan (including its children)
+     */
+    private static long appendPlan(ProfiledPlan plan, int depth, StringBuilder sb) {
+        for (int i = 0; i < depth; i++) sb.append("  ");
+        sb.append(plan.operatorType()).append(" (db hits: ").append(plan.dbHits()).append(", rows: ").append(plan.records()).append(")").append(System.lineSeparator());
+        long dbHits = plan.dbHits();
+        for (ProfiledPlan child : plan.children()) dbHits += appendPlan(child, depth + 1, sb);
+        return dbHits;
+    }
+
+    private static boolean isProfilable(String query) {
+        return query != null && !WRITE.matcher(query).find() && !EXPLAIN_OR_PROFILE.matcher(query).find();
+    }
+
+    private static boolean isTerminal(Method method) {
+        String name = method.getName();
+        return name.equals("all") || name.equals("one") || name.equals("first") || name.equals("run");
+    }
+
+    private static int rowsOf(Object result) {
+        if (result instanceof Collection) return ((Collection<?>) result).size();
+        if (result instanceof Optional) return ((Optional<?>) result).isPresent() ? 1 : 0;
+        return -1;
+    }
+
+    /**
+     * @return e.g. {dbIds: List[1000], stId: String}
+     */
+    private static String shapeOf(Map<String, Object> parameters) {
+        StringJoiner joiner = new StringJoiner(", ", "{", "}");
+        new TreeMap<>(parameters).forEach((name, value) -> {
+            String shape;
+            if (value == null) shape = "null";
+            else if (value instanceof List) shape = "List[" + ((List<?>) value).size() + "]";
+            else if (value instanceof Collection) shape = "Collection[" + ((Collection<?>) value).size() + "]";
+            else if (value instanceof Map) shape = "Map[" + ((Map<?, ?>) value).size() + "]";
+            else if (value.getClass().isArray()) shape = "Array[" + Array.getLength(value) + "]";
+            else shape = value.getClass().getSimpleName();
+            joiner.add(name + ": " + shape);
+        });
+        return joiner.toString();
+    }
+
+    /**
+     * @return the public interfaces of the fluent API of Neo4jClient implemented by the spec
+     */
+    private static Class<?>[] getSpecInterfaces(Object spec) {
+        if (spec == null) return new Class[0];
+        return ClassUtils.getAllInterfacesForClassAsSet(spec.getClass()).stream()
+                .filter(i -> Modifier.isPublic(i.getModifiers()) && Neo4jClient.class.equals(i.getEnclosingClass()))
+                .toArray(Class[]::new);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static class QueryContext {
+        private final Neo4jClient client;
+        private final Object query;
+        private final Map<String, Object> parameters = new HashMap<>();
+        private Object pending;
+        private String database;
+
+        QueryContext(Neo4jClient client, Object query) {
+            this.client = client;
+            this.query = query;
+        }
+
+        String getQuery() {
+            Object query = this.query instanceof Supplier ? ((Supplier<?>) this.query).get() : this.query;
+            return query == null ? null : WHITESPACES.matcher(query.toString()).replaceAll(" ").trim();
+        }
+    }
+
+    public static class QueryRecord {
+        private final String query;
+        private final String parameters;
+        private final long nanos;
+        private final int rows;
+        private final long timestamp = System.currentTimeMillis();
+        private volatile Long dbHits;
+        private volatile String plan;
+
+        QueryRecord(String query, String parameters, long nanos, int rows) {
+            this.query = query;
+            this.parameters = parameters;
+            this.nanos = nanos;
+            this.rows = rows;
+        }
+
+        public String getQuery() {
+            return query;
+        }
+
+        /**
+         * @return names, types and sizes of the parameters
+         */
+        public String getParameters() {
+            return parameters;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+
+        public long getMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(nanos);
+        }
+
+        /**
+         * @return rows returned, -1 when unknown (run without fetching or finished with an exception)
+         */
+        public int getRows() {
+            return rows;
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        /**
+         * @return database hits of the profiled query or null when it has not been profiled
+         */
+        public Long getDbHits() {
+            return dbHits;
+        }
+
+        /**
+         * @return execution plan of the profiled query or null when it has not been profiled
+         */
+        public String getPlan() {
+            return plan;
+        }
+
+        @Override
+        public String toString() {
+            return getMillis() + "ms, " + rows + " rows" + (dbHits != null ? ", " + dbHits + " db hits" : "") + ", parameters " + parameters + ": " + query;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package org.reactome.server.graph.metrics;
+
+import io.micrometer.core.instrument.*;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meters of the service methods, published in the application MeterRegistry (or the Micrometer global
+ * registry when the application does not provide one). For every service class and method:
+ *
+ *  - reactome.graph.service                (timer)   execution time
+ *  - reactome.graph.service.errors         (counter) executions finished with an exception, tagged by exception
+ *  - reactome.graph.service.result.size    (summary) size of the result when it is a collection, map or array
+ *
+ * Metrics are disabled by default. It is configured with the following properties:
+ *
+ * reactome.graph.metrics.enabled=true
+ * reactome.graph.metrics.percentiles=0.5,0.95,0.99    (client side percentiles published for the timers)
+ * reactome.graph.metrics.histogram=false              (publishes the histogram buckets, e.g. for Prometheus)
+ */
+@Component
+@SuppressWarnings("unused")
+public class ServiceMetrics {
+
+    public static final String TIMER = "reactome.graph.service";
+    public static final String ERRORS = "reactome.graph.service.errors";
+    public static final String RESULT_SIZE = "reactome.graph.service.result.size";
+
+    private final MeterRegistry registry;
+    private final Map<Object, MethodMeters> meters = new ConcurrentHashMap<>();
+
+    @Value("${reactome.graph.metrics.enabled:false}")
+    private volatile boolean enabled;
+
+    @Value("${reactome.graph.metrics.percentiles:0.5,0.95,0.99}")
+    private double[] percentiles;
+
+    @Value("${reactome.graph.metrics.histogram:false}")
+    private boolean histogram;
+
+    public ServiceMetrics(ObjectProvider<MeterRegistry> registry) {
+        this.registry = registry.getIfAvailable(() -> Metrics.globalRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public MeterRegistry getRegistry() {
+        return registry;
+    }
+
+    /**
+     * @param key       identifies the method, the meters are created once per key
+     * @param className simple name of the service class
+     * @param method    name of the method
+     */
+    public MethodMeters getMeters(Object key, String className, String method) {
+        MethodMeters rtn = meters.get(key);
+        if (rtn == null) rtn = meters.computeIfAbsent(key, k -> new MethodMeters(className, method));
+        return rtn;
+    }
+
+    public class MethodMeters {
+
+        private final Tags tags;
+        private final Timer timer;
+        private final DistributionSummary resultSize;
+
+        MethodMeters(String className, String method) {
+            this.tags = Tags.of("class", className, "method", method);
+            this.timer = Timer.builder(TIMER)
+                    .description("Execution time of the graph-core service methods")
+                    .tags(tags)
+                    .publishPercentiles(percentiles)
+                    .publishPercentileHistogram(histogram)
+                    .register(registry);
+            this.resultSize = DistributionSummary.builder(RESULT_SIZE)
+                    .description("Number of elements returned by the graph-core service methods")
+                    .tags(tags)
+                    .publishPercentiles(percentiles)
+                    .register(registry);
+        }
+
+        public void success(long nanos, Object result) {
+            timer.record(nanos, TimeUnit.NANOSECONDS);
+            int size = sizeOf(result);
+            if (size >= 0) resultSize.record(size);
+        }
+
+        public void error(long nanos, Throwable t) {
+            timer.record(nanos, TimeUnit.NANOSECONDS);
+            registry.counter(ERRORS, tags.and("exception", t.getClass().getSimpleName())).increment();
+        }
+
+        private int sizeOf(Object result) {
+            if (result instanceof Collection) return ((Collection<?>) result).size();
+            if (result instanceof Map) return ((Map<?, ?>) result).size();
+            if (result != null && result.getClass().isArray()) return Array.getLength(result);
+            return -1;
+        }
+    }
+}
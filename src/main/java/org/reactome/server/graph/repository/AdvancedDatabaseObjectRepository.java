@@ -2,7 +2,7 @@ package org.reactome.server.graph.repository;
 
 import org.neo4j.driver.types.MapAccessor;
 import org.neo4j.driver.types.TypeSystem;
-import org.reactome.server.graph.domain.ReflectionUtils;
+import org.reactome.server.graph.domain.RecordMapper;
 import org.reactome.server.graph.domain.model.DatabaseObject;
 import org.reactome.server.graph.domain.result.CustomQuery;
 import org.reactome.server.graph.domain.result.QueryResultWrapper;
@@ -16,7 +16,6 @@ import org.springframework.data.neo4j.core.Neo4jTemplate;
 import org.springframework.data.neo4j.core.mapping.Neo4jMappingContext;
 import org.springframework.stereotype.Repository;
 
-import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.util.*;
 import java.util.function.BiFunction;
@@ -189,6 +188,38 @@ public class AdvancedDatabaseObjectRepository {
         return (T) neo4jTemplate.findOne(query, Map.of("stId", stId), DatabaseObject.class).orElse(null);
     }
 
+    public Collection<DatabaseObject> findByDbIds(Collection<Long> dbIds, RelationshipDirection direction) {
+        String query;
+        switch (direction) {
+            case OUTGOING:
+                query = "MATCH (n:DatabaseObject) WHERE n.dbId IN $dbIds OPTIONAL MATCH (n)-[r]->(m) " + CYPHER_RETURN;
+                break;
+            case INCOMING:
+                query = "MATCH (n:DatabaseObject) WHERE n.dbId IN $dbIds OPTIONAL MATCH (n)<-[r]-(m) " + CYPHER_RETURN;
+                break;
+            default: // UNDIRECTED
+                query = "MATCH (n:DatabaseObject) WHERE n.dbId IN $dbIds OPTIONAL MATCH (n)-[r]-(m) " + CYPHER_RETURN;
+        }
+
+        return neo4jTemplate.findAll(query, Map.of("dbIds", dbIds), DatabaseObject.class);
+    }
+
+    public Collection<DatabaseObject> findByStIds(Collection<String> stIds, RelationshipDirection direction) {
+        String query;
+        switch (direction) {
+            case OUTGOING:
+                query = "MATCH (n:DatabaseObject) WHERE n.stId IN $stIds OPTIONAL MATCH (n)-[r]->(m) " + CYPHER_RETURN;
+                break;
+            case INCOMING:
+                query = "MATCH (n:DatabaseObject) WHERE n.stId IN $stIds OPTIONAL MATCH (n)<-[r]-(m) " + CYPHER_RETURN;
+                break;
+            default: // UNDIRECTED
+                query = "MATCH (n:DatabaseObject) WHERE n.stId IN $stIds OPTIONAL MATCH (n)-[r]-(m) " + CYPHER_RETURN;
+        }
+
+        return neo4jTemplate.findAll(query, Map.of("stIds", stIds), DatabaseObject.class);
+    }
+
     public Collection<DatabaseObject> findByDbIds(Collection<Long> dbIds, RelationshipDirection direction, String... relationships) {
         String query;
         switch (direction) {
@@ -232,19 +263,21 @@ public class AdvancedDatabaseObjectRepository {
 
     public Collection<DatabaseObject> findCollectionByRelationship(Long dbId, String clazz, Class<?> collectionClass, RelationshipDirection direction, String... relationships) {
         Collection<QueryResultWrapper> list = queryRelationshipTypesByDbId(dbId, clazz, direction, relationships);
-        Collection<DatabaseObject> databaseObjects;
-        if (collectionClass.getName().equals(Set.class.getName())) {
-            databaseObjects = list.stream().map(QueryResultWrapper::getDatabaseObject).collect(Collectors.toSet());
-        } else {
-            databaseObjects = new ArrayList<>(list.size());
-            for (QueryResultWrapper wrapper : list) {
-                //Here stoichiometry has to be taken into account
-                for (int i = 0; i <  wrapper.getStoichiometry(); ++i) {
-                    databaseObjects.add(wrapper.getDatabaseObject());
-                }
-            }
+        return asCollection(list, collectionClass);
+    }
+
+    /**
+     * Batch version of findCollectionByRelationship. The relationship is queried for all the given dbIds at once.
+     *
+     * @return map of dbId to its collection. Identifiers without related objects are not present in the map
+     */
+    public Map<Long, Collection<DatabaseObject>> findCollectionsByRelationship(Collection<Long> dbIds, String clazz, Class<?> collectionClass, RelationshipDirection direction, String... relationships) {
+        Map<Long, Collection<DatabaseObject>> rtn = new HashMap<>();
+        for (Map.Entry<Long, List<QueryResultWrapper>> entry : queryRelationshipTypesByDbIds(dbIds, clazz, direction, relationships).entrySet()) {
+            Collection<DatabaseObject> databaseObjects = asCollection(entry.getValue(), collectionClass);
+            if (databaseObjects != null) rtn.put(entry.getKey(), databaseObjects);
         }
-        return databaseObjects.isEmpty() ? null : databaseObjects;
+        return rtn;
     }
 
     public <T extends DatabaseObject> T findByRelationship(Long dbId, String clazz, RelationshipDirection direction, String... relationships) {
@@ -285,6 +318,69 @@ public class AdvancedDatabaseObjectRepository {
                         }).all();
     }
 
+    /**
+     * Batch version of findByRelationship. Only the dbIds related to exactly one object are present in the returned map.
+     */
+    public Map<Long, DatabaseObject> findByRelationship(Collection<Long> dbIds, String clazz, RelationshipDirection direction, String... relationships) {
+        Map<Long, DatabaseObject> rtn = new HashMap<>();
+        for (Map.Entry<Long, List<QueryResultWrapper>> entry : queryRelationshipTypesByDbIds(dbIds, clazz, direction, relationships).entrySet()) {
+            if (entry.getValue().size() == 1) rtn.put(entry.getKey(), entry.getValue().get(0).getDatabaseObject());
+        }
+        return rtn;
+    }
+
+    /**
+     * Same as queryRelationshipTypesByDbId but for several objects in a single query, which avoids one round-trip
+     * per object when lazy loading the same relationship for all the elements of a collection.
+     *
+     * @return the result grouped by the dbId the relationship starts from
+     */
+    public Map<Long, List<QueryResultWrapper>> queryRelationshipTypesByDbIds(Collection<Long> dbIds, String clazz, RelationshipDirection direction, String... relationships) {
+        String query;
+        switch (direction) {
+            case OUTGOING:
+                query = "MATCH (a:DatabaseObject)-[r" + RepositoryUtils.getRelationshipAsString(relationships) + "]->(m:" + clazz + ") WHERE a.dbId IN $dbIds RETURN a.dbId AS o, m, r.stoichiometry as n";
+                break;
+            case INCOMING:
+                query = "MATCH (a:DatabaseObject)<-[r" + RepositoryUtils.getRelationshipAsString(relationships) + "]-(m:" + clazz + ") WHERE a.dbId IN $dbIds RETURN a.dbId AS o, m, r.stoichiometry as n";
+                break;
+            default: //UNDIRECTED
+                query = "MATCH (a:DatabaseObject)-[r" + RepositoryUtils.getRelationshipAsString(relationships) + "]-(m:" + clazz + ") WHERE a.dbId IN $dbIds RETURN a.dbId AS o, m, r.stoichiometry as n";
+                break;
+        }
+
+        BiFunction<TypeSystem, MapAccessor, DatabaseObject> mappingFunction = neo4jMappingContext.getRequiredMappingFunctionFor(DatabaseObject.class);
+        Collection<QueryResultWrapper> wrappers = neo4jClient.query(query)
+                .bindAll(Map.of("dbIds", dbIds))
+                .fetchAs(QueryResultWrapper.class)
+                .mappedBy((typeSystem, record) -> {
+                    DatabaseObject databaseObject = mappingFunction.apply(typeSystem, record.get("m"));
+                    return new QueryResultWrapper(record.get("o").asLong(), databaseObject, record.get("n").asInt());
+                }).all();
+
+        Map<Long, List<QueryResultWrapper>> rtn = new HashMap<>();
+        for (QueryResultWrapper wrapper : wrappers) {
+            rtn.computeIfAbsent(wrapper.getOrigin(), k -> new ArrayList<>()).add(wrapper);
+        }
+        return rtn;
+    }
+
+    private Collection<DatabaseObject> asCollection(Collection<QueryResultWrapper> list, Class<?> collectionClass) {
+        Collection<DatabaseObject> databaseObjects;
+        if (collectionClass.getName().equals(Set.class.getName())) {
+            databaseObjects = list.stream().map(QueryResultWrapper::getDatabaseObject).collect(Collectors.toSet());
+        } else {
+            databaseObjects = new ArrayList<>(list.size());
+            for (QueryResultWrapper wrapper : list) {
+                //Here stoichiometry has to be taken into account
+                for (int i = 0; i <  wrapper.getStoichiometry(); ++i) {
+                    databaseObjects.add(wrapper.getDatabaseObject());
+                }
+            }
+        }
+        return databaseObjects.isEmpty() ? null : databaseObjects;
+    }
+
     // ----------------------------------------- Custom Query Methods --------------------------------------------------
 
     public void customQuery(String query, Map<String, Object> parameters){
@@ -304,20 +400,11 @@ public class AdvancedDatabaseObjectRepository {
                 return neo4jClient.query(query).in(databaseName).bindAll(parameters).fetchAs(clazz).one().orElse(null);
             }
 
-            Constructor<T> constructor = (Constructor<T>) Arrays.stream(clazz.getConstructors()).findFirst().get();
-            constructor.setAccessible(true);
-
-            return neo4jClient.query(query).in(databaseName).bindAll(parameters).fetchAs(clazz)
-                    .mappedBy( (t,r) -> {
-                        try {
-                            T tt = constructor.newInstance();
-                            return ReflectionUtils.build(tt, r);
-                        } catch (InstantiationException | InvocationTargetException | IllegalAccessException e) {
-                            return null;
-                        }
-                    }).one().orElse(null);
+            RecordMapper<T> mapper = RecordMapper.forClass(clazz);
+            if (!mapper.isInstantiable()) throw new CustomQueryException(clazz.getName() + " cannot be instantiated");
+            return neo4jClient.query(query).in(databaseName).bindAll(parameters).fetchAs(clazz).mappedBy((t, r) -> mapper.map(r)).one().orElse(null);
 
-        } catch (IllegalAccessException | InstantiationException | InvocationTargetException e) {
+        } catch (IllegalAccessException | InstantiationException | InvocationTargetException | IllegalArgumentException e) {
             throw new CustomQueryException(e);
         }
     }
@@ -335,19 +422,10 @@ public class AdvancedDatabaseObjectRepository {
                 return neo4jClient.query(query).in(databaseName).bindAll(parameters).fetchAs(clazz).all();
             }
 
-            Constructor<T> constructor = (Constructor<T>) Arrays.stream(clazz.getConstructors()).findFirst().get();
-            constructor.setAccessible(true);
-
-            return neo4jClient.query(query).in(databaseName).bindAll(parameters).fetchAs(clazz)
-                    .mappedBy( (t,r) -> {
-                        try {
-                            T tt = constructor.newInstance();
-                            return ReflectionUtils.build(tt, r);
-                        } catch (InstantiationException | InvocationTargetException | IllegalAccessException e) {
-                            return null;
-                        }
-                    }).all();
-        } catch (IllegalAccessException | InstantiationException | InvocationTargetException e) {
+            RecordMapper<T> mapper = RecordMapper.forClass(clazz);
+            if (!mapper.isInstantiable()) throw new CustomQueryException(clazz.getName() + " cannot be instantiated");
+            return neo4jClient.query(query).in(databaseName).bindAll(parameters).fetchAs(clazz).mappedBy((t, r) -> mapper.map(r)).all();
+        } catch (IllegalAccessException | InstantiationException | InvocationTargetException | IllegalArgumentException e) {
             throw new CustomQueryException(e);
         }
     }
@@ -8,6 +8,7 @@ import org.springframework.data.neo4j.core.Neo4jTemplate;
 import org.springframework.stereotype.Repository;
 
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Map;
 
 @SuppressWarnings("ALL")
@@ -41,6 +42,17 @@ public class DatabaseObjectRepository {
         return neo4jClient.query(query).in(databaseName).bindAll(Map.of("oldStId", oldStId)).fetchAs(String.class).one().orElse(null);
     }
 
+    /**
+     * @return the map from every old stId found to its current stId
+     */
+    public Map<String, String> findNewStIds(Collection<String> oldStIds) {
+        String query = "MATCH (n:DatabaseObject) WHERE n.oldStId IN $oldStIds RETURN n.oldStId AS oldStId, n.stId AS stId";
+        Map<String, String> rtn = new HashMap<>();
+        neo4jClient.query(query).in(databaseName).bindAll(Map.of("oldStIds", oldStIds)).fetch().all()
+                .forEach(row -> rtn.put((String) row.get("oldStId"), (String) row.get("stId")));
+        return rtn;
+    }
+
     public <T extends DatabaseObject> T findByDbIdNoRelations(Long dbId) {
         String query = "MATCH (n:DatabaseObject{dbId:$dbId}) RETURN n";
         return (T) neo4jTemplate.findOne(query, Map.of("dbId", dbId), DatabaseObject.class).orElse(null);
@@ -1,6 +1,7 @@
 package org.reactome.server.graph.repository;
 
 import org.reactome.server.graph.domain.ReflectionUtils;
+import org.reactome.server.graph.domain.result.DiagramInteractors;
 import org.reactome.server.graph.domain.result.DiagramOccurrences;
 import org.reactome.server.graph.domain.result.DiagramResult;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,11 +10,20 @@ import org.springframework.data.neo4j.core.Neo4jClient;
 import org.springframework.stereotype.Repository;
 
 import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 @Repository
 public class DiagramRepository {
 
+    //language=Cypher
+    private static final String DIAGRAM_INTERACTORS = "" +
+            "OPTIONAL MATCH (root)-[:referenceEntity]->(:ReferenceEntity)<-[:interactor]-(:Interaction)-[:interactor]->(re:ReferenceEntity)<-[:referenceEntity]-(pe:PhysicalEntity) " +
+            "WHERE re.trivial IS NULL " +
+            "WITH root, collect(DISTINCT [pe.dbId, pe.stId]) AS interactors " +
+            "RETURN root.dbId AS dbId, [i IN interactors WHERE i[0] IS NOT NULL] AS interactors";
+
     private final Neo4jClient neo4jClient;
 
     @Value("${spring.data.neo4j.database:graph.db}")
@@ -181,4 +191,45 @@ public class DiagramRepository {
 
         return neo4jClient.query(query).in(databaseName).bindAll(Map.of("identifier", identifier)).fetchAs(DiagramOccurrences.class).mappedBy((t, record) -> ReflectionUtils.build(new DiagramOccurrences(), record)).all();
     }
-}
\ No newline at end of file
+
+    /**
+     * Fixed length part of getDiagramOccurrences: the object and the physical entities interacting with it
+     */
+    public DiagramInteractors getDiagramInteractors(Long dbId) {
+        //language=Cypher
+        String query = "" +
+                "MATCH (root:DatabaseObject{dbId:$dbId}) " +
+                DIAGRAM_INTERACTORS;
+        return neo4jClient.query(query).in(databaseName).bindAll(Map.of("dbId", dbId)).fetchAs(DiagramInteractors.class).mappedBy((t, r) -> new DiagramInteractors(r.get("dbId").asLong(), toMap(r.get("interactors").asList(v -> v.asList(org.neo4j.driver.Value::asObject))))).one().orElse(null);
+    }
+
+    public DiagramInteractors getDiagramInteractors(String stId) {
+        //language=Cypher
+        String query = "" +
+                "MATCH (root:DatabaseObject{stId:$stId}) " +
+                DIAGRAM_INTERACTORS;
+        return neo4jClient.query(query).in(databaseName).bindAll(Map.of("stId", stId)).fetchAs(DiagramInteractors.class).mappedBy((t, r) -> new DiagramInteractors(r.get("dbId").asLong(), toMap(r.get("interactors").asList(v -> v.asList(org.neo4j.driver.Value::asObject))))).one().orElse(null);
+    }
+
+    /**
+     * Fixed length part of getDiagramOccurrencesWithInteractions: the physical entities interacting with the given
+     * identifier (dbId to stId)
+     */
+    public Map<Long, String> getDiagramInteractorsByIdentifier(String identifier) {
+        //language=Cypher
+        String query = "" +
+                "MATCH (i:ReferenceEntity)<-[:interactor]-()-[:interactor]->(:ReferenceEntity)<-[:referenceEntity]-(pe:PhysicalEntity) " +
+                "WHERE i.identifier = $identifier OR i.variantIdentifier = $identifier " +
+                "RETURN DISTINCT pe.dbId AS dbId, pe.stId AS stId";
+        Map<Long, String> rtn = new LinkedHashMap<>();
+        neo4jClient.query(query).in(databaseName).bindAll(Map.of("identifier", identifier)).fetch().all()
+                .forEach(row -> rtn.put((Long) row.get("dbId"), (String) row.get("stId")));
+        return rtn;
+    }
+
+    private static Map<Long, String> toMap(List<List<Object>> pairs) {
+        Map<Long, String> rtn = new LinkedHashMap<>();
+        for (List<Object> pair : pairs) rtn.put((Long) pair.get(0), (String) pair.get(1));
+        return rtn;
+    }
+}
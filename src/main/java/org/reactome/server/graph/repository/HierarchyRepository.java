@@ -1,27 +1,170 @@
 package org.reactome.server.graph.repository;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import org.neo4j.driver.Record;
-import org.neo4j.driver.Value;
 import org.reactome.server.graph.domain.model.DatabaseObject;
 import org.reactome.server.graph.domain.result.HierarchyBranch;
+import org.reactome.server.graph.domain.result.HierarchyGraph;
 import org.reactome.server.graph.domain.result.HierarchyTreeItem;
 import org.reactome.server.graph.domain.result.HierarchyWrapper;
 import org.reactome.server.graph.service.helper.PathwayBrowserNode;
+import org.reactome.server.graph.service.helper.PathwayBrowserNodeWriter;
 import org.reactome.server.graph.service.util.DatabaseObjectUtils;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.neo4j.core.Neo4jClient;
 import org.springframework.stereotype.Repository;
 
+import java.io.IOException;
 import java.util.*;
 
 @Repository
 public class HierarchyRepository {
 
+    // Queries shared with ReactiveHierarchyRepository
+
+    //language=Cypher
+    static final String SUB_HIERARCHY_BY_DBID = "" +
+            "MATCH (n:DatabaseObject{dbId:$dbId}) " +
+            "OPTIONAL MATCH path=(n)-[:hasEvent|input|output|repeatedUnit|hasMember|hasCandidate|hasComponent*]->(m:DatabaseObject) " +
+            "WITH *, relationships(path) AS r " +
+            "RETURN [n.stId, n.displayName, n.hasDiagram, n.speciesName, n.schemaClass, labels(n), 0] AS db, " +
+            "collect( [rel IN r | [endNode(rel).stId, endNode(rel).displayName, endNode(rel).hasDiagram, endNode(rel).speciesName, endNode(rel).schemaClass, labels(endNode(rel)), rel.order ]] ) AS nodePairCollection";
+
+    //language=Cypher
+    static final String SUB_HIERARCHY_BY_STID = "" +
+            "MATCH (n:DatabaseObject{stId:$stId}) " +
+            "OPTIONAL MATCH path=(n)-[:hasEvent|input|output|repeatedUnit|hasMember|hasCandidate|hasComponent*]->(m:DatabaseObject) " +
+            "WITH *, relationships(path) AS r " +
+            "RETURN [n.stId, n.displayName, n.hasDiagram, n.speciesName, n.schemaClass, labels(n), 0] AS db, " +
+            "collect( [rel IN r | [endNode(rel).stId, endNode(rel).displayName, endNode(rel).hasDiagram, endNode(rel).speciesName, endNode(rel).schemaClass, labels(endNode(rel)), rel.order ]] ) AS nodePairCollection";
+
+    //language=Cypher
+    static final String EVENT_HIERARCHY_BY_SPECIES_NAME = "" +
+            "MATCH path=(n:TopLevelPathway{speciesName:$speciesName})-[:hasEvent*]->(m:Event) " +
+            "WITH *, relationships(path) AS r " +
+            "RETURN [n.stId, n.displayName, n.hasDiagram, n.speciesName, n.schemaClass, labels(n), 0] AS db, " +
+            "collect ( [rel IN r | [endNode(rel).stId, endNode(rel).displayName, endNode(rel).hasDiagram, endNode(rel).speciesName, endNode(rel).schemaClass, labels(endNode(rel)), rel.order ]] ) AS nodePairCollection";
+
+    //language=Cypher
+    static final String EVENT_HIERARCHY_BY_TAXID = "" +
+            "MATCH (s:Species{taxId:$taxId})<-[:species]-(n:TopLevelPathway)" +
+            "MATCH path=(n)-[:hasEvent*]->(m:Event) " +
+            "WITH *, relationships(path) AS r " +
+            "RETURN [n.stId, n.displayName, n.hasDiagram, n.speciesName, n.schemaClass, labels(n), 0] AS db, " +
+            "collect( [rel IN r | [endNode(rel).stId, endNode(rel).displayName, endNode(rel).hasDiagram, endNode(rel).speciesName, endNode(rel).schemaClass, labels(endNode(rel)), rel.order ]] ) AS nodePairCollection";
+
+    // Event hierarchy queries for one top level pathway at a time, so it is written without building every tree
+
+    //language=Cypher
+    private static final String TOP_LEVEL_PATHWAYS_BY_SPECIES_NAME = "" +
+            "MATCH (n:TopLevelPathway{speciesName:$speciesName}) " +
+            "RETURN [n.stId, n.displayName, n.hasDiagram, n.speciesName, n.schemaClass, labels(n), 0] AS db";
+
+    //language=Cypher
+    private static final String TOP_LEVEL_PATHWAYS_BY_TAXID = "" +
+            "MATCH (s:Species{taxId:$taxId})<-[:species]-(n:TopLevelPathway) " +
+            "RETURN DISTINCT [n.stId, n.displayName, n.hasDiagram, n.speciesName, n.schemaClass, labels(n), 0] AS db";
+
+    //language=Cypher
+    private static final String EVENT_HIERARCHY_BY_TOP_LEVEL_PATHWAY = "" +
+            "MATCH path=(n:TopLevelPathway{stId:$stId})-[:hasEvent*]->(m:Event) " +
+            "WITH *, relationships(path) AS r " +
+            "RETURN [n.stId, n.displayName, n.hasDiagram, n.speciesName, n.schemaClass, labels(n), 0] AS db, " +
+            "collect( [rel IN r | [endNode(rel).stId, endNode(rel).displayName, endNode(rel).hasDiagram, endNode(rel).speciesName, endNode(rel).schemaClass, labels(endNode(rel)), rel.order ]] ) AS nodePairCollection";
+
+    // Edge list queries: each node reached once plus the distinct relationships between them, instead of every path
+
+    private static final String LOCATIONS_RELATIONSHIPS = "regulatedBy|regulator|physicalEntity|requiredInputComponent|diseaseEntity|entityFunctionalStatus|activeUnit|catalystActivity|repeatedUnit|hasMember|hasCandidate|hasComponent|input|output|hasEvent";
+    private static final String INTERACTOR_RELATIONSHIPS = "regulatedBy|regulator|physicalEntity|catalystActivity|requiredInputComponent|diseaseEntity|entityFunctionalStatus|input|output|hasEvent";
+    private static final String SUB_HIERARCHY_RELATIONSHIPS = "hasEvent|input|output|repeatedUnit|hasMember|hasCandidate|hasComponent";
+
+    //language=Cypher
+    private static final String GRAPH_NODES = "" +
+            "RETURN n.dbId AS root, " +
+            "[x IN ns | [x.dbId, [x.stId, x.displayName, x.hasDiagram, x.speciesName, x.schemaClass, labels(x), 0]]] AS nodes, " +
+            "[e IN edges WHERE e[1] IS NOT NULL] AS edges";
+
+    //language=Cypher
+    static final String LOCATIONS_GRAPH_BY_STID = "" +
+            "MATCH (n:DatabaseObject{stId:$stId}) " +
+            "OPTIONAL MATCH (n)<-[:" + LOCATIONS_RELATIONSHIPS + "*]-(m) " +
+            "WITH n, [n] + collect(DISTINCT m) AS ns " +
+            "UNWIND ns AS c " +
+            "OPTIONAL MATCH (c)<-[:" + LOCATIONS_RELATIONSHIPS + "]-(p) " +
+            "WITH n, ns, collect(DISTINCT [c.dbId, p.dbId, 0]) AS edges " +
+            GRAPH_NODES;
+
+    //language=Cypher
+    static final String LOCATIONS_GRAPH_BY_DBID = "" +
+            "MATCH (n:DatabaseObject{dbId:$dbId}) " +
+            "OPTIONAL MATCH (n)<-[:" + LOCATIONS_RELATIONSHIPS + "*]-(m) " +
+            "WITH n, [n] + collect(DISTINCT m) AS ns " +
+            "UNWIND ns AS c " +
+            "OPTIONAL MATCH (c)<-[:" + LOCATIONS_RELATIONSHIPS + "]-(p) " +
+            "WITH n, ns, collect(DISTINCT [c.dbId, p.dbId, 0]) AS edges " +
+            GRAPH_NODES;
+
+    //language=Cypher
+    static final String INTERACTOR_LOCATIONS_GRAPH_BY_STID = "" +
+            "MATCH (n:DatabaseObject{stId:$stId}) " +
+            "OPTIONAL MATCH (n)<-[:" + INTERACTOR_RELATIONSHIPS + "*]-(m) " +
+            "WITH n, [n] + collect(DISTINCT m) AS ns " +
+            "UNWIND ns AS c " +
+            "OPTIONAL MATCH (c)<-[:" + INTERACTOR_RELATIONSHIPS + "]-(p) " +
+            "WITH n, ns, collect(DISTINCT [c.dbId, p.dbId, 0]) AS edges " +
+            GRAPH_NODES;
+
+    //language=Cypher
+    static final String INTERACTOR_LOCATIONS_GRAPH_BY_DBID = "" +
+            "MATCH (n:DatabaseObject{dbId:$dbId}) " +
+            "OPTIONAL MATCH (n)<-[:" + INTERACTOR_RELATIONSHIPS + "*]-(m) " +
+            "WITH n, [n] + collect(DISTINCT m) AS ns " +
+            "UNWIND ns AS c " +
+            "OPTIONAL MATCH (c)<-[:" + INTERACTOR_RELATIONSHIPS + "]-(p) " +
+            "WITH n, ns, collect(DISTINCT [c.dbId, p.dbId, 0]) AS edges " +
+            GRAPH_NODES;
+
+    //language=Cypher
+    static final String SUB_HIERARCHY_GRAPH_BY_STID = "" +
+            "MATCH (n:DatabaseObject{stId:$stId}) " +
+            "OPTIONAL MATCH (n)-[:" + SUB_HIERARCHY_RELATIONSHIPS + "*]->(m:DatabaseObject) " +
+            "WITH n, [n] + collect(DISTINCT m) AS ns " +
+            "UNWIND ns AS p " +
+            "OPTIONAL MATCH (p)-[r:" + SUB_HIERARCHY_RELATIONSHIPS + "]->(c:DatabaseObject) " +
+            "WITH n, ns, collect(DISTINCT [p.dbId, c.dbId, r.order]) AS edges " +
+            GRAPH_NODES;
+
+    //language=Cypher
+    static final String SUB_HIERARCHY_GRAPH_BY_DBID = "" +
+            "MATCH (n:DatabaseObject{dbId:$dbId}) " +
+            "OPTIONAL MATCH (n)-[:" + SUB_HIERARCHY_RELATIONSHIPS + "*]->(m:DatabaseObject) " +
+            "WITH n, [n] + collect(DISTINCT m) AS ns " +
+            "UNWIND ns AS p " +
+            "OPTIONAL MATCH (p)-[r:" + SUB_HIERARCHY_RELATIONSHIPS + "]->(c:DatabaseObject) " +
+            "WITH n, ns, collect(DISTINCT [p.dbId, c.dbId, r.order]) AS edges " +
+            GRAPH_NODES;
+
     private final Neo4jClient neo4jClient;
 
+    @Value("${reactome.graph.hierarchy.edges.enabled:false}")
+    private boolean edgeListEnabled;
+
     public HierarchyRepository(Neo4jClient neo4jClient) {
         this.neo4jClient = neo4jClient;
     }
 
+    public boolean isEdgeListEnabled() {
+        return edgeListEnabled;
+    }
+
+    /**
+     * When enabled, the locations in the Pathway Browser and the sub hierarchies are built from the edge list
+     * queries (each node and relationship retrieved once) instead of from every path to the root
+     */
+    public void setEdgeListEnabled(boolean edgeListEnabled) {
+        this.edgeListEnabled = edgeListEnabled;
+    }
+
     // -------------------------------- Locations in the Pathway Browser -----------------------------------------------
 
     /**
@@ -30,11 +173,13 @@ public class HierarchyRepository {
      * @return a PathwayBrowserNode.
      */
     public PathwayBrowserNode getLocationsInPathwayBrowser(String stId, Boolean omitNonDisplayableItems) {
+        if (edgeListEnabled) return parseGraph(queryHierarchyGraph(LOCATIONS_GRAPH_BY_STID, Collections.singletonMap("stId", stId)), omitNonDisplayableItems);
         Collection<HierarchyWrapper> result = getLocationsInPathwayBrowserByStIdRaw(stId);
         return parseResult(result, omitNonDisplayableItems);
     }
 
     public PathwayBrowserNode getLocationsInPathwayBrowser(Long dbId, Boolean omitNonDisplayableItems) {
+        if (edgeListEnabled) return parseGraph(queryHierarchyGraph(LOCATIONS_GRAPH_BY_DBID, Collections.singletonMap("dbId", dbId)), omitNonDisplayableItems);
         Collection<HierarchyWrapper> result = getLocationsInPathwayBrowserByDbIdRaw(dbId);
         return parseResult(result, omitNonDisplayableItems);
     }
@@ -45,11 +190,13 @@ public class HierarchyRepository {
      * @return a PathwayBrowserNode.
      */
     public PathwayBrowserNode getLocationsInPathwayBrowserDirectParticipants(String stId, Boolean omitNonDisplayableItems) {
+        if (edgeListEnabled) return parseGraph(queryHierarchyGraph(INTERACTOR_LOCATIONS_GRAPH_BY_STID, Collections.singletonMap("stId", stId)), omitNonDisplayableItems);
         Collection<HierarchyWrapper> result = getLocationsInPathwayBrowserForInteractorByStIdRaw(stId);
         return parseResult(result, omitNonDisplayableItems);
     }
 
     public PathwayBrowserNode getLocationsInPathwayBrowserDirectParticipants(Long dbId, Boolean omitNonDisplayableItems) {
+        if (edgeListEnabled) return parseGraph(queryHierarchyGraph(INTERACTOR_LOCATIONS_GRAPH_BY_DBID, Collections.singletonMap("dbId", dbId)), omitNonDisplayableItems);
         Collection<HierarchyWrapper> result = getLocationsInPathwayBrowserForInteractorByDbIdRaw(dbId);
         return parseResult(result, omitNonDisplayableItems);
     }
@@ -68,11 +215,13 @@ public class HierarchyRepository {
     // --------------------------------------------- Sub Hierarchy -----------------------------------------------------
 
     public PathwayBrowserNode getSubHierarchy(String stId) {
+        if (edgeListEnabled) return parseGraph(queryHierarchyGraph(SUB_HIERARCHY_GRAPH_BY_STID, Collections.singletonMap("stId", stId)), false);
         Collection<HierarchyWrapper> result = getSubHierarchyByStIdRaw(stId);
         return parseResult(result, false);
     }
 
     public PathwayBrowserNode getSubHierarchy(Long dbId) {
+        if (edgeListEnabled) return parseGraph(queryHierarchyGraph(SUB_HIERARCHY_GRAPH_BY_DBID, Collections.singletonMap("dbId", dbId)), false);
         Collection<HierarchyWrapper> result = getSubHierarchyByDbIdRaw(dbId);
         return parseResult(result, false);
     }
@@ -89,6 +238,52 @@ public class HierarchyRepository {
         return parseResults(result, false);
     }
 
+    /**
+     * Writes the JSON of getEventHierarchyBySpeciesName (see PathwayBrowserNodeWriter) one top level pathway at a
+     * time: only the query result and the tree of the pathway being written are held in memory
+     */
+    public void writeEventHierarchyBySpeciesName(String speciesName, JsonGenerator generator) throws IOException {
+        writeEventHierarchy(queryTopLevelPathways(TOP_LEVEL_PATHWAYS_BY_SPECIES_NAME, Collections.singletonMap("speciesName", speciesName)), generator);
+    }
+
+    /**
+     * Writes the JSON of getEventHierarchyByTaxId (see PathwayBrowserNodeWriter) one top level pathway at a time:
+     * only the query result and the tree of the pathway being written are held in memory
+     */
+    public void writeEventHierarchyByTaxId(String taxId, JsonGenerator generator) throws IOException {
+        writeEventHierarchy(queryTopLevelPathways(TOP_LEVEL_PATHWAYS_BY_TAXID, Collections.singletonMap("taxId", taxId)), generator);
+    }
+
+    /**
+     * The top level pathways are sorted as the roots of parseResults and the ones without events are skipped, so the
+     * JSON is the same as the one of the whole event hierarchy (null when no pathway has events)
+     */
+    private void writeEventHierarchy(Collection<PathwayBrowserNode> topLevelPathways, JsonGenerator generator) throws IOException {
+        boolean started = false;
+        for (PathwayBrowserNode topLevelPathway : topLevelPathways) {
+            Collection<HierarchyWrapper> result = queryHierarchyWrapper(EVENT_HIERARCHY_BY_TOP_LEVEL_PATHWAY, Collections.singletonMap("stId", topLevelPathway.getStId()));
+            if (result == null || !result.iterator().hasNext()) continue;
+            if (!started) generator.writeStartArray();
+            started = true;
+            PathwayBrowserNodeWriter.write(generator, parseRaw(result.iterator().next(), false));
+        }
+        if (started) {
+            generator.writeEndArray();
+        } else {
+            generator.writeNull();
+        }
+    }
+
+    private Collection<PathwayBrowserNode> queryTopLevelPathways(String query, Map<String, Object> param) {
+        Collection<PathwayBrowserNode> rtn = new TreeSet<>();
+        neo4jClient.query(query)
+                .bindAll(param)
+                .fetchAs(PathwayBrowserNode.class)
+                .mappedBy((typeSystem, record) -> createRootNode(HierarchyTreeItem.build(record.get("db"))))
+                .all()
+                .forEach(rtn::add);
+        return rtn;
+    }
 
     /**
      * Build Locations in the Pathway Browser of a given query Result.
@@ -98,13 +293,13 @@ public class HierarchyRepository {
      * @param result the cypher query result
      * @return PathwayBrowserNode having parents and children
      */
-    private PathwayBrowserNode parseResult(Collection<HierarchyWrapper> result, Boolean omitNonDisplayableItems) {
+    static PathwayBrowserNode parseResult(Collection<HierarchyWrapper> result, Boolean omitNonDisplayableItems) {
         if (result != null && result.iterator().hasNext())
             return parseRaw(result.iterator().next(), omitNonDisplayableItems);
         return null;
     }
 
-    private Collection<PathwayBrowserNode> parseResults(Collection<HierarchyWrapper> result, Boolean omitNonDisplayableItems) {
+    static Collection<PathwayBrowserNode> parseResults(Collection<HierarchyWrapper> result, Boolean omitNonDisplayableItems) {
         if (result != null && result.iterator().hasNext()) {
             Collection<PathwayBrowserNode> eventHierarchy = new TreeSet<>();
             for (HierarchyWrapper hierarchyWrapper : result) {
@@ -115,7 +310,7 @@ public class HierarchyRepository {
         return null;
     }
 
-    private PathwayBrowserNode parseRaw(HierarchyWrapper result, Boolean omitNonDisplayableItems) {
+    private static PathwayBrowserNode parseRaw(HierarchyWrapper result, Boolean omitNonDisplayableItems) {
         PathwayBrowserNode root = createRootNode(result.getRoot());
         Map<String, PathwayBrowserNode> nodes = new HashMap<>();
         PathwayBrowserNode previous = root;
@@ -141,6 +336,59 @@ public class HierarchyRepository {
         return root;
     }
 
+    /**
+     * Builds the same tree as parseRaw from the edge list in linear time: the nodes are created once (the same
+     * node for the same stId, with the order of the first relationship reaching it) and every node is linked to
+     * its children. When omitNonDisplayableItems is set, the hidden nodes are not linked and their children are
+     * linked to the closest displayable parent instead.
+     */
+    static PathwayBrowserNode parseGraph(Collection<HierarchyGraph> result, Boolean omitNonDisplayableItems) {
+        if (result == null || !result.iterator().hasNext()) return null;
+        HierarchyGraph graph = result.iterator().next();
+        Map<Long, List<long[]>> edges = new HashMap<>();
+        Map<Long, PathwayBrowserNode> nodes = new LinkedHashMap<>();
+        Map<String, PathwayBrowserNode> byStId = new HashMap<>();
+        PathwayBrowserNode root = createRootNode(graph.getRoot());
+        nodes.put(graph.getRootId(), root);
+        byStId.put(root.getStId(), root);
+        for (long[] edge : graph.getEdges()) {
+            edges.computeIfAbsent(edge[0], k -> new ArrayList<>()).add(edge);
+            if (!nodes.containsKey(edge[1])) {
+                HierarchyTreeItem item = graph.getNodes().get(edge[1]);
+                item.setOrder((int) edge[2]);
+                nodes.put(edge[1], byStId.computeIfAbsent(item.getStId(), stId -> createNode(item)));
+            }
+        }
+        for (Map.Entry<Long, PathwayBrowserNode> entry : nodes.entrySet()) {
+            PathwayBrowserNode node = entry.getValue();
+            if (node == root || !omitNonDisplayableItems || !isHidden(node)) {
+                linkChildren(node, entry.getKey(), edges, nodes, omitNonDisplayableItems, null);
+            }
+        }
+        return root;
+    }
+
+    private static void linkChildren(PathwayBrowserNode node, Long dbId, Map<Long, List<long[]>> edges, Map<Long, PathwayBrowserNode> nodes, Boolean omitNonDisplayableItems, Set<Long> hidden) {
+        for (long[] edge : edges.getOrDefault(dbId, Collections.emptyList())) {
+            PathwayBrowserNode child = nodes.get(edge[1]);
+            if (child == node) continue;
+            if (omitNonDisplayableItems && isHidden(child)) {
+                if (hidden == null) hidden = new HashSet<>();
+                if (hidden.add(edge[1])) linkChildren(node, edge[1], edges, nodes, true, hidden);
+            } else {
+                node.addChild(child);
+                child.addParent(node);
+            }
+        }
+    }
+
+    private Collection<HierarchyGraph> queryHierarchyGraph(String query, Map<String, Object> param) {
+        return neo4jClient.query(query)
+                .bindAll(param)
+                .fetchAs(HierarchyGraph.class)
+                .mappedBy((typeSystem, record) -> HierarchyGraph.build(record)).all();
+    }
+
     private Set<PathwayBrowserNode> mergeBranches(Collection<HierarchyBranch> branches) {
         Map<String, PathwayBrowserNode> nodes = new HashMap<>();
 
@@ -164,7 +412,7 @@ public class HierarchyRepository {
     }
 
     @SuppressWarnings("SuspiciousMethodCalls")
-    private PathwayBrowserNode addNode(PathwayBrowserNode previous, Map<String, PathwayBrowserNode> nodes, HierarchyTreeItem result, Boolean omitNonDisplayableItems) {
+    private static PathwayBrowserNode addNode(PathwayBrowserNode previous, Map<String, PathwayBrowserNode> nodes, HierarchyTreeItem result, Boolean omitNonDisplayableItems) {
         PathwayBrowserNode node;
 
         if (nodes.containsKey(result.getStId())) {
@@ -175,7 +423,7 @@ public class HierarchyRepository {
         }
 
         //We do not link them in the Tree.
-        if (!omitNonDisplayableItems || (!node.getType().equals("CatalystActivity") && !node.getType().contains("Regulation") && !node.getType().equals("Requirement") && !node.getType().equals("EntityFunctionalStatus"))) {
+        if (!omitNonDisplayableItems || !isHidden(node)) {
             previous.addChild(node);
             node.addParent(previous);
             previous = node;
@@ -183,13 +431,17 @@ public class HierarchyRepository {
         return previous;
     }
 
+    private static boolean isHidden(PathwayBrowserNode node) {
+        return node.getType().equals("CatalystActivity") || node.getType().contains("Regulation") || node.getType().equals("Requirement") || node.getType().equals("EntityFunctionalStatus");
+    }
+
     /**
      * Create a node based on the query Result
      *
      * @param result, the query result
      */
     @SuppressWarnings("unchecked")
-    private PathwayBrowserNode createNode(HierarchyTreeItem result) {
+    public static PathwayBrowserNode createNode(HierarchyTreeItem result) {
         PathwayBrowserNode node = new PathwayBrowserNode();
         node.setStId(result.getStId());
         node.setName(result.getDisplayName());
@@ -203,7 +455,7 @@ public class HierarchyRepository {
         return node;
     }
 
-    private PathwayBrowserNode createRootNode(HierarchyTreeItem hierarchyTreeItem) {
+    public static PathwayBrowserNode createRootNode(HierarchyTreeItem hierarchyTreeItem) {
         PathwayBrowserNode node = new PathwayBrowserNode();
         node.setStId(hierarchyTreeItem.getStId());
         node.setName(hierarchyTreeItem.getDisplayName());
@@ -227,7 +479,7 @@ public class HierarchyRepository {
     }
 
 
-    private void doHighlighting(PathwayBrowserNode node) {
+    private static void doHighlighting(PathwayBrowserNode node) {
         if (node.getType().equals("TopLevelPathway")) {
             node.setClickable(true);
             node.setHighlighted(false);
@@ -242,52 +494,21 @@ public class HierarchyRepository {
     // --------------------------------------------- Sub Hierarchy -----------------------------------------------------
 
     public Collection<HierarchyWrapper> getSubHierarchyByDbIdRaw(Long dbId) {
-        //language=Cypher
-        String query = "" +
-                "MATCH (n:DatabaseObject{dbId:$dbId}) " +
-                "OPTIONAL MATCH path=(n)-[:hasEvent|input|output|repeatedUnit|hasMember|hasCandidate|hasComponent*]->(m:DatabaseObject) " +
-                "WITH *, relationships(path) AS r " +
-                "RETURN [n.stId, n.displayName, n.hasDiagram, n.speciesName, n.schemaClass, labels(n), 0] AS db, " +
-                "collect( [rel IN r | [endNode(rel).stId, endNode(rel).displayName, endNode(rel).hasDiagram, endNode(rel).speciesName, endNode(rel).schemaClass, labels(endNode(rel)), rel.order ]] ) AS nodePairCollection";
-
-        return queryHierarchyWrapper(query, Collections.singletonMap("dbId", dbId));
+        return queryHierarchyWrapper(SUB_HIERARCHY_BY_DBID, Collections.singletonMap("dbId", dbId));
     }
 
     private Collection<HierarchyWrapper> getSubHierarchyByStIdRaw(String stId) {
-        //language=Cypher
-        String query = "" +
-                "MATCH (n:DatabaseObject{stId:$stId}) " +
-                "OPTIONAL MATCH path=(n)-[:hasEvent|input|output|repeatedUnit|hasMember|hasCandidate|hasComponent*]->(m:DatabaseObject) " +
-                "WITH *, relationships(path) AS r " +
-                "RETURN [n.stId, n.displayName, n.hasDiagram, n.speciesName, n.schemaClass, labels(n), 0] AS db, " +
-                "collect( [rel IN r | [endNode(rel).stId, endNode(rel).displayName, endNode(rel).hasDiagram, endNode(rel).speciesName, endNode(rel).schemaClass, labels(endNode(rel)), rel.order ]] ) AS nodePairCollection";
-
-        return queryHierarchyWrapper(query, Collections.singletonMap("stId", stId));
+        return queryHierarchyWrapper(SUB_HIERARCHY_BY_STID, Collections.singletonMap("stId", stId));
     }
 
     // ------------------------------------------- Event Hierarchy -----------------------------------------------------
 
     private Collection<HierarchyWrapper> getEventHierarchyBySpeciesNameRaw(String speciesName) {
-        //language=Cypher
-        String query = "" +
-                "MATCH path=(n:TopLevelPathway{speciesName:$speciesName})-[:hasEvent*]->(m:Event) " +
-                "WITH *, relationships(path) AS r " +
-                "RETURN [n.stId, n.displayName, n.hasDiagram, n.speciesName, n.schemaClass, labels(n), 0] AS db, " +
-                "collect ( [rel IN r | [endNode(rel).stId, endNode(rel).displayName, endNode(rel).hasDiagram, endNode(rel).speciesName, endNode(rel).schemaClass, labels(endNode(rel)), rel.order ]] ) AS nodePairCollection";
-
-        return queryHierarchyWrapper(query, Collections.singletonMap("speciesName", speciesName));
+        return queryHierarchyWrapper(EVENT_HIERARCHY_BY_SPECIES_NAME, Collections.singletonMap("speciesName", speciesName));
     }
 
     private Collection<HierarchyWrapper> getEventHierarchyByTaxIdRaw(String taxId) {
-        //language=Cypher
-        String query = "" +
-                "MATCH (s:Species{taxId:$taxId})<-[:species]-(n:TopLevelPathway)" +
-                "MATCH path=(n)-[:hasEvent*]->(m:Event) " +
-                "WITH *, relationships(path) AS r " +
-                "RETURN [n.stId, n.displayName, n.hasDiagram, n.speciesName, n.schemaClass, labels(n), 0] AS db, " +
-                "collect( [rel IN r | [endNode(rel).stId, endNode(rel).displayName, endNode(rel).hasDiagram, endNode(rel).speciesName, endNode(rel).schemaClass, labels(endNode(rel)), rel.order ]] ) AS nodePairCollection";
-
-        return queryHierarchyWrapper(query, Collections.singletonMap("taxId", taxId));
+        return queryHierarchyWrapper(EVENT_HIERARCHY_BY_TAXID, Collections.singletonMap("taxId", taxId));
     }
 
     // -------------------------------- Locations in the Pathway Browser -----------------------------------------------
@@ -419,19 +640,21 @@ public class HierarchyRepository {
         return neo4jClient.query(query)
                 .bindAll(param)
                 .fetchAs(HierarchyWrapper.class)
-                .mappedBy((typeSystem, record) -> {
-                    Iterator<Value> nodePairCollection = record.get("nodePairCollection").values().iterator();
-                    Collection<Collection<HierarchyTreeItem>> nodeResults = new ArrayList<>();
-                    while (nodePairCollection.hasNext()) {
-                        Iterator<Value> nodePair = nodePairCollection.next().values().iterator();
-                        Collection<HierarchyTreeItem> innerCollection = new ArrayList<>();
-                        while (nodePair.hasNext()) {
-                            innerCollection.add(HierarchyTreeItem.build(nodePair.next()));
-                        }
-//                        nodeResults.add(innerCollection.stream().sorted(Comparator.comparingInt(HierarchyTreeItem::getOrder)).collect(Collectors.toList()));
-                        nodeResults.add(innerCollection);
-                    }
-                    return new HierarchyWrapper(HierarchyTreeItem.build(record.get("db")), nodeResults);
-                }).all();
+                .mappedBy((typeSystem, record) -> buildHierarchyWrapper(record)).all();
+    }
+
+    static HierarchyWrapper buildHierarchyWrapper(Record record) {
+        Iterator<org.neo4j.driver.Value> nodePairCollection = record.get("nodePairCollection").values().iterator();
+        Collection<Collection<HierarchyTreeItem>> nodeResults = new ArrayList<>();
+        while (nodePairCollection.hasNext()) {
+            Iterator<org.neo4j.driver.Value> nodePair = nodePairCollection.next().values().iterator();
+            Collection<HierarchyTreeItem> innerCollection = new ArrayList<>();
+            while (nodePair.hasNext()) {
+                innerCollection.add(HierarchyTreeItem.build(nodePair.next()));
+            }
+//            nodeResults.add(innerCollection.stream().sorted(Comparator.comparingInt(HierarchyTreeItem::getOrder)).collect(Collectors.toList()));
+            nodeResults.add(innerCollection);
+        }
+        return new HierarchyWrapper(HierarchyTreeItem.build(record.get("db")), nodeResults);
     }
 }
@@ -1,37 +1,139 @@
 package org.reactome.server.graph.repository;
 
+import org.neo4j.driver.types.MapAccessor;
+import org.neo4j.driver.types.TypeSystem;
 import org.reactome.server.graph.domain.model.Interaction;
-import org.springframework.data.neo4j.repository.Neo4jRepository;
-import org.springframework.data.neo4j.repository.query.Query;
-import org.springframework.data.repository.query.Param;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.neo4j.core.Neo4jClient;
+import org.springframework.data.neo4j.core.Neo4jTemplate;
+import org.springframework.data.neo4j.core.mapping.Neo4jMappingContext;
 import org.springframework.stereotype.Repository;
 
-import java.util.Collection;
+import java.util.*;
+import java.util.function.BiFunction;
 
 @Repository
-public interface InteractionsRepository extends Neo4jRepository<Interaction, Long> {
+public class InteractionsRepository {
 
-    @Query(" MATCH (t:ReferenceEntity)<-[:interactor]-(in:Interaction)-[ir:interactor]->(re:ReferenceEntity) " +
+    // Queries shared with ReactiveInteractionsRepository
+
+    //language=Cypher
+    static final String BY_ACC = " " +
+            "MATCH (t:ReferenceEntity)<-[:interactor]-(in:Interaction)-[ir:interactor]->(re:ReferenceEntity) " +
             "WHERE t.variantIdentifier = $acc OR (t.variantIdentifier IS NULL AND t.identifier = $acc) " +
             "OPTIONAL MATCH (pe:PhysicalEntity)-[r:referenceEntity]->(re) " +
             "RETURN DISTINCT in, COLLECT(DISTINCT ir), COLLECT(DISTINCT re), COLLECT(DISTINCT r), COLLECT(DISTINCT pe)[..20] AS pe " +
-            "ORDER BY in.score DESC")
-    Collection<Interaction> getByAcc(@Param("acc") String acc);
+            "ORDER BY in.score DESC";
 
-    @Query(" MATCH (t:ReferenceEntity)<-[:interactor]-(in:Interaction)-[ir:interactor]->(re:ReferenceEntity) " +
+    //language=Cypher
+    static final String BY_ACC_PAGINATED = " " +
+            "MATCH (t:ReferenceEntity)<-[:interactor]-(in:Interaction)-[ir:interactor]->(re:ReferenceEntity) " +
             "WHERE t.variantIdentifier = $acc OR (t.variantIdentifier IS NULL AND t.identifier = $acc) " +
             "OPTIONAL MATCH (pe:PhysicalEntity)-[r:referenceEntity]->(re) " +
             "RETURN DISTINCT in, COLLECT(DISTINCT ir), COLLECT(DISTINCT re), COLLECT(DISTINCT r), COLLECT(DISTINCT pe)[..20] AS pe " +
             "ORDER BY in.score DESC " +
             "SKIP ($page - 1) * $pageSize " +
-            "LIMIT $pageSize")
-    Collection<Interaction> getByAcc(@Param("acc") String acc, @Param("page") Integer page, @Param("pageSize") Integer pageSize);
+            "LIMIT $pageSize";
+
+    //language=Cypher
+    static final String BY_ACCS = " " +
+            "UNWIND $accs AS acc " +
+            "MATCH (t:ReferenceEntity)<-[:interactor]-(in:Interaction)-[ir:interactor]->(re:ReferenceEntity) " +
+            "WHERE t.variantIdentifier = acc OR (t.variantIdentifier IS NULL AND t.identifier = acc) " +
+            "OPTIONAL MATCH (pe:PhysicalEntity)-[r:referenceEntity]->(re) " +
+            "RETURN DISTINCT acc, in, COLLECT(DISTINCT ir) AS ir, COLLECT(DISTINCT re) AS re, COLLECT(DISTINCT r) AS r, COLLECT(DISTINCT pe)[..20] AS pe " +
+            "ORDER BY acc, in.score DESC";
 
-    @Query(" MATCH (t:ReferenceEntity)<-[:interactor]-(in:Interaction)-[ir:interactor]->(re:ReferenceEntity) " +
-            "WHERE ( (t.variantIdentifier = $acc OR (t.variantIdentifier IS NULL AND t.identifier = $acc )) " +
-            "AND (re.variantIdentifier = $accB OR (re.variantIdentifier IS NULL AND re.identifier = $accB)) ) " +
+    //language=Cypher
+    static final String BY_ACCS_PAGINATED = " " +
+            "UNWIND $accs AS acc " +
+            "MATCH (t:ReferenceEntity)<-[:interactor]-(in:Interaction)-[ir:interactor]->(re:ReferenceEntity) " +
+            "WHERE t.variantIdentifier = acc OR (t.variantIdentifier IS NULL AND t.identifier = acc) " +
             "OPTIONAL MATCH (pe:PhysicalEntity)-[r:referenceEntity]->(re) " +
-            "RETURN DISTINCT in, COLLECT(DISTINCT ir), COLLECT(DISTINCT re), COLLECT(DISTINCT r), COLLECT(DISTINCT pe) AS pe " +
-            "ORDER BY in.score DESC")
-    Interaction getInteractorByAcc(@Param("acc") String acc, @Param("accB") String accB);
+            "WITH DISTINCT acc, in, COLLECT(DISTINCT ir) AS ir, COLLECT(DISTINCT re) AS re, COLLECT(DISTINCT r) AS r, COLLECT(DISTINCT pe)[..20] AS pe " +
+            "ORDER BY in.score DESC " +
+            "WITH acc, COLLECT({in:in, ir:ir, re:re, r:r, pe:pe})[($page - 1) * $pageSize..$page * $pageSize] AS rows " +
+            "UNWIND rows AS row " +
+            "RETURN acc, row.in AS in, row.ir AS ir, row.re AS re, row.r AS r, row.pe AS pe";
+
+    private final Neo4jClient neo4jClient;
+    private final Neo4jTemplate neo4jTemplate;
+    private final Neo4jMappingContext neo4jMappingContext;
+
+    @Value("${spring.data.neo4j.database:graph.db}")
+    private String databaseName;
+
+    @Autowired
+    public InteractionsRepository(Neo4jClient neo4jClient, Neo4jTemplate neo4jTemplate, Neo4jMappingContext neo4jMappingContext) {
+        this.neo4jClient = neo4jClient;
+        this.neo4jTemplate = neo4jTemplate;
+        this.neo4jMappingContext = neo4jMappingContext;
+    }
+
+    public Collection<Interaction> getByAcc(String acc) {
+        return neo4jTemplate.findAll(BY_ACC, Map.of("acc", acc), Interaction.class);
+    }
+
+    public Collection<Interaction> getByAcc(String acc, Integer page, Integer pageSize) {
+        return neo4jTemplate.findAll(BY_ACC_PAGINATED, Map.of("acc", acc, "page", page, "pageSize", pageSize), Interaction.class);
+    }
+
+    /**
+     * Retrieves the interactions of all the given accessions in one query. The order (by score) and the
+     * pagination are applied per accession, so every accession gets the same result as getByAcc
+     *
+     * @return the interactions grouped by accession (accessions without interactions are not included)
+     */
+    public Map<String, List<Interaction>> getByAccs(Collection<String> accs) {
+        return queryByAccs(BY_ACCS, Map.of("accs", accs));
+    }
+
+    /**
+     * Same as getByAccs(accs) but only retrieving the given page of interactions for each accession
+     */
+    public Map<String, List<Interaction>> getByAccs(Collection<String> accs, Integer page, Integer pageSize) {
+        return queryByAccs(BY_ACCS_PAGINATED, Map.of("accs", accs, "page", page, "pageSize", pageSize));
+    }
+
+    public Interaction getInteractorByAcc(String acc, String accB) {
+        //language=Cypher
+        String query = " " +
+                "MATCH (t:ReferenceEntity)<-[:interactor]-(in:Interaction)-[ir:interactor]->(re:ReferenceEntity) " +
+                "WHERE ( (t.variantIdentifier = $acc OR (t.variantIdentifier IS NULL AND t.identifier = $acc )) " +
+                "AND (re.variantIdentifier = $accB OR (re.variantIdentifier IS NULL AND re.identifier = $accB)) ) " +
+                "OPTIONAL MATCH (pe:PhysicalEntity)-[r:referenceEntity]->(re) " +
+                "RETURN DISTINCT in, COLLECT(DISTINCT ir), COLLECT(DISTINCT re), COLLECT(DISTINCT r), COLLECT(DISTINCT pe) AS pe " +
+                "ORDER BY in.score DESC";
+        return neo4jTemplate.findOne(query, Map.of("acc", acc, "accB", accB), Interaction.class).orElse(null);
+    }
+
+    private Map<String, List<Interaction>> queryByAccs(String query, Map<String, Object> params) {
+        BiFunction<TypeSystem, MapAccessor, Interaction> mappingFunction = neo4jMappingContext.getRequiredMappingFunctionFor(Interaction.class);
+        Collection<AccInteraction> items = neo4jClient.query(query)
+                .in(databaseName)
+                .bindAll(params)
+                .fetchAs(AccInteraction.class)
+                //The whole record is mapped so the collected relationships and nodes are taken into account
+                .mappedBy((typeSystem, record) -> new AccInteraction(record.get("acc").asString(), mappingFunction.apply(typeSystem, record)))
+                .all();
+        Map<String, List<Interaction>> rtn = new HashMap<>();
+        for (AccInteraction item : items) {
+            rtn.computeIfAbsent(item.acc, k -> new ArrayList<>()).add(item.interaction);
+        }
+        return rtn;
+    }
+
+    /**
+     * Interaction retrieved for an accession by the BY_ACCS queries (shared with ReactiveInteractionsRepository)
+     */
+    static class AccInteraction {
+        final String acc;
+        final Interaction interaction;
+
+        AccInteraction(String acc, Interaction interaction) {
+            this.acc = acc;
+            this.interaction = interaction;
+        }
+    }
 }
@@ -0,0 +1,107 @@
+package org.reactome.server.graph.repository;
+
+import org.neo4j.driver.types.MapAccessor;
+import org.neo4j.driver.types.TypeSystem;
+import org.reactome.server.graph.domain.model.DatabaseObject;
+import org.reactome.server.graph.domain.model.Pathway;
+import org.reactome.server.graph.domain.model.ReactionLikeEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.neo4j.core.Neo4jClient;
+import org.springframework.data.neo4j.core.mapping.Neo4jMappingContext;
+import org.springframework.stereotype.Repository;
+
+import java.util.*;
+import java.util.function.BiFunction;
+
+/**
+ * Same queries as MappingRepository but for several identifiers of a resource in a single query: the objects of the
+ * resource are scanned once for all of them instead of once per identifier
+ */
+@Repository
+public class MappingBatchRepository {
+
+    //language=Cypher
+    private static final String IDENTIFIERS = "" +
+            "MATCH (n)-[:referenceDatabase]->(rd:ReferenceDatabase) " +
+            "WHERE toLower(rd.displayName) = toLower($databaseName) AND " +
+            "      (n.identifier IN $identifiers OR n.variantIdentifier IN $identifiers OR any(x IN n.geneName WHERE x IN $identifiers) OR any(x IN n.name WHERE x IN $identifiers)) " +
+            "UNWIND [x IN $identifiers WHERE n.identifier = x OR n.variantIdentifier = x OR x IN n.geneName OR x IN n.name] AS identifier " +
+            "WITH DISTINCT identifier, n " +
+            "MATCH (pe:PhysicalEntity)-[:referenceEntity|referenceSequence|crossReference|referenceGene*]->(n) " +
+            "WITH DISTINCT identifier, pe " +
+            "MATCH (rle:ReactionLikeEvent)-[:input|output|catalystActivity|physicalEntity|entityFunctionalStatus|diseaseEntity|regulatedBy|regulator|hasComponent|hasMember|hasCandidate|repeatedUnit*]->(pe) " +
+            "WITH DISTINCT identifier, rle ";
+
+    private final Neo4jClient neo4jClient;
+    private final Neo4jMappingContext neo4jMappingContext;
+
+    @Value("${spring.data.neo4j.database:graph.db}")
+    private String databaseName;
+
+    @Autowired
+    public MappingBatchRepository(Neo4jClient neo4jClient, Neo4jMappingContext neo4jMappingContext) {
+        this.neo4jClient = neo4jClient;
+        this.neo4jMappingContext = neo4jMappingContext;
+    }
+
+    /**
+     * @param taxId of the species of the reactions or null for all of them
+     * @return the reactions (sorted by stId) grouped by the identifier they have been found for (identifiers
+     * without result are not included)
+     */
+    public Map<String, Collection<ReactionLikeEvent>> getReactionsLikeEvent(String resource, Collection<String> identifiers, String taxId) {
+        //language=Cypher
+        String query = IDENTIFIERS +
+                "WHERE $taxId IS NULL OR (rle)-[:species]->(:Species{taxId:$taxId}) " +
+                "RETURN identifier, rle AS o " +
+                "ORDER BY rle.stId";
+        return query(query, resource, identifiers, taxId, ReactionLikeEvent.class);
+    }
+
+    /**
+     * @param taxId of the species of the pathways or null for all of them
+     * @return the pathways (sorted by stId) grouped by the identifier they have been found for (identifiers
+     * without result are not included)
+     */
+    public Map<String, Collection<Pathway>> getPathways(String resource, Collection<String> identifiers, String taxId) {
+        //language=Cypher
+        String query = IDENTIFIERS +
+                "MATCH (p:Pathway)-[:hasEvent]->(rle) " +
+                "WHERE $taxId IS NULL OR (p)-[:species]->(:Species{taxId:$taxId}) " +
+                "WITH DISTINCT identifier, p " +
+                "RETURN identifier, p AS o " +
+                "ORDER BY p.stId";
+        return query(query, resource, identifiers, taxId, Pathway.class);
+    }
+
+    private <T extends DatabaseObject> Map<String, Collection<T>> query(String query, String resource, Collection<String> identifiers, String taxId, Class<T> clazz) {
+        BiFunction<TypeSystem, MapAccessor, T> mappingFunction = neo4jMappingContext.getRequiredMappingFunctionFor(clazz);
+        Map<String, Object> params = new HashMap<>();
+        params.put("databaseName", resource);
+        params.put("identifiers", identifiers);
+        params.put("taxId", taxId);
+        Collection<IdentifierObject> items = neo4jClient.query(query)
+                .in(databaseName)
+                .bindAll(params)
+                .fetchAs(IdentifierObject.class)
+                .mappedBy((typeSystem, record) -> new IdentifierObject(record.get("identifier").asString(), mappingFunction.apply(typeSystem, record.get("o"))))
+                .all();
+        // The order of the query (by stId) is kept within each identifier
+        Map<String, Collection<T>> rtn = new HashMap<>();
+        for (IdentifierObject item : items) {
+            rtn.computeIfAbsent(item.identifier, k -> new ArrayList<>()).add(clazz.cast(item.object));
+        }
+        return rtn;
+    }
+
+    private static class IdentifierObject {
+        private final String identifier;
+        private final DatabaseObject object;
+
+        IdentifierObject(String identifier, DatabaseObject object) {
+            this.identifier = identifier;
+            this.object = object;
+        }
+    }
+}
@@ -70,4 +70,16 @@ public interface MappingRepository extends Neo4jRepository<Event, Long> {
             "RETURN p " +
             "ORDER BY p.stId")
     Collection<Pathway> getGoPathways(@Param("identifier") String identifier, @Param("taxId") String taxId);
+
+    @Query(" MATCH (rle:ReactionLikeEvent) " +
+            "WHERE rle.dbId IN $dbIds " +
+            "RETURN rle " +
+            "ORDER BY rle.stId")
+    Collection<ReactionLikeEvent> getReactionsLikeEvent(@Param("dbIds") Collection<Long> dbIds);
+
+    @Query(" MATCH (p:Pathway) " +
+            "WHERE p.dbId IN $dbIds " +
+            "RETURN p " +
+            "ORDER BY p.stId")
+    Collection<Pathway> getPathways(@Param("dbIds") Collection<Long> dbIds);
 }
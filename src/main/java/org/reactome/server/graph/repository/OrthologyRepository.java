@@ -1,25 +1,112 @@
 package org.reactome.server.graph.repository;
 
+import org.neo4j.driver.types.MapAccessor;
+import org.neo4j.driver.types.TypeSystem;
 import org.reactome.server.graph.domain.model.DatabaseObject;
-import org.springframework.data.neo4j.repository.Neo4jRepository;
-import org.springframework.data.neo4j.repository.query.Query;
-import org.springframework.data.repository.query.Param;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.neo4j.core.Neo4jClient;
+import org.springframework.data.neo4j.core.Neo4jTemplate;
+import org.springframework.data.neo4j.core.mapping.Neo4jMappingContext;
 import org.springframework.stereotype.Repository;
 
-import java.util.Collection;
+import java.util.*;
+import java.util.function.BiFunction;
 
 @Repository
-public interface OrthologyRepository extends Neo4jRepository<DatabaseObject, Long> {
+public class OrthologyRepository {
+
+    private final Neo4jClient neo4jClient;
+    private final Neo4jTemplate neo4jTemplate;
+    private final Neo4jMappingContext neo4jMappingContext;
+
+    @Value("${spring.data.neo4j.database:graph.db}")
+    private String databaseName;
+
+    @Autowired
+    public OrthologyRepository(Neo4jClient neo4jClient, Neo4jTemplate neo4jTemplate, Neo4jMappingContext neo4jMappingContext) {
+        this.neo4jClient = neo4jClient;
+        this.neo4jTemplate = neo4jTemplate;
+        this.neo4jMappingContext = neo4jMappingContext;
+    }
 
     //The relationship do not have direction because that's what is needed in this case
-    @Query(" MATCH (:DatabaseObject{dbId:$dbId})<-[:inferredTo]-()-[:inferredTo]->(o:DatabaseObject)-[:species]->(:Species{dbId:$speciesId}) RETURN DISTINCT o " +
-            "UNION " +
-            "MATCH (:DatabaseObject{dbId:$dbId})-[:inferredTo]-(o:DatabaseObject)-[:species]->(:Species{dbId:$speciesId}) RETURN DISTINCT o")
-    Collection<DatabaseObject> getOrthology(@Param("dbId") Long dbId, @Param("speciesId") Long speciesId);
+    public Collection<DatabaseObject> getOrthology(Long dbId, Long speciesId) {
+        //language=Cypher
+        String query = " " +
+                "MATCH (:DatabaseObject{dbId:$dbId})<-[:inferredTo]-()-[:inferredTo]->(o:DatabaseObject)-[:species]->(:Species{dbId:$speciesId}) RETURN DISTINCT o " +
+                "UNION " +
+                "MATCH (:DatabaseObject{dbId:$dbId})-[:inferredTo]-(o:DatabaseObject)-[:species]->(:Species{dbId:$speciesId}) RETURN DISTINCT o";
+        return neo4jTemplate.findAll(query, Map.of("dbId", dbId, "speciesId", speciesId), DatabaseObject.class);
+    }
 
     //The relationship do not have direction because that's what is needed in this case
-    @Query(" MATCH (:DatabaseObject{stId:$stId})<-[:inferredTo]-()-[:inferredTo]->(o:DatabaseObject)-[:species]->(:Species{dbId:$speciesId}) RETURN DISTINCT o " +
-            "UNION " +
-            "MATCH (:DatabaseObject{stId:$stId})-[:inferredTo]-(o:DatabaseObject)-[:species]->(:Species{dbId:$speciesId}) RETURN DISTINCT o")
-    Collection<DatabaseObject> getOrthology(@Param("stId") String stId, @Param("speciesId") Long speciesId);
+    public Collection<DatabaseObject> getOrthology(String stId, Long speciesId) {
+        //language=Cypher
+        String query = " " +
+                "MATCH (:DatabaseObject{stId:$stId})<-[:inferredTo]-()-[:inferredTo]->(o:DatabaseObject)-[:species]->(:Species{dbId:$speciesId}) RETURN DISTINCT o " +
+                "UNION " +
+                "MATCH (:DatabaseObject{stId:$stId})-[:inferredTo]-(o:DatabaseObject)-[:species]->(:Species{dbId:$speciesId}) RETURN DISTINCT o";
+        return neo4jTemplate.findAll(query, Map.of("stId", stId, "speciesId", speciesId), DatabaseObject.class);
+    }
+
+    /**
+     * Same as getOrthology but for several objects in a single query
+     *
+     * @return the orthologous objects grouped by the dbId they have been found for (dbIds without result are not included)
+     */
+    public Map<Long, Collection<DatabaseObject>> getOrthologiesByDbIds(Collection<Long> dbIds, Long speciesId) {
+        //language=Cypher
+        String query = " " +
+                "UNWIND $ids AS id " +
+                "MATCH (:DatabaseObject{dbId:id})<-[:inferredTo]-()-[:inferredTo]->(o:DatabaseObject)-[:species]->(:Species{dbId:$speciesId}) RETURN id, o " +
+                "UNION " +
+                "UNWIND $ids AS id " +
+                "MATCH (:DatabaseObject{dbId:id})-[:inferredTo]-(o:DatabaseObject)-[:species]->(:Species{dbId:$speciesId}) RETURN id, o";
+        Map<Long, Collection<DatabaseObject>> rtn = new HashMap<>();
+        for (IdOrthology item : queryOrthologies(query, dbIds, speciesId)) {
+            rtn.computeIfAbsent(item.id.asLong(), k -> new ArrayList<>()).add(item.orthology);
+        }
+        return rtn;
+    }
+
+    /**
+     * Same as getOrthology but for several objects in a single query
+     *
+     * @return the orthologous objects grouped by the stId they have been found for (stIds without result are not included)
+     */
+    public Map<String, Collection<DatabaseObject>> getOrthologiesByStIds(Collection<String> stIds, Long speciesId) {
+        //language=Cypher
+        String query = " " +
+                "UNWIND $ids AS id " +
+                "MATCH (:DatabaseObject{stId:id})<-[:inferredTo]-()-[:inferredTo]->(o:DatabaseObject)-[:species]->(:Species{dbId:$speciesId}) RETURN id, o " +
+                "UNION " +
+                "UNWIND $ids AS id " +
+                "MATCH (:DatabaseObject{stId:id})-[:inferredTo]-(o:DatabaseObject)-[:species]->(:Species{dbId:$speciesId}) RETURN id, o";
+        Map<String, Collection<DatabaseObject>> rtn = new HashMap<>();
+        for (IdOrthology item : queryOrthologies(query, stIds, speciesId)) {
+            rtn.computeIfAbsent(item.id.asString(), k -> new ArrayList<>()).add(item.orthology);
+        }
+        return rtn;
+    }
+
+    private Collection<IdOrthology> queryOrthologies(String query, Collection<?> ids, Long speciesId) {
+        BiFunction<TypeSystem, MapAccessor, DatabaseObject> mappingFunction = neo4jMappingContext.getRequiredMappingFunctionFor(DatabaseObject.class);
+        return neo4jClient.query(query)
+                .in(databaseName)
+                .bindAll(Map.of("ids", ids, "speciesId", speciesId))
+                .fetchAs(IdOrthology.class)
+                .mappedBy((typeSystem, record) -> new IdOrthology(record.get("id"), mappingFunction.apply(typeSystem, record.get("o"))))
+                .all();
+    }
+
+    private static class IdOrthology {
+        private final org.neo4j.driver.Value id;
+        private final DatabaseObject orthology;
+
+        IdOrthology(org.neo4j.driver.Value id, DatabaseObject orthology) {
+            this.id = id;
+            this.orthology = orthology;
+        }
+    }
 }
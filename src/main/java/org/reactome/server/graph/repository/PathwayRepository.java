@@ -11,74 +11,45 @@ import java.util.Collection;
 @Repository
 public interface PathwayRepository extends Neo4jRepository<Pathway, Long> {
 
-    @Query(" MATCH (:DatabaseObject{stId:$stId})<-[:regulatedBy|regulator|catalystActivity|physicalEntity|entityFunctionalStatus|diseaseEntity|hasMember|hasCandidate|hasComponent|repeatedUnit|input|output*]-()<-[:hasEvent]-(p:Pathway) " +
+    // Queries shared with ReactivePathwayRepository
+
+    String PATHWAYS_FOR_BY_STID = " MATCH (:DatabaseObject{stId:$stId})<-[:regulatedBy|regulator|catalystActivity|physicalEntity|entityFunctionalStatus|diseaseEntity|hasMember|hasCandidate|hasComponent|repeatedUnit|input|output*]-()<-[:hasEvent]-(p:Pathway) " +
             "RETURN DISTINCT p " +
             "UNION " +
             "MATCH (:ReactionLikeEvent{stId:$stId})<-[:hasEvent]-(p:Pathway) " +
             "RETURN DISTINCT p " +
             "UNION " +
             "MATCH (p:Pathway{stId:$stId}) " +
-            "RETURN DISTINCT p")
-    Collection<Pathway> getPathwaysForByStId(@Param("stId") String stId);
+            "RETURN DISTINCT p";
 
-    @Query(" MATCH (:DatabaseObject{stId:$stId})<-[:regulatedBy|regulator|catalystActivity|physicalEntity|entityFunctionalStatus|diseaseEntity|hasMember|hasCandidate|hasComponent|repeatedUnit|input|output*]-()<-[:hasEvent]-(p:Pathway)-[:species]->(:Species{taxId:$taxId}) " +
+    String PATHWAYS_FOR_BY_STID_AND_TAXID = " MATCH (:DatabaseObject{stId:$stId})<-[:regulatedBy|regulator|catalystActivity|physicalEntity|entityFunctionalStatus|diseaseEntity|hasMember|hasCandidate|hasComponent|repeatedUnit|input|output*]-()<-[:hasEvent]-(p:Pathway)-[:species]->(:Species{taxId:$taxId}) " +
             "RETURN DISTINCT p " +
             "UNION " +
             "MATCH (:ReactionLikeEvent{stId:$stId})<-[:hasEvent]-(p:Pathway)-[:species]->(:Species{taxId:$taxId}) " +
             "RETURN DISTINCT p " +
             "UNION " +
             "MATCH (p:Pathway{stId:$stId})-[:species]->(:Species{taxId:$taxId}) " +
-            "RETURN DISTINCT p")
-    Collection<Pathway> getPathwaysForByStIdAndSpeciesTaxId(@Param("stId") String stId, @Param("taxId") String taxId);
-
+            "RETURN DISTINCT p";
 
-    @Query(" MATCH (:DatabaseObject{dbId:$dbId})<-[:regulatedBy|regulator|catalystActivity|physicalEntity|entityFunctionalStatus|diseaseEntity|hasMember|hasCandidate|hasComponent|repeatedUnit|input|output*]-()<-[:hasEvent]-(p:Pathway) " +
+    String PATHWAYS_FOR_BY_DBID = " MATCH (:DatabaseObject{dbId:$dbId})<-[:regulatedBy|regulator|catalystActivity|physicalEntity|entityFunctionalStatus|diseaseEntity|hasMember|hasCandidate|hasComponent|repeatedUnit|input|output*]-()<-[:hasEvent]-(p:Pathway) " +
             "RETURN DISTINCT p " +
             "UNION " +
             "MATCH (:ReactionLikeEvent{dbId:$dbId})<-[:hasEvent]-(p:Pathway) " +
             "RETURN DISTINCT p " +
             "UNION " +
             "MATCH (p:Pathway{dbId:$dbId}) " +
-            "RETURN DISTINCT p")
-    Collection<Pathway> getPathwaysForByDbId(@Param("dbId") Long dbId);
+            "RETURN DISTINCT p";
 
-    @Query(" MATCH (:DatabaseObject{dbId:$dbId})<-[:regulatedBy|regulator|catalystActivity|physicalEntity|entityFunctionalStatus|diseaseEntity|hasMember|hasCandidate|hasComponent|repeatedUnit|input|output*]-()<-[:hasEvent]-(p:Pathway)-[:species]->(:Species{taxId:$taxId}) " +
+    String PATHWAYS_FOR_BY_DBID_AND_TAXID = " MATCH (:DatabaseObject{dbId:$dbId})<-[:regulatedBy|regulator|catalystActivity|physicalEntity|entityFunctionalStatus|diseaseEntity|hasMember|hasCandidate|hasComponent|repeatedUnit|input|output*]-()<-[:hasEvent]-(p:Pathway)-[:species]->(:Species{taxId:$taxId}) " +
             "RETURN DISTINCT p " +
             "UNION " +
             "MATCH (:ReactionLikeEvent{dbId:$dbId})<-[:hasEvent]-(p:Pathway)-[:species]->(:Species{taxId:$taxId}) " +
             "RETURN DISTINCT p " +
             "UNION " +
             "MATCH (p:Pathway{dbId:$dbId})-[:species]->(:Species{taxId:$taxId}) " +
-            "RETURN DISTINCT p")
-    Collection<Pathway> getPathwaysForByDbIdAndSpeciesTaxId(@Param("dbId") Long dbId, @Param("taxId") String taxId);
-
-
-    @Query(" MATCH (:DatabaseObject{stId:$stId})-[:regulator|hasComponent|repeatedUnit|hasMember|hasCandidate|referenceEntity*]->(re:ReferenceEntity) " +
-            "WITH re " +
-            "MATCH (re)<-[:referenceEntity]-(:PhysicalEntity)<-[:regulatedBy|regulator|catalystActivity|physicalEntity|entityFunctionalStatus|diseaseEntity|hasMember|hasCandidate|hasComponent|repeatedUnit|input|output*]-(:ReactionLikeEvent)<-[:hasEvent]-(p:Pathway) " +
-            "RETURN DISTINCT p")
-    Collection<Pathway> getPathwaysForAllFormsOfByStId(@Param("stId") String stId);
-
-    @Query(" MATCH (:DatabaseObject{stId:$stId})-[:regulator|hasComponent|repeatedUnit|hasMember|hasCandidate|referenceEntity*]->(re:ReferenceEntity) " +
-            "WITH re " +
-            "MATCH (re)<-[:referenceEntity]-(:PhysicalEntity)<-[:regulatedBy|regulator|catalystActivity|physicalEntity|entityFunctionalStatus|diseaseEntity|hasMember|hasCandidate|hasComponent|repeatedUnit|input|output*]-(:ReactionLikeEvent)<-[:hasEvent]-(p:Pathway)-[:species]->(:Species{taxId:$taxId}) " +
-            "RETURN DISTINCT p")
-    Collection<Pathway> getPathwaysForAllFormsOfByStIdAndSpeciesTaxId(@Param("stId") String stId, @Param("taxId") String taxId);
-
-    @Query(" MATCH (:DatabaseObject{dbId:$dbId})-[:regulator|hasComponent|repeatedUnit|hasMember|hasCandidate|referenceEntity*]->(re:ReferenceEntity) " +
-            "WITH re " +
-            "MATCH (re)<-[:referenceEntity]-(:PhysicalEntity)<-[:regulatedBy|regulator|catalystActivity|physicalEntity|entityFunctionalStatus|diseaseEntity|hasMember|hasCandidate|hasComponent|repeatedUnit|input|output*]-(:ReactionLikeEvent)<-[:hasEvent]-(p:Pathway) " +
-            "RETURN DISTINCT p")
-    Collection<Pathway> getPathwaysForAllFormsOfByDbId(@Param("dbId") Long dbId);
-
-    @Query(" MATCH (:DatabaseObject{dbId:$dbId})-[:regulator|hasComponent|repeatedUnit|hasMember|hasCandidate|referenceEntity*]->(re:ReferenceEntity) " +
-            "WITH re " +
-            "MATCH (re)<-[:referenceEntity]-(:PhysicalEntity)<-[:regulatedBy|regulator|catalystActivity|physicalEntity|entityFunctionalStatus|diseaseEntity|hasMember|hasCandidate|hasComponent|repeatedUnit|input|output*]-(:ReactionLikeEvent)<-[:hasEvent]-(p:Pathway)-[:species]->(:Species{taxId:$taxId}) " +
-            "RETURN DISTINCT p")
-    Collection<Pathway> getPathwaysForAllFormsOfByDbIdAndSpeciesTaxId(@Param("dbId") Long dbId, @Param("taxId") String taxId);
-
+            "RETURN DISTINCT p";
 
-    @Query(" MATCH (:PhysicalEntity{stId:$stId})<-[:regulatedBy|regulator|catalystActivity|physicalEntity|entityFunctionalStatus|diseaseEntity|hasMember|hasCandidate|hasComponent|repeatedUnit|input|output*]-(r:ReactionLikeEvent)<-[:hasEvent*]-(p:Pathway{hasDiagram:True}) " +
+    String PATHWAYS_WITH_DIAGRAM_FOR_BY_STID = " MATCH (:PhysicalEntity{stId:$stId})<-[:regulatedBy|regulator|catalystActivity|physicalEntity|entityFunctionalStatus|diseaseEntity|hasMember|hasCandidate|hasComponent|repeatedUnit|input|output*]-(r:ReactionLikeEvent)<-[:hasEvent*]-(p:Pathway{hasDiagram:True}) " +
             "WITH r, HEAD(COLLECT(p)) AS m " +
             "RETURN DISTINCT m " +
             "UNION " +
@@ -88,10 +59,9 @@ public interface PathwayRepository extends Neo4jRepository<Pathway, Long> {
             "UNION " +
             "MATCH (o:Pathway{stId:$stId})-[:hasEvent*]->(p:Pathway{hasDiagram:True}) " +
             "WITH o, HEAD(COLLECT(p)) AS m " +
-            "RETURN DISTINCT m")
-    Collection<Pathway> getPathwaysWithDiagramForByStId(@Param("stId") String stId);
+            "RETURN DISTINCT m";
 
-    @Query(" MATCH (:PhysicalEntity{stId:$stId})<-[:regulatedBy|regulator|catalystActivity|physicalEntity|entityFunctionalStatus|diseaseEntity|hasMember|hasCandidate|hasComponent|repeatedUnit|input|output*]-(r:ReactionLikeEvent)<-[:hasEvent*]-(p:Pathway{hasDiagram:True})-[:species]->(Species{taxId:$taxId}) " +
+    String PATHWAYS_WITH_DIAGRAM_FOR_BY_STID_AND_TAXID = " MATCH (:PhysicalEntity{stId:$stId})<-[:regulatedBy|regulator|catalystActivity|physicalEntity|entityFunctionalStatus|diseaseEntity|hasMember|hasCandidate|hasComponent|repeatedUnit|input|output*]-(r:ReactionLikeEvent)<-[:hasEvent*]-(p:Pathway{hasDiagram:True})-[:species]->(Species{taxId:$taxId}) " +
             "WITH r, HEAD(COLLECT(p)) AS m " +
             "RETURN DISTINCT m " +
             "UNION " +
@@ -101,11 +71,9 @@ public interface PathwayRepository extends Neo4jRepository<Pathway, Long> {
             "UNION " +
             "MATCH (o:Pathway{stId:$stId})-[:hasEvent*]->(p:Pathway{hasDiagram:True})-[:species]->(s:Species{taxId:$taxId}) " +
             "WITH o, HEAD(COLLECT(p)) AS m " +
-            "RETURN DISTINCT m")
-    Collection<Pathway> getPathwaysWithDiagramForByStIdAndSpeciesTaxId(@Param("stId") String stId, @Param("taxId") String taxId);
-
+            "RETURN DISTINCT m";
 
-    @Query(" MATCH (:PhysicalEntity{dbId:$dbId})<-[:regulatedBy|regulator|catalystActivity|physicalEntity|entityFunctionalStatus|diseaseEntity|hasMember|hasCandidate|hasComponent|repeatedUnit|input|output*]-(r:ReactionLikeEvent)<-[:hasEvent*]-(p:Pathway{hasDiagram:True}) " +
+    String PATHWAYS_WITH_DIAGRAM_FOR_BY_DBID = " MATCH (:PhysicalEntity{dbId:$dbId})<-[:regulatedBy|regulator|catalystActivity|physicalEntity|entityFunctionalStatus|diseaseEntity|hasMember|hasCandidate|hasComponent|repeatedUnit|input|output*]-(r:ReactionLikeEvent)<-[:hasEvent*]-(p:Pathway{hasDiagram:True}) " +
             "WITH r, HEAD(COLLECT(p)) AS m " +
             "RETURN DISTINCT m " +
             "UNION " +
@@ -115,10 +83,9 @@ public interface PathwayRepository extends Neo4jRepository<Pathway, Long> {
             "UNION " +
             "MATCH (o:Pathway{dbId:$dbId})-[:hasEvent*]->(p:Pathway{hasDiagram:True}) " +
             "WITH o, HEAD(COLLECT(p)) AS m " +
-            "RETURN DISTINCT m")
-    Collection<Pathway> getPathwaysWithDiagramForByDbId(@Param("dbId") Long dbId);
+            "RETURN DISTINCT m";
 
-    @Query(" MATCH (:PhysicalEntity{dbId:$dbId})<-[:regulatedBy|regulator|catalystActivity|physicalEntity|entityFunctionalStatus|diseaseEntity|hasMember|hasCandidate|hasComponent|repeatedUnit|input|output*]-(r:ReactionLikeEvent)<-[:hasEvent*]-(p:Pathway{hasDiagram:True})-[:species]->(Species{taxId:$taxId}) " +
+    String PATHWAYS_WITH_DIAGRAM_FOR_BY_DBID_AND_TAXID = " MATCH (:PhysicalEntity{dbId:$dbId})<-[:regulatedBy|regulator|catalystActivity|physicalEntity|entityFunctionalStatus|diseaseEntity|hasMember|hasCandidate|hasComponent|repeatedUnit|input|output*]-(r:ReactionLikeEvent)<-[:hasEvent*]-(p:Pathway{hasDiagram:True})-[:species]->(Species{taxId:$taxId}) " +
             "WITH r, HEAD(COLLECT(p)) AS m " +
             "RETURN DISTINCT m " +
             "UNION " +
@@ -128,7 +95,58 @@ public interface PathwayRepository extends Neo4jRepository<Pathway, Long> {
             "UNION " +
             "MATCH (o:Pathway{dbId:$dbId})-[:hasEvent*]->(p:Pathway{hasDiagram:True})-[:species]->(s:Species{taxId:$taxId}) " +
             "WITH o, HEAD(COLLECT(p)) AS m " +
-            "RETURN DISTINCT m")
+            "RETURN DISTINCT m";
+
+    @Query(PATHWAYS_FOR_BY_STID)
+    Collection<Pathway> getPathwaysForByStId(@Param("stId") String stId);
+
+    @Query(PATHWAYS_FOR_BY_STID_AND_TAXID)
+    Collection<Pathway> getPathwaysForByStIdAndSpeciesTaxId(@Param("stId") String stId, @Param("taxId") String taxId);
+
+
+    @Query(PATHWAYS_FOR_BY_DBID)
+    Collection<Pathway> getPathwaysForByDbId(@Param("dbId") Long dbId);
+
+    @Query(PATHWAYS_FOR_BY_DBID_AND_TAXID)
+    Collection<Pathway> getPathwaysForByDbIdAndSpeciesTaxId(@Param("dbId") Long dbId, @Param("taxId") String taxId);
+
+
+    @Query(" MATCH (:DatabaseObject{stId:$stId})-[:regulator|hasComponent|repeatedUnit|hasMember|hasCandidate|referenceEntity*]->(re:ReferenceEntity) " +
+            "WITH re " +
+            "MATCH (re)<-[:referenceEntity]-(:PhysicalEntity)<-[:regulatedBy|regulator|catalystActivity|physicalEntity|entityFunctionalStatus|diseaseEntity|hasMember|hasCandidate|hasComponent|repeatedUnit|input|output*]-(:ReactionLikeEvent)<-[:hasEvent]-(p:Pathway) " +
+            "RETURN DISTINCT p")
+    Collection<Pathway> getPathwaysForAllFormsOfByStId(@Param("stId") String stId);
+
+    @Query(" MATCH (:DatabaseObject{stId:$stId})-[:regulator|hasComponent|repeatedUnit|hasMember|hasCandidate|referenceEntity*]->(re:ReferenceEntity) " +
+            "WITH re " +
+            "MATCH (re)<-[:referenceEntity]-(:PhysicalEntity)<-[:regulatedBy|regulator|catalystActivity|physicalEntity|entityFunctionalStatus|diseaseEntity|hasMember|hasCandidate|hasComponent|repeatedUnit|input|output*]-(:ReactionLikeEvent)<-[:hasEvent]-(p:Pathway)-[:species]->(:Species{taxId:$taxId}) " +
+            "RETURN DISTINCT p")
+    Collection<Pathway> getPathwaysForAllFormsOfByStIdAndSpeciesTaxId(@Param("stId") String stId, @Param("taxId") String taxId);
+
+    @Query(" MATCH (:DatabaseObject{dbId:$dbId})-[:regulator|hasComponent|repeatedUnit|hasMember|hasCandidate|referenceEntity*]->(re:ReferenceEntity) " +
+            "WITH re " +
+            "MATCH (re)<-[:referenceEntity]-(:PhysicalEntity)<-[:regulatedBy|regulator|catalystActivity|physicalEntity|entityFunctionalStatus|diseaseEntity|hasMember|hasCandidate|hasComponent|repeatedUnit|input|output*]-(:ReactionLikeEvent)<-[:hasEvent]-(p:Pathway) " +
+            "RETURN DISTINCT p")
+    Collection<Pathway> getPathwaysForAllFormsOfByDbId(@Param("dbId") Long dbId);
+
+    @Query(" MATCH (:DatabaseObject{dbId:$dbId})-[:regulator|hasComponent|repeatedUnit|hasMember|hasCandidate|referenceEntity*]->(re:ReferenceEntity) " +
+            "WITH re " +
+            "MATCH (re)<-[:referenceEntity]-(:PhysicalEntity)<-[:regulatedBy|regulator|catalystActivity|physicalEntity|entityFunctionalStatus|diseaseEntity|hasMember|hasCandidate|hasComponent|repeatedUnit|input|output*]-(:ReactionLikeEvent)<-[:hasEvent]-(p:Pathway)-[:species]->(:Species{taxId:$taxId}) " +
+            "RETURN DISTINCT p")
+    Collection<Pathway> getPathwaysForAllFormsOfByDbIdAndSpeciesTaxId(@Param("dbId") Long dbId, @Param("taxId") String taxId);
+
+
+    @Query(PATHWAYS_WITH_DIAGRAM_FOR_BY_STID)
+    Collection<Pathway> getPathwaysWithDiagramForByStId(@Param("stId") String stId);
+
+    @Query(PATHWAYS_WITH_DIAGRAM_FOR_BY_STID_AND_TAXID)
+    Collection<Pathway> getPathwaysWithDiagramForByStIdAndSpeciesTaxId(@Param("stId") String stId, @Param("taxId") String taxId);
+
+
+    @Query(PATHWAYS_WITH_DIAGRAM_FOR_BY_DBID)
+    Collection<Pathway> getPathwaysWithDiagramForByDbId(@Param("dbId") Long dbId);
+
+    @Query(PATHWAYS_WITH_DIAGRAM_FOR_BY_DBID_AND_TAXID)
     Collection<Pathway> getPathwaysWithDiagramForByDbIdAndSpeciesTaxId(@Param("dbId") Long dbId, @Param("taxId") String taxId);
 
 
@@ -49,4 +49,7 @@ public interface PhysicalEntityRepository extends Neo4jRepository<PhysicalEntity
     @Query(" MATCH (n:DatabaseObject{stId:$stId})-[:hasEvent|input|output|catalystActivity|physicalEntity|entityFunctionalStatus|diseaseEntity|regulatedBy|regulator*]->(m:PhysicalEntity) " +
             "RETURN Distinct(m)")
     Collection<PhysicalEntity> getParticipatingPhysicalEntities(@Param("stId") String stId);
-}
\ No newline at end of file
+
+    @Query("MATCH (m:PhysicalEntity) WHERE m.dbId IN $dbIds RETURN m")
+    Collection<PhysicalEntity> getPhysicalEntities(@Param("dbIds") Collection<Long> dbIds);
+}
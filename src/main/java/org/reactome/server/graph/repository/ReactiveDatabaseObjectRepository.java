@@ -0,0 +1,68 @@
+package org.reactome.server.graph.repository;
+
+import org.reactome.server.graph.domain.model.DatabaseObject;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.neo4j.core.ReactiveNeo4jClient;
+import org.springframework.data.neo4j.core.ReactiveNeo4jTemplate;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Reactive counterpart of {@link DatabaseObjectRepository}
+ */
+@SuppressWarnings("unchecked")
+@Repository
+public class ReactiveDatabaseObjectRepository {
+
+    private final ReactiveNeo4jTemplate neo4jTemplate;
+    private final ReactiveNeo4jClient neo4jClient;
+
+    @Value("${spring.data.neo4j.database:graph.db}")
+    private String databaseName;
+
+    @Autowired
+    public ReactiveDatabaseObjectRepository(ReactiveNeo4jTemplate neo4jTemplate, ReactiveNeo4jClient neo4jClient) {
+        this.neo4jTemplate = neo4jTemplate;
+        this.neo4jClient = neo4jClient;
+    }
+
+    public <T extends DatabaseObject> Mono<T> findByDbId(Long dbId) {
+        String query = "MATCH (a:DatabaseObject{dbId:$dbId})-[r]-(m) RETURN a, COLLECT(r), COLLECT(m)";
+        return (Mono<T>) neo4jTemplate.findOne(query, Map.of("dbId", dbId), DatabaseObject.class);
+    }
+
+    public <T extends DatabaseObject> Mono<T> findByStId(String stId) {
+        String query = "MATCH (a:DatabaseObject{stId:$stId})-[r]-(m) RETURN a, COLLECT(r), COLLECT(m)";
+        return (Mono<T>) neo4jTemplate.findOne(query, Map.of("stId", stId), DatabaseObject.class);
+    }
+
+    public Mono<String> findNewStId(String oldStId) {
+        String query = "MATCH (n:DatabaseObject{oldStId:$oldStId}) RETURN n.stId";
+        return neo4jClient.query(query).in(databaseName).bindAll(Map.of("oldStId", oldStId)).fetchAs(String.class).one();
+    }
+
+    public <T extends DatabaseObject> Mono<T> findByDbIdNoRelations(Long dbId) {
+        String query = "MATCH (n:DatabaseObject{dbId:$dbId}) RETURN n";
+        return (Mono<T>) neo4jTemplate.findOne(query, Map.of("dbId", dbId), DatabaseObject.class);
+    }
+
+    public <T extends DatabaseObject> Mono<T> findByStIdNoRelations(String stId) {
+        String query = "MATCH (n:DatabaseObject{stId:$stId}) RETURN n";
+        return (Mono<T>) neo4jTemplate.findOne(query, Map.of("stId", stId), DatabaseObject.class);
+    }
+
+    public <T extends DatabaseObject> Flux<T> findByDbIdsNoRelations(Collection<Long> dbIds) {
+        String query = "MATCH (n:DatabaseObject) WHERE n.dbId IN $dbIds RETURN n";
+        return (Flux<T>) neo4jTemplate.findAll(query, Map.of("dbIds", dbIds), DatabaseObject.class);
+    }
+
+    public <T extends DatabaseObject> Flux<T> findByStIdsNoRelations(Collection<String> stIds) {
+        String query = "MATCH (n:DatabaseObject) WHERE n.stId IN $stIds RETURN n";
+        return (Flux<T>) neo4jTemplate.findAll(query, Map.of("stIds", stIds), DatabaseObject.class);
+    }
+}
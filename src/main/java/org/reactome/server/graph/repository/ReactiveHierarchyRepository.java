@@ -0,0 +1,67 @@
+package org.reactome.server.graph.repository;
+
+import org.reactome.server.graph.domain.result.HierarchyWrapper;
+import org.reactome.server.graph.service.helper.PathwayBrowserNode;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.neo4j.core.ReactiveNeo4jClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.reactome.server.graph.repository.HierarchyRepository.*;
+
+/**
+ * Reactive counterpart of {@link HierarchyRepository}. The queries and the way the trees are built from the
+ * results are the ones in there; a tree can only be built once all its rows have arrived, so these are Monos.
+ */
+@Repository
+public class ReactiveHierarchyRepository {
+
+    private final ReactiveNeo4jClient neo4jClient;
+
+    @Value("${spring.data.neo4j.database:graph.db}")
+    private String databaseName;
+
+    @Autowired
+    public ReactiveHierarchyRepository(ReactiveNeo4jClient neo4jClient) {
+        this.neo4jClient = neo4jClient;
+    }
+
+    // --------------------------------------------- Sub Hierarchy -----------------------------------------------------
+
+    public Mono<PathwayBrowserNode> getSubHierarchy(String stId) {
+        return queryHierarchyWrapper(SUB_HIERARCHY_BY_STID, Map.of("stId", stId))
+                .flatMap(result -> Mono.justOrEmpty(parseResult(result, false)));
+    }
+
+    public Mono<PathwayBrowserNode> getSubHierarchy(Long dbId) {
+        return queryHierarchyWrapper(SUB_HIERARCHY_BY_DBID, Map.of("dbId", dbId))
+                .flatMap(result -> Mono.justOrEmpty(parseResult(result, false)));
+    }
+
+    // ------------------------------------------- Event Hierarchy -----------------------------------------------------
+
+    public Mono<Collection<PathwayBrowserNode>> getEventHierarchyBySpeciesName(String speciesName) {
+        return queryHierarchyWrapper(EVENT_HIERARCHY_BY_SPECIES_NAME, Map.of("speciesName", speciesName))
+                .flatMap(result -> Mono.justOrEmpty(parseResults(result, false)));
+    }
+
+    public Mono<Collection<PathwayBrowserNode>> getEventHierarchyByTaxId(String taxId) {
+        return queryHierarchyWrapper(EVENT_HIERARCHY_BY_TAXID, Map.of("taxId", taxId))
+                .flatMap(result -> Mono.justOrEmpty(parseResults(result, false)));
+    }
+
+    private Mono<List<HierarchyWrapper>> queryHierarchyWrapper(String query, Map<String, Object> param) {
+        return neo4jClient.query(query)
+                .in(databaseName)
+                .bindAll(param)
+                .fetchAs(HierarchyWrapper.class)
+                .mappedBy((typeSystem, record) -> buildHierarchyWrapper(record))
+                .all()
+                .collectList();
+    }
+}
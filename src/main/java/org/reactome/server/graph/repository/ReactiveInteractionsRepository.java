@@ -0,0 +1,73 @@
+package org.reactome.server.graph.repository;
+
+import org.neo4j.driver.types.MapAccessor;
+import org.neo4j.driver.types.TypeSystem;
+import org.reactome.server.graph.domain.model.Interaction;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.neo4j.core.ReactiveNeo4jClient;
+import org.springframework.data.neo4j.core.ReactiveNeo4jTemplate;
+import org.springframework.data.neo4j.core.mapping.Neo4jMappingContext;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.*;
+import java.util.function.BiFunction;
+
+import static org.reactome.server.graph.repository.InteractionsRepository.*;
+
+/**
+ * Reactive counterpart of {@link InteractionsRepository}. The queries are the ones declared there.
+ */
+@Repository
+public class ReactiveInteractionsRepository {
+
+    private final ReactiveNeo4jClient neo4jClient;
+    private final ReactiveNeo4jTemplate neo4jTemplate;
+    private final Neo4jMappingContext neo4jMappingContext;
+
+    @Value("${spring.data.neo4j.database:graph.db}")
+    private String databaseName;
+
+    @Autowired
+    public ReactiveInteractionsRepository(ReactiveNeo4jClient neo4jClient, ReactiveNeo4jTemplate neo4jTemplate, Neo4jMappingContext neo4jMappingContext) {
+        this.neo4jClient = neo4jClient;
+        this.neo4jTemplate = neo4jTemplate;
+        this.neo4jMappingContext = neo4jMappingContext;
+    }
+
+    public Flux<Interaction> getByAcc(String acc) {
+        return neo4jTemplate.findAll(BY_ACC, Map.of("acc", acc), Interaction.class);
+    }
+
+    public Flux<Interaction> getByAcc(String acc, Integer page, Integer pageSize) {
+        return neo4jTemplate.findAll(BY_ACC_PAGINATED, Map.of("acc", acc, "page", page, "pageSize", pageSize), Interaction.class);
+    }
+
+    /**
+     * @return the interactions grouped by accession (accessions without interactions are not included)
+     */
+    public Mono<Map<String, List<Interaction>>> getByAccs(Collection<String> accs) {
+        return queryByAccs(BY_ACCS, Map.of("accs", accs));
+    }
+
+    /**
+     * Same as getByAccs(accs) but only retrieving the given page of interactions for each accession
+     */
+    public Mono<Map<String, List<Interaction>>> getByAccs(Collection<String> accs, Integer page, Integer pageSize) {
+        return queryByAccs(BY_ACCS_PAGINATED, Map.of("accs", accs, "page", page, "pageSize", pageSize));
+    }
+
+    private Mono<Map<String, List<Interaction>>> queryByAccs(String query, Map<String, Object> params) {
+        BiFunction<TypeSystem, MapAccessor, Interaction> mappingFunction = neo4jMappingContext.getRequiredMappingFunctionFor(Interaction.class);
+        return neo4jClient.query(query)
+                .in(databaseName)
+                .bindAll(params)
+                .fetchAs(AccInteraction.class)
+                //The whole record is mapped so the collected relationships and nodes are taken into account
+                .mappedBy((typeSystem, record) -> new AccInteraction(record.get("acc").asString(), mappingFunction.apply(typeSystem, record)))
+                .all()
+                .<Map<String, List<Interaction>>>collect(HashMap::new, (map, item) -> map.computeIfAbsent(item.acc, k -> new ArrayList<>()).add(item.interaction));
+    }
+}
@@ -0,0 +1,57 @@
+package org.reactome.server.graph.repository;
+
+import org.reactome.server.graph.domain.model.Pathway;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.neo4j.core.ReactiveNeo4jTemplate;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.util.Map;
+
+import static org.reactome.server.graph.repository.PathwayRepository.*;
+
+/**
+ * Reactive counterpart of {@link PathwayRepository}. The queries are the ones declared there.
+ */
+@Repository
+public class ReactivePathwayRepository {
+
+    private final ReactiveNeo4jTemplate neo4jTemplate;
+
+    @Autowired
+    public ReactivePathwayRepository(ReactiveNeo4jTemplate neo4jTemplate) {
+        this.neo4jTemplate = neo4jTemplate;
+    }
+
+    public Flux<Pathway> getPathwaysForByStId(String stId) {
+        return neo4jTemplate.findAll(PATHWAYS_FOR_BY_STID, Map.of("stId", stId), Pathway.class);
+    }
+
+    public Flux<Pathway> getPathwaysForByStIdAndSpeciesTaxId(String stId, String taxId) {
+        return neo4jTemplate.findAll(PATHWAYS_FOR_BY_STID_AND_TAXID, Map.of("stId", stId, "taxId", taxId), Pathway.class);
+    }
+
+    public Flux<Pathway> getPathwaysForByDbId(Long dbId) {
+        return neo4jTemplate.findAll(PATHWAYS_FOR_BY_DBID, Map.of("dbId", dbId), Pathway.class);
+    }
+
+    public Flux<Pathway> getPathwaysForByDbIdAndSpeciesTaxId(Long dbId, String taxId) {
+        return neo4jTemplate.findAll(PATHWAYS_FOR_BY_DBID_AND_TAXID, Map.of("dbId", dbId, "taxId", taxId), Pathway.class);
+    }
+
+    public Flux<Pathway> getPathwaysWithDiagramForByStId(String stId) {
+        return neo4jTemplate.findAll(PATHWAYS_WITH_DIAGRAM_FOR_BY_STID, Map.of("stId", stId), Pathway.class);
+    }
+
+    public Flux<Pathway> getPathwaysWithDiagramForByStIdAndSpeciesTaxId(String stId, String taxId) {
+        return neo4jTemplate.findAll(PATHWAYS_WITH_DIAGRAM_FOR_BY_STID_AND_TAXID, Map.of("stId", stId, "taxId", taxId), Pathway.class);
+    }
+
+    public Flux<Pathway> getPathwaysWithDiagramForByDbId(Long dbId) {
+        return neo4jTemplate.findAll(PATHWAYS_WITH_DIAGRAM_FOR_BY_DBID, Map.of("dbId", dbId), Pathway.class);
+    }
+
+    public Flux<Pathway> getPathwaysWithDiagramForByDbIdAndSpeciesTaxId(Long dbId, String taxId) {
+        return neo4jTemplate.findAll(PATHWAYS_WITH_DIAGRAM_FOR_BY_DBID_AND_TAXID, Map.of("dbId", dbId, "taxId", taxId), Pathway.class);
+    }
+}
@@ -0,0 +1,57 @@
+package org.reactome.server.graph.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.neo4j.core.ReactiveNeo4jTemplate;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Reactive counterpart of the class queries in {@link SchemaRepository}. Results are streamed as they
+ * arrive from the database, so the whole class does not have to be kept in memory.
+ */
+@Repository
+public class ReactiveSchemaRepository {
+
+    private final ReactiveNeo4jTemplate neo4jTemplate;
+
+    @Autowired
+    public ReactiveSchemaRepository(ReactiveNeo4jTemplate neo4jTemplate) {
+        this.neo4jTemplate = neo4jTemplate;
+    }
+
+    // ---------------------------------------- Query by Class --------------------------------------------------
+
+    public <T> Flux<T> getByClass(Class<T> clazz) {
+        String query = "MATCH (n:" + clazz.getSimpleName() + ") RETURN n ORDER BY n.displayName";
+        return neo4jTemplate.findAll(query, clazz);
+    }
+
+    public <T> Flux<T> getByClassAndSpeciesTaxId(Class<T> clazz, String taxId) {
+        String query = "MATCH (s:Species{taxId:$taxId})<-[r:species]-(n:" + clazz.getSimpleName() + ") RETURN n, collect(r), collect(s) ORDER BY n.displayName";
+        return neo4jTemplate.findAll(query, Map.of("taxId", taxId), clazz);
+    }
+
+    public <T> Flux<T> getByClassAndSpeciesName(Class<T> clazz, String speciesName) {
+        String query = "MATCH (s:Species{displayName:$speciesName})<-[r:species]-(n:" + clazz.getSimpleName() + ") RETURN n, collect(r), collect(s) ORDER BY n.displayName";
+        return neo4jTemplate.findAll(query, Map.of("speciesName", speciesName), clazz);
+    }
+
+    // ---------------------------------------- Count by Class ------------------------------------------------
+
+    public Mono<Long> countEntries(Class<?> clazz) {
+        return neo4jTemplate.count(clazz);
+    }
+
+    public Mono<Long> countEntriesWithSpeciesTaxId(Class<?> clazz, String taxId) {
+        String query = "MATCH (s:Species{taxId:$taxId})<-[:species]-(n:" + clazz.getSimpleName() + ") RETURN COUNT(n) AS n";
+        return neo4jTemplate.count(query, Map.of("taxId", taxId));
+    }
+
+    public Mono<Long> countEntriesWithSpeciesName(Class<?> clazz, String speciesName) {
+        String query = "MATCH (s:Species{displayName:$speciesName})<-[:species]-(n:" + clazz.getSimpleName() + ") RETURN COUNT(n) AS n";
+        return neo4jTemplate.count(query, Map.of("speciesName", speciesName));
+    }
+}
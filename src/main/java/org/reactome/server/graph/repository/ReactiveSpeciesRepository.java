@@ -0,0 +1,35 @@
+package org.reactome.server.graph.repository;
+
+import org.reactome.server.graph.domain.model.Species;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.neo4j.core.ReactiveNeo4jTemplate;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Reactive counterpart of the species lookups in {@link SpeciesRepository}
+ */
+@Repository
+public class ReactiveSpeciesRepository {
+
+    private final ReactiveNeo4jTemplate neo4jTemplate;
+
+    @Autowired
+    public ReactiveSpeciesRepository(ReactiveNeo4jTemplate neo4jTemplate) {
+        this.neo4jTemplate = neo4jTemplate;
+    }
+
+    public Mono<Species> getSpeciesByTaxId(String taxId) {
+        return neo4jTemplate.findOne("MATCH (n:Species{taxId:$taxId}) RETURN n", Map.of("taxId", taxId), Species.class);
+    }
+
+    public Mono<Species> getSpeciesByDbId(Long dbId) {
+        return neo4jTemplate.findOne("MATCH (n:Species{dbId:$dbId}) RETURN n", Map.of("dbId", dbId), Species.class);
+    }
+
+    public Mono<Species> getSpeciesByName(String name) {
+        return neo4jTemplate.findOne("MATCH (n:Species) WHERE $name IN n.name RETURN n", Map.of("name", name), Species.class);
+    }
+}
@@ -25,4 +25,7 @@ public interface ReferenceEntityRepository extends Neo4jRepository<ReferenceEnti
             "RETURN DISTINCT m")
     Collection<ReferenceEntity> getParticipatingReferenceEntities(@Param("stId") String stId);
 
+    @Query("MATCH (m:ReferenceEntity) WHERE m.dbId IN $dbIds RETURN m")
+    Collection<ReferenceEntity> getReferenceEntities(@Param("dbIds") Collection<Long> dbIds);
+
 }
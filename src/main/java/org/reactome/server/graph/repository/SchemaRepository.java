@@ -1,8 +1,10 @@
 package org.reactome.server.graph.repository;
 
+import org.reactome.server.graph.domain.model.DatabaseObject;
 import org.reactome.server.graph.domain.result.SchemaClassCount;
 import org.reactome.server.graph.domain.result.SimpleDatabaseObject;
 import org.reactome.server.graph.domain.result.SimpleReferenceObject;
+import org.reactome.server.graph.repository.util.KeysetPageIterator;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.neo4j.core.Neo4jClient;
@@ -12,6 +14,7 @@ import org.springframework.stereotype.Repository;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * @author Florian Korninger (florian.korninger@ebi.ac.uk)
@@ -101,6 +104,24 @@ public class SchemaRepository {
     }
 
 
+    // ------------------------------------ Query by Class (streaming) --------------------------------------------
+    // Keyset pagination on dbId: the objects are sorted by dbId and each page is retrieved with a single query
+
+    public <T extends DatabaseObject> Stream<T> streamByClass(Class<T> clazz, int pageSize) {
+        String query = "MATCH (n:" + clazz.getSimpleName() + ") WHERE n.dbId > $lastDbId RETURN n ORDER BY n.dbId LIMIT $limit";
+        return KeysetPageIterator.stream((lastDbId, limit) -> neo4jTemplate.findAll(query, Map.<String, Object>of("lastDbId", lastDbId, "limit", limit), clazz), DatabaseObject::getDbId, pageSize);
+    }
+
+    public <T extends DatabaseObject> Stream<T> streamByClassAndSpeciesTaxId(Class<T> clazz, String taxId, int pageSize) {
+        String query = "MATCH (s:Species{taxId:$taxId})<-[:species]-(n:" + clazz.getSimpleName() + ") WHERE n.dbId > $lastDbId RETURN DISTINCT n ORDER BY n.dbId LIMIT $limit";
+        return KeysetPageIterator.stream((lastDbId, limit) -> neo4jTemplate.findAll(query, Map.<String, Object>of("taxId", taxId, "lastDbId", lastDbId, "limit", limit), clazz), DatabaseObject::getDbId, pageSize);
+    }
+
+    public <T extends DatabaseObject> Stream<T> streamByClassAndSpeciesName(Class<T> clazz, String speciesName, int pageSize) {
+        String query = "MATCH (s:Species{displayName:$speciesName})<-[:species]-(n:" + clazz.getSimpleName() + ") WHERE n.dbId > $lastDbId RETURN DISTINCT n ORDER BY n.dbId LIMIT $limit";
+        return KeysetPageIterator.stream((lastDbId, limit) -> neo4jTemplate.findAll(query, Map.<String, Object>of("speciesName", speciesName, "lastDbId", lastDbId, "limit", limit), clazz), DatabaseObject::getDbId, pageSize);
+    }
+
     // ---------------------------------------- Query by Class for SimpleObject ------------------------------------------------
 
     public Collection<SimpleDatabaseObject> getSimpleDatabaseObjectByClass(Class clazz) {
@@ -171,6 +192,51 @@ public class SchemaRepository {
         return neo4jClient.query(query).in(databaseName).bindAll(map).fetchAs(SimpleDatabaseObject.class).mappedBy( (ts, rec) -> SimpleDatabaseObject.build(rec)).all();
     }
 
+    // ---------------------------------------- Query by Class for SimpleObject (streaming) ------------------------------------------------
+
+    public Stream<SimpleDatabaseObject> streamSimpleDatabaseObjectByClass(Class clazz, int pageSize) {
+        String query = "" +
+                "MATCH (n:" + clazz.getSimpleName() + ") " +
+                "WHERE n.dbId > $lastDbId " +
+                "RETURN DISTINCT(n.dbId) as dbId, n.stId as stId, n.displayName as displayName, labels(n) as labels " +
+                "ORDER BY dbId " +
+                "LIMIT $limit";
+        return streamSimpleDatabaseObjects(query, new HashMap<>(), pageSize);
+    }
+
+    public Stream<SimpleDatabaseObject> streamSimpleDatabaseObjectByClassAndSpeciesTaxId(Class clazz, String taxId, int pageSize) {
+        String query = "" +
+                "MATCH (s:Species{taxId:$taxId})<-[:species]-(n:" + clazz.getSimpleName() + ") " +
+                "WHERE n.dbId > $lastDbId " +
+                "RETURN DISTINCT(n.dbId) as dbId, n.stId as stId, n.displayName as displayName, labels(n) as labels " +
+                "ORDER BY dbId " +
+                "LIMIT $limit";
+        Map<String,Object> map = new HashMap<>();
+        map.put("taxId", taxId);
+        return streamSimpleDatabaseObjects(query, map, pageSize);
+    }
+
+    public Stream<SimpleDatabaseObject> streamSimpleDatabaseObjectByClassAndSpeciesName(Class clazz, String speciesName, int pageSize) {
+        String query = "" +
+                "MATCH (s:Species{displayName:$speciesName})<-[:species]-(n:" + clazz.getSimpleName() + ") " +
+                "WHERE n.dbId > $lastDbId " +
+                "RETURN DISTINCT(n.dbId) as dbId, n.stId as stId, n.displayName as displayName, labels(n) as labels " +
+                "ORDER BY dbId " +
+                "LIMIT $limit";
+        Map<String,Object> map = new HashMap<>();
+        map.put("speciesName", speciesName);
+        return streamSimpleDatabaseObjects(query, map, pageSize);
+    }
+
+    private Stream<SimpleDatabaseObject> streamSimpleDatabaseObjects(String query, Map<String, Object> parameters, int pageSize) {
+        return KeysetPageIterator.stream((lastDbId, limit) -> {
+            Map<String, Object> map = new HashMap<>(parameters);
+            map.put("lastDbId", lastDbId);
+            map.put("limit", limit);
+            return neo4jClient.query(query).in(databaseName).bindAll(map).fetchAs(SimpleDatabaseObject.class).mappedBy((ts, rec) -> SimpleDatabaseObject.build(rec)).all();
+        }, SimpleDatabaseObject::getDbId, pageSize);
+    }
+
     // ---------------------------------------- Query by Class for SimpleReferenceObject ------------------------------------------------
 
     public Collection<SimpleReferenceObject> getSimpleReferencesObjectsByClass(Class clazz) {
@@ -0,0 +1,64 @@
+package org.reactome.server.graph.repository.util;
+
+import java.util.*;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Iterates over the result of a query retrieving it in pages by keyset pagination: instead of using
+ * SKIP (which gets slower the deeper the page is), every page is requested as the items whose key is
+ * greater than the key of the last item of the previous page. Only one page is kept in memory at a time.
+ *
+ * The query behind pageFetcher MUST be sorted by the key and filter by it, e.g.
+ * "MATCH (n:Pathway) WHERE n.dbId > $lastKey RETURN n ORDER BY n.dbId LIMIT $limit"
+ *
+ * @param <T> the type of the items retrieved
+ */
+public class KeysetPageIterator<T> implements Iterator<T> {
+
+    private final BiFunction<Long, Integer, Collection<T>> pageFetcher;
+    private final Function<T, Long> keyExtractor;
+    private final int pageSize;
+
+    private Iterator<T> page = Collections.emptyIterator();
+    private Long lastKey = Long.MIN_VALUE;
+    private boolean lastPage = false;
+
+    /**
+     * @param pageFetcher  retrieves the page of (at most) limit items after the given key
+     * @param keyExtractor gets the key of an item
+     * @param pageSize     number of items retrieved per query
+     */
+    public KeysetPageIterator(BiFunction<Long, Integer, Collection<T>> pageFetcher, Function<T, Long> keyExtractor, int pageSize) {
+        if (pageSize < 1) throw new IllegalArgumentException("The page size has to be greater than 0");
+        this.pageFetcher = pageFetcher;
+        this.keyExtractor = keyExtractor;
+        this.pageSize = pageSize;
+    }
+
+    public static <T> Stream<T> stream(BiFunction<Long, Integer, Collection<T>> pageFetcher, Function<T, Long> keyExtractor, int pageSize) {
+        Iterator<T> iterator = new KeysetPageIterator<>(pageFetcher, keyExtractor, pageSize);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (!page.hasNext() && !lastPage) {
+            Collection<T> items = pageFetcher.apply(lastKey, pageSize);
+            if (items == null) items = Collections.emptyList();
+            lastPage = items.size() < pageSize;
+            page = items.iterator();
+        }
+        return page.hasNext();
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        T item = page.next();
+        lastKey = keyExtractor.apply(item);
+        return item;
+    }
+}
@@ -8,10 +8,8 @@ import org.reactome.server.graph.service.util.DatabaseObjectUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.util.Collection;
-import java.util.Collections;
-import java.util.HashSet;
-import java.util.Map;
+import java.util.*;
+import java.util.function.Function;
 
 /**
  * @author Florian Korninger (florian.korninger@ebi.ac.uk)
@@ -21,6 +19,8 @@ import java.util.Map;
 @Service
 public class AdvancedDatabaseObjectService {
 
+    private static final int BATCH_SIZE = 1000;
+
     @Autowired
     private AdvancedDatabaseObjectRepository advancedDatabaseObjectRepository;
 
@@ -91,19 +91,38 @@ public class AdvancedDatabaseObjectService {
     }
 
     public Collection<DatabaseObject> findByIds(Collection<Object> ids, RelationshipDirection direction) {
-        Collection<DatabaseObject> rtn = new HashSet<>();
-        for (Object id : ids) {
-            DatabaseObject aux = findById(id, direction);
-            if (aux != null) rtn.add(aux);
-        }
-        return rtn;
+        return findByIdentifiers(ids, (dbIds) -> advancedDatabaseObjectRepository.findByDbIds(dbIds, direction),
+                (stIds) -> advancedDatabaseObjectRepository.findByStIds(stIds, direction));
     }
 
     public Collection<DatabaseObject> findByIds(Collection<Object> ids, RelationshipDirection direction, String... relationships) {
+        return findByIdentifiers(ids, (dbIds) -> advancedDatabaseObjectRepository.findByDbIds(dbIds, direction, relationships),
+                (stIds) -> advancedDatabaseObjectRepository.findByStIds(stIds, direction, relationships));
+    }
+
+    /**
+     * Splits the identifiers in dbIds and stIds (translating the old ones in bulk) and retrieves them with one
+     * set-based query per group and chunk of BATCH_SIZE identifiers, instead of one query per identifier
+     */
+    private Collection<DatabaseObject> findByIdentifiers(Collection<Object> ids,
+                                                         Function<Collection<Long>, Collection<DatabaseObject>> dbIdsFinder,
+                                                         Function<Collection<String>, Collection<DatabaseObject>> stIdsFinder) {
+        Set<Long> dbIds = new HashSet<>();
+        Set<String> stIds = new HashSet<>();
+        for (String id : DatabaseObjectUtils.getIdentifiers(ids).values()) {
+            if (DatabaseObjectUtils.isStId(id)) {
+                stIds.add(id);
+            } else if (DatabaseObjectUtils.isDbId(id)) {
+                dbIds.add(Long.parseLong(id));
+            }
+        }
+
         Collection<DatabaseObject> rtn = new HashSet<>();
-        for (Object id : ids) {
-            DatabaseObject aux = findById(id, direction, relationships);
-            if (aux != null) rtn.add(aux);
+        for (List<Long> chunk : DatabaseObjectUtils.partition(dbIds, BATCH_SIZE)) {
+            rtn.addAll(dbIdsFinder.apply(chunk));
+        }
+        for (List<String> chunk : DatabaseObjectUtils.partition(stIds, BATCH_SIZE)) {
+            rtn.addAll(stIdsFinder.apply(chunk));
         }
         return rtn;
     }
@@ -116,6 +135,14 @@ public class AdvancedDatabaseObjectService {
         return advancedDatabaseObjectRepository.findByRelationship(dbId, clazz, direction, relationships);
     }
 
+    public Map<Long, Collection<DatabaseObject>> findCollectionsByRelationship(Collection<Long> dbIds, String clazz, Class<?> collectionClazz, RelationshipDirection direction, String... relationships) {
+        return advancedDatabaseObjectRepository.findCollectionsByRelationship(dbIds, clazz, collectionClazz, direction, relationships);
+    }
+
+    public Map<Long, DatabaseObject> findByRelationship(Collection<Long> dbIds, String clazz, RelationshipDirection direction, String... relationships) {
+        return advancedDatabaseObjectRepository.findByRelationship(dbIds, clazz, direction, relationships);
+    }
+
     // ----------------------------------------- Custom Query Methods --------------------------------------------------
 
     public void customQuery(String query) {
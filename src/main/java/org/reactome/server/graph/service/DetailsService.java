@@ -1,16 +1,21 @@
 package org.reactome.server.graph.service;
 
+import org.reactome.server.graph.cache.ReleaseCached;
 import org.reactome.server.graph.domain.model.*;
+import org.reactome.server.graph.domain.result.ComponentOf;
 import org.reactome.server.graph.repository.DetailsRepository;
 import org.reactome.server.graph.service.helper.ContentDetails;
 import org.reactome.server.graph.service.helper.PathwayBrowserNode;
 import org.reactome.server.graph.service.util.DatabaseObjectUtils;
+import org.reactome.server.graph.service.util.ParallelQueryExecutor;
 import org.reactome.server.graph.service.util.PathwayBrowserLocationsUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Future;
 
 /**
  * @author Florian Korninger (florian.korninger@ebi.ac.uk)
@@ -23,30 +28,28 @@ public class DetailsService {
     private final AdvancedLinkageService advancedLinkageService;
     private final PhysicalEntityService physicalEntityService;
     private final HierarchyService hierarchyService;
+    private final ParallelQueryExecutor parallelQueryExecutor;
 
     @Autowired
-    public DetailsService(DetailsRepository detailsRepository, AdvancedLinkageService advancedLinkageService, PhysicalEntityService physicalEntityService, HierarchyService hierarchyService) {
+    public DetailsService(DetailsRepository detailsRepository, AdvancedLinkageService advancedLinkageService, PhysicalEntityService physicalEntityService, HierarchyService hierarchyService, ParallelQueryExecutor parallelQueryExecutor) {
         this.detailsRepository = detailsRepository;
         this.advancedLinkageService = advancedLinkageService;
         this.physicalEntityService = physicalEntityService;
         this.hierarchyService = hierarchyService;
+        this.parallelQueryExecutor = parallelQueryExecutor;
     }
 
+    @ReleaseCached("details")
     public ContentDetails getContentDetails(Object identifier, Boolean directParticipants) {
+        String id = DatabaseObjectUtils.getIdentifier(identifier);
+        if (!DatabaseObjectUtils.isStId(id) && !DatabaseObjectUtils.isDbId(id)) return null;
+        if (directParticipants == null) directParticipants = false;
+        if (parallelQueryExecutor.isEnabled()) return getContentDetailsInParallel(id, directParticipants);
 
         ContentDetails contentDetails = new ContentDetails();
-        DatabaseObject databaseObject;
-        String id = DatabaseObjectUtils.getIdentifier(identifier);
-        if (DatabaseObjectUtils.isStId(id)) {
-            databaseObject = detailsRepository.detailsPageQuery(id);
-        } else if (DatabaseObjectUtils.isDbId(id)){
-            databaseObject = detailsRepository.detailsPageQuery(Long.parseLong(id));
-        } else {
-            return null;
-        }
+        DatabaseObject databaseObject = detailsPageQuery(id);
         contentDetails.setDatabaseObject(databaseObject);
         if (databaseObject instanceof Event || databaseObject instanceof PhysicalEntity || databaseObject instanceof Regulation) {
-            if (directParticipants == null) directParticipants = false;
             Set<PathwayBrowserNode> leaves = getLocationsInThePathwayBrowserHierarchy(databaseObject, directParticipants);
             contentDetails.setNodes(leaves);
             contentDetails.setComponentOf(advancedLinkageService.getComponentsOf(databaseObject.getDbId()));
@@ -55,17 +58,51 @@ public class DetailsService {
         return contentDetails;
     }
 
+    /**
+     * The locations in the pathway browser, the components of and the other forms only depend on the identifier,
+     * so they are queried at the same time as the object itself and discarded (cancelled) when it does not need them
+     */
+    private ContentDetails getContentDetailsInParallel(String id, boolean directParticipants) {
+        ParallelQueryExecutor.Batch batch = parallelQueryExecutor.batch();
+        Future<DatabaseObject> details = batch.fork(() -> detailsPageQuery(id));
+        Future<PathwayBrowserNode> locations = batch.fork(() -> hierarchyService.getLocationsInPathwayBrowser(id, directParticipants, true));
+        Future<Collection<ComponentOf>> componentsOf = batch.fork(() -> advancedLinkageService.getComponentsOf(id));
+        Future<Collection<PhysicalEntity>> otherForms = batch.fork(() -> physicalEntityService.getOtherFormsOf(id));
+
+        ContentDetails contentDetails = new ContentDetails();
+        DatabaseObject databaseObject = batch.join(details);
+        contentDetails.setDatabaseObject(databaseObject);
+        if (databaseObject instanceof Event || databaseObject instanceof PhysicalEntity || databaseObject instanceof Regulation) {
+            PathwayBrowserNode root = batch.join(locations);
+            setLeaf(root, databaseObject);
+            contentDetails.setNodes(getTrees(root));
+            contentDetails.setComponentOf(batch.join(componentsOf));
+            contentDetails.setOtherFormsOfThisMolecule(batch.join(otherForms));
+        } else {
+            batch.cancel();
+        }
+        return contentDetails;
+    }
+
+    private DatabaseObject detailsPageQuery(String id) {
+        if (DatabaseObjectUtils.isStId(id)) return detailsRepository.detailsPageQuery(id);
+        return detailsRepository.detailsPageQuery(Long.parseLong(id));
+    }
+
     public Set<PathwayBrowserNode> getLocationInPathwayBrowserForPathways(List<String> pathways){
         Set<PathwayBrowserNode> rtn = hierarchyService.getLocationInPathwayBrowserForPathways(pathways);
         return PathwayBrowserLocationsUtils.enrichPathwayBrowserNode(rtn, pathways);
     }
 
     private Set<PathwayBrowserNode> getLocationsInThePathwayBrowserHierarchy(DatabaseObject databaseObject, boolean directParticipants) {
-        PathwayBrowserNode root = getLocationsInThePathwayBrowser(databaseObject, directParticipants);
+        return getTrees(getLocationsInThePathwayBrowser(databaseObject, directParticipants));
+    }
+
+    private Set<PathwayBrowserNode> getTrees(PathwayBrowserNode root) {
         if (root!=null) {
             Set<PathwayBrowserNode> leaves = root.getLeaves();
             PathwayBrowserLocationsUtils.removeOrphans(leaves);
-            return PathwayBrowserLocationsUtils.buildTreesFromLeaves(leaves);
+            return PathwayBrowserLocationsUtils.buildTreesFromLeaves(leaves, parallelQueryExecutor);
         }
         return null;
     }
@@ -78,7 +115,11 @@ public class DetailsService {
 
         PathwayBrowserNode node;
         node = hierarchyService.getLocationsInPathwayBrowser(id, directParticipants, true);
+        setLeaf(node, databaseObject);
+        return node;
+    }
 
+    private void setLeaf(PathwayBrowserNode node, DatabaseObject databaseObject) {
         DatabaseObject leaf = null;
         if (databaseObject instanceof CatalystActivity) {
             leaf = ((CatalystActivity) databaseObject).getPhysicalEntity();
@@ -88,11 +129,10 @@ public class DetailsService {
             leaf = ((Regulation) databaseObject).getRegulator();
         }
 
-        if (leaf != null) {
+        if (leaf != null && node != null) {
             node.setName(leaf.getDisplayName());
             node.setStId(leaf.getStId());
             node.setType(leaf.getSchemaClass());
         }
-        return node;
     }
 }
@@ -1,13 +1,17 @@
 package org.reactome.server.graph.service;
 
+import org.reactome.server.graph.cache.ReleaseCached;
+import org.reactome.server.graph.domain.result.DiagramInteractors;
 import org.reactome.server.graph.domain.result.DiagramOccurrences;
 import org.reactome.server.graph.domain.result.DiagramResult;
+import org.reactome.server.graph.index.DiagramOccurrenceIndex;
 import org.reactome.server.graph.repository.DiagramRepository;
 import org.reactome.server.graph.service.util.DatabaseObjectUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.Collection;
+import java.util.Collections;
 
 /**
 
@@ -18,6 +22,10 @@ public class DiagramService {
     @Autowired
     private DiagramRepository diagramRepository;
 
+    @Autowired
+    private DiagramOccurrenceIndex diagramOccurrenceIndex;
+
+    @ReleaseCached("diagram")
     public DiagramResult getDiagramResult(Object identifier){
         String id = DatabaseObjectUtils.getIdentifier(identifier);
         if (DatabaseObjectUtils.isStId(id)) {
@@ -28,8 +36,22 @@ public class DiagramService {
         return null;
     }
 
+    @ReleaseCached("diagram")
     public Collection<DiagramOccurrences> getDiagramOccurrences(Object identifier){
         String id = DatabaseObjectUtils.getIdentifier(identifier);
+        if (diagramOccurrenceIndex.isEnabled()) {
+            DiagramInteractors root;
+            if (DatabaseObjectUtils.isStId(id)) {
+                root = diagramRepository.getDiagramInteractors(id);
+            } else if (DatabaseObjectUtils.isDbId(id)) {
+                root = diagramRepository.getDiagramInteractors(Long.parseLong(id));
+            } else {
+                return null;
+            }
+            // Same as the query, an object that does not exist has no occurrences
+            if (root == null) return Collections.emptyList();
+            return diagramOccurrenceIndex.getDiagramOccurrences(root.getDbId(), root.getInteractors());
+        }
         if (DatabaseObjectUtils.isStId(id)) {
             return diagramRepository.getDiagramOccurrences(id);
         } else if (DatabaseObjectUtils.isDbId(id)){
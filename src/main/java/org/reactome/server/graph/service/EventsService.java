@@ -1,6 +1,8 @@
 package org.reactome.server.graph.service;
 
+import org.reactome.server.graph.cache.ReleaseCached;
 import org.reactome.server.graph.domain.result.EventProjectionWrapper;
+import org.reactome.server.graph.index.EventHierarchyIndex;
 import org.reactome.server.graph.repository.EventAncestorsRepository;
 import org.reactome.server.graph.service.util.DatabaseObjectUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,30 +13,38 @@ import java.util.Collection;
 @Service
 public class EventsService {
     private final EventAncestorsRepository eventAncestorsRepository;
+    private final EventHierarchyIndex eventHierarchyIndex;
 
     @Autowired
-    public EventsService(EventAncestorsRepository eventAncestorsRepository) {
+    public EventsService(EventAncestorsRepository eventAncestorsRepository, EventHierarchyIndex eventHierarchyIndex) {
         this.eventAncestorsRepository = eventAncestorsRepository;
+        this.eventHierarchyIndex = eventHierarchyIndex;
     }
 
     /**
      * @return returns a List of Event as it can contain Reactions and Pathway.
      */
+    @ReleaseCached("events")
     public Collection<EventProjectionWrapper> getEventAncestors(Object identifier){
         String id = DatabaseObjectUtils.getIdentifier(identifier);
         if (DatabaseObjectUtils.isStId(id)) {
+            if (eventHierarchyIndex.isEnabled()) return eventHierarchyIndex.getEventAncestors(id);
             return eventAncestorsRepository.getEventAncestorsByStId(id);
         } else if (DatabaseObjectUtils.isDbId(id)){
+            if (eventHierarchyIndex.isEnabled()) return eventHierarchyIndex.getEventAncestors(Long.parseLong(id));
             return eventAncestorsRepository.getEventAncestorsByDbId(Long.parseLong(id));
         }
         return null;
     }
 
+    @ReleaseCached("events")
     public Collection<EventProjectionWrapper> getUngroupedEventAncestors(Object identifier){
         String id = DatabaseObjectUtils.getIdentifier(identifier);
         if (DatabaseObjectUtils.isStId(id)) {
+            if (eventHierarchyIndex.isEnabled()) return eventHierarchyIndex.getEventAncestors(id);
             return eventAncestorsRepository.getEventAncestorsByStId(id);
         } else if (DatabaseObjectUtils.isDbId(id)){
+            if (eventHierarchyIndex.isEnabled()) return eventHierarchyIndex.getEventAncestors(Long.parseLong(id));
             return eventAncestorsRepository.getEventAncestorsByDbId(Long.parseLong(id));
         }
         return null;
@@ -1,12 +1,18 @@
 package org.reactome.server.graph.service;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
 import org.apache.commons.lang3.StringUtils;
+import org.reactome.server.graph.cache.ReleaseCached;
+import org.reactome.server.graph.index.EventHierarchyIndex;
 import org.reactome.server.graph.repository.HierarchyRepository;
 import org.reactome.server.graph.service.helper.PathwayBrowserNode;
 import org.reactome.server.graph.service.util.DatabaseObjectUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Collection;
 import java.util.List;
 import java.util.Set;
@@ -15,15 +21,21 @@ import java.util.Set;
 @SuppressWarnings("WeakerAccess")
 public class HierarchyService {
 
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
     private final HierarchyRepository hierarchyRepository;
+    private final EventHierarchyIndex eventHierarchyIndex;
 
     @Autowired
-    public HierarchyService(HierarchyRepository hierarchyRepository) {
+    public HierarchyService(HierarchyRepository hierarchyRepository, EventHierarchyIndex eventHierarchyIndex) {
         this.hierarchyRepository = hierarchyRepository;
+        this.eventHierarchyIndex = eventHierarchyIndex;
     }
 
     // -------------------------------- Locations in the Pathway Browser -----------------------------------------------
 
+    // The trees are decorated by DetailsService (leaf, urls, highlighting...), so every caller gets its own copy
+    @ReleaseCached(value = "locations", copy = true)
     public PathwayBrowserNode getLocationsInPathwayBrowser(Object identifier, Boolean showDirectParticipants, Boolean omitNonDisplayableItems) {
         if (omitNonDisplayableItems == null) omitNonDisplayableItems = true;
         if (showDirectParticipants == null) showDirectParticipants = false;
@@ -42,12 +54,14 @@ public class HierarchyService {
         return null;
     }
 
+    @ReleaseCached(value = "locations", copy = true)
     public Set<PathwayBrowserNode> getLocationInPathwayBrowserForPathways(List<?> pathways){
         return hierarchyRepository.getLocationInPathwayBrowserForPathways(pathways);
     }
 
     // --------------------------------------------- Sub Hierarchy -----------------------------------------------------
 
+    @ReleaseCached("hierarchy")
     public PathwayBrowserNode getSubHierarchy(Object identifier) {
         String id = DatabaseObjectUtils.getIdentifier(identifier);
         if (DatabaseObjectUtils.isStId(id)) {
@@ -60,12 +74,43 @@ public class HierarchyService {
 
     // ------------------------------------------- Event Hierarchy -----------------------------------------------------
 
+    @ReleaseCached("hierarchy")
     public Collection<PathwayBrowserNode> getEventHierarchy(Object species) {
         String speciesString = species.toString();
         if (StringUtils.isNumeric(speciesString)) {
+            if (eventHierarchyIndex.isEnabled()) return eventHierarchyIndex.getEventHierarchyByTaxId(speciesString);
             return hierarchyRepository.getEventHierarchyByTaxId(speciesString);
         } else {
+            if (eventHierarchyIndex.isEnabled()) return eventHierarchyIndex.getEventHierarchyBySpeciesName(speciesString);
             return hierarchyRepository.getEventHierarchyBySpeciesName(speciesString);
         }
     }
+
+    /**
+     * Writes the JSON serialisation of getEventHierarchy to the output stream (which is flushed but not closed)
+     */
+    public void writeEventHierarchy(Object species, OutputStream out) throws IOException {
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            writeEventHierarchy(species, generator);
+        }
+    }
+
+    /**
+     * Writes the JSON serialisation of getEventHierarchy to the generator. When the event hierarchy index is enabled,
+     * the hierarchy is written depth-first from the index without creating the PathwayBrowserNode tree; otherwise
+     * it is queried and written one top level pathway at a time, so only the tree of that pathway is created.
+     * Either way the JSON is the default Jackson one (see PathwayBrowserNodeWriter), regardless of the
+     * configuration of the generator's ObjectMapper.
+     */
+    public void writeEventHierarchy(Object species, JsonGenerator generator) throws IOException {
+        String speciesString = species.toString();
+        if (StringUtils.isNumeric(speciesString)) {
+            if (eventHierarchyIndex.isEnabled()) eventHierarchyIndex.writeEventHierarchyByTaxId(speciesString, generator);
+            else hierarchyRepository.writeEventHierarchyByTaxId(speciesString, generator);
+        } else {
+            if (eventHierarchyIndex.isEnabled()) eventHierarchyIndex.writeEventHierarchyBySpeciesName(speciesString, generator);
+            else hierarchyRepository.writeEventHierarchyBySpeciesName(speciesString, generator);
+        }
+    }
 }
@@ -1,9 +1,11 @@
 package org.reactome.server.graph.service;
 
+import org.reactome.server.graph.cache.ReleaseCached;
 import org.reactome.server.graph.domain.model.Interaction;
 import org.reactome.server.graph.domain.model.Pathway;
 import org.reactome.server.graph.domain.result.DiagramOccurrences;
 import org.reactome.server.graph.domain.result.InteractorsCount;
+import org.reactome.server.graph.index.DiagramOccurrenceIndex;
 import org.reactome.server.graph.repository.DiagramRepository;
 import org.reactome.server.graph.repository.InteractionsRepository;
 import org.reactome.server.graph.repository.InteractorCountRepository;
@@ -20,13 +22,15 @@ public class InteractionsService {
     private final InteractorCountRepository interactorCountRepository;
     private final PathwayRepository pathwayRepository;
     private final DiagramRepository diagramRepository;
+    private final DiagramOccurrenceIndex diagramOccurrenceIndex;
 
     @Autowired
-    public InteractionsService(InteractionsRepository interactionsRepository, InteractorCountRepository interactorCountRepository, PathwayRepository pathwayRepository, DiagramRepository diagramRepository) {
+    public InteractionsService(InteractionsRepository interactionsRepository, InteractorCountRepository interactorCountRepository, PathwayRepository pathwayRepository, DiagramRepository diagramRepository, DiagramOccurrenceIndex diagramOccurrenceIndex) {
         this.interactionsRepository = interactionsRepository;
         this.interactorCountRepository = interactorCountRepository;
         this.pathwayRepository = pathwayRepository;
         this.diagramRepository = diagramRepository;
+        this.diagramOccurrenceIndex = diagramOccurrenceIndex;
     }
 
     /**
@@ -57,20 +61,23 @@ public class InteractionsService {
      * Get interactions of a given list of accession and resource
      * @return Map of accession as key and its interactions
      */
+    @ReleaseCached("interactions")
     public Map<String, List<Interaction>> getInteractions(Collection<String> accs, Integer page, Integer pageSize) {
+        Set<String> distinctAccs = new LinkedHashSet<>(accs);
+        Map<String, List<Interaction>> interactions;
+        if(page != -1 && pageSize != -1) {
+            interactions = interactionsRepository.getByAccs(distinctAccs, page, pageSize);
+        } else {
+            interactions = interactionsRepository.getByAccs(distinctAccs);
+        }
         Map<String, List<Interaction>> interactionMaps = new HashMap<>();
-        for (String acc : accs) {
-            Collection<Interaction> interactions;
-            if(page != -1 && pageSize != -1) {
-                interactions = interactionsRepository.getByAcc(acc, page, pageSize);
-            } else {
-                interactions = interactionsRepository.getByAcc(acc);
-            }
-            interactionMaps.put(acc, new ArrayList<>(interactions));
+        for (String acc : distinctAccs) {
+            interactionMaps.put(acc, interactions.getOrDefault(acc, new ArrayList<>()));
         }
         return interactionMaps;
     }
 
+    @ReleaseCached("interactions")
     public Interaction getSingleInteractionDetails(String acc, String accB) {
         return interactionsRepository.getInteractorByAcc(acc, accB);
     }
@@ -93,6 +100,7 @@ public class InteractionsService {
      * Count interaction by accession list
      * @return Map of accession and count
      */
+    @ReleaseCached("interactions")
     public Map<String, Integer> countInteractionsByAccessions(Collection<String> accs) {
         Map<String, Integer> rtn = new HashMap<>();
         for (InteractorsCount interactorsCount : interactorCountRepository.countByAccessions(accs)) {
@@ -101,15 +109,21 @@ public class InteractionsService {
         return rtn;
     }
 
+    @ReleaseCached("interactions")
     public Collection<Pathway> getLowerLevelPathways(String acc, String speciesName){
         return pathwayRepository.getLowerLevelPathways(acc, speciesName);
     }
 
+    @ReleaseCached("interactions")
     public Collection<Pathway> getDiagrammedLowerLevelPathways(String acc, String speciesName){
         return pathwayRepository.getDiagrammedLowerLevelPathways(acc, speciesName);
     }
 
+    @ReleaseCached("interactions")
     public Collection<DiagramOccurrences> getDiagramOccurrences(String identifier){
+        if (diagramOccurrenceIndex.isEnabled()) {
+            return diagramOccurrenceIndex.getDiagramOccurrencesWithInteractions(diagramRepository.getDiagramInteractorsByIdentifier(identifier));
+        }
         return diagramRepository.getDiagramOccurrencesWithInteractions(identifier);
     }
 }
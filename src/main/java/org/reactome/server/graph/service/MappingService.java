@@ -1,58 +1,128 @@
 package org.reactome.server.graph.service;
 
+import org.reactome.server.graph.cache.ReleaseCached;
+import org.reactome.server.graph.domain.model.DatabaseObject;
 import org.reactome.server.graph.domain.model.Pathway;
 import org.reactome.server.graph.domain.model.ReactionLikeEvent;
 import org.reactome.server.graph.domain.model.Species;
+import org.reactome.server.graph.index.MappingIndex;
+import org.reactome.server.graph.repository.MappingBatchRepository;
 import org.reactome.server.graph.repository.MappingRepository;
+import org.reactome.server.graph.service.util.DatabaseObjectUtils;
+import org.reactome.server.graph.service.util.ParallelQueryExecutor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
-import java.util.Collection;
+import java.util.*;
+import java.util.concurrent.Future;
+import java.util.function.Function;
 
 @SuppressWarnings("WeakerAccess")
 @Service
 public class MappingService {
 
+    private static final int BATCH_SIZE = 1000;
+
     private final MappingRepository mappingRepository;
+    private final MappingBatchRepository mappingBatchRepository;
     private final SpeciesService speciesService;
+    private final MappingIndex mappingIndex;
+    private final ParallelQueryExecutor parallelQueryExecutor;
 
     @Autowired
-    public MappingService(MappingRepository mappingRepository, SpeciesService speciesService) {
+    public MappingService(MappingRepository mappingRepository, MappingBatchRepository mappingBatchRepository, SpeciesService speciesService, MappingIndex mappingIndex, ParallelQueryExecutor parallelQueryExecutor) {
         this.mappingRepository = mappingRepository;
+        this.mappingBatchRepository = mappingBatchRepository;
         this.speciesService = speciesService;
+        this.mappingIndex = mappingIndex;
+        this.parallelQueryExecutor = parallelQueryExecutor;
     }
 
+    @ReleaseCached("mapping")
     public Collection<ReactionLikeEvent> getReactionsLikeEvent(String databaseName, String identifier) {
         if (databaseName != null && !databaseName.isEmpty() && identifier != null && !identifier.isEmpty()) {
+            if (mappingIndex.isEnabled()) {
+                return getReactionsLikeEvent(mappingIndex.getReactionsLikeEvent(databaseName, identifier, null));
+            }
             return mappingRepository.getReactionsLikeEvent(databaseName, identifier);
         }
         return new ArrayList<>();
     }
 
+    @ReleaseCached("mapping")
     public Collection<ReactionLikeEvent> getReactionsLikeEvent(String databaseName, String identifier, Object species) {
         Species s = speciesService.getSpecies(species);
         if (s != null && databaseName != null && !databaseName.isEmpty() && identifier != null && !identifier.isEmpty()) {
+            if (mappingIndex.isEnabled()) {
+                return getReactionsLikeEvent(mappingIndex.getReactionsLikeEvent(databaseName, identifier, s.getTaxId()));
+            }
             return mappingRepository.getReactionsLikeEvent(databaseName, identifier, s.getTaxId());
         }
         return new ArrayList<>();
     }
 
+    @ReleaseCached("mapping")
     public Collection<Pathway> getPathways(String databaseName, String identifier) {
         if (databaseName != null && !databaseName.isEmpty() && identifier != null && !identifier.isEmpty()) {
+            if (mappingIndex.isEnabled()) {
+                return getPathways(mappingIndex.getPathways(databaseName, identifier, null));
+            }
             return mappingRepository.getPathways(databaseName, identifier);
         }
         return new ArrayList<>();
     }
 
+    @ReleaseCached("mapping")
     public Collection<Pathway> getPathways(String databaseName, String identifier, Object species) {
         Species s = speciesService.getSpecies(species);
         if (s != null && databaseName != null && !databaseName.isEmpty() && identifier != null && !identifier.isEmpty()) {
+            if (mappingIndex.isEnabled()) {
+                return getPathways(mappingIndex.getPathways(databaseName, identifier, s.getTaxId()));
+            }
             return mappingRepository.getPathways(databaseName, identifier, s.getTaxId());
         }
         return new ArrayList<>();
     }
 
+    /**
+     * Bulk version of getReactionsLikeEvent: the identifiers are mapped against the mapping index when it is enabled,
+     * otherwise in one query per chunk of BATCH_SIZE identifiers (run concurrently when the parallel queries are enabled)
+     *
+     * @return the reactions for each of the given identifiers (empty when it cannot be mapped)
+     */
+    public Map<String, Collection<ReactionLikeEvent>> getReactionsLikeEvent(String databaseName, Collection<String> identifiers) {
+        return this.<ReactionLikeEvent>map(databaseName, identifiers, null, mappingIndex::getReactionsLikeEvent, mappingRepository::getReactionsLikeEvent, mappingBatchRepository::getReactionsLikeEvent);
+    }
+
+    /**
+     * Bulk version of getReactionsLikeEvent for a species (see getReactionsLikeEvent(String, Collection))
+     */
+    public Map<String, Collection<ReactionLikeEvent>> getReactionsLikeEvent(String databaseName, Collection<String> identifiers, Object species) {
+        Species s = speciesService.getSpecies(species);
+        if (s == null) return map(null, identifiers, null, null, null, null);
+        return this.<ReactionLikeEvent>map(databaseName, identifiers, s.getTaxId(), mappingIndex::getReactionsLikeEvent, mappingRepository::getReactionsLikeEvent, mappingBatchRepository::getReactionsLikeEvent);
+    }
+
+    /**
+     * Bulk version of getPathways: the identifiers are mapped against the mapping index when it is enabled,
+     * otherwise in one query per chunk of BATCH_SIZE identifiers (run concurrently when the parallel queries are enabled)
+     *
+     * @return the pathways for each of the given identifiers (empty when it cannot be mapped)
+     */
+    public Map<String, Collection<Pathway>> getPathways(String databaseName, Collection<String> identifiers) {
+        return this.<Pathway>map(databaseName, identifiers, null, mappingIndex::getPathways, mappingRepository::getPathways, mappingBatchRepository::getPathways);
+    }
+
+    /**
+     * Bulk version of getPathways for a species (see getPathways(String, Collection))
+     */
+    public Map<String, Collection<Pathway>> getPathways(String databaseName, Collection<String> identifiers, Object species) {
+        Species s = speciesService.getSpecies(species);
+        if (s == null) return map(null, identifiers, null, null, null, null);
+        return this.<Pathway>map(databaseName, identifiers, s.getTaxId(), mappingIndex::getPathways, mappingRepository::getPathways, mappingBatchRepository::getPathways);
+    }
+
+    @ReleaseCached("mapping")
     public Collection<Pathway> getGoPathways(String identifier) {
         if (identifier != null && !identifier.isEmpty()) {
             return mappingRepository.getGoPathways(identifier);
@@ -60,6 +130,7 @@ public class MappingService {
         return new ArrayList<>();
     }
 
+    @ReleaseCached("mapping")
     public Collection<Pathway> getGoPathways(String identifier, Object species) {
         Species s = speciesService.getSpecies(species);
         if (s != null  && identifier != null && !identifier.isEmpty()) {
@@ -68,4 +139,68 @@ public class MappingService {
         return new ArrayList<>();
     }
 
+    private <T extends DatabaseObject> Map<String, Collection<T>> map(String databaseName, Collection<String> identifiers, String taxId,
+                                                                     IndexLookup lookup, Function<Collection<Long>, Collection<T>> loader, BatchQuery<T> query) {
+        Map<String, Collection<T>> rtn = new LinkedHashMap<>();
+        if (identifiers == null) return rtn;
+        for (String identifier : identifiers) {
+            if (identifier != null && !identifier.isEmpty()) rtn.put(identifier, new ArrayList<>());
+        }
+        if (databaseName == null || databaseName.isEmpty() || rtn.isEmpty()) return rtn;
+
+        if (mappingIndex.isEnabled()) {
+            Map<String, long[]> dbIds = new HashMap<>();
+            Set<Long> all = new LinkedHashSet<>();
+            for (String identifier : rtn.keySet()) {
+                long[] aux = lookup.lookup(databaseName, identifier, taxId);
+                dbIds.put(identifier, aux);
+                for (long dbId : aux) all.add(dbId);
+            }
+            Map<Long, T> objects = new HashMap<>();
+            for (List<Long> chunk : DatabaseObjectUtils.partition(all, BATCH_SIZE)) {
+                for (T object : loader.apply(chunk)) objects.put(object.getDbId(), object);
+            }
+            rtn.forEach((identifier, list) -> {
+                for (long dbId : dbIds.get(identifier)) {
+                    T object = objects.get(dbId);
+                    if (object != null) list.add(object);
+                }
+                ((List<T>) list).sort(Comparator.comparing(DatabaseObject::getStId, Comparator.nullsLast(Comparator.naturalOrder())));
+            });
+            return rtn;
+        }
+
+        List<List<String>> chunks = DatabaseObjectUtils.partition(rtn.keySet(), BATCH_SIZE);
+        if (parallelQueryExecutor.isEnabled() && chunks.size() > 1) {
+            ParallelQueryExecutor.Batch batch = parallelQueryExecutor.batch();
+            List<Future<Map<String, Collection<T>>>> futures = new ArrayList<>();
+            for (List<String> chunk : chunks) futures.add(batch.fork(() -> query.query(databaseName, chunk, taxId)));
+            for (Future<Map<String, Collection<T>>> future : futures) rtn.putAll(batch.join(future));
+        } else {
+            for (List<String> chunk : chunks) rtn.putAll(query.query(databaseName, chunk, taxId));
+        }
+        return rtn;
+    }
+
+    private Collection<ReactionLikeEvent> getReactionsLikeEvent(long[] dbIds) {
+        return dbIds.length == 0 ? new ArrayList<>() : mappingRepository.getReactionsLikeEvent(toList(dbIds));
+    }
+
+    private Collection<Pathway> getPathways(long[] dbIds) {
+        return dbIds.length == 0 ? new ArrayList<>() : mappingRepository.getPathways(toList(dbIds));
+    }
+
+    private static List<Long> toList(long[] dbIds) {
+        List<Long> rtn = new ArrayList<>(dbIds.length);
+        for (long dbId : dbIds) rtn.add(dbId);
+        return rtn;
+    }
+
+    private interface IndexLookup {
+        long[] lookup(String databaseName, String identifier, String taxId);
+    }
+
+    private interface BatchQuery<T> {
+        Map<String, Collection<T>> query(String databaseName, Collection<String> identifiers, String taxId);
+    }
 }
@@ -1,19 +1,20 @@
 package org.reactome.server.graph.service;
 
+import org.reactome.server.graph.cache.ReleaseCached;
 import org.reactome.server.graph.domain.model.DatabaseObject;
 import org.reactome.server.graph.repository.OrthologyRepository;
 import org.reactome.server.graph.service.util.DatabaseObjectUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.*;
 
 @Service
 @SuppressWarnings("WeakerAccess")
 public class OrthologyService {
 
+    private static final int BATCH_SIZE = 1000;
+
     private final OrthologyRepository orthologyRepository;
 
     @Autowired
@@ -21,6 +22,7 @@ public class OrthologyService {
         this.orthologyRepository = orthologyRepository;
     }
 
+    @ReleaseCached("orthology")
     public Collection<DatabaseObject> getOrthology(Object identifier, Long speciesId){
         String id = DatabaseObjectUtils.getIdentifier(identifier);
         if (DatabaseObjectUtils.isStId(id)) {
@@ -31,14 +33,40 @@ public class OrthologyService {
         return null;
     }
 
+    /**
+     * Retrieves the orthologous for all the identifiers in as few queries as possible (one per identifier type and
+     * chunk of BATCH_SIZE identifiers) instead of one query per identifier
+     *
+     * @return a map with the orthologous for each of the given identifiers (invalid identifiers are not included)
+     */
     public Map<Object, Collection<DatabaseObject>> getOrthologies(Collection<Object> identifiers, Long speciesId){
-        Map<Object, Collection<DatabaseObject>> rtn = new HashMap<>();
-        for (Object identifier : identifiers) {
-            Collection<DatabaseObject> orthology = getOrthology(identifier, speciesId);
-            if(orthology != null){
-                rtn.put(identifier, orthology);
+        Map<Object, String> ids = DatabaseObjectUtils.getIdentifiers(identifiers);
+        ids.values().removeIf(id -> !DatabaseObjectUtils.isStId(id) && !DatabaseObjectUtils.isDbId(id));
+        Set<String> stIds = new HashSet<>();
+        Set<Long> dbIds = new HashSet<>();
+        for (String id : ids.values()) {
+            if (DatabaseObjectUtils.isStId(id)) {
+                stIds.add(id);
+            } else {
+                dbIds.add(Long.parseLong(id));
             }
         }
+
+        Map<String, Collection<DatabaseObject>> byStId = new HashMap<>();
+        for (List<String> chunk : DatabaseObjectUtils.partition(stIds, BATCH_SIZE)) {
+            byStId.putAll(orthologyRepository.getOrthologiesByStIds(chunk, speciesId));
+        }
+        Map<Long, Collection<DatabaseObject>> byDbId = new HashMap<>();
+        for (List<Long> chunk : DatabaseObjectUtils.partition(dbIds, BATCH_SIZE)) {
+            byDbId.putAll(orthologyRepository.getOrthologiesByDbIds(chunk, speciesId));
+        }
+
+        Map<Object, Collection<DatabaseObject>> rtn = new HashMap<>();
+        for (Map.Entry<Object, String> entry : ids.entrySet()) {
+            String id = entry.getValue();
+            Collection<DatabaseObject> orthology = DatabaseObjectUtils.isStId(id) ? byStId.get(id) : byDbId.get(Long.parseLong(id));
+            rtn.put(entry.getKey(), orthology != null ? orthology : new ArrayList<>());
+        }
         return rtn;
     }
 }
@@ -1,8 +1,10 @@
 package org.reactome.server.graph.service;
 
+import org.reactome.server.graph.cache.ReleaseCached;
 import org.reactome.server.graph.domain.model.PhysicalEntity;
 import org.reactome.server.graph.domain.model.ReferenceEntity;
 import org.reactome.server.graph.domain.result.Participant;
+import org.reactome.server.graph.index.ParticipantIndex;
 import org.reactome.server.graph.repository.ParticipantRepository;
 import org.reactome.server.graph.repository.PhysicalEntityRepository;
 import org.reactome.server.graph.repository.ReferenceEntityRepository;
@@ -10,7 +12,9 @@ import org.reactome.server.graph.service.util.DatabaseObjectUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 @Service
 @SuppressWarnings("WeakerAccess")
@@ -19,16 +23,25 @@ public class ParticipantService {
     private final ParticipantRepository participantRepository;
     private final ReferenceEntityRepository referenceEntityRepository;
     private final PhysicalEntityRepository physicalEntityRepository;
+    private final ParticipantIndex participantIndex;
 
     @Autowired
-    public ParticipantService(ParticipantRepository participantRepository, ReferenceEntityRepository referenceEntityRepository, PhysicalEntityRepository physicalEntityRepository) {
+    public ParticipantService(ParticipantRepository participantRepository, ReferenceEntityRepository referenceEntityRepository, PhysicalEntityRepository physicalEntityRepository, ParticipantIndex participantIndex) {
         this.participantRepository = participantRepository;
         this.referenceEntityRepository = referenceEntityRepository;
         this.physicalEntityRepository = physicalEntityRepository;
+        this.participantIndex = participantIndex;
     }
 
+    @ReleaseCached("participants")
     public Collection<ReferenceEntity> getParticipatingReferenceEntities(String identifier) {
         String id = DatabaseObjectUtils.getIdentifier(identifier);
+        if (participantIndex.isEnabled()) {
+            Object key = getIndexKey(id);
+            if (key == null) return null;
+            List<Long> dbIds = participantIndex.getParticipatingReferenceEntities(key);
+            return dbIds.isEmpty() ? new ArrayList<>() : referenceEntityRepository.getReferenceEntities(dbIds);
+        }
         if (DatabaseObjectUtils.isStId(id)) {
             return referenceEntityRepository.getParticipatingReferenceEntities(id);
         } else if (DatabaseObjectUtils.isDbId(id)){
@@ -37,8 +50,15 @@ public class ParticipantService {
         return null;
     }
 
+    @ReleaseCached("participants")
     public Collection<PhysicalEntity> getParticipatingPhysicalEntities(String identifier) {
         String id = DatabaseObjectUtils.getIdentifier(identifier);
+        if (participantIndex.isEnabled()) {
+            Object key = getIndexKey(id);
+            if (key == null) return null;
+            List<Long> dbIds = participantIndex.getParticipatingPhysicalEntities(key);
+            return dbIds.isEmpty() ? new ArrayList<>() : physicalEntityRepository.getPhysicalEntities(dbIds);
+        }
         if (DatabaseObjectUtils.isStId(id)) {
             return physicalEntityRepository.getParticipatingPhysicalEntities(id);
         } else if (DatabaseObjectUtils.isDbId(id)){
@@ -47,8 +67,13 @@ public class ParticipantService {
         return null;
     }
 
+    @ReleaseCached("participants")
     public Collection<Participant> getParticipants(String identifier) {
         String id = DatabaseObjectUtils.getIdentifier(identifier);
+        if (participantIndex.isEnabled()) {
+            Object key = getIndexKey(id);
+            return key == null ? null : participantIndex.getParticipants(key);
+        }
         if (DatabaseObjectUtils.isStId(id)) {
             return participantRepository.getParticipants(id);
         } else if (DatabaseObjectUtils.isDbId(id)){
@@ -57,4 +82,9 @@ public class ParticipantService {
         return null;
     }
 
+    private static Object getIndexKey(String id) {
+        if (DatabaseObjectUtils.isStId(id)) return id;
+        if (DatabaseObjectUtils.isDbId(id)) return Long.parseLong(id);
+        return null;
+    }
 }
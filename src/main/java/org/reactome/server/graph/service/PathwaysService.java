@@ -1,5 +1,6 @@
 package org.reactome.server.graph.service;
 
+import org.reactome.server.graph.cache.ReleaseCached;
 import org.reactome.server.graph.domain.model.Event;
 import org.reactome.server.graph.domain.model.Pathway;
 import org.reactome.server.graph.domain.model.Species;
@@ -36,6 +37,7 @@ public class PathwaysService {
         this.simpleDatabaseObjectRepository = simpleDatabaseObjectRepository;
     }
 
+    @ReleaseCached("pathways")
     public Collection<Event> getContainedEvents(Object identifier) {
         String id = DatabaseObjectUtils.getIdentifier(identifier);
         if (DatabaseObjectUtils.isStId(id)) {
@@ -46,6 +48,7 @@ public class PathwaysService {
         return null;
     }
 
+    @ReleaseCached("pathways")
     public Collection<Pathway> getPathwaysFor(String identifier, Object species) {
         String id = DatabaseObjectUtils.getIdentifier(identifier);
         Species s = speciesService.getSpecies(species);
@@ -66,6 +69,7 @@ public class PathwaysService {
         return null;
     }
 
+    @ReleaseCached("pathways")
     public Collection<Pathway> getPathwaysForAllFormsOf(String identifier, Object species) {
         String id = DatabaseObjectUtils.getIdentifier(identifier);
         Species s = speciesService.getSpecies(species);
@@ -86,6 +90,7 @@ public class PathwaysService {
         return null;
     }
 
+    @ReleaseCached("pathways")
     public Collection<Pathway> getPathwaysWithDiagramFor(String identifier, Object species) {
         String id = DatabaseObjectUtils.getIdentifier(identifier);
         Species s = speciesService.getSpecies(species);
@@ -107,6 +112,7 @@ public class PathwaysService {
         return null;
     }
 
+    @ReleaseCached("pathways")
     public Collection<Pathway> getPathwaysWithDiagramForAllFormsOf(String identifier, Object species) {
         String id = DatabaseObjectUtils.getIdentifier(identifier);
         Species s = speciesService.getSpecies(species);
@@ -128,6 +134,7 @@ public class PathwaysService {
     }
 
     @SuppressWarnings("unused")
+    @ReleaseCached("pathways")
     public Collection<Pathway> getLowerLevelPathwaysIncludingEncapsulation(Object identifier) {
         String id = DatabaseObjectUtils.getIdentifier(identifier);
         if (DatabaseObjectUtils.isStId(id)) {
@@ -138,6 +145,7 @@ public class PathwaysService {
         return null;
     }
 
+    @ReleaseCached("pathways")
     public Collection<Pathway> getLowerLevelPathwaysForIdentifier(String identifier, Object species) {
         Species s = speciesService.getSpecies(species);
         if (s != null) {
@@ -151,6 +159,7 @@ public class PathwaysService {
         return getPathwaysForIdentifier(identifier, Arrays.asList(pathways));
     }
 
+    @ReleaseCached("pathways")
     public Collection<SimpleDatabaseObject> getPathwaysForIdentifier(String identifier, Collection<String> pathways) {
         //The user might submit a list where dbIds and stIds are mixed -> we create two lists
         Collection<String> stIds = new HashSet<>();
@@ -180,6 +189,7 @@ public class PathwaysService {
         return rtn;
     }
 
+    @ReleaseCached("pathways")
     public Collection<SimpleDatabaseObject> getDiagramEntitiesForIdentifier(String pathway, String identifier) {
         String id = DatabaseObjectUtils.getIdentifier(pathway);
         if (DatabaseObjectUtils.isStId(id)) {
@@ -0,0 +1,107 @@
+package org.reactome.server.graph.service;
+
+import org.reactome.server.graph.domain.model.DatabaseObject;
+import org.reactome.server.graph.index.IdentifierIndex;
+import org.reactome.server.graph.repository.ReactiveDatabaseObjectRepository;
+import org.reactome.server.graph.service.util.DatabaseObjectUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Reactive counterpart of {@link DatabaseObjectService}. Nothing is queried until the result is subscribed.
+ *
+ * Lazy loading is prevented for the retrieved objects, since it would block the subscribing thread. Relationships
+ * that have not been retrieved can still be loaded calling preventLazyLoading(false) from a thread that can block.
+ */
+@Service
+@SuppressWarnings("WeakerAccess")
+public class ReactiveDatabaseObjectService {
+
+    private final ReactiveDatabaseObjectRepository databaseObjectRepository;
+    private final IdentifierIndex identifierIndex;
+
+    @Autowired
+    public ReactiveDatabaseObjectService(ReactiveDatabaseObjectRepository databaseObjectRepository, IdentifierIndex identifierIndex) {
+        this.databaseObjectRepository = databaseObjectRepository;
+        this.identifierIndex = identifierIndex;
+    }
+
+    public <T extends DatabaseObject> Mono<T> findById(Object identifier) {
+        return getIdentifier(identifier).flatMap(id -> {
+            Mono<T> rtn = Mono.empty();
+            if (DatabaseObjectUtils.isStId(id)) {
+                rtn = databaseObjectRepository.findByStId(id);
+            } else if (DatabaseObjectUtils.isDbId(id)) {
+                rtn = databaseObjectRepository.findByDbId(Long.parseLong(id));
+            }
+            return rtn.map(databaseObject -> {
+                databaseObject.isLoaded = true;
+                return noLazyLoading(databaseObject);
+            });
+        });
+    }
+
+    public <T extends DatabaseObject> Mono<T> findByIdNoRelations(Object identifier) {
+        return getIdentifier(identifier).flatMap(id -> {
+            Mono<T> rtn = Mono.empty();
+            if (DatabaseObjectUtils.isStId(id)) {
+                rtn = databaseObjectRepository.findByStIdNoRelations(id);
+            } else if (DatabaseObjectUtils.isDbId(id)) {
+                rtn = databaseObjectRepository.findByDbIdNoRelations(Long.parseLong(id));
+            }
+            return rtn.map(ReactiveDatabaseObjectService::noLazyLoading);
+        });
+    }
+
+    public <T extends DatabaseObject> Flux<T> findByIdsNoRelations(Collection<?> identifiers) {
+        return Flux.fromIterable(identifiers)
+                .concatMap(this::getIdentifier)
+                .collectList()
+                .flatMapMany(ids -> {
+                    Set<Long> dbIds = new HashSet<>();
+                    Set<String> stIds = new HashSet<>();
+                    for (String id : ids) {
+                        if (DatabaseObjectUtils.isStId(id)) {
+                            stIds.add(id);
+                        } else if (DatabaseObjectUtils.isDbId(id)) {
+                            dbIds.add(Long.parseLong(id));
+                        }
+                    }
+                    Flux<T> byDbIds = dbIds.isEmpty() ? Flux.empty() : databaseObjectRepository.findByDbIdsNoRelations(dbIds);
+                    Flux<T> byStIds = stIds.isEmpty() ? Flux.empty() : databaseObjectRepository.findByStIdsNoRelations(stIds);
+                    return Flux.concat(byDbIds, byStIds);
+                })
+                .distinct(DatabaseObject::getDbId)
+                .map(ReactiveDatabaseObjectService::noLazyLoading);
+    }
+
+    /**
+     * Reactive version of {@link DatabaseObjectUtils#getIdentifier(Object)}: OLD style identifiers (REACT_) are
+     * translated without blocking. It is empty when the type of the identifier is not supported (or when it does
+     * not exist, if the IdentifierIndex is enabled).
+     */
+    public Mono<String> getIdentifier(Object identifier) {
+        if (identifierIndex.isEnabled()) {
+            // The index might have to be (re)built, which blocks
+            return Mono.fromCallable(() -> identifierIndex.resolve(identifier)).subscribeOn(Schedulers.boundedElastic());
+        }
+        if (identifier instanceof String) {
+            String id = DatabaseObjectUtils.trimId((String) identifier);
+            if (id.startsWith("REACT_")) return databaseObjectRepository.findNewStId(id).defaultIfEmpty(id);
+            return Mono.just(id);
+        }
+        return Mono.justOrEmpty(DatabaseObjectUtils.getIdentifier(identifier));
+    }
+
+    static <T extends DatabaseObject> T noLazyLoading(T databaseObject) {
+        databaseObject.preventLazyLoading(true);
+        return databaseObject;
+    }
+}
@@ -0,0 +1,67 @@
+package org.reactome.server.graph.service;
+
+import org.apache.commons.lang3.StringUtils;
+import org.reactome.server.graph.index.EventHierarchyIndex;
+import org.reactome.server.graph.repository.ReactiveHierarchyRepository;
+import org.reactome.server.graph.service.helper.PathwayBrowserNode;
+import org.reactome.server.graph.service.util.DatabaseObjectUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Collection;
+import java.util.concurrent.Callable;
+
+/**
+ * Reactive counterpart of {@link HierarchyService}
+ */
+@Service
+@SuppressWarnings("WeakerAccess")
+public class ReactiveHierarchyService {
+
+    private final ReactiveHierarchyRepository hierarchyRepository;
+    private final ReactiveDatabaseObjectService databaseObjectService;
+    private final EventHierarchyIndex eventHierarchyIndex;
+
+    @Autowired
+    public ReactiveHierarchyService(ReactiveHierarchyRepository hierarchyRepository, ReactiveDatabaseObjectService databaseObjectService, EventHierarchyIndex eventHierarchyIndex) {
+        this.hierarchyRepository = hierarchyRepository;
+        this.databaseObjectService = databaseObjectService;
+        this.eventHierarchyIndex = eventHierarchyIndex;
+    }
+
+    // --------------------------------------------- Sub Hierarchy -----------------------------------------------------
+
+    public Mono<PathwayBrowserNode> getSubHierarchy(Object identifier) {
+        return databaseObjectService.getIdentifier(identifier).flatMap(id -> {
+            if (DatabaseObjectUtils.isStId(id)) {
+                return hierarchyRepository.getSubHierarchy(id);
+            } else if (DatabaseObjectUtils.isDbId(id)) {
+                return hierarchyRepository.getSubHierarchy(Long.parseLong(id));
+            }
+            return Mono.empty();
+        });
+    }
+
+    // ------------------------------------------- Event Hierarchy -----------------------------------------------------
+
+    public Mono<Collection<PathwayBrowserNode>> getEventHierarchy(Object species) {
+        String speciesString = species.toString();
+        if (StringUtils.isNumeric(speciesString)) {
+            if (eventHierarchyIndex.isEnabled()) return fromIndex(() -> eventHierarchyIndex.getEventHierarchyByTaxId(speciesString));
+            return hierarchyRepository.getEventHierarchyByTaxId(speciesString);
+        } else {
+            if (eventHierarchyIndex.isEnabled()) return fromIndex(() -> eventHierarchyIndex.getEventHierarchyBySpeciesName(speciesString));
+            return hierarchyRepository.getEventHierarchyBySpeciesName(speciesString);
+        }
+    }
+
+    /**
+     * The index answers from memory, but (re)building it after a release change blocks, so it is not done in the
+     * subscribing thread
+     */
+    private Mono<Collection<PathwayBrowserNode>> fromIndex(Callable<Collection<PathwayBrowserNode>> query) {
+        return Mono.fromCallable(query).subscribeOn(Schedulers.boundedElastic());
+    }
+}
@@ -0,0 +1,62 @@
+package org.reactome.server.graph.service;
+
+import org.reactome.server.graph.domain.model.Interaction;
+import org.reactome.server.graph.repository.ReactiveInteractionsRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.*;
+
+/**
+ * Reactive counterpart of {@link InteractionsService}
+ */
+@Service
+@SuppressWarnings("WeakerAccess")
+public class ReactiveInteractionsService {
+
+    private final ReactiveInteractionsRepository interactionsRepository;
+
+    @Autowired
+    public ReactiveInteractionsService(ReactiveInteractionsRepository interactionsRepository) {
+        this.interactionsRepository = interactionsRepository;
+    }
+
+    /**
+     * Get all interactions of a given accession, emitted by score
+     */
+    public Flux<Interaction> getInteractions(String acc) {
+        return interactionsRepository.getByAcc(acc).map(ReactiveDatabaseObjectService::noLazyLoading);
+    }
+
+    /**
+     * Get paginated interactions of a given accession, emitted by score
+     */
+    public Flux<Interaction> getInteractions(String acc, Integer page, Integer pageSize) {
+        return interactionsRepository.getByAcc(acc, page, pageSize).map(ReactiveDatabaseObjectService::noLazyLoading);
+    }
+
+    /**
+     * Get interactions of a given list of accession (paginated per accession when page and pageSize are not -1)
+     * @return Map of accession as key and its interactions
+     */
+    public Mono<Map<String, List<Interaction>>> getInteractions(Collection<String> accs, Integer page, Integer pageSize) {
+        Set<String> distinctAccs = new LinkedHashSet<>(accs);
+        Mono<Map<String, List<Interaction>>> interactions;
+        if (page != -1 && pageSize != -1) {
+            interactions = interactionsRepository.getByAccs(distinctAccs, page, pageSize);
+        } else {
+            interactions = interactionsRepository.getByAccs(distinctAccs);
+        }
+        return interactions.map(map -> {
+            Map<String, List<Interaction>> interactionMaps = new HashMap<>();
+            for (String acc : distinctAccs) {
+                List<Interaction> list = map.getOrDefault(acc, new ArrayList<>());
+                list.forEach(ReactiveDatabaseObjectService::noLazyLoading);
+                interactionMaps.put(acc, list);
+            }
+            return interactionMaps;
+        });
+    }
+}
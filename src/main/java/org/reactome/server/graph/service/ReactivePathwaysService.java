@@ -0,0 +1,92 @@
+package org.reactome.server.graph.service;
+
+import org.apache.commons.lang3.StringUtils;
+import org.reactome.server.graph.domain.model.Pathway;
+import org.reactome.server.graph.domain.model.Species;
+import org.reactome.server.graph.index.SpeciesRegistry;
+import org.reactome.server.graph.repository.ReactivePathwayRepository;
+import org.reactome.server.graph.repository.ReactiveSpeciesRepository;
+import org.reactome.server.graph.service.util.DatabaseObjectUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Optional;
+
+/**
+ * Reactive counterpart of {@link PathwaysService}. Pathways are emitted as they arrive from the database.
+ */
+@Service
+@SuppressWarnings("WeakerAccess")
+public class ReactivePathwaysService {
+
+    private final ReactivePathwayRepository pathwayRepository;
+    private final ReactiveSpeciesRepository speciesRepository;
+    private final ReactiveDatabaseObjectService databaseObjectService;
+    private final SpeciesRegistry speciesRegistry;
+
+    @Autowired
+    public ReactivePathwaysService(ReactivePathwayRepository pathwayRepository, ReactiveSpeciesRepository speciesRepository, ReactiveDatabaseObjectService databaseObjectService, SpeciesRegistry speciesRegistry) {
+        this.pathwayRepository = pathwayRepository;
+        this.speciesRepository = speciesRepository;
+        this.databaseObjectService = databaseObjectService;
+        this.speciesRegistry = speciesRegistry;
+    }
+
+    public Flux<Pathway> getPathwaysFor(String identifier, Object species) {
+        return Mono.zip(databaseObjectService.getIdentifier(identifier), getTaxId(species)).flatMapMany(t -> {
+            String id = t.getT1();
+            String taxId = t.getT2().orElse(null);
+            Flux<Pathway> rtn = Flux.empty();
+            if (DatabaseObjectUtils.isStId(id)) {
+                rtn = taxId != null ? pathwayRepository.getPathwaysForByStIdAndSpeciesTaxId(id, taxId) : pathwayRepository.getPathwaysForByStId(id);
+            } else if (DatabaseObjectUtils.isDbId(id)) {
+                Long dbId = Long.parseLong(id);
+                rtn = taxId != null ? pathwayRepository.getPathwaysForByDbIdAndSpeciesTaxId(dbId, taxId) : pathwayRepository.getPathwaysForByDbId(dbId);
+            }
+            return rtn.map(ReactiveDatabaseObjectService::noLazyLoading);
+        });
+    }
+
+    public Flux<Pathway> getPathwaysWithDiagramFor(String identifier, Object species) {
+        return Mono.zip(databaseObjectService.getIdentifier(identifier), getTaxId(species)).flatMapMany(t -> {
+            String id = t.getT1();
+            String taxId = t.getT2().orElse(null);
+            Flux<Pathway> rtn = Flux.empty();
+            if (DatabaseObjectUtils.isStId(id)) {
+                rtn = taxId != null ? pathwayRepository.getPathwaysWithDiagramForByStIdAndSpeciesTaxId(id, taxId) : pathwayRepository.getPathwaysWithDiagramForByStId(id);
+            } else if (DatabaseObjectUtils.isDbId(id)) {
+                Long dbId = Long.parseLong(id);
+                rtn = taxId != null ? pathwayRepository.getPathwaysWithDiagramForByDbIdAndSpeciesTaxId(dbId, taxId) : pathwayRepository.getPathwaysWithDiagramForByDbId(dbId);
+            }
+            return rtn.map(ReactiveDatabaseObjectService::noLazyLoading);
+        });
+    }
+
+    /**
+     * Same resolution as {@link SpeciesService#getSpecies(Object)}. It always emits a value (empty when the species
+     * cannot be found) so it can be combined with other queries.
+     */
+    private Mono<Optional<String>> getTaxId(Object species) {
+        if (speciesRegistry.isEnabled()) {
+            // The registry might have to be (re)loaded, which blocks
+            return Mono.fromCallable(() -> Optional.ofNullable(speciesRegistry.getSpecies(species)).map(Species::getTaxId))
+                    .subscribeOn(Schedulers.boundedElastic());
+        }
+        Mono<Species> rtn = Mono.empty();
+        if (species instanceof String && !((String) species).isEmpty()) {
+            String aux = (String) species;
+            if (StringUtils.isNumeric(aux)) {
+                rtn = speciesRepository.getSpeciesByTaxId(aux).switchIfEmpty(Mono.defer(() -> speciesRepository.getSpeciesByDbId(Long.valueOf(aux))));
+            } else {
+                rtn = speciesRepository.getSpeciesByName(StringUtils.capitalize(aux.toLowerCase().replaceAll("[_ ]+", " ")));
+            }
+        } else if (species instanceof Number && !(species instanceof Double)) {
+            String num = "" + species;
+            rtn = speciesRepository.getSpeciesByTaxId(num).switchIfEmpty(Mono.defer(() -> speciesRepository.getSpeciesByDbId(Long.valueOf(num))));
+        }
+        return rtn.map(s -> Optional.ofNullable(s.getTaxId())).defaultIfEmpty(Optional.empty());
+    }
+}
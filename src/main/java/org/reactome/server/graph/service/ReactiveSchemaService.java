@@ -0,0 +1,68 @@
+package org.reactome.server.graph.service;
+
+import org.apache.commons.lang3.StringUtils;
+import org.reactome.server.graph.domain.model.DatabaseObject;
+import org.reactome.server.graph.domain.model.Species;
+import org.reactome.server.graph.repository.ReactiveSchemaRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive counterpart of {@link SchemaService}. Objects are emitted as they arrive from the database, so a
+ * slow subscriber holds back the query (backpressure) instead of the whole class being loaded in memory.
+ */
+@Service
+@SuppressWarnings("WeakerAccess")
+public class ReactiveSchemaService {
+
+    private final ReactiveSchemaRepository schemaRepository;
+
+    @Autowired
+    public ReactiveSchemaService(ReactiveSchemaRepository schemaRepository) {
+        this.schemaRepository = schemaRepository;
+    }
+
+    // ---------------------------------------- Query by Class --------------------------------------------------
+
+    public <T> Flux<T> getByClass(Class<T> clazz) {
+        return schemaRepository.getByClass(clazz).map(ReactiveSchemaService::noLazyLoading);
+    }
+
+    public <T> Flux<T> getByClass(Class<T> clazz, Object species) {
+        if (!SchemaService.isValidSpeciesClass(clazz)) return Flux.empty();
+        String speciesString = getSpeciesString(species);
+        Flux<T> rtn = StringUtils.isNumeric(speciesString)
+                ? schemaRepository.getByClassAndSpeciesTaxId(clazz, speciesString)
+                : schemaRepository.getByClassAndSpeciesName(clazz, speciesString);
+        return rtn.map(ReactiveSchemaService::noLazyLoading);
+    }
+
+    // ---------------------------------------- Count by Class ------------------------------------------------
+
+    public Mono<Long> countEntries(Class<?> clazz) {
+        return schemaRepository.countEntries(clazz);
+    }
+
+    public Mono<Long> countEntries(Class<?> clazz, Object species) {
+        if (!SchemaService.isValidSpeciesClass(clazz)) return Mono.empty();
+        String speciesString = getSpeciesString(species);
+        if (StringUtils.isNumeric(speciesString)) {
+            return schemaRepository.countEntriesWithSpeciesTaxId(clazz, speciesString);
+        } else {
+            return schemaRepository.countEntriesWithSpeciesName(clazz, speciesString);
+        }
+    }
+
+    // ---------------------------------------- private methods ------------------------------------------------
+
+    private static String getSpeciesString(Object species) {
+        return species instanceof Species ? ((Species) species).getTaxId() : species.toString();
+    }
+
+    private static <T> T noLazyLoading(T object) {
+        if (object instanceof DatabaseObject) ((DatabaseObject) object).preventLazyLoading(true);
+        return object;
+    }
+}
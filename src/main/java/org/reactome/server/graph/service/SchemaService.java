@@ -1,6 +1,7 @@
 package org.reactome.server.graph.service;
 
 import org.apache.commons.lang3.StringUtils;
+import org.reactome.server.graph.domain.model.DatabaseObject;
 import org.reactome.server.graph.domain.model.ExternalOntology;
 import org.reactome.server.graph.domain.model.ReferenceEntity;
 import org.reactome.server.graph.domain.model.Species;
@@ -13,6 +14,7 @@ import org.springframework.stereotype.Service;
 
 import java.lang.reflect.Method;
 import java.util.Collection;
+import java.util.stream.Stream;
 
 /**
  * @author Florian Korninger (florian.korninger@ebi.ac.uk)
@@ -21,6 +23,8 @@ import java.util.Collection;
 @SuppressWarnings("WeakerAccess")
 public class SchemaService {
 
+    private static final int STREAM_PAGE_SIZE = 1000;
+
     @Autowired
     private SchemaRepository schemaRepository;
 
@@ -84,6 +88,34 @@ public class SchemaService {
         return 0;
     }
 
+    // ------------------------------------ Query by Class (streaming) --------------------------------------------
+    // The objects are sorted by dbId and retrieved in pages of pageSize (keyset pagination), so iterating over a
+    // whole class neither keeps it in memory nor slows down as the deep pages are reached. Null species means all
+    // species and null pageSize means the default page size (1000)
+
+    public <T extends DatabaseObject> Stream<T> streamByClass(Class<T> clazz) {
+        return streamByClass(clazz, null, STREAM_PAGE_SIZE);
+    }
+
+    public <T extends DatabaseObject> Stream<T> streamByClass(Class<T> clazz, Object species) {
+        return streamByClass(clazz, species, STREAM_PAGE_SIZE);
+    }
+
+    public <T extends DatabaseObject> Stream<T> streamByClass(Class<T> clazz, Object species, Integer pageSize) {
+        if (pageSize == null) pageSize = STREAM_PAGE_SIZE;
+        if (species == null) {
+            return schemaRepository.streamByClass(clazz, pageSize);
+        } else if (isValidSpeciesClass(clazz)) {
+            String speciesString = species instanceof Species ? ((Species) species).getTaxId() : species.toString();
+            if (StringUtils.isNumeric(speciesString)) {
+                return schemaRepository.streamByClassAndSpeciesTaxId(clazz, speciesString, pageSize);
+            } else {
+                return schemaRepository.streamByClassAndSpeciesName(clazz, speciesString, pageSize);
+            }
+        }
+        return null;
+    }
+
     // ---------------------------------------- Query by Class for SimpleObject ------------------------------------------------
 
     public Collection<SimpleDatabaseObject> getSimpleDatabaseObjectByClass(Class clazz) {
@@ -136,6 +168,31 @@ public class SchemaService {
         return null;
     }
 
+    // ---------------------------------------- Query by Class for SimpleObject (streaming) ------------------------------------------------
+
+    public Stream<SimpleDatabaseObject> streamSimpleDatabaseObjectByClass(Class clazz) {
+        return streamSimpleDatabaseObjectByClass(clazz, null, STREAM_PAGE_SIZE);
+    }
+
+    public Stream<SimpleDatabaseObject> streamSimpleDatabaseObjectByClass(Class clazz, Object species) {
+        return streamSimpleDatabaseObjectByClass(clazz, species, STREAM_PAGE_SIZE);
+    }
+
+    public Stream<SimpleDatabaseObject> streamSimpleDatabaseObjectByClass(Class clazz, Object species, Integer pageSize) {
+        if (pageSize == null) pageSize = STREAM_PAGE_SIZE;
+        if (species == null) {
+            return schemaRepository.streamSimpleDatabaseObjectByClass(clazz, pageSize);
+        } else if (isValidSpeciesClass(clazz)) {
+            String speciesString = species instanceof Species ? ((Species) species).getTaxId() : species.toString();
+            if (StringUtils.isNumeric(speciesString)) {
+                return schemaRepository.streamSimpleDatabaseObjectByClassAndSpeciesTaxId(clazz, speciesString, pageSize);
+            } else {
+                return schemaRepository.streamSimpleDatabaseObjectByClassAndSpeciesName(clazz, speciesString, pageSize);
+            }
+        }
+        return null;
+    }
+
     // ---------------------------------------- Query by Class for SimpleReferenceObject ------------------------------------------------
 
     public Collection<SimpleReferenceObject> getSimpleReferencesObjectsByClass(Class clazz) {
@@ -216,7 +273,7 @@ public class SchemaService {
 
     // ---------------------------------------- private methods ------------------------------------------------
 
-    private Boolean isValidSpeciesClass(Class clazz) {
+    static Boolean isValidSpeciesClass(Class clazz) {
         try {
             //noinspection unused,unchecked
             Method m = clazz.getMethod("getSpecies");
@@ -2,6 +2,7 @@ package org.reactome.server.graph.service;
 
 import org.apache.commons.lang3.StringUtils;
 import org.reactome.server.graph.domain.model.Species;
+import org.reactome.server.graph.index.SpeciesRegistry;
 import org.reactome.server.graph.repository.SpeciesRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -14,7 +15,11 @@ public class SpeciesService {
     @Autowired
     SpeciesRepository speciesRepository;
 
+    @Autowired
+    SpeciesRegistry speciesRegistry;
+
     public List<Species> getSpecies() {
+        if (speciesRegistry.isEnabled()) return speciesRegistry.getSpecies();
         List<Species> species = speciesRepository.getSpecies();
         int humanPos = -1;
         for (int i = 0; i < species.size(); i++) {
@@ -32,22 +37,27 @@ public class SpeciesService {
     }
 
     public List<Species> getAllSpecies() {
+        if (speciesRegistry.isEnabled()) return speciesRegistry.getAllSpecies();
         return speciesRepository.getAllSpecies();
     }
 
     public Species getSpeciesByTaxId(String taxId) {
+        if (speciesRegistry.isEnabled()) return speciesRegistry.getSpeciesByTaxId(taxId);
         return speciesRepository.getSpeciesByTaxId(taxId);
     }
 
     public Species getSpeciesByDbId(Long dbId) {
+        if (speciesRegistry.isEnabled()) return speciesRegistry.getSpeciesByDbId(dbId);
         return speciesRepository.getSpeciesByDbId(dbId);
     }
 
     public Species getSpeciesByName(String name) {
+        if (speciesRegistry.isEnabled()) return speciesRegistry.getSpeciesByName(name);
         return speciesRepository.getSpeciesByName(name);
     }
 
     public Species getSpecies(Object obj) {
+        if (speciesRegistry.isEnabled()) return speciesRegistry.getSpecies(obj);
         if (obj != null) {
             String num = "";
 
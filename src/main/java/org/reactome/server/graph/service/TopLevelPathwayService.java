@@ -1,6 +1,7 @@
 package org.reactome.server.graph.service;
 
 import org.apache.commons.lang3.StringUtils;
+import org.reactome.server.graph.cache.ReleaseCached;
 import org.reactome.server.graph.domain.model.TopLevelPathway;
 import org.reactome.server.graph.repository.TopLevelPathwayRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -25,10 +26,12 @@ public class TopLevelPathwayService {
         this.topLevelPathwayRepository = topLevelPathwayRepository;
     }
 
+    @ReleaseCached("topLevelPathways")
     public Collection<TopLevelPathway> getTopLevelPathways() {
         return topLevelPathwayRepository.getTopLevelPathways();
     }
 
+    @ReleaseCached("topLevelPathways")
     public Collection<TopLevelPathway> getTopLevelPathways(Object species) {
         String speciesString = species.toString();
         if (StringUtils.isNumeric(speciesString)) {
@@ -38,10 +41,12 @@ public class TopLevelPathwayService {
         }
     }
 
+    @ReleaseCached("topLevelPathways")
     public Collection<TopLevelPathway> getCuratedTopLevelPathways() {
         return topLevelPathwayRepository.getCuratedTopLevelPathways();
     }
 
+    @ReleaseCached("topLevelPathways")
     public Collection<TopLevelPathway> getCuratedTopLevelPathways(Object species) {
         String speciesString = species.toString();
         if (StringUtils.isNumeric(speciesString)) {
@@ -47,14 +47,18 @@ public class PathwayBrowserNode implements Comparable<PathwayBrowserNode> {
     @JsonIgnore
     public Set<PathwayBrowserNode> getLeaves() {
         Set<PathwayBrowserNode> leaves = new TreeSet<>();
+        addLeaves(leaves);
+        return leaves;
+    }
+
+    private void addLeaves(Set<PathwayBrowserNode> leaves) {
         if (this.children == null) {
             leaves.add(this);
         } else {
             for (PathwayBrowserNode child : this.children) {
-                leaves.addAll(child.getLeaves());
+                child.addLeaves(leaves);
             }
         }
-        return leaves;
     }
 
     public Boolean hasDiagram() {
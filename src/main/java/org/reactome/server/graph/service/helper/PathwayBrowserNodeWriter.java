@@ -0,0 +1,60 @@
+package org.reactome.server.graph.service.helper;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.util.Collection;
+
+/**
+ * Writes PathwayBrowserNode trees with a JsonGenerator producing the same JSON as their Jackson serialisation
+ * (stId, name, species, url, type, diagram and children, in this order and including the null values).
+ *
+ * The node fields are also written on their own with {@link #writeStartNode}, so the trees kept in the indexes
+ * can be streamed depth-first without creating the PathwayBrowserNode instances.
+ *
+ * The output always matches the serialisation of a default ObjectMapper: every field is written, nulls included,
+ * in the fixed order above. The settings of the ObjectMapper behind the generator (inclusion, naming strategy,
+ * mix-ins...) are not applied, so callers customising the PathwayBrowserNode JSON should serialise the tree instead.
+ */
+public final class PathwayBrowserNodeWriter {
+
+    public static final String CHILDREN = "children";
+
+    private PathwayBrowserNodeWriter() {
+    }
+
+    public static void write(JsonGenerator generator, Collection<PathwayBrowserNode> nodes) throws IOException {
+        if (nodes == null) {
+            generator.writeNull();
+            return;
+        }
+        generator.writeStartArray();
+        for (PathwayBrowserNode node : nodes) write(generator, node);
+        generator.writeEndArray();
+    }
+
+    public static void write(JsonGenerator generator, PathwayBrowserNode node) throws IOException {
+        writeStartNode(generator, node.getStId(), node.getName(), node.getSpecies(), node.getUrl(), node.getType(), node.getDiagram());
+        generator.writeFieldName(CHILDREN);
+        write(generator, node.getChildren());
+        generator.writeEndObject();
+    }
+
+    /**
+     * Starts the object of a node and writes its fields. The caller writes the children and ends the object
+     */
+    public static void writeStartNode(JsonGenerator generator, String stId, String name, String species, String url, String type, Boolean diagram) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("stId", stId);
+        generator.writeStringField("name", name);
+        generator.writeStringField("species", species);
+        generator.writeStringField("url", url);
+        generator.writeStringField("type", type);
+        generator.writeFieldName("diagram");
+        if (diagram == null) {
+            generator.writeNull();
+        } else {
+            generator.writeBoolean(diagram);
+        }
+    }
+}
@@ -5,6 +5,7 @@ import org.reactome.server.graph.domain.annotations.ReactomeAllowedClasses;
 import org.reactome.server.graph.domain.annotations.ReactomeSchemaIgnore;
 import org.reactome.server.graph.domain.model.DatabaseObject;
 import org.reactome.server.graph.domain.result.SchemaClassCount;
+import org.reactome.server.graph.index.IdentifierIndex;
 import org.reactome.server.graph.repository.DatabaseObjectRepository;
 import org.reactome.server.graph.service.helper.AttributeProperties;
 import org.reactome.server.graph.service.helper.SchemaNode;
@@ -34,11 +35,18 @@ public class DatabaseObjectUtils {
 
     private static DatabaseObjectRepository databaseObjectRepository;
 
+    private static IdentifierIndex identifierIndex;
+
     @Autowired
     public void setDatabaseObjectRepository(DatabaseObjectRepository databaseObjectRepository) {
         DatabaseObjectUtils.databaseObjectRepository = databaseObjectRepository;
     }
 
+    @Autowired
+    public void setIdentifierIndex(IdentifierIndex identifierIndex) {
+        DatabaseObjectUtils.identifierIndex = identifierIndex;
+    }
+
     @SuppressWarnings("unused")
     public static SchemaNode getGraphModelTree(Collection<SchemaClassCount> schemaClassCounts) throws ClassNotFoundException {
         map = new HashMap<>();
@@ -172,7 +180,12 @@ public class DatabaseObjectUtils {
         return targets;
     }
 
+    /**
+     * When the {@link IdentifierIndex} is enabled the identifiers are resolved in memory and the ones that do not
+     * exist are returned as null, so the services do not query the database for them
+     */
     public static String getIdentifier(Object id) {
+        if (identifierIndex != null && identifierIndex.isEnabled()) return identifierIndex.resolve(id);
         if (id instanceof DatabaseObject) {
             return "" + ((DatabaseObject) id).getDbId();
         } else if (id instanceof String) {
@@ -188,6 +201,51 @@ public class DatabaseObjectUtils {
         return null;
     }
 
+    /**
+     * Bulk version of getIdentifier where all the OLD style identifiers (REACT_) are translated in one query
+     *
+     * @return the identifier for each of the given ids (the ones that cannot be translated are not included, nor
+     * the ones that do not exist when the {@link IdentifierIndex} is enabled)
+     */
+    public static Map<Object, String> getIdentifiers(Collection<?> ids) {
+        if (identifierIndex != null && identifierIndex.isEnabled()) return identifierIndex.resolve(ids);
+        Map<Object, String> rtn = new LinkedHashMap<>();
+        Set<String> oldStIds = new HashSet<>();
+        for (Object id : ids) {
+            String aux = null;
+            if (id instanceof String) {
+                aux = trimId((String) id);
+                if (aux.startsWith("REACT_")) oldStIds.add(aux);
+            } else if (id instanceof DatabaseObject || (id instanceof Number && !(id instanceof Double))) {
+                aux = getIdentifier(id);
+            }
+            if (aux != null) rtn.put(id, aux);
+        }
+        if (!oldStIds.isEmpty()) {
+            Map<String, String> newStIds = databaseObjectRepository.findNewStIds(oldStIds);
+            rtn.replaceAll((id, aux) -> newStIds.getOrDefault(aux, aux));
+        }
+        return rtn;
+    }
+
+    /**
+     * Splits the items in consecutive lists of (at most) the given size, so big inputs can be sent to the database
+     * in a bounded number of queries without making any of them too big
+     */
+    public static <T> List<List<T>> partition(Collection<T> items, int size) {
+        List<List<T>> rtn = new ArrayList<>();
+        List<T> chunk = new ArrayList<>(Math.min(items.size(), size));
+        for (T item : items) {
+            chunk.add(item);
+            if (chunk.size() == size) {
+                rtn.add(chunk);
+                chunk = new ArrayList<>(size);
+            }
+        }
+        if (!chunk.isEmpty()) rtn.add(chunk);
+        return rtn;
+    }
+
     public static boolean isEmail(String email) {
         Pattern p = Pattern.compile(".+@.+\\.[a-z]+");
         return p.matcher(email).matches();
@@ -249,7 +307,7 @@ public class DatabaseObjectUtils {
         return object.equals("");
     }
 
-    private static String trimId(String id) {
+    public static String trimId(String id) {
         return id.trim().split("\\.")[0];
     }
 
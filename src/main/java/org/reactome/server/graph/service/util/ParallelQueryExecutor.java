@@ -0,0 +1,155 @@
+package org.reactome.server.graph.service.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs independent queries of a service method concurrently, so its latency is the one of the slowest query
+ * instead of the sum of all of them. The queries of a request are forked in a {@link Batch} and joined
+ * within the deadline of the batch; when one of them fails or the deadline is exceeded the rest are cancelled.
+ *
+ * Virtual threads are used when the JVM provides them (Java 21+), otherwise a pool of daemon threads.
+ * It is disabled by default and configured with the following properties:
+ *
+ * reactome.graph.parallel.enabled=true
+ * reactome.graph.parallel.threads=0         (size of the pool, 0 uses virtual threads when available or 2 x cores)
+ * reactome.graph.parallel.timeout=10000     (deadline in milliseconds of a batch of queries)
+ */
+@Component
+@SuppressWarnings("unused")
+public class ParallelQueryExecutor implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParallelQueryExecutor.class);
+
+    @Value("${reactome.graph.parallel.enabled:false}")
+    private volatile boolean enabled;
+
+    @Value("${reactome.graph.parallel.threads:0}")
+    private int threads;
+
+    @Value("${reactome.graph.parallel.timeout:10000}")
+    private long timeout;
+
+    private volatile ExecutorService executor = null;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(long timeout) {
+        this.timeout = timeout;
+    }
+
+    /**
+     * @return a new batch whose deadline starts counting now
+     */
+    public Batch batch() {
+        return new Batch(getExecutor(), System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout));
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) executor.shutdownNow();
+    }
+
+    private ExecutorService getExecutor() {
+        ExecutorService rtn = executor;
+        if (rtn == null) {
+            synchronized (this) {
+                if (executor == null) executor = createExecutor();
+                rtn = executor;
+            }
+        }
+        return rtn;
+    }
+
+    private ExecutorService createExecutor() {
+        if (threads < 1) {
+            try {
+                ExecutorService rtn = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+                logger.info("Parallel queries run on virtual threads");
+                return rtn;
+            } catch (ReflectiveOperationException e) {
+                // Virtual threads are not available in this JVM
+            }
+        }
+        int size = threads < 1 ? 2 * Runtime.getRuntime().availableProcessors() : threads;
+        AtomicInteger count = new AtomicInteger();
+        logger.info("Parallel queries run on a pool of " + size + " threads");
+        return Executors.newFixedThreadPool(size, r -> {
+            Thread thread = new Thread(r, "graph-core-query-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Queries forked for one request. Not thread safe: it is meant to be used by the thread serving the request.
+     */
+    public static class Batch {
+
+        private final ExecutorService executor;
+        private final long deadline;
+        private final List<Future<?>> futures = new ArrayList<>();
+
+        Batch(ExecutorService executor, long deadline) {
+            this.executor = executor;
+            this.deadline = deadline;
+        }
+
+        public <T> Future<T> fork(Callable<T> query) {
+            Future<T> future = executor.submit(query);
+            futures.add(future);
+            return future;
+        }
+
+        /**
+         * Waits for the result of a forked query until the deadline of the batch. When the query failed or the
+         * deadline is exceeded the rest of the queries of the batch are cancelled.
+         *
+         * @throws QueryTimeoutException when the deadline is exceeded
+         */
+        public <T> T join(Future<T> future) {
+            try {
+                return future.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            } catch (ExecutionException e) {
+                cancel();
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+                if (cause instanceof Error) throw (Error) cause;
+                throw new CompletionException(cause);
+            } catch (TimeoutException e) {
+                cancel();
+                throw new QueryTimeoutException("Parallel queries did not finish within the deadline", e);
+            } catch (InterruptedException e) {
+                cancel();
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Interrupted while waiting for parallel queries");
+            }
+        }
+
+        /**
+         * Cancels the queries of the batch that have not finished yet
+         */
+        public void cancel() {
+            for (Future<?> future : futures) future.cancel(true);
+        }
+    }
+}
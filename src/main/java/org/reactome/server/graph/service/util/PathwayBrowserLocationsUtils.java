@@ -7,10 +7,9 @@ import org.reactome.server.graph.service.helper.PathwayBrowserNode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Set;
-import java.util.TreeSet;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 /**
@@ -31,10 +30,44 @@ public abstract class PathwayBrowserLocationsUtils {
 
 
     public static Set<PathwayBrowserNode> buildTreesFromLeaves(Set<PathwayBrowserNode> leaves) {
-        Set<PathwayBrowserNode> topLvlTrees = new TreeSet<>();
+        return buildTreesFromLeaves(leaves, null);
+    }
+
+    /**
+     * Same as buildTreesFromLeaves but, when the executor is enabled, the trees of the different leaves are built
+     * concurrently. The sub-trees are memoised by node and URL context, so the ones reached through several paths
+     * with the same context are built once and shared (they must not be modified afterwards).
+     *
+     * The trees are built on the threads of the executor as a batch of its queries, so this CPU work shares the pool
+     * with the queries and the deadline of the batch (reactome.graph.parallel.timeout).
+     *
+     * @throws org.springframework.dao.QueryTimeoutException when the trees are not built within the deadline
+     */
+    public static Set<PathwayBrowserNode> buildTreesFromLeaves(Set<PathwayBrowserNode> leaves, ParallelQueryExecutor executor) {
+        // The input nodes are only read while the trees are built
+        Set<PathwayBrowserNode> visited = Collections.newSetFromMap(new IdentityHashMap<>());
         for (PathwayBrowserNode leaf : leaves) {
             leaf.setClickable(true);
-            PathwayBrowserNode tree = getTreeFromGraphLeaf(leaf, "", "", "", "");
+            setUnique(leaf, visited);
+        }
+
+        Map<Context, PathwayBrowserNode> memo = new ConcurrentHashMap<>();
+        List<PathwayBrowserNode> trees = new ArrayList<>(leaves.size());
+        if (executor != null && executor.isEnabled() && leaves.size() > 1) {
+            ParallelQueryExecutor.Batch batch = executor.batch();
+            List<Future<PathwayBrowserNode>> futures = new ArrayList<>(leaves.size());
+            for (PathwayBrowserNode leaf : leaves) {
+                futures.add(batch.fork(() -> getTreeFromGraphLeaf(leaf, "", "", "", "", memo)));
+            }
+            for (Future<PathwayBrowserNode> future : futures) trees.add(batch.join(future));
+        } else {
+            for (PathwayBrowserNode leaf : leaves) trees.add(getTreeFromGraphLeaf(leaf, "", "", "", "", memo));
+        }
+
+        Set<PathwayBrowserNode> topLvlTrees = new TreeSet<>();
+        Iterator<PathwayBrowserNode> it = leaves.iterator();
+        for (PathwayBrowserNode tree : trees) {
+            PathwayBrowserNode leaf = it.next();
             if (tree != null) {
                 topLvlTrees.add(tree);
             } else {
@@ -85,10 +118,14 @@ public abstract class PathwayBrowserLocationsUtils {
      * @param path                URL parameter to identify a unique "Path" to this entry
      * @param shortPath           URL parameter to identify a unique "Path" to this entry
      * @param lastNodeWithDiagram saves STID of the Last Pathway in the Diagram
+     * @param memo                trees already generated for a leaf and the same URL parameters
      * @return generated Tree
      */
-    private static PathwayBrowserNode getTreeFromGraphLeaf(PathwayBrowserNode leaf, String sel, String path, String shortPath, String lastNodeWithDiagram) {
-        /* */
+    private static PathwayBrowserNode getTreeFromGraphLeaf(PathwayBrowserNode leaf, String sel, String path, String shortPath, String lastNodeWithDiagram, Map<Context, PathwayBrowserNode> memo) {
+        Context context = new Context(leaf, sel, path, shortPath, lastNodeWithDiagram);
+        PathwayBrowserNode rtn = memo.get(context);
+        if (rtn != null) return rtn;
+
         PathwayBrowserNode tree = new PathwayBrowserNode();
         tree.setStId(leaf.getStId());
         tree.setName(leaf.getName());
@@ -97,9 +134,8 @@ public abstract class PathwayBrowserLocationsUtils {
         tree.setClickable(leaf.isClickable());
         tree.setHighlighted(leaf.getHighlighted());
 
-        boolean isPathway = leaf.getType().equals(Pathway.class.getSimpleName()) || leaf.getType().equals(TopLevelPathway.class.getSimpleName());
+        boolean isPathway = isPathway(leaf);
         boolean hasDiagram = leaf.hasDiagram();
-        leaf.setUnique(false);
 
         /*Setting main Url attributes*/
         String main;
@@ -110,18 +146,6 @@ public abstract class PathwayBrowserLocationsUtils {
             main = lastNodeWithDiagram;
         }
 
-        /*Check if Pathway is a unique pathway*/
-        Set<PathwayBrowserNode> children = leaf.getChildren();
-        if (isPathway) {
-            if (children == null) {
-                leaf.setUnique(true);
-            } else if (children.size() == 1) {
-                if (children.iterator().next().isUnique()) {
-                    leaf.setUnique(true);
-                }
-            }
-        }
-
         /*Building the Url for the current entry*/
         StringBuilder url = new StringBuilder();
         url.append(PATHWAY_BROWSER_URL);
@@ -176,11 +200,69 @@ public abstract class PathwayBrowserLocationsUtils {
         Set<PathwayBrowserNode> parents = leaf.getParent();
         if (parents != null) {
             for (PathwayBrowserNode node : parents) {
-                tree.addChild(getTreeFromGraphLeaf(node, sel, path, shortPath, lastNodeWithDiagram));
+                tree.addChild(getTreeFromGraphLeaf(node, sel, path, shortPath, lastNodeWithDiagram, memo));
             }
         }
 
-        return tree;
+        rtn = memo.putIfAbsent(context, tree);
+        return rtn != null ? rtn : tree;
+    }
+
+    private static boolean isPathway(PathwayBrowserNode node) {
+        return node.getType().equals(Pathway.class.getSimpleName()) || node.getType().equals(TopLevelPathway.class.getSimpleName());
+    }
+
+    /**
+     * A Pathway is unique when it has no children or only one that is unique itself (and then its URL does not
+     * need the path). It is set for the nodes reached from the leaf before building the trees.
+     */
+    private static void setUnique(PathwayBrowserNode node, Set<PathwayBrowserNode> visited) {
+        if (!visited.add(node)) return;
+        node.setUnique(isUnique(node));
+        Set<PathwayBrowserNode> parents = node.getParent();
+        if (parents != null) {
+            for (PathwayBrowserNode parent : parents) setUnique(parent, visited);
+        }
+    }
+
+    private static boolean isUnique(PathwayBrowserNode node) {
+        if (!isPathway(node)) return false;
+        Set<PathwayBrowserNode> children = node.getChildren();
+        return children == null || (children.size() == 1 && isUnique(children.iterator().next()));
+    }
+
+    /**
+     * A node of the graph (compared by identity) and the URL parameters its tree is generated with
+     */
+    private static class Context {
+        private final PathwayBrowserNode node;
+        private final String sel;
+        private final String path;
+        private final String shortPath;
+        private final String lastNodeWithDiagram;
+        private final int hash;
+
+        Context(PathwayBrowserNode node, String sel, String path, String shortPath, String lastNodeWithDiagram) {
+            this.node = node;
+            this.sel = sel;
+            this.path = path;
+            this.shortPath = shortPath;
+            this.lastNodeWithDiagram = lastNodeWithDiagram;
+            this.hash = Objects.hash(System.identityHashCode(node), sel, path, shortPath, lastNodeWithDiagram);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Context)) return false;
+            Context context = (Context) o;
+            return node == context.node && Objects.equals(sel, context.sel) && Objects.equals(path, context.path) && Objects.equals(shortPath, context.shortPath) && Objects.equals(lastNodeWithDiagram, context.lastNodeWithDiagram);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
     }
 
     public static Set<PathwayBrowserNode> enrichPathwayBrowserNode(Set<PathwayBrowserNode> nodes, List<?> pathways) {
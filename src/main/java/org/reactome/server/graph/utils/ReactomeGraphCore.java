@@ -2,7 +2,19 @@ package org.reactome.server.graph.utils;
 
 //import org.reactome.server.graph.Main;
 import org.reactome.server.graph.aop.LazyFetchAspect;
+import org.reactome.server.graph.cache.ReleaseCacheManager;
 import org.reactome.server.graph.config.GraphCoreNeo4jConfig;
+import org.reactome.server.graph.index.DiagramOccurrenceIndex;
+import org.reactome.server.graph.index.EventHierarchyIndex;
+import org.reactome.server.graph.index.IdentifierIndex;
+import org.reactome.server.graph.index.MappingIndex;
+import org.reactome.server.graph.index.ParticipantIndex;
+import org.reactome.server.graph.index.SpeciesRegistry;
+import org.reactome.server.graph.metrics.QueryLog;
+import org.reactome.server.graph.metrics.ServiceMetrics;
+import org.reactome.server.graph.repository.HierarchyRepository;
+import org.reactome.server.graph.service.util.ParallelQueryExecutor;
+import org.reactome.server.graph.warmup.GraphWarmUp;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 import org.springframework.stereotype.Service;
@@ -19,6 +31,9 @@ import org.springframework.stereotype.Service;
  *
  * //And used as it is used here...
  * System.out.println("Database name: " + genericService.getDBName());
+ *
+ * //To warm the database up before using it (see GraphWarmUp), initialise it with
+ * ReactomeGraphCore.initialise("uri", "user","password", "dbName", true);
  */
 @SuppressWarnings("unused")
 public class ReactomeGraphCore {
@@ -38,6 +53,14 @@ public class ReactomeGraphCore {
         initialise(uri, user, password, databaseName, GraphCoreNeo4jConfig.class);
     }
 
+    /**
+     * @param warmUp when true, initialise returns once the database has been warmed up (see {@link GraphWarmUp})
+     */
+    public static void initialise(String uri, String user, String password, String databaseName, boolean warmUp) {
+        initialise(uri, user, password, databaseName, GraphCoreNeo4jConfig.class);
+        if (warmUp) context.getBean(GraphWarmUp.class).warmUp();
+    }
+
     public static void initialise(String uri, String user, String password, String databaseName, Class<? extends GraphCoreNeo4jConfig> _configClazz) {
         System.setProperty("spring.neo4j.uri", uri);
         System.setProperty("spring.neo4j.authentication.username", user);
@@ -56,4 +79,124 @@ public class ReactomeGraphCore {
         if (context == null) throw new RuntimeException("ReactomeGraphCore has to be initialised!");
         context.getBean(LazyFetchAspect.class).setEnableAOP(enabled);
     }
+
+    /**
+     * When enabled, a relationship lazy loaded for an element of a collection is loaded for all its siblings at once
+     */
+    public static void setBatchLazyLoading(Boolean enabled){
+        if (context == null) throw new RuntimeException("ReactomeGraphCore has to be initialised!");
+        context.getBean(LazyFetchAspect.class).setEnableBatchLoading(enabled);
+    }
+
+    /**
+     * Enables or disables the release scoped cache of the read services. Disabling it also clears the cached entries.
+     */
+    public static void setCaching(Boolean enabled){
+        if (context == null) throw new RuntimeException("ReactomeGraphCore has to be initialised!");
+        context.getBean(ReleaseCacheManager.class).setEnabled(enabled);
+    }
+
+    /**
+     * Enables or disables the in-memory event hierarchy index used for the event ancestors and the species event hierarchy.
+     */
+    public static void setEventHierarchyIndex(Boolean enabled){
+        if (context == null) throw new RuntimeException("ReactomeGraphCore has to be initialised!");
+        context.getBean(EventHierarchyIndex.class).setEnabled(enabled);
+    }
+
+    /**
+     * Enables or disables the in-memory identifier index used to resolve the identifiers and to discard the unknown ones.
+     */
+    public static void setIdentifierIndex(Boolean enabled){
+        if (context == null) throw new RuntimeException("ReactomeGraphCore has to be initialised!");
+        context.getBean(IdentifierIndex.class).setEnabled(enabled);
+    }
+
+    /**
+     * Enables or disables the in-memory species registry used to resolve the species without querying the database.
+     */
+    public static void setSpeciesRegistry(Boolean enabled){
+        if (context == null) throw new RuntimeException("ReactomeGraphCore has to be initialised!");
+        context.getBean(SpeciesRegistry.class).setEnabled(enabled);
+    }
+
+    /**
+     * Enables or disables the in-memory diagram occurrence index used for the diagram occurrences of an object.
+     */
+    public static void setDiagramOccurrenceIndex(Boolean enabled){
+        if (context == null) throw new RuntimeException("ReactomeGraphCore has to be initialised!");
+        context.getBean(DiagramOccurrenceIndex.class).setEnabled(enabled);
+    }
+
+    /**
+     * Enables or disables the in-memory participant index used for the participants of an event.
+     */
+    public static void setParticipantIndex(Boolean enabled){
+        if (context == null) throw new RuntimeException("ReactomeGraphCore has to be initialised!");
+        context.getBean(ParticipantIndex.class).setEnabled(enabled);
+    }
+
+    /**
+     * Enables or disables the identifier mapping index, optionally stored in (and loaded from) a snapshot file.
+     *
+     * @param file snapshot of the index (null keeps it in the heap only)
+     */
+    public static void setMappingIndex(Boolean enabled, String file){
+        if (context == null) throw new RuntimeException("ReactomeGraphCore has to be initialised!");
+        MappingIndex mappingIndex = context.getBean(MappingIndex.class);
+        mappingIndex.setFile(file);
+        mappingIndex.setEnabled(enabled);
+    }
+
+    /**
+     * Sets the directory where the indexes store their snapshot for the current release, so the instances serving the
+     * same release load them from there instead of building them (null disables the snapshots).
+     */
+    public static void setIndexSnapshotDir(String dir){
+        if (context == null) throw new RuntimeException("ReactomeGraphCore has to be initialised!");
+        context.getBean(EventHierarchyIndex.class).setSnapshotDir(dir);
+        context.getBean(IdentifierIndex.class).setSnapshotDir(dir);
+        context.getBean(DiagramOccurrenceIndex.class).setSnapshotDir(dir);
+        context.getBean(MappingIndex.class).setSnapshotDir(dir);
+        context.getBean(ParticipantIndex.class).setSnapshotDir(dir);
+    }
+
+    /**
+     * Enables or disables building the locations in the Pathway Browser and the sub hierarchies from the edge list
+     * queries (each node and relationship retrieved once) instead of from every path to the root.
+     */
+    public static void setHierarchyEdgeList(Boolean enabled){
+        if (context == null) throw new RuntimeException("ReactomeGraphCore has to be initialised!");
+        context.getBean(HierarchyRepository.class).setEdgeListEnabled(enabled);
+    }
+
+    /**
+     * Enables or disables the service metrics (see {@link ServiceMetrics} for the meters published).
+     */
+    public static void setMetrics(Boolean enabled){
+        if (context == null) throw new RuntimeException("ReactomeGraphCore has to be initialised!");
+        context.getBean(ServiceMetrics.class).setEnabled(enabled);
+    }
+
+    /**
+     * Enables or disables the slow query log (see {@link QueryLog} for what is recorded).
+     *
+     * @param threshold queries slower than this (in milliseconds) are logged
+     * @param sample    fraction of the slow queries run again with PROFILE to get their database hits and plan
+     */
+    public static void setQueryLog(Boolean enabled, long threshold, double sample){
+        if (context == null) throw new RuntimeException("ReactomeGraphCore has to be initialised!");
+        QueryLog queryLog = context.getBean(QueryLog.class);
+        queryLog.setThreshold(threshold);
+        queryLog.setSample(sample);
+        queryLog.setEnabled(enabled);
+    }
+
+    /**
+     * Enables or disables running the independent queries of a service method (e.g. the details page) concurrently.
+     */
+    public static void setParallelQueries(Boolean enabled){
+        if (context == null) throw new RuntimeException("ReactomeGraphCore has to be initialised!");
+        context.getBean(ParallelQueryExecutor.class).setEnabled(enabled);
+    }
 }
@@ -0,0 +1,333 @@
+package org.reactome.server.graph.warmup;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.reactome.server.graph.domain.model.DatabaseObject;
+import org.reactome.server.graph.domain.model.Species;
+import org.reactome.server.graph.metrics.ServiceMetrics;
+import org.reactome.server.graph.service.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.data.neo4j.core.Neo4jClient;
+import org.springframework.data.neo4j.repository.query.Query;
+import org.springframework.stereotype.Component;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Warms the database up after a deploy or restart, so the first requests do not pay for an empty page cache and
+ * query plan cache. The warm-up runs, in this order and within a time budget:
+ *
+ *  - labels:    touches the properties of every node with the hot labels to load them in the page cache
+ *  - templates: EXPLAIN of every Cypher template of the repositories (@Query and static query constants) with
+ *               parameters taken from the first sample identifier and species, so the plans are cached for the
+ *               parameter types the services use without running the (possibly expensive) queries. Templates
+ *               with a parameter that has no sample value are skipped
+ *  - services:  representative calls of the main services for the sample identifiers and species, which run the
+ *               queries with actual parameters, fill the release cache and build the enabled indexes
+ *
+ * When enabled it runs when the application context is refreshed, before the application reports to be ready.
+ * A step that fails is logged and skipped; when the budget is exceeded the remaining steps are skipped.
+ *
+ * Progress is published in the registry of {@link ServiceMetrics}:
+ *
+ *  - reactome.graph.warmup.progress    (gauge)   fraction of the steps run
+ *  - reactome.graph.warmup.ready       (gauge)   1 when the warm-up has finished
+ *  - reactome.graph.warmup.step        (timer)   execution time of the steps, tagged by phase
+ *  - reactome.graph.warmup.errors      (counter) steps finished with an exception, tagged by phase
+ *
+ * It is disabled by default and configured with the following properties:
+ *
+ * reactome.graph.warmup.enabled=true
+ * reactome.graph.warmup.budget=120000                                   (milliseconds)
+ * reactome.graph.warmup.labels=Event,PhysicalEntity,ReferenceEntity
+ * reactome.graph.warmup.identifiers=R-HSA-199420,R-HSA-69620,R-HSA-5205685
+ * reactome.graph.warmup.species=9606
+ */
+@Component
+@SuppressWarnings("unused")
+public class GraphWarmUp {
+
+    private static final Logger logger = LoggerFactory.getLogger(GraphWarmUp.class);
+
+    public static final String PROGRESS = "reactome.graph.warmup.progress";
+    public static final String READY = "reactome.graph.warmup.ready";
+    public static final String STEP = "reactome.graph.warmup.step";
+    public static final String ERRORS = "reactome.graph.warmup.errors";
+
+    private static final String REPOSITORY_PACKAGE = "org.reactome.server.graph.repository";
+    private static final Pattern CYPHER = Pattern.compile("^\\s*(MATCH|OPTIONAL MATCH|UNWIND|WITH|CALL)\\b.*", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern PARAMETER = Pattern.compile("\\$(\\w+)");
+
+    private final ApplicationContext applicationContext;
+    private final Neo4jClient neo4jClient;
+    private final ServiceMetrics serviceMetrics;
+    private final DatabaseObjectService databaseObjectService;
+    private final DetailsService detailsService;
+    private final EventsService eventsService;
+    private final HierarchyService hierarchyService;
+    private final PathwaysService pathwaysService;
+    private final SpeciesService speciesService;
+    private final TopLevelPathwayService topLevelPathwayService;
+
+    @Value("${spring.data.neo4j.database:graph.db}")
+    private String databaseName;
+
+    @Value("${reactome.graph.warmup.enabled:false}")
+    private boolean enabled;
+
+    @Value("${reactome.graph.warmup.budget:120000}")
+    private long budget;
+
+    @Value("${reactome.graph.warmup.labels:Event,PhysicalEntity,ReferenceEntity}")
+    private String[] labels;
+
+    @Value("${reactome.graph.warmup.identifiers:R-HSA-199420,R-HSA-69620,R-HSA-5205685}")
+    private String[] identifiers;
+
+    @Value("${reactome.graph.warmup.species:9606}")
+    private String[] species;
+
+    private final AtomicBoolean started = new AtomicBoolean(false);
+    private volatile double progress = 0;
+    private volatile boolean ready = false;
+    private Map<String, Object> samples = null;
+
+    public GraphWarmUp(ApplicationContext applicationContext,
+                       Neo4jClient neo4jClient,
+                       ServiceMetrics serviceMetrics,
+                       DatabaseObjectService databaseObjectService,
+                       DetailsService detailsService,
+                       EventsService eventsService,
+                       HierarchyService hierarchyService,
+                       PathwaysService pathwaysService,
+                       SpeciesService speciesService,
+                       TopLevelPathwayService topLevelPathwayService) {
+        this.applicationContext = applicationContext;
+        this.neo4jClient = neo4jClient;
+        this.serviceMetrics = serviceMetrics;
+        this.databaseObjectService = databaseObjectService;
+        this.detailsService = detailsService;
+        this.eventsService = eventsService;
+        this.hierarchyService = hierarchyService;
+        this.pathwaysService = pathwaysService;
+        this.speciesService = speciesService;
+        this.topLevelPathwayService = topLevelPathwayService;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return true when the warm-up has finished (or it is not enabled)
+     */
+    public boolean isReady() {
+        return ready || !enabled;
+    }
+
+    /**
+     * @return fraction of the warm-up steps run so far
+     */
+    public double getProgress() {
+        return progress;
+    }
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void onContextRefreshed(ContextRefreshedEvent event) {
+        if (enabled && event.getApplicationContext() == applicationContext) warmUp();
+    }
+
+    /**
+     * Runs the warm-up (only once, later calls return immediately)
+     *
+     * @return true when all the steps were run within the budget
+     */
+    public boolean warmUp() {
+        if (!started.compareAndSet(false, true)) return false;
+
+        MeterRegistry registry = serviceMetrics.getRegistry();
+        Gauge.builder(PROGRESS, this, GraphWarmUp::getProgress).description("Fraction of the graph-core warm-up steps run").register(registry);
+        Gauge.builder(READY, this, w -> w.ready ? 1 : 0).description("Whether the graph-core warm-up has finished").register(registry);
+
+        List<Step> steps = getSteps();
+        long start = System.currentTimeMillis();
+        long deadline = start + budget;
+        int done = 0, failed = 0;
+        logger.info("Warming up the graph database (" + steps.size() + " steps, budget " + budget + "ms)");
+        for (Step step : steps) {
+            if (System.currentTimeMillis() > deadline) {
+                logger.warn("Warm-up budget of " + budget + "ms exceeded. " + (steps.size() - done) + " steps skipped");
+                break;
+            }
+            long stepStart = System.nanoTime();
+            try {
+                step.action.run();
+            } catch (RuntimeException e) {
+                failed++;
+                registry.counter(ERRORS, "phase", step.phase).increment();
+                logger.warn("Warm-up step '" + step.name + "' failed: " + e.getMessage());
+            }
+            Timer.builder(STEP).description("Execution time of the graph-core warm-up steps").tag("phase", step.phase).register(registry)
+                    .record(System.nanoTime() - stepStart, TimeUnit.NANOSECONDS);
+            progress = (double) ++done / steps.size();
+        }
+        ready = true;
+        logger.info("Warm-up finished in " + (System.currentTimeMillis() - start) + "ms (" + done + " of " + steps.size() + " steps run, " + failed + " failed)");
+        return done == steps.size();
+    }
+
+    private List<Step> getSteps() {
+        List<Step> steps = new ArrayList<>();
+        for (String label : labels) {
+            //language=Cypher
+            String query = "MATCH (n:`" + label.trim() + "`) RETURN count(n.dbId) AS c, count(n.displayName) AS d";
+            steps.add(new Step("labels", label, () -> neo4jClient.query(query).in(databaseName).run()));
+        }
+        for (String template : getCypherTemplates()) {
+            steps.add(new Step("templates", template, () -> {
+                Map<String, Object> parameters = getParameters(template);
+                if (parameters != null) neo4jClient.query("EXPLAIN " + template).in(databaseName).bindAll(parameters).run();
+            }));
+        }
+        for (String s : species) {
+            steps.add(new Step("services", "species " + s, () -> {
+                speciesService.getSpecies(s);
+                topLevelPathwayService.getTopLevelPathways(s);
+                hierarchyService.getEventHierarchy(s);
+            }));
+        }
+        for (String identifier : identifiers) {
+            steps.add(new Step("services", identifier, () -> {
+                databaseObjectService.findById(identifier);
+                detailsService.getContentDetails(identifier, false);
+                eventsService.getEventAncestors(identifier);
+                for (String s : species) pathwaysService.getPathwaysFor(identifier, s);
+            }));
+        }
+        return steps;
+    }
+
+    /**
+     * @return the Cypher templates declared in the repositories: the value of the @Query annotations and the
+     * static String constants holding a query
+     */
+    private Set<String> getCypherTemplates() {
+        Set<Class<?>> classes = new LinkedHashSet<>();
+        for (Object repository : applicationContext.getBeansWithAnnotation(Repository.class).values()) {
+            Class<?> clazz = ClassUtils.getUserClass(AopUtils.getTargetClass(repository));
+            if (clazz.getName().startsWith(REPOSITORY_PACKAGE)) classes.add(clazz);
+            for (Class<?> i : ClassUtils.getAllInterfacesForClassAsSet(clazz)) {
+                if (i.getName().startsWith(REPOSITORY_PACKAGE)) classes.add(i);
+            }
+        }
+        Set<String> templates = new LinkedHashSet<>();
+        for (Class<?> clazz : classes) {
+            for (Method method : clazz.getDeclaredMethods()) {
+                Query query = AnnotationUtils.findAnnotation(method, Query.class);
+                if (query != null && !query.value().isEmpty()) templates.add(query.value());
+            }
+            for (Field field : clazz.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if (!Modifier.isStatic(modifiers) || !Modifier.isFinal(modifiers) || field.getType() != String.class) continue;
+                try {
+                    field.setAccessible(true);
+                    String value = (String) field.get(null);
+                    if (value != null && CYPHER.matcher(value).matches()) templates.add(value);
+                } catch (ReflectiveOperationException | RuntimeException e) {
+                    logger.debug("Cannot read " + clazz.getSimpleName() + "." + field.getName(), e);
+                }
+            }
+        }
+        return templates;
+    }
+
+    /**
+     * @return the sample value of every parameter of the template or null when one of them has no sample value
+     */
+    private Map<String, Object> getParameters(String template) {
+        Map<String, Object> samples = getSamples();
+        Map<String, Object> rtn = new HashMap<>();
+        Matcher matcher = PARAMETER.matcher(template);
+        while (matcher.find()) {
+            String name = matcher.group(1);
+            if (!samples.containsKey(name)) {
+                logger.debug("Warm-up template skipped, no sample value for $" + name + ": " + template);
+                return null;
+            }
+            rtn.put(name, samples.get(name));
+        }
+        return rtn;
+    }
+
+    /**
+     * The sample values (and therefore types) of the parameters used by the repositories, taken from the first
+     * sample identifier and species. They are retrieved on first use, once the labels have been touched
+     */
+    private synchronized Map<String, Object> getSamples() {
+        if (samples != null) return samples;
+        String identifier = identifiers[0].trim();
+        DatabaseObject object = databaseObjectService.findById(identifier);
+        Species s = speciesService.getSpecies(species[0].trim());
+        Long dbId = object != null ? object.getDbId() : 0L;
+        String stId = object != null && object.getStId() != null ? object.getStId() : identifier;
+        String taxId = s != null ? s.getTaxId() : species[0].trim();
+        String speciesName = s != null ? s.getDisplayName() : "Homo sapiens";
+        Long speciesId = s != null ? s.getDbId() : 0L;
+
+        Map<String, Object> rtn = new HashMap<>();
+        rtn.put("dbId", dbId);
+        rtn.put("lastDbId", dbId);
+        rtn.put("lastKey", dbId);
+        rtn.put("dbIds", List.of(dbId));
+        rtn.put("stId", stId);
+        rtn.put("oldStId", stId);
+        rtn.put("stIds", List.of(stId));
+        rtn.put("oldStIds", List.of(stId));
+        rtn.put("identifier", identifier);
+        rtn.put("identifiers", List.of(identifier));
+        rtn.put("acc", identifier);
+        rtn.put("accB", identifier);
+        rtn.put("accs", List.of(identifier));
+        rtn.put("name", speciesName);
+        rtn.put("taxId", taxId);
+        rtn.put("speciesId", speciesId);
+        rtn.put("speciesName", speciesName);
+        rtn.put("databaseName", "UniProt");
+        rtn.put("resource", "UniProt");
+        rtn.put("page", 1);
+        rtn.put("pageSize", 25);
+        rtn.put("skip", 0);
+        rtn.put("limit", 25);
+        samples = rtn;
+        return rtn;
+    }
+
+    private static class Step {
+        private final String phase;
+        private final String name;
+        private final Runnable action;
+
+        Step(String phase, String name, Runnable action) {
+            this.phase = phase;
+            this.name = name;
+            this.action = action;
+        }
+    }
+}
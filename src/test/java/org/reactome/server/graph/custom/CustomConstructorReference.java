@@ -0,0 +1,26 @@
+package org.reactome.server.graph.custom;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * POJO for testing the Custom Cypher Queries mapped by constructor injection
+ */
+@SuppressWarnings("unused")
+public class CustomConstructorReference {
+    private final String database;
+    private final String identifier;
+
+    @ConstructorProperties({"database", "identifier"})
+    public CustomConstructorReference(String database, String identifier) {
+        this.database = database;
+        this.identifier = identifier;
+    }
+
+    public String getDatabase() {
+        return database;
+    }
+
+    public String getIdentifier() {
+        return identifier;
+    }
+}
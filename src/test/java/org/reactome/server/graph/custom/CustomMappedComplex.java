@@ -0,0 +1,41 @@
+package org.reactome.server.graph.custom;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * POJO for testing the Custom Cypher Queries mapped by field injection (it does not implement CustomQuery).
+ * It holds a final attribute and nested collections of custom objects.
+ */
+@SuppressWarnings("unused")
+public class CustomMappedComplex {
+    private final String stId;
+    private String displayName;
+    private List<CustomMappedReference> customReferences;
+    private Set<String> databaseNames;
+    private List<Long> dbIds;
+
+    public CustomMappedComplex() {
+        this.stId = null;
+    }
+
+    public String getStId() {
+        return stId;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public List<CustomMappedReference> getCustomReferences() {
+        return customReferences;
+    }
+
+    public Set<String> getDatabaseNames() {
+        return databaseNames;
+    }
+
+    public List<Long> getDbIds() {
+        return dbIds;
+    }
+}
@@ -0,0 +1,18 @@
+package org.reactome.server.graph.custom;
+
+/**
+ * POJO for testing the Custom Cypher Queries mapped by field injection as a nested object
+ */
+@SuppressWarnings("unused")
+public class CustomMappedReference {
+    private String database;
+    private String identifier;
+
+    public String getDatabase() {
+        return database;
+    }
+
+    public String getIdentifier() {
+        return identifier;
+    }
+}
@@ -1,9 +1,14 @@
 package org.reactome.server.graph.service;
 
 import org.junit.jupiter.api.Test;
+import org.neo4j.driver.Values;
+import org.reactome.server.graph.custom.CustomConstructorReference;
+import org.reactome.server.graph.custom.CustomMappedComplex;
+import org.reactome.server.graph.custom.CustomMappedReference;
 import org.reactome.server.graph.custom.CustomQueryComplex;
 import org.reactome.server.graph.custom.CustomQueryPhysicalEntity;
 import org.reactome.server.graph.custom.CustomQueryResult;
+import org.reactome.server.graph.domain.ReflectionUtils;
 import org.reactome.server.graph.domain.model.*;
 import org.reactome.server.graph.exception.CustomQueryException;
 import org.reactome.server.graph.service.helper.RelationshipDirection;
@@ -16,6 +21,7 @@ import java.lang.reflect.InvocationTargetException;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -218,6 +224,36 @@ public class AdvancedServiceTest extends BaseTest {
         logger.info("Finished");
     }
 
+    @Test
+    public void findByIdsWithRelationshipDirectionTest() {
+        logger.info("Started testing advancedDatabaseObjectService.findByIdsWithRelationshipDirectionTest");
+        long start, time;
+        start = System.currentTimeMillis();
+        Collection<DatabaseObject> databaseObjectObserved = advancedDatabaseObjectService.findByIds(Arrays.asList(dbId, stId2, "NOT_VALID"), RelationshipDirection.OUTGOING);
+        time = System.currentTimeMillis() - start;
+        logger.info("GraphDb execution time: " + time + "ms");
+
+        assertEquals(2, databaseObjectObserved.size());
+        for (DatabaseObject databaseObject : databaseObjectObserved) {
+            DatabaseObject single = advancedDatabaseObjectService.findById(databaseObject.getDbId(), RelationshipDirection.OUTGOING);
+            assertEquals(single.getStId(), databaseObject.getStId());
+        }
+        logger.info("Finished");
+    }
+
+    @Test
+    public void findByIdsWithRelationshipDirectionAndRelationshipsTest() {
+        logger.info("Started testing advancedDatabaseObjectService.findByIdsWithRelationshipDirectionAndRelationshipsTest");
+        long start, time;
+        start = System.currentTimeMillis();
+        Collection<DatabaseObject> databaseObjectObserved = advancedDatabaseObjectService.findByIds(Arrays.asList(stId, dbId2), RelationshipDirection.OUTGOING, "hasEvent", "referenceEntity");
+        time = System.currentTimeMillis() - start;
+        logger.info("GraphDb execution time: " + time + "ms");
+
+        assertEquals(2, databaseObjectObserved.size());
+        logger.info("Finished");
+    }
+
     @Test
     public void findByDbIdsWithRelationshipDirectionAndRelationshipsTest() {
         logger.info("Started testing advancedDatabaseObjectService.findByDbIdsWithRelationshipDirectionAndRelationshipsTest");
@@ -378,6 +414,77 @@ public class AdvancedServiceTest extends BaseTest {
         assertEquals("Q9Y6D9", customPE.getCustomReference().getIdentifier());
     }
 
+    @Test
+    public void customQueryMappedObjectsTest() throws CustomQueryException {
+        // Classes not implementing CustomQuery are mapped by field injection, final attributes and nested
+        // collections of custom objects included
+        logger.info("Started testing advancedDatabaseObjectService.customQueryMappedObjectsTest");
+
+        String query = "MATCH (pe:Complex{speciesName:$species,stId:$stId})-[:hasComponent|hasMember|hasCandidate|repeatedUnit|referenceEntity*]->(re) " +
+                       "RETURN pe.stId AS stId, pe.displayName AS displayName, COLLECT(re.dbId) as dbIds, COLLECT(re.databaseName) as databaseNames, " +
+                       "COLLECT({database:re.databaseName, identifier:re.identifier}) AS customReferences";
+
+        Map<String, Object> parametersMap = new HashMap<>();
+        parametersMap.put("species", "Homo sapiens");
+        parametersMap.put("stId", "R-HSA-1852614");
+
+        Collection<CustomMappedComplex> complexes = advancedDatabaseObjectService.getCustomQueryResults(CustomMappedComplex.class, query, parametersMap);
+        Collection<CustomQueryComplex> expected = advancedDatabaseObjectService.getCustomQueryResults(CustomQueryComplex.class, query, parametersMap);
+
+        assertNotNull(complexes);
+        assertEquals(1, complexes.size());
+        CustomMappedComplex complex = complexes.iterator().next();
+        CustomQueryComplex expectedComplex = expected.iterator().next();
+        assertEquals("R-HSA-1852614", complex.getStId());
+        assertEquals(expectedComplex.getDisplayName(), complex.getDisplayName());
+        assertEquals(expectedComplex.getDbIds(), complex.getDbIds());
+        assertTrue(complex.getDatabaseNames().size() >= 1);
+        assertEquals(expectedComplex.getCustomReferences().size(), complex.getCustomReferences().size());
+        for (int i = 0; i < complex.getCustomReferences().size(); i++) {
+            CustomMappedReference reference = complex.getCustomReferences().get(i);
+            assertEquals(expectedComplex.getCustomReferences().get(i).getDatabase(), reference.getDatabase());
+            assertEquals(expectedComplex.getCustomReferences().get(i).getIdentifier(), reference.getIdentifier());
+        }
+    }
+
+    @Test
+    public void customQueryConstructorInjectionTest() throws CustomQueryException {
+        // Classes without a no-args constructor are mapped through their constructor when the parameter names
+        // are known (@ConstructorProperties or -parameters). Records are mapped through their canonical constructor
+        // in the same way, but they cannot be declared in these (Java 11) sources.
+        logger.info("Started testing advancedDatabaseObjectService.customQueryConstructorInjectionTest");
+
+        String query = "MATCH (pe:PhysicalEntity{speciesName:$species, stId:$stId})-[:referenceEntity]->(re) " +
+                       "RETURN re.databaseName AS database, re.identifier AS identifier";
+
+        Map<String, Object> parametersMap = new HashMap<>();
+        parametersMap.put("species", "Homo sapiens");
+        parametersMap.put("stId", "R-HSA-141433");
+
+        CustomConstructorReference reference = advancedDatabaseObjectService.getCustomQueryResult(CustomConstructorReference.class, query, parametersMap);
+
+        assertNotNull(reference);
+        assertEquals("UniProt", reference.getDatabase());
+        assertEquals("Q9Y6D9", reference.getIdentifier());
+    }
+
+    @Test
+    public void customQueryDomainObjectTest() {
+        // The domain model relationships are left to the lazy loading, as ReflectionUtils.build has always done
+        logger.info("Started testing advancedDatabaseObjectService.customQueryDomainObjectTest");
+        Map<String, Object> map = Map.of(
+                "stId", "R-HSA-69620",
+                "displayName", "Cell Cycle Checkpoints",
+                "species", List.of(Map.of("dbId", 48887L, "displayName", "Homo sapiens")));
+        Pathway pathway = ReflectionUtils.build(new Pathway(), Values.value(map));
+
+        assertEquals("R-HSA-69620", pathway.getStId());
+        assertEquals("Cell Cycle Checkpoints", pathway.getDisplayName());
+        assertEquals(new Pathway().getSpecies(), pathway.getSpecies());
+        assertTrue(pathway.getHasEvent() == null || pathway.getHasEvent().isEmpty());
+        logger.info("Finished");
+    }
+
     @Test
     public void activeUnitContentTest() {
         logger.info("Started testing advancedDatabaseObjectService.activeUnitContentTest");
@@ -2,6 +2,7 @@ package org.reactome.server.graph.service;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.reactome.server.graph.aop.LazyFetchAspect;
+import org.reactome.server.graph.domain.model.DatabaseObject;
 import org.reactome.server.graph.util.DatabaseObjectFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -10,6 +11,10 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.neo4j.core.Neo4jClient;
 import org.springframework.test.context.event.annotation.AfterTestClass;
 
+import java.util.Collection;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 /**
@@ -58,4 +63,7 @@ public abstract class BaseTest {
         return false;
     }
 
+    protected static Set<Long> dbIds(Collection<? extends DatabaseObject> objects) {
+        return objects.stream().map(DatabaseObject::getDbId).collect(Collectors.toSet());
+    }
 }
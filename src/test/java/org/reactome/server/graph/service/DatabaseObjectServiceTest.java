@@ -2,9 +2,11 @@ package org.reactome.server.graph.service;
 
 import org.junit.jupiter.api.Test;
 import org.reactome.server.graph.domain.model.DatabaseObject;
+import org.reactome.server.graph.index.IdentifierIndex;
 import org.reactome.server.graph.repository.AdvancedDatabaseObjectRepository;
 import org.reactome.server.graph.repository.DatabaseObjectRepository;
 import org.reactome.server.graph.service.helper.RelationshipDirection;
+import org.reactome.server.graph.service.util.DatabaseObjectUtils;
 import org.reactome.server.graph.util.DatabaseObjectFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.event.annotation.BeforeTestClass;
@@ -13,10 +15,12 @@ import java.lang.reflect.InvocationTargetException;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 /**
  * @author Florian Korninger (florian.korninger@ebi.ac.uk)
@@ -42,6 +46,9 @@ public class DatabaseObjectServiceTest extends BaseTest {
     @Autowired
     private DatabaseObjectService databaseObjectService;
 
+    @Autowired
+    private IdentifierIndex identifierIndex;
+
     @BeforeTestClass
     public void setUpClass() {
         logger.info(" --- !!! Running " + DatabaseObjectServiceTest.class.getName() + "!!! --- \n");
@@ -206,4 +213,40 @@ public class DatabaseObjectServiceTest extends BaseTest {
         logger.info("Finished");
 
     }
-}
\ No newline at end of file
+
+    @Test
+    public void identifierIndexTest() {
+
+        logger.info("Started testing databaseObjectService.identifierIndexTest");
+        long start, time;
+        boolean enabled = identifierIndex.isEnabled();
+        identifierIndex.setEnabled(true);
+        try {
+            start = System.currentTimeMillis();
+            assertEquals(dbId, identifierIndex.getDbId(stId)); // The index is built on first use
+            time = System.currentTimeMillis() - start;
+            logger.info("Index build time: " + time + "ms");
+
+            assertEquals(stId, identifierIndex.getStId(dbId));
+            assertEquals("R-HSA-71291", identifierIndex.getNewStId("REACT_13"));
+            assertEquals(stId, DatabaseObjectUtils.getIdentifier(stId + ".3"));
+            assertEquals("R-HSA-71291", DatabaseObjectUtils.getIdentifier("REACT_13"));
+            assertEquals(dbId.toString(), DatabaseObjectUtils.getIdentifier(dbId));
+            assertNull(DatabaseObjectUtils.getIdentifier("R-HSA-0000000"));
+            assertNull(DatabaseObjectUtils.getIdentifier(-1L));
+            assertNull(DatabaseObjectUtils.getIdentifier("REACT_0000000"));
+
+            start = System.currentTimeMillis();
+            assertNull(databaseObjectService.findById("R-HSA-0000000"));
+            time = System.currentTimeMillis() - start;
+            logger.info("Unknown identifier execution time: " + time + "ms");
+
+            Map<Object, String> identifiers = DatabaseObjectUtils.getIdentifiers(Arrays.asList(dbId, stId, "REACT_13", "R-HSA-0000000"));
+            assertEquals(3, identifiers.size());
+            assertEquals("R-HSA-71291", identifiers.get("REACT_13"));
+        } finally {
+            identifierIndex.setEnabled(enabled);
+        }
+        logger.info("Finished");
+    }
+}
@@ -1,16 +1,24 @@
 package org.reactome.server.graph.service;
 
 import org.junit.jupiter.api.Test;
+import org.reactome.server.graph.domain.model.Pathway;
+import org.reactome.server.graph.domain.model.TopLevelPathway;
 import org.reactome.server.graph.service.helper.ContentDetails;
 import org.reactome.server.graph.service.helper.PathwayBrowserNode;
+import org.reactome.server.graph.service.util.ParallelQueryExecutor;
+import org.reactome.server.graph.service.util.PathwayBrowserLocationsUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.event.annotation.BeforeTestClass;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
+import java.util.TreeSet;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
@@ -26,6 +34,12 @@ public class DetailsServiceTest extends BaseTest {
     @Autowired
     private DetailsService detailsService;
 
+    @Autowired
+    private ParallelQueryExecutor parallelQueryExecutor;
+
+    @Autowired
+    private HierarchyService hierarchyService;
+
     @BeforeTestClass
     public void setUpClass() {
         logger.info(" --- !!! Running " + DetailsServiceTest.class.getName() + " !!! --- \n");
@@ -47,6 +61,32 @@ public class DetailsServiceTest extends BaseTest {
         logger.info("Finished");
     }
 
+    @Test
+    public void getContentDetailsInParallelTest() {
+        logger.info("Started testing detailsService.getContentDetails in parallel");
+        boolean enabled = parallelQueryExecutor.isEnabled();
+        parallelQueryExecutor.setEnabled(true);
+        try {
+            long start, time;
+            start = System.currentTimeMillis();
+            ContentDetails contentDetails = detailsService.getContentDetails(stId, false);
+            time = System.currentTimeMillis() - start;
+            logger.info("getContentDetails execution time: " + time + "ms");
+
+            assertTrue(contentDetails.getNodes().size() >= 5);
+            assertEquals("PTEN [cytosol]", contentDetails.getDatabaseObject().getDisplayName());
+            assertTrue(contentDetails.getOtherFormsOfThisMolecule().size() >= 27);
+            assertTrue(contentDetails.getComponentOf().size() >= 1);
+
+            ContentDetails notFound = detailsService.getContentDetails("R-HSA-0000000", false);
+            assertNull(notFound.getDatabaseObject());
+            assertNull(notFound.getNodes());
+        } finally {
+            parallelQueryExecutor.setEnabled(enabled);
+        }
+        logger.info("Finished");
+    }
+
     @Test
     public void getLocationInPathwayBrowserForPathwaysTest() {
         logger.info("Started testing detailsService.getLocationInPathwayBrowserForPathwaysTest");
@@ -60,4 +100,112 @@ public class DetailsServiceTest extends BaseTest {
         assertEquals(2, node.size());
     }
 
-}
\ No newline at end of file
+    @Test
+    public void buildTreesFromLeavesTest() {
+        logger.info("Started testing detailsService.buildTreesFromLeavesTest");
+        long start, time;
+        // Every call returns its own copy of the graph, so the reference trees are built from a graph of their own
+        PathwayBrowserNode reference = hierarchyService.getLocationsInPathwayBrowser("R-ALL-113592", false, true);
+        Set<PathwayBrowserNode> expected = new TreeSet<>();
+        for (PathwayBrowserNode leaf : PathwayBrowserLocationsUtils.removeOrphans(reference.getLeaves())) {
+            leaf.setClickable(true);
+            expected.add(getReferenceTree(leaf, "", "", "", ""));
+        }
+
+        PathwayBrowserNode root = hierarchyService.getLocationsInPathwayBrowser("R-ALL-113592", false, true);
+        Set<PathwayBrowserNode> leaves = PathwayBrowserLocationsUtils.removeOrphans(root.getLeaves());
+
+        start = System.currentTimeMillis();
+        Set<PathwayBrowserNode> trees = PathwayBrowserLocationsUtils.buildTreesFromLeaves(leaves);
+        time = System.currentTimeMillis() - start;
+        logger.info("buildTreesFromLeaves execution time: " + time + "ms");
+        assertTrue(getUrls(expected).size() > 1);
+        assertEquals(getUrls(expected), getUrls(trees));
+
+        boolean enabled = parallelQueryExecutor.isEnabled();
+        parallelQueryExecutor.setEnabled(true);
+        try {
+            start = System.currentTimeMillis();
+            Set<PathwayBrowserNode> parallelTrees = PathwayBrowserLocationsUtils.buildTreesFromLeaves(leaves, parallelQueryExecutor);
+            time = System.currentTimeMillis() - start;
+            logger.info("buildTreesFromLeaves in parallel execution time: " + time + "ms");
+            assertEquals(getUrls(trees), getUrls(parallelTrees));
+        } finally {
+            parallelQueryExecutor.setEnabled(enabled);
+        }
+        logger.info("Finished");
+    }
+
+    private List<String> getUrls(Collection<PathwayBrowserNode> nodes) {
+        List<String> urls = new ArrayList<>();
+        if (nodes == null) return urls;
+        for (PathwayBrowserNode node : nodes) {
+            urls.add(node.getStId() + " " + node.getUrl());
+            urls.addAll(getUrls(node.getChildren()));
+        }
+        return urls;
+    }
+
+    /**
+     * The tree building of PathwayBrowserLocationsUtils before the sub-trees were memoised (the uniqueness of the
+     * pathways is computed on the graph while it is traversed), kept as the reference of the generated URLs
+     */
+    private PathwayBrowserNode getReferenceTree(PathwayBrowserNode leaf, String sel, String path, String shortPath, String lastNodeWithDiagram) {
+        PathwayBrowserNode tree = new PathwayBrowserNode();
+        tree.setStId(leaf.getStId());
+        tree.setName(leaf.getName());
+        tree.setSpecies(leaf.getSpecies());
+        tree.setType(leaf.getType());
+        tree.setClickable(leaf.isClickable());
+        tree.setHighlighted(leaf.getHighlighted());
+
+        boolean isPathway = leaf.getType().equals(Pathway.class.getSimpleName()) || leaf.getType().equals(TopLevelPathway.class.getSimpleName());
+        boolean hasDiagram = leaf.hasDiagram();
+        leaf.setUnique(false);
+
+        String main;
+        if (isPathway) {
+            main = leaf.getStId();
+        } else {
+            sel = leaf.getStId();
+            main = lastNodeWithDiagram;
+        }
+
+        Set<PathwayBrowserNode> children = leaf.getChildren();
+        if (isPathway) {
+            if (children == null) {
+                leaf.setUnique(true);
+            } else if (children.size() == 1 && children.iterator().next().isUnique()) {
+                leaf.setUnique(true);
+            }
+        }
+
+        StringBuilder url = new StringBuilder("/PathwayBrowser/#/");
+        if (leaf.isUnique()) {
+            url.append(leaf.getStId());
+        } else {
+            url.append(main);
+            if (!sel.isEmpty()) url.append("&amp;SEL=").append(sel);
+            String p = isPathway ? path : shortPath;
+            if (!p.isEmpty()) url.append("&amp;PATH=").append(p);
+        }
+        tree.setUrl(url.toString());
+
+        if (isPathway) {
+            if (hasDiagram) {
+                shortPath += shortPath.isEmpty() ? lastNodeWithDiagram : "," + lastNodeWithDiagram;
+            } else {
+                path += path.isEmpty() ? leaf.getStId() : "," + leaf.getStId();
+            }
+        }
+        if (hasDiagram) lastNodeWithDiagram = leaf.getStId();
+
+        Set<PathwayBrowserNode> parents = leaf.getParent();
+        if (parents != null) {
+            for (PathwayBrowserNode node : parents) {
+                tree.addChild(getReferenceTree(node, sel, path, shortPath, lastNodeWithDiagram));
+            }
+        }
+        return tree;
+    }
+}
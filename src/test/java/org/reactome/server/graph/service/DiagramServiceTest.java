@@ -3,10 +3,14 @@ package org.reactome.server.graph.service;
 import org.junit.jupiter.api.Test;
 import org.reactome.server.graph.domain.result.DiagramOccurrences;
 import org.reactome.server.graph.domain.result.DiagramResult;
+import org.reactome.server.graph.index.DiagramOccurrenceIndex;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.event.annotation.BeforeTestClass;
 
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
@@ -16,6 +20,12 @@ public class DiagramServiceTest extends BaseTest {
     @Autowired
     private DiagramService diagramService;
 
+    @Autowired
+    private InteractionsService interactionsService;
+
+    @Autowired
+    private DiagramOccurrenceIndex diagramOccurrenceIndex;
+
     @BeforeTestClass
     public void setUpClass() {
         logger.info(" --- !!! Running " + DiagramServiceTest.class.getName() + " !!! --- \n");
@@ -104,4 +114,44 @@ public class DiagramServiceTest extends BaseTest {
             }
         }
     }
+
+    @Test
+    public void diagramOccurrenceIndexTest() {
+        logger.info("Started testing diagramService.diagramOccurrenceIndexTest");
+        String[] identifiers = {"R-HSA-5690771", "R-HSA-372542", "R-HSA-879382"};
+        Map<String, Collection<DiagramOccurrences>> expected = new HashMap<>();
+        for (String identifier : identifiers) expected.put(identifier, diagramService.getDiagramOccurrences(identifier));
+        Collection<DiagramOccurrences> expectedInteractions = interactionsService.getDiagramOccurrences("Q9BXM7-1");
+
+        boolean enabled = diagramOccurrenceIndex.isEnabled();
+        diagramOccurrenceIndex.setEnabled(true);
+        try {
+            diagramService.getDiagramOccurrences(identifiers[0]); // The index is built on first use
+            for (String identifier : identifiers) {
+                long start = System.currentTimeMillis();
+                Collection<DiagramOccurrences> dos = diagramService.getDiagramOccurrences(identifier);
+                long time = System.currentTimeMillis() - start;
+                logger.info("Index execution time: " + time + "ms");
+                assertSameOccurrences(expected.get(identifier), dos);
+            }
+            assertSameOccurrences(expectedInteractions, interactionsService.getDiagramOccurrences("Q9BXM7-1"));
+            assertTrue(diagramService.getDiagramOccurrences("R-HSA-0000000").isEmpty());
+        } finally {
+            diagramOccurrenceIndex.setEnabled(enabled);
+        }
+        logger.info("Finished");
+    }
+
+    private void assertSameOccurrences(Collection<DiagramOccurrences> expected, Collection<DiagramOccurrences> observed) {
+        assertEquals(expected.size(), observed.size());
+        Map<String, DiagramOccurrences> byDiagram = new HashMap<>();
+        for (DiagramOccurrences o : observed) byDiagram.put(o.getDiagramStId(), o);
+        for (DiagramOccurrences e : expected) {
+            DiagramOccurrences o = byDiagram.get(e.getDiagramStId());
+            assertNotNull(o, e.getDiagramStId() + " is missing");
+            assertEquals(e.isInDiagram(), o.isInDiagram());
+            assertEquals(new HashSet<>(e.getOccurrences()), new HashSet<>(o.getOccurrences()));
+            assertEquals(new HashSet<>(e.getInteractsWith()), new HashSet<>(o.getInteractsWith()));
+        }
+    }
 }
@@ -1,17 +1,33 @@
 package org.reactome.server.graph.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
+import org.reactome.server.graph.domain.result.EventProjection;
+import org.reactome.server.graph.domain.result.EventProjectionWrapper;
+import org.reactome.server.graph.index.EventHierarchyIndex;
+import org.reactome.server.graph.index.IdentifierIndex;
+import org.reactome.server.graph.repository.HierarchyRepository;
 import org.reactome.server.graph.service.helper.PathwayBrowserNode;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.event.annotation.AfterTestClass;
 import org.springframework.test.context.event.annotation.BeforeTestClass;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class HierarchyServiceTest extends BaseTest {
@@ -19,6 +35,18 @@ public class HierarchyServiceTest extends BaseTest {
     @Autowired
     private HierarchyService hierarchyService;
 
+    @Autowired
+    private EventsService eventsService;
+
+    @Autowired
+    private EventHierarchyIndex eventHierarchyIndex;
+
+    @Autowired
+    private IdentifierIndex identifierIndex;
+
+    @Autowired
+    private HierarchyRepository hierarchyRepository;
+
     @BeforeTestClass
     public void setUpClass() {
         logger.info(" --- !!! Running " + HierarchyServiceTest.class.getName() + " !!! --- \n");
@@ -118,4 +146,200 @@ public class HierarchyServiceTest extends BaseTest {
         assertTrue(eventHierarchy.size() > 20);
         logger.info("Finished");
     }
-}
\ No newline at end of file
+
+    @Test
+    public void eventHierarchyIndexTest() {
+        logger.info("Started testing hierarchyService.eventHierarchyIndexTest");
+        long start, time;
+        Collection<PathwayBrowserNode> expected = hierarchyService.getEventHierarchy(9606);
+        Collection<EventProjectionWrapper> expectedAncestors = eventsService.getEventAncestors(169680L);
+
+        boolean enabled = eventHierarchyIndex.isEnabled();
+        eventHierarchyIndex.setEnabled(true);
+        try {
+            eventsService.getEventAncestors(169680L); // The index is built on first use
+            start = System.currentTimeMillis();
+            Collection<PathwayBrowserNode> eventHierarchy = hierarchyService.getEventHierarchy(9606);
+            time = System.currentTimeMillis() - start;
+            logger.info("Index execution time: " + time + "ms");
+            assertEquals(expected.size(), eventHierarchy.size());
+            assertEquals(countNodes(expected), countNodes(eventHierarchy));
+
+            Collection<EventProjectionWrapper> ancestors = eventsService.getEventAncestors(169680L);
+            assertEquals(expectedAncestors.size(), ancestors.size());
+            assertEquals(getPaths(expectedAncestors), getPaths(ancestors));
+            assertEquals(getProjections(expectedAncestors), getProjections(ancestors));
+
+            // The projections are created for every call, so they can be modified by the caller
+            EventProjection first = ancestors.iterator().next().getEvents().iterator().next();
+            EventProjection second = eventsService.getEventAncestors(169680L).iterator().next().getEvents().iterator().next();
+            assertNotSame(first, second);
+            assertEquals(first.getStId(), second.getStId());
+        } finally {
+            eventHierarchyIndex.setEnabled(enabled);
+        }
+        logger.info("Finished");
+    }
+
+    @Test
+    public void indexSnapshotTest() throws IOException {
+        logger.info("Started testing hierarchyService.indexSnapshotTest");
+        long start, time;
+        Path dir = Files.createTempDirectory("snapshots");
+        boolean hierarchyEnabled = eventHierarchyIndex.isEnabled();
+        boolean identifiersEnabled = identifierIndex.isEnabled();
+        String hierarchyDir = eventHierarchyIndex.getSnapshotDir();
+        String identifiersDir = identifierIndex.getSnapshotDir();
+        eventHierarchyIndex.setSnapshotDir(dir.toString());
+        identifierIndex.setSnapshotDir(dir.toString());
+        eventHierarchyIndex.setEnabled(true);
+        identifierIndex.setEnabled(true);
+        try {
+            Collection<PathwayBrowserNode> expected = hierarchyService.getEventHierarchy(9606); // Built and stored
+            Long dbId = identifierIndex.getDbId("R-HSA-69620");
+            assertTrue(Files.exists(dir.resolve("hierarchy.idx")));
+            assertTrue(Files.exists(dir.resolve("identifiers.idx")));
+
+            eventHierarchyIndex.clear();
+            identifierIndex.clear();
+            start = System.currentTimeMillis();
+            Collection<PathwayBrowserNode> eventHierarchy = hierarchyService.getEventHierarchy(9606); // Loaded from the snapshot
+            time = System.currentTimeMillis() - start;
+            logger.info("Snapshot load time: " + time + "ms");
+            assertEquals(countNodes(expected), countNodes(eventHierarchy));
+            assertEquals(dbId, identifierIndex.getDbId("R-HSA-69620"));
+            assertEquals("R-HSA-69620", identifierIndex.getStId(dbId));
+        } finally {
+            eventHierarchyIndex.setEnabled(hierarchyEnabled);
+            identifierIndex.setEnabled(identifiersEnabled);
+            eventHierarchyIndex.setSnapshotDir(hierarchyDir);
+            identifierIndex.setSnapshotDir(identifiersDir);
+            try (var files = Files.list(dir)) {
+                for (Path file : (Iterable<Path>) files::iterator) Files.delete(file);
+            }
+            Files.delete(dir);
+        }
+        logger.info("Finished");
+    }
+
+    @Test
+    public void edgeListHierarchyTest() {
+        logger.info("Started testing hierarchyService.edgeListHierarchyTest");
+        long start, time;
+        PathwayBrowserNode expectedLocations = hierarchyRepository.getLocationsInPathwayBrowser("R-HSA-5205630", true);
+        PathwayBrowserNode expectedInteractor = hierarchyRepository.getLocationsInPathwayBrowserDirectParticipants("R-HSA-5205630", true);
+        PathwayBrowserNode expectedSubHierarchy = hierarchyRepository.getSubHierarchy("R-HSA-109581");
+
+        boolean enabled = hierarchyRepository.isEdgeListEnabled();
+        hierarchyRepository.setEdgeListEnabled(true);
+        try {
+            start = System.currentTimeMillis();
+            PathwayBrowserNode locations = hierarchyRepository.getLocationsInPathwayBrowser("R-HSA-5205630", true);
+            time = System.currentTimeMillis() - start;
+            logger.info("Edge list execution time: " + time + "ms");
+            assertEquals(countNodes(Set.of(expectedLocations)), countNodes(Set.of(locations)));
+            assertEquals(getStructure(expectedLocations), getStructure(locations));
+            assertEquals(getStIds(expectedLocations.getLeaves()), getStIds(locations.getLeaves()));
+
+            PathwayBrowserNode interactor = hierarchyRepository.getLocationsInPathwayBrowserDirectParticipants("R-HSA-5205630", true);
+            assertEquals(countNodes(Set.of(expectedInteractor)), countNodes(Set.of(interactor)));
+            assertEquals(getStructure(expectedInteractor), getStructure(interactor));
+
+            PathwayBrowserNode subHierarchy = hierarchyRepository.getSubHierarchy("R-HSA-109581");
+            assertEquals(countNodes(Set.of(expectedSubHierarchy)), countNodes(Set.of(subHierarchy)));
+            assertEquals(getStructure(expectedSubHierarchy), getStructure(subHierarchy));
+        } finally {
+            hierarchyRepository.setEdgeListEnabled(enabled);
+        }
+        logger.info("Finished");
+    }
+
+    @Test
+    public void writeEventHierarchyTest() throws IOException {
+        logger.info("Started testing hierarchyService.writeEventHierarchyTest");
+        long start, time;
+        ObjectMapper mapper = new ObjectMapper();
+        String expected = mapper.writeValueAsString(hierarchyService.getEventHierarchy(9606));
+        // Compared as text, so the field order and the null values have to match the Jackson serialisation too
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        start = System.currentTimeMillis();
+        hierarchyService.writeEventHierarchy(9606, out); // One top level pathway at a time
+        time = System.currentTimeMillis() - start;
+        logger.info("GraphDb streaming time: " + time + "ms (" + out.size() + " bytes)");
+        assertEquals(expected, out.toString(StandardCharsets.UTF_8));
+
+        out = new ByteArrayOutputStream();
+        hierarchyService.writeEventHierarchy("Homo sapiens", out);
+        assertEquals(expected, out.toString(StandardCharsets.UTF_8));
+
+        out = new ByteArrayOutputStream();
+        hierarchyService.writeEventHierarchy("Unknown species", out);
+        assertEquals("null", out.toString(StandardCharsets.UTF_8));
+
+        boolean enabled = eventHierarchyIndex.isEnabled();
+        eventHierarchyIndex.setEnabled(true);
+        try {
+            hierarchyService.writeEventHierarchy(9606, new ByteArrayOutputStream()); // The index is built on first use
+            out = new ByteArrayOutputStream();
+            start = System.currentTimeMillis();
+            hierarchyService.writeEventHierarchy(9606, out);
+            time = System.currentTimeMillis() - start;
+            logger.info("Index streaming time: " + time + "ms (" + out.size() + " bytes)");
+            assertEquals(expected, out.toString(StandardCharsets.UTF_8));
+
+            out = new ByteArrayOutputStream();
+            hierarchyService.writeEventHierarchy("Homo sapiens", out);
+            assertEquals(expected, out.toString(StandardCharsets.UTF_8));
+        } finally {
+            eventHierarchyIndex.setEnabled(enabled);
+        }
+        logger.info("Finished");
+    }
+
+    private int countNodes(Collection<PathwayBrowserNode> nodes) {
+        if (nodes == null) return 0;
+        int count = nodes.size();
+        for (PathwayBrowserNode node : nodes) count += countNodes(node.getChildren());
+        return count;
+    }
+
+    /**
+     * Depth-first outline of the tree: every node with its level, its parents and its children in their order
+     */
+    private List<String> getStructure(PathwayBrowserNode root) {
+        List<String> rtn = new ArrayList<>();
+        addStructure(root, 0, rtn);
+        return rtn;
+    }
+
+    private void addStructure(PathwayBrowserNode node, int level, List<String> structure) {
+        Collection<PathwayBrowserNode> children = node.getChildren() == null ? Set.of() : node.getChildren();
+        structure.add(level + " " + node.getStId() + " " + node.getType() + " parents=" + getStIds(node.getParent()).stream().sorted().collect(Collectors.toList()) + " children=" + getStIds(children));
+        for (PathwayBrowserNode child : children) addStructure(child, level + 1, structure);
+    }
+
+    private List<String> getStIds(Collection<PathwayBrowserNode> nodes) {
+        if (nodes == null) return List.of();
+        return nodes.stream().map(PathwayBrowserNode::getStId).collect(Collectors.toList());
+    }
+
+    private Map<String, List<Object>> getProjections(Collection<EventProjectionWrapper> ancestors) {
+        Map<String, List<Object>> rtn = new HashMap<>();
+        for (EventProjectionWrapper wrapper : ancestors) {
+            for (EventProjection e : wrapper.getEvents()) {
+                rtn.put(e.getStId(), Arrays.asList(e.getDbId(), e.getDisplayName(), e.getName(), e.getStIdVersion(),
+                        e.getOldStId(), e.getSchemaClass(), e.getDoi(), e.getSpeciesName(), e.getReleaseDate(),
+                        e.getReleaseStatus(), e.getHasDiagram(), e.getHasEHLD(), e.getDiagramHeight(), e.getDiagramWidth(),
+                        e.getInferred(), e.getCategory(), e.getInDisease(), e.getDefinition(), e.getIsCanonical()));
+            }
+        }
+        return rtn;
+    }
+
+    private Set<List<String>> getPaths(Collection<EventProjectionWrapper> ancestors) {
+        return ancestors.stream()
+                .map(wrapper -> wrapper.getEvents().stream().map(EventProjection::getStId).collect(Collectors.toList()))
+                .collect(Collectors.toSet());
+    }
+}
@@ -9,12 +9,10 @@ import org.reactome.server.graph.domain.result.DiagramOccurrences;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.event.annotation.BeforeTestClass;
 
-import java.util.Arrays;
-import java.util.Collection;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -62,6 +60,32 @@ public class InteractionTest extends BaseTest {
         assertTrue(found, "There should be at least one PE pointing to P60484");
     }
 
+    @Test
+    public void getInteractionsForAccessionsTest() {
+        logger.info("Started testing interactionsService.getInteractions for several accessions");
+        List<String> accs = Arrays.asList("P60484", "P04637", "Q9BXM7-1", "NOT_AN_ACCESSION");
+        long start = System.currentTimeMillis();
+        Map<String, List<Interaction>> all = interactionsService.getInteractions(accs);
+        Map<String, List<Interaction>> firstPage = interactionsService.getInteractions(accs, 1, 5);
+        Map<String, List<Interaction>> secondPage = interactionsService.getInteractions(accs, 2, 5);
+        long time = System.currentTimeMillis() - start;
+        logger.info("GraphDb execution time: " + time + "ms");
+
+        assertThat(all).containsOnlyKeys(accs);
+        assertThat(firstPage).containsOnlyKeys(accs);
+        assertTrue(all.get("NOT_AN_ACCESSION").isEmpty(), "There are no interactions for 'NOT_AN_ACCESSION'");
+        for (String acc : accs) {
+            int size = all.get(acc).size();
+            assertEquals(Math.min(size, 5), firstPage.get(acc).size(), "Pagination is applied per accession");
+            assertEquals(Math.max(0, Math.min(size - 5, 5)), secondPage.get(acc).size(), "Pagination is applied per accession");
+            Set<Long> paginated = new HashSet<>();
+            firstPage.get(acc).forEach(i -> paginated.add(i.getDbId()));
+            secondPage.get(acc).forEach(i -> paginated.add(i.getDbId()));
+            assertEquals(firstPage.get(acc).size() + secondPage.get(acc).size(), paginated.size(), "Pages cannot overlap");
+        }
+        logger.info("Finished");
+    }
+
     @Test
     public void getInteractionsForTP53PhysicalEntities() {
         logger.info("Started testing interactionsService.getInteractions");
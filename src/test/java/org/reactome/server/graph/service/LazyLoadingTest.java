@@ -225,4 +225,91 @@ public class LazyLoadingTest extends BaseTest {
         assertThat(candidateSet.getCompartment()).contains(new Compartment(70101L));
     }
 
-}
\ No newline at end of file
+    @Test
+    public void batchLazyLoadingTest() {
+        logger.info("Testing batch Lazy Loading for the events of a Pathway");
+
+        Pathway expected = dbs.findByIdNoRelations("R-HSA-5205647");
+        List<List<PhysicalEntity>> expectedInputs = new ArrayList<>();
+        for (Event event : expected.getHasEvent()) {
+            if (event instanceof ReactionLikeEvent) expectedInputs.add(((ReactionLikeEvent) event).getInput());
+        }
+
+        lazyFetchAspect.setEnableBatchLoading(true);
+        try {
+            Pathway observed = dbs.findByIdNoRelations("R-HSA-5205647");
+            List<List<PhysicalEntity>> observedInputs = new ArrayList<>();
+            for (Event event : observed.getHasEvent()) {
+                if (event instanceof ReactionLikeEvent) observedInputs.add(((ReactionLikeEvent) event).getInput());
+            }
+            assertEquals(expectedInputs.size(), observedInputs.size());
+            for (int i = 0; i < expectedInputs.size(); i++) {
+                assertThat(observedInputs.get(i)).containsExactlyInAnyOrderElementsOf(expectedInputs.get(i));
+            }
+        } finally {
+            lazyFetchAspect.setEnableBatchLoading(false);
+        }
+        logger.info("Finished");
+    }
+
+    @Test
+    public void batchLazyLoadingSingleRelationshipTest() {
+        logger.info("Testing batch Lazy Loading of a single valued relationship for the events of a Pathway");
+
+        Pathway expected = dbs.findByIdNoRelations("R-HSA-5205647");
+        List<GO_BiologicalProcess> expectedProcesses = new ArrayList<>();
+        for (Event event : expected.getHasEvent()) {
+            expectedProcesses.add(event.getGoBiologicalProcess());
+        }
+
+        lazyFetchAspect.setEnableBatchLoading(true);
+        try {
+            Pathway observed = dbs.findByIdNoRelations("R-HSA-5205647");
+            List<GO_BiologicalProcess> observedProcesses = new ArrayList<>();
+            for (Event event : observed.getHasEvent()) {
+                observedProcesses.add(event.getGoBiologicalProcess());
+            }
+            assertEquals(expectedProcesses, observedProcesses);
+        } finally {
+            lazyFetchAspect.setEnableBatchLoading(false);
+        }
+        logger.info("Finished");
+    }
+
+    @Test
+    public void batchLazyLoadingAbsentRelationshipTest() {
+        logger.info("Testing batch Lazy Loading of a relationship most of the siblings do not have");
+
+        Pathway expected = dbs.findByIdNoRelations("R-HSA-5205647");
+        List<ReactionLikeEvent> expectedNormalReactions = new ArrayList<>();
+        for (Event event : expected.getHasEvent()) {
+            if (event instanceof ReactionLikeEvent) expectedNormalReactions.add(((ReactionLikeEvent) event).getNormalReaction());
+        }
+
+        lazyFetchAspect.setEnableBatchLoading(true);
+        try {
+            Pathway observed = dbs.findByIdNoRelations("R-HSA-5205647");
+            List<ReactionLikeEvent> rles = new ArrayList<>();
+            for (Event event : observed.getHasEvent()) {
+                if (event instanceof ReactionLikeEvent) rles.add((ReactionLikeEvent) event);
+            }
+            assertTrue(rles.size() > 1);
+
+            // the first call loads the relationship for every sibling, including the ones without it
+            rles.get(0).getNormalReaction();
+            for (ReactionLikeEvent rle : rles) {
+                assertTrue(lazyFetchAspect.isBatchLoaded(rle, "normalReaction"));
+            }
+
+            List<ReactionLikeEvent> observedNormalReactions = new ArrayList<>();
+            for (ReactionLikeEvent rle : rles) {
+                observedNormalReactions.add(rle.getNormalReaction());
+            }
+            assertEquals(expectedNormalReactions, observedNormalReactions);
+        } finally {
+            lazyFetchAspect.setEnableBatchLoading(false);
+        }
+        logger.info("Finished");
+    }
+
+}
@@ -3,10 +3,23 @@ package org.reactome.server.graph.service;
 import org.junit.jupiter.api.Test;
 import org.reactome.server.graph.domain.model.Pathway;
 import org.reactome.server.graph.domain.model.ReactionLikeEvent;
+import org.reactome.server.graph.index.MappingIndex;
+import org.reactome.server.graph.repository.MappingRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.event.annotation.BeforeTestClass;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -15,6 +28,12 @@ public class MappingServiceTest extends BaseTest {
     @Autowired
     private MappingService mappingService;
 
+    @Autowired
+    private MappingRepository mappingRepository;
+
+    @Autowired
+    private MappingIndex mappingIndex;
+
     @BeforeTestClass
     public void setUpClass() {
         logger.info(" --- !!! Running " + MappingServiceTest.class.getName() + " !!! --- \n");
@@ -101,6 +120,77 @@ public class MappingServiceTest extends BaseTest {
         assertTrue(ps1.size() <= ps2.size());
         logger.info("Finished");
     }
-}
 
+    @Test
+    public void testMappingIndex() throws IOException {
+        logger.info("Started testing mappingService.testMappingIndex");
+        Path file = Files.createTempFile("mapping", ".idx");
+        boolean enabled = mappingIndex.isEnabled();
+        String previous = mappingIndex.getFile();
+        mappingIndex.setFile(file.toString());
+        mappingIndex.setEnabled(true);
+        try {
+            long start = System.currentTimeMillis();
+            mappingIndex.getPathways("UniProt", "P60484", null); // Built and stored in the snapshot
+            long time = System.currentTimeMillis() - start;
+            logger.info("Index build time: " + time + "ms");
+            assertMappings();
+
+            mappingIndex.clear();
+            start = System.currentTimeMillis();
+            mappingIndex.getPathways("UniProt", "P60484", null); // Loaded from the snapshot
+            time = System.currentTimeMillis() - start;
+            logger.info("Snapshot load time: " + time + "ms");
+            assertMappings();
+
+            assertEquals(0, mappingIndex.getPathways("UniProt", "NOT_AN_IDENTIFIER", null).length);
+
+            // A snapshot whose sections do not match its length (number of keys changed) is built again
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.write(ByteBuffer.allocate(4).putInt(0, 1_000_000), 20 + 16);
+            }
+            mappingIndex.clear();
+            assertMappings();
+        } finally {
+            mappingIndex.setEnabled(enabled);
+            mappingIndex.setFile(previous);
+            Files.deleteIfExists(file);
+        }
+        logger.info("Finished");
+    }
+
+    @Test
+    public void testBulkMapping() {
+        logger.info("Started testing mappingService.testBulkMapping");
+        List<String> identifiers = List.of("P60484", "PTEN", "Q9Y6K9", "NOT_AN_IDENTIFIER");
+        long start = System.currentTimeMillis();
+        Map<String, Collection<Pathway>> pathways = mappingService.getPathways("UniProt", identifiers, "9606");
+        Map<String, Collection<ReactionLikeEvent>> rles = mappingService.getReactionsLikeEvent("UniProt", identifiers);
+        long time = System.currentTimeMillis() - start;
+        logger.info("Bulk mapping execution time: " + time + "ms");
+
+        assertEquals(identifiers.size(), pathways.size());
+        assertEquals(identifiers.size(), rles.size());
+        for (String identifier : identifiers) {
+            assertEquals(dbIds(mappingRepository.getPathways("UniProt", identifier, "9606")), dbIds(pathways.get(identifier)));
+            assertEquals(dbIds(mappingRepository.getReactionsLikeEvent("UniProt", identifier)), dbIds(rles.get(identifier)));
+        }
+        assertTrue(pathways.get("NOT_AN_IDENTIFIER").isEmpty());
+        assertTrue(mappingService.getPathways("UniProt", identifiers, "NOT_A_SPECIES").values().stream().allMatch(Collection::isEmpty));
+        logger.info("Finished");
+    }
 
+    private void assertMappings() {
+        String[][] identifiers = {{"UniProt", "P60484"}, {"uniprot", "PTEN"}, {"ChEBI", "15377"}, {"ChEBI", "water"}};
+        for (String[] identifier : identifiers) {
+            assertEquals(dbIds(mappingRepository.getPathways(identifier[0], identifier[1])), dbIds(mappingIndex.getPathways(identifier[0], identifier[1], null)));
+            assertEquals(dbIds(mappingRepository.getPathways(identifier[0], identifier[1], "9606")), dbIds(mappingIndex.getPathways(identifier[0], identifier[1], "9606")));
+            assertEquals(dbIds(mappingRepository.getReactionsLikeEvent(identifier[0], identifier[1])), dbIds(mappingIndex.getReactionsLikeEvent(identifier[0], identifier[1], null)));
+            assertEquals(dbIds(mappingRepository.getReactionsLikeEvent(identifier[0], identifier[1], "9606")), dbIds(mappingIndex.getReactionsLikeEvent(identifier[0], identifier[1], "9606")));
+        }
+    }
+
+    private static Set<Long> dbIds(long[] dbIds) {
+        return Arrays.stream(dbIds).boxed().collect(Collectors.toSet());
+    }
+}
@@ -5,8 +5,12 @@ import org.reactome.server.graph.domain.model.DatabaseObject;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.event.annotation.BeforeTestClass;
 
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.springframework.test.util.AssertionErrors.assertTrue;
 
@@ -32,4 +36,23 @@ public class OrthologyServiceTest extends BaseTest {
         assertTrue("The orthologous of 'R-HSA-6799198' for 'Sus scrofa' is 'R-SSC-6799198'", orthology.iterator().next().getStId().equals("R-SSC-6799198"));
     }
 
+    @Test
+    public void getOrthologiesTest() {
+        logger.info("Started testing orthologyService.getOrthologies");
+        DatabaseObject human = orthologyService.getOrthology("R-SSC-6799198", 48887L).iterator().next();
+        List<Object> identifiers = Arrays.asList("R-HSA-6799198", human.getDbId(), "R-HSA-0000000", "NOT_VALID");
+        long start = System.currentTimeMillis();
+        Map<Object, Collection<DatabaseObject>> orthologies = orthologyService.getOrthologies(identifiers, 49633L);
+        long time = System.currentTimeMillis() - start;
+        logger.info("GraphDb execution time: " + time + "ms");
+
+        assertEquals(3, orthologies.size(), "Invalid identifiers are not expected in the result");
+        for (Object identifier : Arrays.asList("R-HSA-6799198", human.getDbId())) {
+            Collection<DatabaseObject> single = orthologyService.getOrthology(identifier, 49633L);
+            assertEquals(single.size(), orthologies.get(identifier).size(), "The batch result has to be the same as the single one");
+            assertTrue("The orthologous of 'R-HSA-6799198' for 'Sus scrofa' is 'R-SSC-6799198'", orthologies.get(identifier).iterator().next().getStId().equals("R-SSC-6799198"));
+        }
+        assertTrue("No orthologous expected for 'R-HSA-0000000'", orthologies.get("R-HSA-0000000").isEmpty());
+        logger.info("Finished");
+    }
 }
@@ -4,12 +4,18 @@ import org.junit.jupiter.api.Test;
 import org.reactome.server.graph.domain.model.PhysicalEntity;
 import org.reactome.server.graph.domain.model.ReferenceEntity;
 import org.reactome.server.graph.domain.result.Participant;
+import org.reactome.server.graph.index.ParticipantIndex;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.event.annotation.BeforeTestClass;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Collection;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class ParticipantServiceTest extends BaseTest {
 
@@ -18,6 +24,9 @@ public class ParticipantServiceTest extends BaseTest {
     @Autowired
     private ParticipantService participantService;
 
+    @Autowired
+    private ParticipantIndex participantIndex;
+
     @BeforeTestClass
     public void setUpClass() {
         logger.info(" --- !!! Running " + ParticipantServiceTest.class.getName() + " !!! --- \n");
@@ -77,6 +86,76 @@ public class ParticipantServiceTest extends BaseTest {
         assertEquals(22, participants.size());
         logger.info("Finished");
     }
-}
 
+    @Test
+    public void testParticipantIndex() {
+        logger.info("Started testing participantService.testParticipantIndex");
+        Collection<Participant> participants = participantService.getParticipants(stId);
+        Collection<PhysicalEntity> pes = participantService.getParticipatingPhysicalEntities(stId);
+        Collection<ReferenceEntity> res = participantService.getParticipatingReferenceEntities(stId);
+
+        boolean enabled = participantIndex.isEnabled();
+        participantIndex.setEnabled(true);
+        try {
+            participantService.getParticipants("R-HSA-0000000"); // The index is built on first use
+            long start = System.currentTimeMillis();
+            Collection<Participant> indexed = participantIndex.getParticipants(stId);
+            long time = System.currentTimeMillis() - start;
+            logger.info("Index execution time: " + time + "ms");
+
+            assertEquals(participants.size(), indexed.size());
+            assertEquals(participants.stream().map(Participant::getPeDbId).collect(Collectors.toSet()), indexed.stream().map(Participant::getPeDbId).collect(Collectors.toSet()));
+            for (Participant participant : indexed) {
+                Participant expected = participants.stream().filter(p -> p.getPeDbId().equals(participant.getPeDbId())).findFirst().orElseThrow();
+                assertEquals(expected.getRefEntities().size(), participant.getRefEntities().size());
+            }
+            assertEquals(dbIds(pes), dbIds(participantService.getParticipatingPhysicalEntities(stId)));
+            assertEquals(dbIds(res), dbIds(participantService.getParticipatingReferenceEntities(stId)));
+            assertTrue(participantService.getParticipants("R-HSA-0000000").isEmpty());
+        } finally {
+            participantIndex.setEnabled(enabled);
+        }
+        logger.info("Finished");
+    }
 
+    @Test
+    public void testParticipantIndexSnapshot() throws IOException {
+        logger.info("Started testing participantService.testParticipantIndexSnapshot");
+        Path dir = Files.createTempDirectory("snapshots");
+        boolean enabled = participantIndex.isEnabled();
+        String snapshotDir = participantIndex.getSnapshotDir();
+        participantIndex.setSnapshotDir(dir.toString());
+        participantIndex.setEnabled(true);
+        try {
+            Collection<Participant> expected = participantIndex.getParticipants(stId); // Built and stored
+            Collection<Long> pes = participantIndex.getParticipatingPhysicalEntities(stId);
+            Collection<Long> res = participantIndex.getParticipatingReferenceEntities(stId);
+            assertTrue(Files.exists(dir.resolve("participants.idx")));
+
+            participantIndex.clear();
+            long start = System.currentTimeMillis();
+            Collection<Participant> participants = participantIndex.getParticipants(stId); // Loaded from the snapshot
+            long time = System.currentTimeMillis() - start;
+            logger.info("Snapshot load time: " + time + "ms");
+
+            assertEquals(expected.size(), participants.size());
+            assertEquals(expected.stream().map(Participant::getPeDbId).collect(Collectors.toSet()), participants.stream().map(Participant::getPeDbId).collect(Collectors.toSet()));
+            for (Participant participant : participants) {
+                Participant built = expected.stream().filter(p -> p.getPeDbId().equals(participant.getPeDbId())).findFirst().orElseThrow();
+                assertEquals(built.getSchemaClass(), participant.getSchemaClass());
+                assertEquals(built.getDisplayName(), participant.getDisplayName());
+                assertEquals(built.getRefEntities().size(), participant.getRefEntities().size());
+            }
+            assertEquals(pes, participantIndex.getParticipatingPhysicalEntities(stId));
+            assertEquals(res, participantIndex.getParticipatingReferenceEntities(stId));
+        } finally {
+            participantIndex.setEnabled(enabled);
+            participantIndex.setSnapshotDir(snapshotDir);
+            try (var files = Files.list(dir)) {
+                for (Path file : (Iterable<Path>) files::iterator) Files.delete(file);
+            }
+            Files.delete(dir);
+        }
+        logger.info("Finished");
+    }
+}
@@ -0,0 +1,70 @@
+package org.reactome.server.graph.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.reactome.server.graph.domain.model.Pathway;
+import org.reactome.server.graph.metrics.QueryLog;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.event.annotation.BeforeTestClass;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QueryLogTest extends BaseTest {
+
+    @Autowired
+    private QueryLog queryLog;
+
+    @Autowired
+    private SchemaService schemaService;
+
+    @BeforeTestClass
+    public void setUpClass() {
+        logger.info(" --- !!! Running " + QueryLogTest.class.getName() + " !!! --- \n");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        queryLog.setEnabled(false);
+        queryLog.setThreshold(1000);
+        queryLog.setSample(0);
+        queryLog.clear();
+    }
+
+    @Test
+    public void slowestQueriesTest() throws InterruptedException {
+        logger.info("Started testing queryLog.slowestQueriesTest");
+        queryLog.clear();
+        queryLog.setThreshold(0);
+        queryLog.setSample(1);
+        queryLog.setEnabled(true);
+
+        int size = schemaService.getSimpleDatabaseObjectByClass(Pathway.class, 9606).size();
+
+        List<QueryLog.QueryRecord> records = queryLog.getSlowestQueries();
+        assertFalse(records.isEmpty());
+        QueryLog.QueryRecord record = records.stream().filter(r -> r.getRows() == size).findFirst().orElse(null);
+        assertNotNull(record);
+        assertTrue(record.getQuery().contains("MATCH"));
+        for (int i = 1; i < records.size(); i++) {
+            assertTrue(records.get(i - 1).getNanos() >= records.get(i).getNanos());
+        }
+
+        // The profile runs in the background
+        for (int i = 0; i < 50 && record.getDbHits() == null; i++) Thread.sleep(100);
+        assertNotNull(record.getDbHits());
+        assertNotNull(record.getPlan());
+        queryLog.logSlowestQueries();
+        logger.info("Finished");
+    }
+
+    @Test
+    public void disabledQueryLogTest() {
+        logger.info("Started testing queryLog.disabledQueryLogTest");
+        queryLog.clear();
+        schemaService.countEntries(Pathway.class);
+        assertTrue(queryLog.getSlowestQueries().isEmpty());
+        logger.info("Finished");
+    }
+}
@@ -0,0 +1,135 @@
+package org.reactome.server.graph.service;
+
+import org.junit.jupiter.api.Test;
+import org.reactome.server.graph.domain.model.DatabaseObject;
+import org.reactome.server.graph.domain.model.Interaction;
+import org.reactome.server.graph.domain.model.Pathway;
+import org.reactome.server.graph.domain.model.TopLevelPathway;
+import org.reactome.server.graph.service.helper.PathwayBrowserNode;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.event.annotation.BeforeTestClass;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReactiveServicesTest extends BaseTest {
+
+    @Autowired
+    private ReactiveDatabaseObjectService reactiveDatabaseObjectService;
+
+    @Autowired
+    private ReactivePathwaysService reactivePathwaysService;
+
+    @Autowired
+    private ReactiveHierarchyService reactiveHierarchyService;
+
+    @Autowired
+    private ReactiveInteractionsService reactiveInteractionsService;
+
+    @Autowired
+    private ReactiveSchemaService reactiveSchemaService;
+
+    @Autowired
+    private PathwaysService pathwaysService;
+
+    @Autowired
+    private HierarchyService hierarchyService;
+
+    @Autowired
+    private InteractionsService interactionsService;
+
+    @Autowired
+    private SchemaService schemaService;
+
+    @BeforeTestClass
+    public void setUpClass() {
+        logger.info(" --- !!! Running " + ReactiveServicesTest.class.getName() + " !!! --- \n");
+    }
+
+    @Test
+    public void findByIdTest() {
+        logger.info("Started testing reactiveDatabaseObjectService.findById");
+        long start = System.currentTimeMillis();
+        DatabaseObject byStId = reactiveDatabaseObjectService.findById("R-HSA-199420").block();
+        DatabaseObject byDbId = reactiveDatabaseObjectService.findById(199420L).block();
+        long time = System.currentTimeMillis() - start;
+        logger.info("GraphDb execution time: " + time + "ms");
+
+        assertNotNull(byStId);
+        assertNotNull(byDbId);
+        assertEquals(byStId.getDbId(), byDbId.getDbId());
+        assertNull(reactiveDatabaseObjectService.findById("R-HSA-0000000").block());
+
+        Set<Long> dbIds = reactiveDatabaseObjectService.findByIdsNoRelations(Arrays.asList("R-HSA-199420", 199420L, 5205685L))
+                .map(DatabaseObject::getDbId)
+                .collect(Collectors.toSet())
+                .block();
+        assertEquals(Set.of(199420L, 5205685L), dbIds);
+        logger.info("Finished");
+    }
+
+    @Test
+    public void getPathwaysForTest() {
+        logger.info("Started testing reactivePathwaysService.getPathwaysFor");
+        long start = System.currentTimeMillis();
+        List<Pathway> pathways = reactivePathwaysService.getPathwaysFor("R-HSA-199420", 48887L).collectList().block();
+        long time = System.currentTimeMillis() - start;
+        logger.info("GraphDb execution time: " + time + "ms");
+
+        assertNotNull(pathways);
+        assertEquals(stIds(pathwaysService.getPathwaysFor("R-HSA-199420", 48887L)), stIds(pathways));
+        logger.info("Finished");
+    }
+
+    @Test
+    public void getEventHierarchyTest() {
+        logger.info("Started testing reactiveHierarchyService.getEventHierarchy");
+        long start = System.currentTimeMillis();
+        Collection<PathwayBrowserNode> reactive = reactiveHierarchyService.getEventHierarchy(9606).block();
+        long time = System.currentTimeMillis() - start;
+        logger.info("GraphDb execution time: " + time + "ms");
+
+        assertNotNull(reactive);
+        Collection<PathwayBrowserNode> blocking = hierarchyService.getEventHierarchy(9606);
+        assertEquals(blocking.size(), reactive.size());
+        logger.info("Finished");
+    }
+
+    @Test
+    public void getInteractionsTest() {
+        logger.info("Started testing reactiveInteractionsService.getInteractions");
+        List<String> accs = Arrays.asList("P60484", "P04637");
+        long start = System.currentTimeMillis();
+        Map<String, List<Interaction>> reactive = reactiveInteractionsService.getInteractions(accs, 1, 10).block();
+        long time = System.currentTimeMillis() - start;
+        logger.info("GraphDb execution time: " + time + "ms");
+
+        assertNotNull(reactive);
+        Map<String, List<Interaction>> blocking = interactionsService.getInteractions(accs, 1, 10);
+        for (String acc : accs) {
+            assertEquals(blocking.get(acc).size(), reactive.get(acc).size());
+        }
+        assertEquals(interactionsService.getInteractions("P60484").size(), reactiveInteractionsService.getInteractions("P60484").count().block().intValue());
+        logger.info("Finished");
+    }
+
+    @Test
+    public void getByClassTest() {
+        logger.info("Started testing reactiveSchemaService.getByClass");
+        long start = System.currentTimeMillis();
+        List<TopLevelPathway> tlps = reactiveSchemaService.getByClass(TopLevelPathway.class, "Homo sapiens").collectList().block();
+        long time = System.currentTimeMillis() - start;
+        logger.info("GraphDb execution time: " + time + "ms");
+
+        assertNotNull(tlps);
+        assertEquals(schemaService.getByClass(TopLevelPathway.class, "Homo sapiens").size(), tlps.size());
+        assertEquals(schemaService.countEntries(TopLevelPathway.class), reactiveSchemaService.countEntries(TopLevelPathway.class).block());
+        logger.info("Finished");
+    }
+
+    private static Set<String> stIds(Collection<? extends DatabaseObject> databaseObjects) {
+        return databaseObjects.stream().map(DatabaseObject::getStId).collect(Collectors.toSet());
+    }
+}
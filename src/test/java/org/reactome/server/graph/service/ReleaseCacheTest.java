@@ -0,0 +1,90 @@
+package org.reactome.server.graph.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.reactome.server.graph.cache.ReleaseCache;
+import org.reactome.server.graph.cache.ReleaseCacheManager;
+import org.reactome.server.graph.service.helper.PathwayBrowserNode;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.event.annotation.BeforeTestClass;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReleaseCacheTest extends BaseTest {
+
+    @Autowired
+    private ReleaseCacheManager releaseCacheManager;
+
+    @Autowired
+    private HierarchyService hierarchyService;
+
+    @Autowired
+    private GeneralService generalService;
+
+    @BeforeTestClass
+    public void setUpClass() {
+        logger.info(" --- !!! Running " + ReleaseCacheTest.class.getName() + " !!! --- \n");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        releaseCacheManager.setEnabled(false);
+    }
+
+    @Test
+    public void cachedResultTest() {
+        logger.info("Started testing releaseCacheManager.cachedResultTest");
+        releaseCacheManager.setEnabled(true);
+        assertEquals(generalService.getDBInfo().getVersion(), releaseCacheManager.getRelease());
+
+        long start, time;
+        start = System.currentTimeMillis();
+        PathwayBrowserNode first = hierarchyService.getSubHierarchy("R-HSA-109581");
+        time = System.currentTimeMillis() - start;
+        logger.info("GraphDb execution time: " + time + "ms");
+
+        start = System.currentTimeMillis();
+        PathwayBrowserNode second = hierarchyService.getSubHierarchy("R-HSA-109581");
+        time = System.currentTimeMillis() - start;
+        logger.info("Cache execution time: " + time + "ms");
+
+        // hits share the cached result unless the cache is set to copy it
+        assertSame(first, second);
+
+        ReleaseCache cache = (ReleaseCache) releaseCacheManager.getCache("hierarchy");
+        assertTrue(cache.getHits() > 0);
+        logger.info("Finished");
+    }
+
+    @Test
+    public void copiedResultTest() {
+        logger.info("Started testing releaseCacheManager.copiedResultTest");
+        releaseCacheManager.setEnabled(true);
+        boolean copied = releaseCacheManager.isCopied("hierarchy", false);
+        releaseCacheManager.setCopied("hierarchy", true);
+        try {
+            PathwayBrowserNode first = hierarchyService.getSubHierarchy("R-HSA-109581");
+            PathwayBrowserNode second = hierarchyService.getSubHierarchy("R-HSA-109581");
+
+            // every hit gets its own copy, so changing a result does not change the cached one
+            assertNotSame(first, second);
+            assertEquals(first.getStId(), second.getStId());
+            assertEquals(first.getChildren().size(), second.getChildren().size());
+            first.getChildren().clear();
+            PathwayBrowserNode third = hierarchyService.getSubHierarchy("R-HSA-109581");
+            assertEquals(second.getChildren().size(), third.getChildren().size());
+        } finally {
+            releaseCacheManager.setCopied("hierarchy", copied);
+        }
+        logger.info("Finished");
+    }
+
+    @Test
+    public void disabledCacheTest() {
+        logger.info("Started testing releaseCacheManager.disabledCacheTest");
+        PathwayBrowserNode first = hierarchyService.getSubHierarchy("R-HSA-109581");
+        PathwayBrowserNode second = hierarchyService.getSubHierarchy("R-HSA-109581");
+        assertNotSame(first, second);
+        logger.info("Finished");
+    }
+}
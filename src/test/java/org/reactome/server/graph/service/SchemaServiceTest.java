@@ -15,6 +15,7 @@ import java.util.Collection;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -67,6 +68,24 @@ public class SchemaServiceTest extends BaseTest {
         logger.info("Finished");
     }
 
+    @Test
+    public void streamByClassAndSpeciesTest() {
+
+        logger.info("Started testing schemaService.streamByClassAndSpeciesTest");
+        long start, time;
+        start = System.currentTimeMillis();
+        // Small page size to force several pages
+        Set<Long> pathways = schemaService.streamByClass(Pathway.class, 9606, 100).map(Pathway::getDbId).collect(Collectors.toSet());
+        time = System.currentTimeMillis() - start;
+        logger.info("GraphDb execution time: " + time + "ms");
+
+        assertEquals(schemaService.countEntries(Pathway.class, 9606).intValue(), pathways.size());
+
+        // Null page size falls back to the default one
+        assertEquals(pathways.size(), schemaService.streamSimpleDatabaseObjectByClass(Pathway.class, 9606, null).count());
+        logger.info("Finished");
+    }
+
     @Test
     public void getByClassNameTest() throws ClassNotFoundException {
 
@@ -0,0 +1,65 @@
+package org.reactome.server.graph.service;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.reactome.server.graph.domain.model.Pathway;
+import org.reactome.server.graph.metrics.ServiceMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.event.annotation.BeforeTestClass;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ServiceMetricsTest extends BaseTest {
+
+    // No MeterRegistry in the test context, the meters go to the global one through this registry
+    private static final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Autowired
+    private ServiceMetrics serviceMetrics;
+
+    @Autowired
+    private SchemaService schemaService;
+
+    @BeforeTestClass
+    public void setUpClass() {
+        logger.info(" --- !!! Running " + ServiceMetricsTest.class.getName() + " !!! --- \n");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        serviceMetrics.setEnabled(false);
+    }
+
+    @AfterAll
+    public static void removeRegistry() {
+        Metrics.globalRegistry.remove(registry);
+        registry.close();
+    }
+
+    @Test
+    public void serviceTimerTest() throws ClassNotFoundException {
+        logger.info("Started testing serviceMetrics.serviceTimerTest");
+        Metrics.globalRegistry.add(registry);
+        serviceMetrics.setEnabled(true);
+
+        int size = schemaService.getStIdsByClass("TopLevelPathway").size();
+
+        Timer timer = serviceMetrics.getRegistry().find(ServiceMetrics.TIMER).tags("class", "SchemaService", "method", "getStIdsByClass").timer();
+        assertNotNull(timer);
+        assertTrue(timer.count() >= 1);
+        assertEquals(size, serviceMetrics.getRegistry().find(ServiceMetrics.RESULT_SIZE).tags("class", "SchemaService", "method", "getStIdsByClass").summary().max(), 0.1);
+        logger.info("Finished");
+    }
+
+    @Test
+    public void disabledMetricsTest() {
+        logger.info("Started testing serviceMetrics.disabledMetricsTest");
+        schemaService.countEntries(Pathway.class);
+        assertNull(serviceMetrics.getRegistry().find(ServiceMetrics.TIMER).tags("method", "countEntries").timer());
+        logger.info("Finished");
+    }
+}
@@ -2,6 +2,7 @@ package org.reactome.server.graph.service;
 
 import org.junit.jupiter.api.Test;
 import org.reactome.server.graph.domain.model.Species;
+import org.reactome.server.graph.index.SpeciesRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
@@ -13,10 +14,12 @@ import static org.junit.jupiter.api.Assertions.*;
 public class SpeciesServiceTest {
 
     private final SpeciesService speciesService;
+    private final SpeciesRegistry speciesRegistry;
 
     @Autowired
-    public SpeciesServiceTest(SpeciesService speciesService) {
+    public SpeciesServiceTest(SpeciesService speciesService, SpeciesRegistry speciesRegistry) {
         this.speciesService = speciesService;
+        this.speciesRegistry = speciesRegistry;
     }
 
     @Test
@@ -66,4 +69,32 @@ public class SpeciesServiceTest {
         assertEquals(48887L, species.getDbId());
         assertEquals("Homo sapiens", species.getDisplayName());
     }
+
+    @Test
+    public void testSpeciesRegistry(){
+        List<Species> expected = speciesService.getSpecies();
+        List<Species> expectedAll = speciesService.getAllSpecies();
+        boolean enabled = speciesRegistry.isEnabled();
+        speciesRegistry.setEnabled(true);
+        try {
+            List<Species> species = speciesService.getSpecies();
+            assertEquals(expected.size(), species.size());
+            assertEquals("HSA", species.get(0).getAbbreviation());
+            assertEquals(expectedAll.size(), speciesService.getAllSpecies().size());
+
+            assertEquals(48887L, speciesService.getSpecies(9606).getDbId());
+            assertEquals(48887L, speciesService.getSpecies("48887").getDbId());
+            assertEquals("BTA", speciesService.getSpecies("bos_taurus").getAbbreviation());
+            assertEquals("Mus musculus", speciesService.getSpeciesByDbId(48892L).getDisplayName());
+            assertEquals("9606", speciesService.getSpeciesByName("Homo sapiens").getTaxId());
+            assertNull(speciesService.getSpecies("Unknown species"));
+            assertNull(speciesService.getSpecies(""));
+
+            // The registered species are shared, only the lists are new for every call
+            assertSame(speciesService.getSpecies(9606), speciesService.getSpeciesByDbId(48887L));
+            assertNotSame(species, speciesService.getSpecies());
+        } finally {
+            speciesRegistry.setEnabled(enabled);
+        }
+    }
 }
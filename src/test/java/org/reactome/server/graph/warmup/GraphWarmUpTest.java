@@ -0,0 +1,49 @@
+package org.reactome.server.graph.warmup;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.reactome.server.graph.service.BaseTest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.event.annotation.BeforeTestClass;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GraphWarmUpTest extends BaseTest {
+
+    // No MeterRegistry in the test context, the meters go to the global one through this registry
+    private static final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Autowired
+    private GraphWarmUp graphWarmUp;
+
+    @BeforeTestClass
+    public void setUpClass() {
+        logger.info(" --- !!! Running " + GraphWarmUpTest.class.getName() + " !!! --- \n");
+    }
+
+    @AfterAll
+    public static void removeRegistry() {
+        Metrics.globalRegistry.remove(registry);
+        registry.close();
+    }
+
+    @Test
+    public void warmUpTest() {
+        logger.info("Started testing graphWarmUp.warmUpTest");
+        Metrics.globalRegistry.add(registry);
+        long start = System.currentTimeMillis();
+        boolean completed = graphWarmUp.warmUp();
+        long time = System.currentTimeMillis() - start;
+        logger.info("Warm-up execution time: " + time + "ms");
+
+        assertTrue(graphWarmUp.isReady());
+        if (completed) assertEquals(1.0, graphWarmUp.getProgress(), 0.001);
+        assertTrue(graphWarmUp.getProgress() > 0);
+        assertNotNull(registry.find(GraphWarmUp.STEP).tags("phase", "templates").timer());
+        assertNotNull(registry.find(GraphWarmUp.STEP).tags("phase", "services").timer());
+        assertFalse(graphWarmUp.warmUp()); // Only runs once
+        logger.info("Finished");
+    }
+}